@@ -1,7 +1,9 @@
 package com.zinphraek.leprestigehall.config;
 
+import com.zinphraek.leprestigehall.domain.repricing.RepricingEndpoint;
 import com.zinphraek.leprestigehall.domain.user.UserRepository;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -21,6 +23,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import java.util.Collections;
 import java.util.List;
 
+import static com.zinphraek.leprestigehall.domain.constants.Constants.IDEMPOTENT_REPLAY_HEADER;
 import static com.zinphraek.leprestigehall.domain.constants.Paths.*;
 import static org.springframework.http.HttpMethod.GET;
 import static org.springframework.http.HttpMethod.POST;
@@ -75,7 +78,7 @@ public class SecurityConfig {
               config.setAllowedMethods(Collections.singletonList("*"));
               config.setAllowCredentials(true);
               config.setAllowedHeaders(Collections.singletonList("*"));
-              config.setExposedHeaders(List.of("Authorization"));
+              config.setExposedHeaders(List.of("Authorization", IDEMPOTENT_REPLAY_HEADER));
               config.setMaxAge(3600L);
               return config;
             })
@@ -97,6 +100,8 @@ public class SecurityConfig {
                         EventPath + "/**",
                         EventCommentPath + "/**",
                         FAQPath + "/**",
+                        VenuePath + "/**",
+                        ReservationAvailabilityPath,
                         ReviewPath + "/**",
                         LikesDislikesPath + "/**",
                         CommentsLikesDislikesPath + "/**")
@@ -105,6 +110,8 @@ public class SecurityConfig {
                     .hasAnyRole("user", "admin")
                     .requestMatchers(AdminPath)
                     .hasRole("admin")
+                    .requestMatchers(EndpointRequest.to(RepricingEndpoint.class))
+                    .hasRole("admin")
                     .anyRequest()
                     .authenticated())
         .oauth2ResourceServer()
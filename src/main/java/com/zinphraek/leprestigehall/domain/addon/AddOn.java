@@ -35,6 +35,8 @@ public class AddOn {
 
   private boolean isActive;
 
+  private Long venueId;
+
 
   public AddOn() {
   }
@@ -105,18 +107,38 @@ public class AddOn {
     isActive = active;
   }
 
+  /**
+   * @return - The only venue offering this add-on, or null if every venue offers it.
+   */
+  public Long getVenueId() {
+    return venueId;
+  }
+
+  public void setVenueId(Long venueId) {
+    this.venueId = venueId;
+  }
+
+  /**
+   * @param venueId - The venue of a reservation.
+   * @return - True if the add-on can be booked at that venue.
+   */
+  public boolean isOfferedAt(Long venueId) {
+    return this.venueId == null || this.venueId.equals(venueId);
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
     if (!(o instanceof AddOn addOn)) return false;
     return isActive == addOn.isActive && Objects.equals(id, addOn.id) && name.equals(addOn.name)
         && category.equals(addOn.category) && Objects.equals(media, addOn.media)
-        && Objects.equals(description, addOn.description) && price.equals(addOn.price);
+        && Objects.equals(description, addOn.description) && price.equals(addOn.price)
+        && Objects.equals(venueId, addOn.venueId);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(id, name, category, media, description, price, isActive);
+    return Objects.hash(id, name, category, media, description, price, isActive, venueId);
   }
 
   @Override
@@ -129,6 +151,7 @@ public class AddOn {
         ", description='" + description + '\'' +
         ", itemPrice=" + price +
         ", active=" + isActive +
+        ", venueId=" + venueId +
         '}';
   }
 }
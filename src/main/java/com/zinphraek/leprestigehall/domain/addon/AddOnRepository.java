@@ -1,9 +1,12 @@
 package com.zinphraek.leprestigehall.domain.addon;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -12,7 +15,35 @@ public interface AddOnRepository extends JpaRepository<AddOn, Long> {
   @Query("SELECT a FROM AddOn a WHERE a.price>=:minItemPrice")
   Page<AddOn> findAllAndFilter(@Param("minItemPrice") Double minItemPrice, Pageable pageable);
 
-  boolean existsByName(String name);
+  boolean existsByNameAndVenueId(String name, Long venueId);
 
-  Optional<AddOn> findByName(String name);
+  Optional<AddOn> findFirstByNameOrderByIdAsc(String name);
+
+  /**
+   * Find the add-ons with the given names offered at a venue, venue-specific ones first so they
+   * take precedence over the ones offered everywhere.
+   *
+   * @param names   - The names of the add-ons.
+   * @param venueId - The venue.
+   * @return - The matching add-ons.
+   */
+  @Query("SELECT a FROM AddOn a WHERE a.name IN :names AND (a.venueId IS NULL OR a.venueId = :venueId) "
+      + "ORDER BY a.venueId NULLS LAST, a.id")
+  List<AddOn> findByNameInOfferedAt(@Param("names") Collection<String> names, @Param("venueId") Long venueId);
+
+  /**
+   * @return - The current rate card version.
+   */
+  @Query(value = "SELECT version FROM rate_card_version", nativeQuery = true)
+  long findRateCardVersion();
+
+  /**
+   * Bump the rate card version. The row stays locked until the surrounding transaction ends, so
+   * concurrent rate changes are serialized and the new version commits along with the new rates.
+   *
+   * @return - The number of rows updated.
+   */
+  @Modifying
+  @Query(value = "UPDATE rate_card_version SET version = version + 1", nativeQuery = true)
+  int incrementRateCardVersion();
 }
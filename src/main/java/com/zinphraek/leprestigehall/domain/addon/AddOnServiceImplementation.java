@@ -40,14 +40,19 @@ public class AddOnServiceImplementation implements AddOnService {
   @Autowired
   private final BlobStorageService blobStorageService;
 
+  @Autowired
+  private final RateCardRegistry rateCardRegistry;
+
   @Value("${azure.storage.container-name}")
   private String containerName;
 
   public AddOnServiceImplementation(
-      AddOnRepository addOnRepository, MediaService mediaService, BlobStorageService blobStorageService) {
+      AddOnRepository addOnRepository, MediaService mediaService, BlobStorageService blobStorageService,
+      RateCardRegistry rateCardRegistry) {
     this.addOnRepository = addOnRepository;
     this.mediaService = mediaService;
     this.blobStorageService = blobStorageService;
+    this.rateCardRegistry = rateCardRegistry;
   }
 
   private void generatePresignedUrl(AddOn addOn) {
@@ -167,7 +172,7 @@ public class AddOnServiceImplementation implements AddOnService {
   public AddOn getAddOnByName(String name) {
     Optional<AddOn> addOn;
     try {
-      addOn = addOnRepository.findByName(name);
+      addOn = addOnRepository.findFirstByNameOrderByIdAsc(name);
       if (addOn.isPresent()) {
         logger.info(String.format(GET_BY_FIELD_SUCCESS_MESSAGE, "AddOn", "name", name));
         generatePresignedUrl(addOn.get());
@@ -204,7 +209,7 @@ public class AddOnServiceImplementation implements AddOnService {
             String.format(CREATE_CONFLICT_MESSAGE2, "addOn", newAddOn.getId()));
       }
 
-      if (addOnRepository.existsByName(newAddOn.getName())) {
+      if (addOnRepository.existsByNameAndVenueId(newAddOn.getName(), newAddOn.getVenueId())) {
         logger.error(String.format(FIELD_CONFLICT_MESSAGE2, "addOn", "name", newAddOn.getName()));
         throw new ResponseStatusException(
             HttpStatus.CONFLICT,
@@ -220,6 +225,10 @@ public class AddOnServiceImplementation implements AddOnService {
 
       addOnRepository.save(newAddOn);
       logger.info(String.format(CREATE_SUCCESS_MESSAGE, "AddOn"));
+
+      if (RateCard.isRateAddOn(newAddOn)) {
+        rateCardRegistry.recordChange();
+      }
     } catch (ResponseStatusException rse) {
       throw rse;
     } catch (DataAccessException e) {
@@ -254,11 +263,13 @@ public class AddOnServiceImplementation implements AddOnService {
     try {
       if (addOnRepository.existsById(id)) {
         AddOn existingAddOn = getAddOnById(id);
+        boolean wasRateAddOn = RateCard.isRateAddOn(existingAddOn);
         existingAddOn.setName(newAddOn.getName());
         existingAddOn.setCategory(newAddOn.getCategory());
         existingAddOn.setDescription(newAddOn.getDescription());
         existingAddOn.setPrice(newAddOn.getPrice());
         existingAddOn.setActive(newAddOn.isActive());
+        existingAddOn.setVenueId(newAddOn.getVenueId());
 
         AddOnMedia addOnMedia;
         if (mediaFile != null) {
@@ -284,6 +295,10 @@ public class AddOnServiceImplementation implements AddOnService {
 
         addOnRepository.save(existingAddOn);
         logger.info(String.format(UPDATE_SUCCESS_MESSAGE, "AddOn", id));
+
+        if (wasRateAddOn || RateCard.isRateAddOn(existingAddOn)) {
+          rateCardRegistry.recordChange();
+        }
         return existingAddOn;
       }
     } catch (DataAccessException e) {
@@ -313,6 +328,10 @@ public class AddOnServiceImplementation implements AddOnService {
         mediaService.deleteAddOnMediaFile(addOn.get().getMedia());
         addOnRepository.deleteById(id);
         logger.info(String.format(DELETE_SUCCESS_MESSAGE, "AddOn", id));
+
+        if (RateCard.isRateAddOn(addOn.get())) {
+          rateCardRegistry.recordChange();
+        }
       } else {
         logger.error(String.format(DELETE_NOT_FOUND_MESSAGE, "addOn"));
         throw new ResponseStatusException(HttpStatus.NOT_FOUND, String.format(DELETE_NOT_FOUND_MESSAGE, "addOn"));
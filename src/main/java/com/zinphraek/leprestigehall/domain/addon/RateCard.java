@@ -0,0 +1,103 @@
+package com.zinphraek.leprestigehall.domain.addon;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.*;
+
+/**
+ * Immutable snapshot of the facility rates used to price reservations.
+ * <p>
+ * The version is read from a counter stored in the database and bumped in the transaction of every
+ * change to a rate add-on, so it only grows and every instance tags the same rates with it.
+ *
+ * @param version                          - The stored rate card version the rates were read at.
+ * @param seatRate                         - Price per seat.
+ * @param overtimeRate                     - Price per overtime hour.
+ * @param regularFacilityRate              - Facility price from Sunday to Friday.
+ * @param saturdayFacilityRate             - Facility price on Saturdays.
+ * @param cleaningFeesSmallGuestsCountRate - Cleaning fees up to 100 guests.
+ * @param cleaningFeesLargeGuestsCountRate - Cleaning fees above 100 guests.
+ */
+public record RateCard(
+    long version,
+    double seatRate,
+    double overtimeRate,
+    double regularFacilityRate,
+    double saturdayFacilityRate,
+    double cleaningFeesSmallGuestsCountRate,
+    double cleaningFeesLargeGuestsCountRate
+) {
+
+  /**
+   * Names of the add-ons overriding the default rates.
+   */
+  public static final List<String> RATE_ADD_ON_NAMES = List.of(
+      SEAT_RATE_NAME,
+      OVERTIME_HOURLY_RATE_NAME,
+      REGULAR_FACILITY_RATE_NAME,
+      SATURDAY_FACILITY_RATE_NAME,
+      CLEANING_FEES_SMALL_GUESTS_COUNT_NAME,
+      CLEANING_FEES_LARGE_GUESTS_COUNT_NAME);
+
+  /**
+   * Build a rate card from the rate add-ons, falling back to the default rates for missing ones.
+   *
+   * @param version - The stored rate card version, read before the add-ons.
+   * @param addOns  - The rate add-ons currently on file.
+   * @return - The corresponding rate card.
+   */
+  public static RateCard from(long version, Collection<AddOn> addOns) {
+    Map<String, Double> prices = addOns.stream()
+        .collect(Collectors.toMap(AddOn::getName, AddOn::getPrice, (first, second) -> first));
+
+    double[] rates = {
+        orDefault(prices.get(SEAT_RATE_NAME), SEAT_RATE),
+        orDefault(prices.get(OVERTIME_HOURLY_RATE_NAME), OVERTIME_HOURLY_RATE),
+        orDefault(prices.get(REGULAR_FACILITY_RATE_NAME), REGULAR_DAYS_FACILITY_RATE),
+        orDefault(prices.get(SATURDAY_FACILITY_RATE_NAME), SATURDAY_FACILITY_RATE),
+        orDefault(prices.get(CLEANING_FEES_SMALL_GUESTS_COUNT_NAME), CLEANING_FEES_SMALL_GUESTS_COUNT),
+        orDefault(prices.get(CLEANING_FEES_LARGE_GUESTS_COUNT_NAME), CLEANING_FEES_LARGE_GUESTS_COUNT)
+    };
+
+    return new RateCard(version,
+        rates[0], rates[1], rates[2], rates[3], rates[4], rates[5]);
+  }
+
+  /**
+   * Check whether an add-on takes part in the rate card.
+   *
+   * @param addOn - The add-on to check.
+   * @return - True if changing the add-on changes the rate card.
+   */
+  public static boolean isRateAddOn(AddOn addOn) {
+    return addOn != null
+        && (RATE_ADD_ON_NAMES.contains(addOn.getName()) || CATEGORY_FACILITY.equals(addOn.getCategory()));
+  }
+
+  /**
+   * @param startingDateTime - The date and time when the reservation starts.
+   * @return - The facility rate applicable on that day.
+   */
+  public double facilityRateFor(LocalDateTime startingDateTime) {
+    return startingDateTime.getDayOfWeek() == DayOfWeek.SATURDAY ? saturdayFacilityRate : regularFacilityRate;
+  }
+
+  /**
+   * @param numberOfSeats - The number of guests.
+   * @return - The cleaning fees applicable for that guest count.
+   */
+  public double cleaningRateFor(int numberOfSeats) {
+    return numberOfSeats > 0 && numberOfSeats <= 100
+        ? cleaningFeesSmallGuestsCountRate
+        : cleaningFeesLargeGuestsCountRate;
+  }
+
+  private static double orDefault(Double value, Double defaultValue) {
+    return value != null ? value : defaultValue;
+  }
+}
@@ -0,0 +1,113 @@
+package com.zinphraek.leprestigehall.domain.addon;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.DEFAULT_VENUE_ID;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.RATE_CARD_SYNC_INTERVAL_MS;
+
+/**
+ * Holds the current rate card of each venue and swaps them atomically whenever a rate add-on changes.
+ * <p>
+ * A venue's rate card is built from the rate add-ons of that venue, falling back to the ones
+ * offered everywhere, and only once the venue is first priced. Every rate change bumps the version
+ * stored in the database; each instance compares it with the version of its rate cards every
+ * {@code RATE_CARD_SYNC_INTERVAL_MS} and reloads them when another instance changed the rates.
+ */
+@Component
+public class RateCardRegistry {
+
+  private final Logger logger = LogManager.getLogger(RateCardRegistry.class);
+
+  private final Map<Long, RateCard> currentByVenue = new ConcurrentHashMap<>();
+
+  @Autowired
+  private final AddOnRepository addOnRepository;
+
+  public RateCardRegistry(AddOnRepository addOnRepository) {
+    this.addOnRepository = addOnRepository;
+  }
+
+  /**
+   * Build the first snapshot once the database has been seeded.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void warm() {
+    refresh(DEFAULT_VENUE_ID);
+  }
+
+  /**
+   * @param venueId - The venue.
+   * @return - The rate card currently in effect at the venue.
+   */
+  public RateCard current(Long venueId) {
+    RateCard rateCard = currentByVenue.get(venueId);
+    return rateCard != null ? rateCard : refresh(venueId);
+  }
+
+  /**
+   * Rebuild the rate cards of every venue priced so far and publish them.
+   */
+  public void refresh() {
+    currentByVenue.keySet().forEach(this::refresh);
+  }
+
+  /**
+   * Rebuild the rate card of a venue from its rate add-ons and publish it.
+   *
+   * @param venueId - The venue.
+   * @return - The newly published rate card.
+   */
+  public RateCard refresh(Long venueId) {
+    // The version is read first: rates changed in between carry the previous version and are
+    // reloaded on the next synchronization, never the other way around.
+    long version = addOnRepository.findRateCardVersion();
+    RateCard rateCard = RateCard.from(
+        version, addOnRepository.findByNameInOfferedAt(RateCard.RATE_ADD_ON_NAMES, venueId));
+    RateCard previous = currentByVenue.put(venueId, rateCard);
+    if (previous == null || previous.version() != rateCard.version()) {
+      logger.info("Rate card version " + rateCard.version() + " published for venue " + venueId + ".");
+    }
+    return rateCard;
+  }
+
+  /**
+   * Reload the rate cards if the stored version moved past the one they were built at.
+   */
+  @Scheduled(fixedDelay = RATE_CARD_SYNC_INTERVAL_MS, initialDelay = RATE_CARD_SYNC_INTERVAL_MS)
+  public void synchronize() {
+    long version = addOnRepository.findRateCardVersion();
+    if (currentByVenue.values().stream().anyMatch(rateCard -> rateCard.version() != version)) {
+      refresh();
+    }
+  }
+
+  /**
+   * Bump the stored version within the surrounding transaction, so it commits along with the rate
+   * change, and rebuild the rate cards of this instance once it commits, or right away if no
+   * transaction is active.
+   */
+  public void recordChange() {
+    addOnRepository.incrementRateCardVersion();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          refresh();
+        }
+      });
+    } else {
+      refresh();
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package com.zinphraek.leprestigehall.domain.addon;
 
+import static com.zinphraek.leprestigehall.domain.constants.Constants.ID_ALLOCATION_SIZE;
+
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.zinphraek.leprestigehall.domain.reservation.Reservation;
 import jakarta.persistence.Column;
@@ -8,6 +10,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotNull;
 import java.util.Objects;
@@ -16,7 +19,8 @@ import java.util.Objects;
 @Table(name = "requested_add_ons")
 public class RequestedAddOn {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requested_add_ons_seq")
+    @SequenceGenerator(name = "requested_add_ons_seq", sequenceName = "requested_add_ons_seq", allocationSize = ID_ALLOCATION_SIZE)
     @Column(name = "id")
     private Long id;
 
@@ -1,11 +1,23 @@
 package com.zinphraek.leprestigehall.domain.addon;
 
+import com.zinphraek.leprestigehall.domain.reservation.ReservationAddOnSummary;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface RequestedAddOnRepository extends JpaRepository<RequestedAddOn, Long> {
 
   List<RequestedAddOn> findByAddOnId(Long id);
 
   boolean existsByAddOnId(Long Id);
+
+  @Query(
+      "SELECT new com.zinphraek.leprestigehall.domain.reservation.ReservationAddOnSummary("
+          + "ra.reservation.id, ra.id, a.id, a.name, a.category, a.price, ra.quantity) "
+          + "FROM RequestedAddOn ra JOIN ra.addOn a WHERE ra.reservation.id IN :reservationIds "
+          + "ORDER BY ra.id")
+  List<ReservationAddOnSummary> findSummariesByReservationIdIn(
+      @Param("reservationIds") Collection<Long> reservationIds);
 }
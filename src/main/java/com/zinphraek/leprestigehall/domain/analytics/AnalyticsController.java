@@ -0,0 +1,41 @@
+package com.zinphraek.leprestigehall.domain.analytics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.zinphraek.leprestigehall.domain.constants.Paths.ReservationAnalyticsPath;
+
+/**
+ * Analytics endpoint.
+ */
+@RestController
+public class AnalyticsController {
+
+  @Autowired
+  private final AnalyticsServiceImplementation analyticsService;
+
+  public AnalyticsController(AnalyticsServiceImplementation analyticsService) {
+    this.analyticsService = analyticsService;
+  }
+
+  @PreAuthorize("hasRole('admin')")
+  @GetMapping(ReservationAnalyticsPath)
+  public ResponseEntity<List<ReservationAnalyticsRow>> getReservationAnalytics(
+      @RequestParam(defaultValue = "month") String interval,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      @RequestParam(required = false) String eventType,
+      @RequestParam(required = false) String status) {
+    return new ResponseEntity<>(
+        analyticsService.getReservationAnalytics(interval, from, to, eventType, status), HttpStatus.OK);
+  }
+}
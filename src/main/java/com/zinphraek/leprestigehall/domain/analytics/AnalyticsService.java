@@ -0,0 +1,13 @@
+package com.zinphraek.leprestigehall.domain.analytics;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Analytics service interface.
+ */
+public interface AnalyticsService {
+
+  List<ReservationAnalyticsRow> getReservationAnalytics(
+      String interval, LocalDate from, LocalDate to, String eventType, String status);
+}
@@ -0,0 +1,122 @@
+package com.zinphraek.leprestigehall.domain.analytics;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.*;
+import static com.zinphraek.leprestigehall.domain.constants.GenericResponseMessages.*;
+
+/**
+ * Implementing the analytics service class.
+ */
+@Service
+public class AnalyticsServiceImplementation implements AnalyticsService {
+
+  private final Logger logger = LogManager.getLogger(AnalyticsServiceImplementation.class);
+
+  @Autowired
+  private final ReservationRollups reservationRollups;
+
+  public AnalyticsServiceImplementation(ReservationRollups reservationRollups) {
+    this.reservationRollups = reservationRollups;
+  }
+
+  /**
+   * Report reservation figures per period and event type, from the daily rollups.
+   *
+   * @param interval  - The period length: day, week or month.
+   * @param from      - The first day of the range.
+   * @param to        - The last day of the range.
+   * @param eventType - Only report this event type, if provided.
+   * @param status    - Only count reservations in this status, if provided.
+   * @return - One row per period and event type, in chronological order.
+   */
+  @Override
+  public List<ReservationAnalyticsRow> getReservationAnalytics(
+      String interval, LocalDate from, LocalDate to, String eventType, String status) {
+    if (interval == null || !ANALYTICS_INTERVALS.contains(interval)
+        || from == null || to == null || to.isBefore(from)
+        || ChronoUnit.DAYS.between(from, to) >= ANALYTICS_MAX_RANGE_DAYS) {
+      logger.error(String.format(INVALID_ANALYTICS_QUERY_ERROR_MESSAGE, ANALYTICS_MAX_RANGE_DAYS));
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, String.format(INVALID_ANALYTICS_QUERY_ERROR_MESSAGE, ANALYTICS_MAX_RANGE_DAYS));
+    }
+
+    try {
+      List<ReservationRollupTotals> totals = reservationRollups.findTotals(interval, from, to, eventType, status);
+      return foldByPeriodAndEventType(totals);
+    } catch (DataAccessException e) {
+      logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, e);
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    } catch (RuntimeException re) {
+      logger.error(GENERIC_UNEXPECTED_ERROR_LOG_MESSAGE, re);
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    }
+  }
+
+  /**
+   * Merge the per-status totals, sorted by period and event type, into one row per pair.
+   */
+  private List<ReservationAnalyticsRow> foldByPeriodAndEventType(List<ReservationRollupTotals> totals) {
+    List<ReservationAnalyticsRow> rows = new ArrayList<>();
+    int start = 0;
+    while (start < totals.size()) {
+      ReservationRollupTotals first = totals.get(start);
+      int end = start;
+      while (end < totals.size()
+          && Objects.equals(totals.get(end).period(), first.period())
+          && Objects.equals(totals.get(end).eventType(), first.eventType())) {
+        end++;
+      }
+      rows.add(toRow(totals.subList(start, end)));
+      start = end;
+    }
+    return rows;
+  }
+
+  private ReservationAnalyticsRow toRow(List<ReservationRollupTotals> group) {
+    long bookings = 0;
+    long cancellations = 0;
+    long seats = 0;
+    double revenue = 0;
+    double addOnRevenue = 0;
+    Map<String, Long> bookingsByStatus = new LinkedHashMap<>();
+
+    for (ReservationRollupTotals totals : group) {
+      bookingsByStatus.put(totals.status(), totals.bookings());
+      if (STATUS_CANCELLED.equals(totals.status())) {
+        cancellations += totals.bookings();
+      } else {
+        bookings += totals.bookings();
+        seats += totals.seats();
+        revenue += totals.revenue();
+        addOnRevenue += totals.addOnRevenue();
+      }
+    }
+
+    long all = bookings + cancellations;
+    return new ReservationAnalyticsRow(
+        group.get(0).period(),
+        group.get(0).eventType(),
+        bookings,
+        cancellations,
+        all == 0 ? 0 : (double) cancellations / all,
+        seats,
+        revenue,
+        addOnRevenue,
+        bookingsByStatus);
+  }
+}
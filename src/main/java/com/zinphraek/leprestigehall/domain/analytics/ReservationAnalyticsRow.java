@@ -0,0 +1,20 @@
+package com.zinphraek.leprestigehall.domain.analytics;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Reservation figures of one period and event type. Seats and revenue only count reservations that
+ * were not cancelled; the cancellation rate is relative to every reservation of the row.
+ */
+public record ReservationAnalyticsRow(
+    LocalDate period,
+    String eventType,
+    long bookings,
+    long cancellations,
+    double cancellationRate,
+    long seats,
+    double revenue,
+    double addOnRevenue,
+    Map<String, Long> bookingsByStatus) {
+}
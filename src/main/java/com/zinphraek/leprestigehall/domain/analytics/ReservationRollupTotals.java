@@ -0,0 +1,16 @@
+package com.zinphraek.leprestigehall.domain.analytics;
+
+import java.time.LocalDate;
+
+/**
+ * Rolled up reservation figures of one period, event type and status.
+ */
+public record ReservationRollupTotals(
+    LocalDate period,
+    String eventType,
+    String status,
+    long bookings,
+    long seats,
+    double revenue,
+    double addOnRevenue) {
+}
@@ -0,0 +1,215 @@
+package com.zinphraek.leprestigehall.domain.analytics;
+
+import com.zinphraek.leprestigehall.domain.reservation.Reservation;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.ROLLUP_ADVISORY_LOCK_NAMESPACE;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.ROLLUP_REBUILD_CRON;
+
+/**
+ * Daily reservation totals per event type and status, kept in {@code reservation_daily_rollups}.
+ * <p>
+ * Every reservation write applies its delta in the same transaction: the row's previous state is
+ * subtracted and its new state added. Reports then sum at most one row per day, event type and
+ * status, whatever the size of the reservation history. A nightly rebuild recomputes the table
+ * from the reservations, which also absorbs any drift.
+ * <p>
+ * Amounts are stored as exact decimals. Every price is rounded to the cent by the database, the
+ * same way in the deltas and in the rebuild, so the running totals equal a rebuild to the cent.
+ */
+@Component
+public class ReservationRollups {
+
+  private static final String UPSERT_SUFFIX =
+      " ON CONFLICT (day, event_type, status) DO UPDATE SET "
+          + "bookings = r.bookings + EXCLUDED.bookings, seats = r.seats + EXCLUDED.seats, "
+          + "revenue = r.revenue + EXCLUDED.revenue, add_on_revenue = r.add_on_revenue + EXCLUDED.add_on_revenue";
+
+  private static final String INSERT_PREFIX =
+      "INSERT INTO reservation_daily_rollups AS r (day, event_type, status, bookings, seats, revenue, add_on_revenue) ";
+
+  private static final String APPLY_DELTA_QUERY = INSERT_PREFIX
+      + "VALUES (?, ?, ?, ?, ?, ? * " + amount("?") + ", ? * " + amount("?") + ")" + UPSERT_SUFFIX;
+
+  private static final String SHIFT_REVENUE_QUERY = INSERT_PREFIX
+      + "VALUES (?, ?, ?, 0, 0, " + amount("?") + " - " + amount("?") + ", " + amount("?") + " - " + amount("?") + ")"
+      + UPSERT_SUFFIX;
+
+  private static final String MOVE_STATUS_QUERY = INSERT_PREFIX
+      + "SELECT CAST(starting_date_time AS date), COALESCE(event_type, ''), %s, "
+      + "%s COUNT(*), %s SUM(number_of_seats), %s SUM(" + amount("total_price") + "), "
+      + "%s SUM(" + amount("COALESCE(add_ons_total_cost, 0)") + ") "
+      + "FROM reservations WHERE id IN (:ids) AND status IS DISTINCT FROM :status GROUP BY 1, 2, 3"
+      + UPSERT_SUFFIX;
+
+  private static final String REBUILD_QUERY =
+      "INSERT INTO reservation_daily_rollups (day, event_type, status, bookings, seats, revenue, add_on_revenue) "
+          + "SELECT CAST(starting_date_time AS date), COALESCE(event_type, ''), COALESCE(status, ''), "
+          + "COUNT(*), SUM(number_of_seats), SUM(" + amount("total_price") + "), "
+          + "SUM(" + amount("COALESCE(add_ons_total_cost, 0)") + ") "
+          + "FROM reservations GROUP BY 1, 2, 3";
+
+  private final Logger logger = LogManager.getLogger(ReservationRollups.class);
+
+  @Autowired
+  private final JdbcTemplate jdbcTemplate;
+
+  private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+  private final TransactionTemplate transactionTemplate;
+
+  @Autowired
+  public ReservationRollups(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  /**
+   * Count a reservation in its current state.
+   *
+   * @param reservation - The reservation that was just written.
+   */
+  public void add(Reservation reservation) {
+    applyDelta(reservation, 1);
+  }
+
+  /**
+   * Stop counting a reservation in its current state, before it is changed.
+   *
+   * @param reservation - The reservation about to be rewritten.
+   */
+  public void subtract(Reservation reservation) {
+    applyDelta(reservation, -1);
+  }
+
+  /**
+   * Shift the revenue of reservations whose price changed, in one batch. Their bookings and seats
+   * are left as they are.
+   *
+   * @param shifts - The revenue changes, one per repriced reservation.
+   */
+  public void shiftRevenue(Collection<RevenueShift> shifts) {
+    if (shifts.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.batchUpdate(SHIFT_REVENUE_QUERY, shifts.stream()
+        .map(shift -> new Object[]{
+            shift.day(), shift.eventType(), shift.status(),
+            shift.totalPrice(), shift.previousTotalPrice(), shift.addOnsTotalCost(), shift.previousAddOnsTotalCost()})
+        .toList());
+  }
+
+  /**
+   * Move a set of reservations to a new status, before the status itself is updated. Reservations
+   * already in that status are left out.
+   *
+   * @param ids    - The ids of the reservations about to change status.
+   * @param status - Their new status.
+   */
+  public void moveStatus(Collection<Long> ids, String status) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    MapSqlParameterSource params = new MapSqlParameterSource()
+        .addValue("ids", ids)
+        .addValue("status", status);
+    namedJdbcTemplate.update(String.format(MOVE_STATUS_QUERY, "COALESCE(status, '')", "-", "-", "-", "-"), params);
+    namedJdbcTemplate.update(String.format(MOVE_STATUS_QUERY, ":status", "", "", "", ""), params);
+  }
+
+  /**
+   * Recompute every rollup from the reservations. Writers are held off for the duration, and only
+   * one instance rebuilds at a time.
+   */
+  @Scheduled(cron = ROLLUP_REBUILD_CRON)
+  public void rebuild() {
+    transactionTemplate.executeWithoutResult(status -> {
+      if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+          "SELECT pg_try_advisory_xact_lock(?, 0)", Boolean.class, ROLLUP_ADVISORY_LOCK_NAMESPACE))) {
+        logger.info("Reservation rollups are being rebuilt by another instance.");
+        return;
+      }
+      jdbcTemplate.execute("LOCK TABLE reservation_daily_rollups IN EXCLUSIVE MODE");
+      jdbcTemplate.update("DELETE FROM reservation_daily_rollups");
+      int rows = jdbcTemplate.update(REBUILD_QUERY);
+      logger.info("Reservation rollups rebuilt into " + rows + " rows.");
+    });
+  }
+
+  /**
+   * Sum the rollups of a date range into periods.
+   *
+   * @param interval  - The period length: day, week or month.
+   * @param from      - The first day of the range.
+   * @param to        - The last day of the range.
+   * @param eventType - Only count this event type, if provided.
+   * @param status    - Only count this status, if provided.
+   * @return - The totals per period, event type and status, in that order.
+   */
+  public List<ReservationRollupTotals> findTotals(
+      String interval, LocalDate from, LocalDate to, String eventType, String status) {
+    StringBuilder sql = new StringBuilder(
+        "SELECT CAST(date_trunc(?, day) AS date) AS period, event_type, status, SUM(bookings) AS bookings, "
+            + "SUM(seats) AS seats, SUM(revenue) AS revenue, SUM(add_on_revenue) AS add_on_revenue "
+            + "FROM reservation_daily_rollups WHERE day BETWEEN ? AND ?");
+    List<Object> args = new ArrayList<>(List.of(interval, from, to));
+    if (eventType != null) {
+      sql.append(" AND event_type = ?");
+      args.add(eventType);
+    }
+    if (status != null) {
+      sql.append(" AND status = ?");
+      args.add(status);
+    }
+    sql.append(" GROUP BY 1, 2, 3 HAVING SUM(bookings) <> 0 ORDER BY 1, 2, 3");
+
+    return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new ReservationRollupTotals(
+        rs.getObject("period", LocalDate.class),
+        rs.getString("event_type"),
+        rs.getString("status"),
+        rs.getLong("bookings"),
+        rs.getLong("seats"),
+        rs.getDouble("revenue"),
+        rs.getDouble("add_on_revenue")), args.toArray());
+  }
+
+  private void applyDelta(Reservation reservation, int sign) {
+    if (reservation.getStartingDateTime() == null) {
+      return;
+    }
+    jdbcTemplate.update(APPLY_DELTA_QUERY,
+        reservation.getStartingDateTime().toLocalDate(),
+        Objects.toString(reservation.getEventType(), ""),
+        Objects.toString(reservation.getStatus(), ""),
+        sign,
+        sign * (long) reservation.getNumberOfSeats(),
+        sign,
+        reservation.getTotalPrice(),
+        sign,
+        Objects.requireNonNullElse(reservation.getAddOnsTotalCost(), 0D));
+  }
+
+  /**
+   * @param expression - A SQL expression evaluating to an amount in dollars.
+   * @return - The SQL rounding the amount to the cent, as stored in the rollups.
+   */
+  private static String amount(String expression) {
+    return "ROUND(CAST(" + expression + " AS numeric), 2)";
+  }
+}
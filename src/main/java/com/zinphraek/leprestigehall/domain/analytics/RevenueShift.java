@@ -0,0 +1,47 @@
+package com.zinphraek.leprestigehall.domain.analytics;
+
+import com.zinphraek.leprestigehall.domain.reservation.Reservation;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * The change in revenue of a reservation whose price was recomputed. The prices before and after
+ * are kept apart so each is rounded to the cent like the rest of the rollups before they are
+ * subtracted.
+ *
+ * @param day                     - The day the reservation starts on.
+ * @param eventType               - The event type of the reservation.
+ * @param status                  - The status of the reservation.
+ * @param totalPrice              - The new total price.
+ * @param previousTotalPrice      - The total price before it was recomputed.
+ * @param addOnsTotalCost         - The new add-ons total cost.
+ * @param previousAddOnsTotalCost - The add-ons total cost before it was recomputed.
+ */
+public record RevenueShift(
+    LocalDate day,
+    String eventType,
+    String status,
+    double totalPrice,
+    double previousTotalPrice,
+    double addOnsTotalCost,
+    double previousAddOnsTotalCost
+) {
+
+  /**
+   * @param reservation             - The reservation, carrying its new price.
+   * @param previousTotalPrice      - Its total price before it was recomputed.
+   * @param previousAddOnsTotalCost - Its add-ons total cost before it was recomputed.
+   * @return - The change in revenue of the reservation.
+   */
+  public static RevenueShift of(Reservation reservation, double previousTotalPrice, Double previousAddOnsTotalCost) {
+    return new RevenueShift(
+        reservation.getStartingDateTime().toLocalDate(),
+        Objects.toString(reservation.getEventType(), ""),
+        Objects.toString(reservation.getStatus(), ""),
+        reservation.getTotalPrice(),
+        previousTotalPrice,
+        Objects.requireNonNullElse(reservation.getAddOnsTotalCost(), 0D),
+        Objects.requireNonNullElse(previousAddOnsTotalCost, 0D));
+  }
+}
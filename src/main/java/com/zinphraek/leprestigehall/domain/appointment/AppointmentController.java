@@ -1,5 +1,6 @@
 package com.zinphraek.leprestigehall.domain.appointment;
 
+import com.zinphraek.leprestigehall.domain.idempotency.IdempotencyKeys;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
 
+import static com.zinphraek.leprestigehall.domain.constants.Constants.IDEMPOTENCY_KEY_HEADER;
 import static com.zinphraek.leprestigehall.domain.constants.Paths.AppointmentPath;
 import static com.zinphraek.leprestigehall.domain.constants.Paths.UserPath;
 
@@ -21,8 +23,12 @@ public class AppointmentController {
 
   private final AppointmentServiceImplementation appointmentService;
 
-  public AppointmentController(AppointmentServiceImplementation appointmentService) {
+  private final IdempotencyKeys idempotencyKeys;
+
+  public AppointmentController(
+      AppointmentServiceImplementation appointmentService, IdempotencyKeys idempotencyKeys) {
     this.appointmentService = appointmentService;
+    this.idempotencyKeys = idempotencyKeys;
   }
 
   /**
@@ -88,13 +94,15 @@ public class AppointmentController {
    * Endpoint to post new appointments
    *
    * @param newAppointment -The new appointment to post.
+   * @param idempotencyKey -Makes retries of this request return the first response, if provided.
    * @return -The newly posted appointment.
    */
   @PostMapping(AppointmentPath)
   public ResponseEntity<Appointment> createAppointment(
-      @RequestPart("appointment") Appointment newAppointment) {
-    return new ResponseEntity<>(
-        appointmentService.createAppointment(newAppointment), HttpStatus.CREATED);
+      @RequestPart("appointment") Appointment newAppointment,
+      @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+    return idempotencyKeys.execute(idempotencyKey, "POST " + AppointmentPath, newAppointment, Appointment.class,
+        () -> new ResponseEntity<>(appointmentService.createAppointment(newAppointment), HttpStatus.CREATED));
   }
 
   /**
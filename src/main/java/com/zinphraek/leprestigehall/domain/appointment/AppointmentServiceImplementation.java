@@ -17,11 +17,11 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.util.Pair;
 import org.springframework.http.HttpStatus;
-import org.springframework.mail.MailException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
@@ -354,6 +354,7 @@ public class AppointmentServiceImplementation implements AppointmentService {
    * @param principal      - The user's JWT.
    * @return - The newly updated appointment.
    */
+  @Transactional
   @Override
   public Appointment updateAppointment(Long id, Appointment newAppointment, Jwt principal) {
     Optional<Appointment> prevAppointment;
@@ -421,9 +422,6 @@ public class AppointmentServiceImplementation implements AppointmentService {
     } catch (DataAccessException e) {
       logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, e);
       throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
-    } catch (MailException e) {
-      logger.error("Couldn't send confirmation email.");
-      logger.error(e);
     } catch (TwilioException e) {
       logger.error("Couldn't send confirmation SMS.");
       logger.error(e);
@@ -442,6 +440,7 @@ public class AppointmentServiceImplementation implements AppointmentService {
    * @param newAppointment The new appointment
    * @return - The persisted appointment.
    */
+  @Transactional
   @Override
   public Appointment createAppointment(Appointment newAppointment) {
 
@@ -480,9 +479,6 @@ public class AppointmentServiceImplementation implements AppointmentService {
     } catch (DataAccessException e) {
       logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, e);
       throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
-    } catch (MailException e) {
-      logger.error("Couldn't send confirmation email.");
-      logger.error(e);
     } catch (TwilioException e) {
       logger.error("Couldn't send confirmation SMS.");
       logger.error(e);
@@ -526,6 +522,7 @@ public class AppointmentServiceImplementation implements AppointmentService {
    *
    * @param id The id of the appointment to restore.
    */
+  @Transactional
   @Override
   public Appointment restoreAppointment(Long id) {
 
@@ -557,9 +554,6 @@ public class AppointmentServiceImplementation implements AppointmentService {
       throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
     } catch (ResponseStatusException rse) {
       throw rse;
-    } catch (MailException e) {
-      logger.error("Couldn't send confirmation email.");
-      logger.error(e);
     } catch (TwilioException e) {
       logger.error("Couldn't send confirmation SMS.");
       logger.error(e);
@@ -577,6 +571,7 @@ public class AppointmentServiceImplementation implements AppointmentService {
    *
    * @param id The id of the appointment to cancel.
    */
+  @Transactional
   @Override
   public void cancelAppointment(Long id, Jwt principal) {
     Appointment appointment;
@@ -638,9 +633,6 @@ public class AppointmentServiceImplementation implements AppointmentService {
     } catch (DataAccessException e) {
       logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, e);
       throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
-    } catch (MailException e) {
-      logger.error("Couldn't send cancellation email.");
-      logger.error(e);
     } catch (TwilioException e) {
       logger.error("Couldn't send cancellation SMS.");
       logger.error(e);
@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
 public abstract class Comment {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  // One pooled sequence per entity, named after it (e.g. event_comment_seq).
+  @GeneratedValue(strategy = GenerationType.SEQUENCE)
   private Long id;
 
   @NotBlank(message = "Comment content is required")
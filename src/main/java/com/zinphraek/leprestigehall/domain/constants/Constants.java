@@ -3,6 +3,7 @@ package com.zinphraek.leprestigehall.domain.constants;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class Constants {
 
@@ -53,6 +54,98 @@ public class Constants {
   public static final String COMPUTATION_METHOD_AUTO_FLAG = "Auto";
   public static final String COMPUTATION_METHOD_MANUAL_FLAG = "Manual";
 
+  // Pagination
+  public static final int MAX_CURSOR_PAGE_SIZE = 500;
+  public static final int MAX_PAGE_SIZE = 100;
+
+  // Export
+  public static final int EXPORT_FETCH_SIZE = 500;
+
+  // Persistence
+  public static final int ID_ALLOCATION_SIZE = 50;
+  public static final int MAX_INTERNED_RATES_AND_DISCOUNTS = 1024;
+
+  // Email outbox
+  public static final String OUTBOX_STATUS_PENDING = "Pending";
+  public static final String OUTBOX_STATUS_SENDING = "Sending";
+  public static final String OUTBOX_STATUS_SENT = "Sent";
+  public static final String OUTBOX_STATUS_FAILED = "Failed";
+  public static final long OUTBOX_POLL_INTERVAL_MS = 5000L;
+  public static final int OUTBOX_MAX_ATTEMPTS = 8;
+  public static final long OUTBOX_RETRY_BASE_SECONDS = 30L;
+  public static final long OUTBOX_RETRY_MAX_SECONDS = 3600L;
+  public static final long OUTBOX_SENDING_TIMEOUT_SECONDS = 600L;
+  public static final String OUTBOX_IN_FLIGHT_EXPIRED_ERROR =
+      "The dispatcher stopped before recording whether this email was sent.";
+  public static final String OUTBOX_RENDER_ERROR = "Couldn't render template %s: %s";
+
+  // Idempotency
+  public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+  public static final String IDEMPOTENT_REPLAY_HEADER = "Idempotent-Replayed";
+  public static final String IDEMPOTENCY_STATUS_IN_PROGRESS = "InProgress";
+  public static final String IDEMPOTENCY_STATUS_COMPLETED = "Completed";
+  public static final int IDEMPOTENCY_KEY_MAX_LENGTH = 255;
+  public static final int IDEMPOTENCY_CACHE_SIZE = 1024;
+  public static final long IDEMPOTENCY_TTL_HOURS = 24L;
+  public static final long IDEMPOTENCY_LEASE_SECONDS = 300L;
+  public static final long IDEMPOTENCY_WAIT_MS = 30_000L;
+  public static final long IDEMPOTENCY_POLL_MS = 200L;
+  public static final long IDEMPOTENCY_PURGE_INTERVAL_MS = 60 * 60 * 1000L;
+
+  // PDF rendering
+  public static final long PDF_CACHE_MEMORY_BYTES = 32L * 1024 * 1024;
+  public static final long PDF_CACHE_DISK_RETENTION_DAYS = 30L;
+  public static final long PDF_CACHE_PRUNE_INTERVAL_MS = 6 * 60 * 60 * 1000L;
+  public static final int PDF_RENDER_QUEUE_PER_THREAD = 16;
+  public static final long PDF_RENDER_TIMEOUT_MS = 30_000L;
+
+  // Payment ledger
+  public static final String LEDGER_ENTRY_PAYMENT = "Payment";
+  public static final String LEDGER_ENTRY_ADJUSTMENT = "Adjustment";
+  public static final String LEDGER_ENTRY_REPRICING = "Repricing";
+  public static final double LEDGER_CENT_TOLERANCE = 0.005;
+  public static final String LEDGER_VERIFY_CRON = "0 0 4 * * *";
+
+  // Reservation scheduling
+  public static final long RESERVATION_BUFFER_HOURS = 2L;
+  public static final long AVAILABILITY_MAX_RANGE_DAYS = 92L;
+  public static final int MAX_QUOTES_PER_REQUEST = 500;
+  public static final int MAX_SERIES_OCCURRENCES = 100;
+  public static final String RECURRENCE_DAILY = "Daily";
+  public static final String RECURRENCE_WEEKLY = "Weekly";
+  public static final String RECURRENCE_MONTHLY = "Monthly";
+  public static final int BOOKING_LOCK_STRIPES = 64;
+  public static final int BOOKING_ADVISORY_LOCK_NAMESPACE = 0x4C50;
+  public static final int BOOKING_LOCK_VENUE_SLOTS = 1024;
+  public static final long DEFAULT_VENUE_ID = 1L;
+
+  // Reservation holds
+  public static final int HOLD_DEFAULT_MINUTES = 15;
+  public static final int HOLD_MAX_MINUTES = 30;
+  public static final int HOLD_MAX_PER_USER = 3;
+  public static final long HOLD_PURGE_INTERVAL_MS = 60_000L;
+  public static final int HOLD_ADVISORY_LOCK_NAMESPACE = 0x4C53;
+
+  // Status lifecycle
+  public static final long LIFECYCLE_INTERVAL_MS = 15 * 60 * 1000L;
+  public static final int LIFECYCLE_CHUNK_SIZE = 500;
+  public static final long INVOICE_ESCALATION_WINDOW_DAYS = 7L;
+  public static final long INVOICE_OVERDUE_GRACE_HOURS = 48L;
+  public static final int LIFECYCLE_ADVISORY_LOCK_NAMESPACE = 0x4C51;
+
+  // Repricing
+  public static final int REPRICING_DEFAULT_CHUNK_SIZE = 200;
+  public static final int REPRICING_MAX_CHUNK_SIZE = 1000;
+  public static final int REPRICING_WORKERS = 4;
+  public static final int REPRICING_MAX_DIFFS = 500;
+  public static final long RATE_CARD_SYNC_INTERVAL_MS = 10_000L;
+
+  // Analytics
+  public static final Set<String> ANALYTICS_INTERVALS = Set.of("day", "week", "month");
+  public static final long ANALYTICS_MAX_RANGE_DAYS = 3660L;
+  public static final String ROLLUP_REBUILD_CRON = "0 30 3 * * *";
+  public static final int ROLLUP_ADVISORY_LOCK_NAMESPACE = 0x4C52;
+
   // Reservation status
   public static final String STATUS_PENDING = "Pending";
   public static final String STATUS_BOOKED = "Booked";
@@ -39,6 +39,12 @@ public class GenericResponseMessages {
   public static final String MISSING_FIELD_ERROR_MESSAGE = "The %s field is required.";
   public static final String MIN_AND_MAX_ASSIGNMENT_ERROR_MESSAGE = "The minimum %s cannot be greater than the maximum %s.";
   public static final String FIELD_CONFLICT_ERROR_MESSAGE = "That %s is already taken.";
+  public static final String INVALID_CURSOR_ERROR_MESSAGE = "The provided cursor is invalid or has expired.";
+  public static final String INVALID_EXPORT_FORMAT_ERROR_MESSAGE = "Exports are available as csv or ndjson.";
+  public static final String INVALID_IDEMPOTENCY_KEY_ERROR_MESSAGE = "The Idempotency-Key header must hold between 1 and %s characters.";
+  public static final String IDEMPOTENCY_KEY_REUSED_ERROR_MESSAGE = "This Idempotency-Key was already used for a different request.";
+  public static final String IDEMPOTENCY_KEY_IN_PROGRESS_ERROR_MESSAGE = "A request with this Idempotency-Key is still being processed. Please retry later.";
+  public static final String INVALID_SORT_FIELD_ERROR_MESSAGE = "Results cannot be sorted by %s.";
 
   // Generic error messages
   public static final String DATA_ACCESS_EXCEPTION_LOG_MESSAGE = "Data access issue encountered.";
@@ -55,8 +61,21 @@ public class GenericResponseMessages {
   // Reservation and Appointment specific
   public static final String APPOINTMENT_OVERLAP_ERROR_MESSAGE = "The requested date and time is already booked.";
   public static final String UNAVAILABLE_TIME_SLOT_ERROR_MESSAGE = "The chosen interval is already booked.";
+  public static final String HELD_TIME_SLOT_ERROR_MESSAGE = "The chosen interval is on hold for another customer. Please try again in a few minutes.";
+  public static final String INVALID_HOLD_DURATION_ERROR_MESSAGE = "A hold must last between 1 and %s minutes.";
+  public static final String TOO_MANY_HOLDS_ERROR_MESSAGE = "No more than %s dates can be on hold at once.";
   public static final String APPOINTMENT_IN_THE_PAST_ERROR_MESSAGE = "The cannot schedule an appointment in the past.";
   public static final String RESERVATION_END_BEFORE_START_ERROR_MESSAGE = "The %s date and time cannot be before the starting date and time.";
   public static final String RESERVATION_START_IN_THE_PAST_ERROR_MESSAGE = "The starting date and time cannot be in the past.";
+  public static final String INVALID_AVAILABILITY_RANGE_ERROR_MESSAGE = "The availability range must end on or after its start and span at most %s days.";
+  public static final String INVALID_ANALYTICS_QUERY_ERROR_MESSAGE = "Analytics must be grouped by day, week or month over a range ending on or after its start and spanning at most %s days.";
+  public static final String INVALID_QUOTE_BATCH_SIZE_ERROR_MESSAGE = "Between 1 and %s quotes can be requested at once.";
+  public static final String INVALID_RECURRENCE_ERROR_MESSAGE = "The recurrence must repeat daily, weekly or monthly at a positive interval, stop after a count or on a date, and yield between 1 and %s occurrences.";
   public static final String RESERVATION_WITH_NON_EXISTENT_ADD_ON_ERROR_MESSAGE = "The reservation cannot be created because the add-on with id: %s does not exist in the database.";
+  public static final String RESERVATION_WITH_NON_EXISTENT_VENUE_ERROR_MESSAGE = "The reservation cannot be made because the venue with id: %s does not exist or is closed.";
+  public static final String VENUE_CAPACITY_EXCEEDED_ERROR_MESSAGE = "The venue can seat at most %s guests.";
+  public static final String ADD_ON_NOT_OFFERED_AT_VENUE_ERROR_MESSAGE = "The add-on with id: %s is not offered at this venue.";
+
+  // Invoice specific
+  public static final String LEDGER_TOTALS_UPDATE_ERROR_MESSAGE = "The total amount paid and the amount due of an invoice are maintained by its payments and cannot be updated.";
 }
@@ -12,8 +12,17 @@ public class Paths {
       EventPath + "/{eventId}/comments/{commentId}/likes";
   public static final String KeycloakUrl = "http://localhost:8080";
   public static final String ReservationPath = "/reservations";
+  public static final String ReservationAvailabilityPath = ReservationPath + "/availability";
+  public static final String ReservationQuotesPath = ReservationPath + "/quotes";
+  public static final String ReservationSeriesPath = ReservationPath + "/series";
+  public static final String ReservationHoldPath = ReservationPath + "/holds";
+  public static final String ReservationExportPath = ReservationPath + "/export";
   public static final String InvoicePath = "/invoices";
+  public static final String InvoiceExportPath = InvoicePath + "/export";
+  public static final String ReceiptExportPath = AdminPath + "/receipts/export";
+  public static final String ReservationAnalyticsPath = AdminPath + "/analytics/reservations";
   public static final String ReviewPath = "/reviews";
   public static final String UserPath = "/users";
   public static final String FAQPath = "/faqs";
+  public static final String VenuePath = "/venues";
 }
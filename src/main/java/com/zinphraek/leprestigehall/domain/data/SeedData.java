@@ -67,7 +67,7 @@ public class SeedData implements CommandLineRunner {
     logger.info("Loading facility utilities rates...");
     // Filtering out all existing facility fees and saving the rest.
     facilityFees.parallelStream()
-        .filter(addOn -> !addOnRepository.existsByName(addOn.getName()))
+        .filter(addOn -> !addOnRepository.existsByNameAndVenueId(addOn.getName(), addOn.getVenueId()))
         .forEach(addOnRepository::save);
     logger.info("Facility utilities fees successfully loaded.");
 
@@ -51,6 +51,7 @@ public class ReservationFactory {
     reservation.setAddOnsTotalCost(utilities.generateRandomDoubleWithin(1D, 100D));
     reservation.setStatus(STATUS_BOOKED);
     reservation.setTaxRate(.7);
+    reservation.setTotalPrice(utilities.generateRandomDoubleWithin(100D, 5000D));
     reservation.setUserId(utilities.generateRandomStringWithDefinedLength(16));
     reservation.setPriceComputationMethod("Auto");
     return reservation;
@@ -0,0 +1,134 @@
+package com.zinphraek.leprestigehall.domain.email;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.*;
+
+/**
+ * Drains the email outbox, one email at a time.
+ * <p>
+ * Each email is claimed with {@code FOR UPDATE SKIP LOCKED} and marked in flight in a short
+ * transaction committed right before it is handed to the mail server, so a dispatcher that stops
+ * leaves at most the email it was delivering in flight, and the others pending. The outcome is then
+ * recorded in its own short transaction. An email is therefore sent at most once: if its outcome
+ * cannot be recorded, it stays in flight and is given up on once {@code
+ * OUTBOX_SENDING_TIMEOUT_SECONDS} have passed, rather than sent again. A failed delivery is retried
+ * with an exponential backoff and given up on after {@code OUTBOX_MAX_ATTEMPTS}; the row is kept
+ * with its last error for inspection.
+ */
+@Component
+public class EmailOutboxDispatcher {
+
+  private final Logger logger = LogManager.getLogger(EmailOutboxDispatcher.class);
+
+  @Autowired
+  private final OutboxEmailRepository outboxEmailRepository;
+
+  @Autowired
+  private final EmailServiceImplementation emailService;
+
+  private final TransactionTemplate transactionTemplate;
+
+  @Autowired
+  public EmailOutboxDispatcher(
+      OutboxEmailRepository outboxEmailRepository,
+      EmailServiceImplementation emailService,
+      PlatformTransactionManager transactionManager) {
+    this.outboxEmailRepository = outboxEmailRepository;
+    this.emailService = emailService;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  /**
+   * Give up on the emails left in flight, then send every due email.
+   */
+  @Scheduled(fixedDelay = OUTBOX_POLL_INTERVAL_MS)
+  public void dispatch() {
+    Integer expired = transactionTemplate.execute(status -> outboxEmailRepository.expireInFlight(
+        OUTBOX_STATUS_SENDING, OUTBOX_STATUS_FAILED, LocalDateTime.now(), OUTBOX_IN_FLIGHT_EXPIRED_ERROR));
+    if (expired != null && expired > 0) {
+      logger.error("Gave up on " + expired + " emails left in flight; they may or may not have been sent.");
+    }
+
+    boolean dispatched;
+    do {
+      dispatched = dispatchNext();
+    } while (dispatched);
+  }
+
+  /**
+   * Claim and send the oldest due email, recording its outcome.
+   *
+   * @return - Whether an email was due.
+   */
+  boolean dispatchNext() {
+    LocalDateTime now = LocalDateTime.now();
+    OutboxEmail email = transactionTemplate.execute(status -> claimNext(now));
+    if (email == null) {
+      return false;
+    }
+
+    send(email, now);
+    return true;
+  }
+
+  /**
+   * Lock the oldest due email and mark it in flight until the sending deadline.
+   */
+  private OutboxEmail claimNext(LocalDateTime now) {
+    return outboxEmailRepository.claimNext(OUTBOX_STATUS_PENDING, now)
+        .map(email -> {
+          email.setAttempts(email.getAttempts() + 1);
+          email.setStatus(OUTBOX_STATUS_SENDING);
+          email.setNextAttemptAt(now.plusSeconds(OUTBOX_SENDING_TIMEOUT_SECONDS));
+          outboxEmailRepository.save(email);
+          return email;
+        })
+        .orElse(null);
+  }
+
+  /**
+   * Send a claimed email and record the outcome in its own transaction.
+   */
+  private void send(OutboxEmail email, LocalDateTime now) {
+    try {
+      emailService.deliver(email);
+      email.setStatus(OUTBOX_STATUS_SENT);
+      email.setSentAt(LocalDateTime.now());
+      email.setLastError(null);
+    } catch (Exception e) {
+      scheduleRetry(email, now, e);
+    }
+
+    try {
+      transactionTemplate.executeWithoutResult(status -> outboxEmailRepository.save(email));
+    } catch (RuntimeException e) {
+      logger.error("Couldn't record the outcome of email " + email.getId() + "; it stays in flight.", e);
+    }
+  }
+
+  private void scheduleRetry(OutboxEmail email, LocalDateTime now, Exception e) {
+    String error = String.valueOf(e.getMessage());
+    email.setLastError(error.length() > 2000 ? error.substring(0, 2000) : error);
+
+    if (email.getAttempts() >= OUTBOX_MAX_ATTEMPTS) {
+      email.setStatus(OUTBOX_STATUS_FAILED);
+      logger.error("Giving up on email " + email.getId() + " after " + email.getAttempts() + " attempts.", e);
+      return;
+    }
+
+    long delaySeconds = Math.min(
+        OUTBOX_RETRY_BASE_SECONDS << Math.min(email.getAttempts() - 1, 20), OUTBOX_RETRY_MAX_SECONDS);
+    email.setStatus(OUTBOX_STATUS_PENDING);
+    email.setNextAttemptAt(now.plusSeconds(delaySeconds));
+    logger.error("Couldn't send email " + email.getId() + ", retrying in " + delaySeconds + " seconds.", e);
+  }
+}
@@ -1,7 +1,11 @@
 package com.zinphraek.leprestigehall.domain.email;
 
+import java.util.List;
+
 
 public interface EmailService {
 
   void sendEmail(Mail mail);
+
+  void sendEmails(List<Mail> mails);
 }
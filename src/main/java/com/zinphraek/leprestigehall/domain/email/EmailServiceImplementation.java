@@ -1,17 +1,22 @@
 package com.zinphraek.leprestigehall.domain.email;
 
-import com.itextpdf.html2pdf.HtmlConverter;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.OUTBOX_RENDER_ERROR;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.OUTBOX_STATUS_FAILED;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.OUTBOX_STATUS_PENDING;
+
+import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
-import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring5.SpringTemplateEngine;
 
@@ -20,68 +25,125 @@ public class EmailServiceImplementation implements EmailService {
 
   @Autowired private JavaMailSender emailSender;
   @Autowired private SpringTemplateEngine templateEngine;
+  @Autowired private OutboxEmailRepository outboxEmailRepository;
+  @Autowired private PdfRenderCache pdfRenderCache;
   private final Logger logger = LogManager.getLogger(EmailServiceImplementation.class);
 
   /**
-   * Sends an email using the JavaMailSender and SpringTemplateEngine
+   * Queues an email in the outbox, within the caller's transaction if there is one. The body and
+   * attachments are rendered right away; the PDF conversion and the delivery happen later. A mail
+   * that cannot be rendered is queued as failed, with the rendering error, so a broken template
+   * never rolls back the change it notifies about and the lost notification stays visible.
    *
    * @param mail The mail object to be sent
    */
-  @Async
+  @Transactional
   @Override
   public void sendEmail(Mail mail) {
+    outboxEmailRepository.save(render(mail));
+    logger.info("Email to " + mail.getTo() + " queued for delivery.");
+  }
+
+  /**
+   * Queues a batch of emails in the outbox, within the caller's transaction if there is one. Emails
+   * that cannot be rendered are queued as failed, with the rendering error.
+   *
+   * @param mails The mails to be sent
+   */
+  @Transactional
+  @Override
+  public void sendEmails(List<Mail> mails) {
+    outboxEmailRepository.saveAll(mails.stream().map(this::render).toList());
+    logger.info(mails.size() + " emails queued for delivery.");
+  }
+
+  /**
+   * Sends a queued email using the JavaMailSender, converting its attachments to pdf unless the
+   * same documents were converted before.
+   *
+   * @param email The queued email to be sent
+   * @throws MessagingException If the message could not be built.
+   */
+  public void deliver(OutboxEmail email) throws MessagingException {
+    MimeMessage message = emailSender.createMimeMessage();
+    MimeMessageHelper helper = new MimeMessageHelper(message, true, StandardCharsets.UTF_8.name());
+
+    helper.setTo(email.getRecipient());
+    helper.setText(email.getBody(), true);
+    helper.setSubject(email.getSubject());
+    helper.setFrom(email.getSender());
+
+    for (OutboxAttachment attachment : email.getAttachments()) {
+      byte[] pdf = pdfRenderCache.render(attachment.getTemplate(), attachment.getHtml()).content();
+      helper.addAttachment(attachment.getName(), new ByteArrayResource(pdf));
+    }
+    emailSender.send(message);
+    logger.info("Email " + email.getId() + " sent successfully.");
+  }
+
+  /**
+   * Render a mail into an outbox entry, before anything is written, so a rendering failure leaves
+   * the caller's transaction untouched.
+   *
+   * @param mail The mail to render
+   * @return A pending outbox entry, or a failed one holding the rendering error if the mail
+   *     couldn't be rendered.
+   */
+  private OutboxEmail render(Mail mail) {
     try {
-      MimeMessage message = emailSender.createMimeMessage();
-      MimeMessageHelper helper =
-          new MimeMessageHelper(message, true, StandardCharsets.UTF_8.name());
-
-      Context context = new Context();
-      context.setVariables(mail.getVariables());
-
-      String html = templateEngine.process(mail.getEmailTemplate(), context);
-      helper.setTo(mail.getTo());
-      helper.setText(html, true);
-      helper.setSubject(mail.getSubject());
-      helper.setFrom(mail.getFrom());
-
-      if (!mail.getAttachments().isEmpty()) {
-        mail.getAttachments().parallelStream()
-            .forEach(
-                attachment -> {
-                  try {
-                    helper.addAttachment(
-                        attachment.getName(),
-                        new ByteArrayResource(convertAttachmentToPdf(attachment).toByteArray()));
-                  } catch (Exception e) {
-                    logger.error("An error occurred when adding the attachment.");
-                    logger.error(e);
-                  }
-                });
-      }
-      emailSender.send(message);
-      logger.info("Email sent successfully.");
-    } catch (Exception e) {
-      logger.error("An error occurred when sending the email.");
-      logger.error(e);
+      return toOutboxEmail(mail);
+    } catch (RuntimeException e) {
+      logger.error("Couldn't render email to " + mail.getTo() + "; it is queued as failed.", e);
+      return unrendered(mail, e);
     }
   }
 
   /**
-   * Convert an attachment to a pdf file.
+   * Record a mail that couldn't be rendered, with its template and the error, so the notification
+   * it carried can be found and followed up on instead of disappearing.
    *
-   * @param attachment The attachment to convert into pdf
-   * @return A stream array of byte.
+   * @param mail The mail that couldn't be rendered
+   * @param e The rendering error
+   * @return A failed outbox entry, without body or attachments.
    */
-  private ByteArrayOutputStream convertAttachmentToPdf(Attachment attachment) {
-    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+  private OutboxEmail unrendered(Mail mail, RuntimeException e) {
+    String error = String.format(OUTBOX_RENDER_ERROR, mail.getEmailTemplate(), e.getMessage());
 
-    Context pdfContext = new Context();
+    OutboxEmail email = new OutboxEmail();
+    email.setSender(mail.getFrom());
+    email.setRecipient(mail.getTo());
+    email.setSubject(mail.getSubject());
+    email.setStatus(OUTBOX_STATUS_FAILED);
+    email.setCreatedAt(LocalDateTime.now());
+    email.setLastError(error.length() > 2000 ? error.substring(0, 2000) : error);
+    return email;
+  }
+
+  /**
+   * Render a mail and its attachments into an outbox entry.
+   *
+   * @param mail The mail to render
+   * @return A pending outbox entry, due immediately.
+   */
+  private OutboxEmail toOutboxEmail(Mail mail) {
+    Context context = new Context();
+    context.setVariables(mail.getVariables());
 
-    pdfContext.setVariables(attachment.getVariables());
-    String html = templateEngine.process(attachment.getTemplate(), pdfContext);
+    OutboxEmail email = new OutboxEmail();
+    email.setSender(mail.getFrom());
+    email.setRecipient(mail.getTo());
+    email.setSubject(mail.getSubject());
+    email.setBody(templateEngine.process(mail.getEmailTemplate(), context));
 
-    HtmlConverter.convertToPdf(html, outputStream);
+    for (Attachment attachment : mail.getAttachments()) {
+      email.addAttachment(new OutboxAttachment(
+          attachment.getName(), attachment.getTemplate(), pdfRenderCache.renderHtml(attachment)));
+    }
 
-    return outputStream;
+    LocalDateTime now = LocalDateTime.now();
+    email.setStatus(OUTBOX_STATUS_PENDING);
+    email.setCreatedAt(now);
+    email.setNextAttemptAt(now);
+    return email;
   }
 }
@@ -0,0 +1,50 @@
+package com.zinphraek.leprestigehall.domain.email;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * An attachment of a queued email, kept as rendered HTML until it is converted to PDF on delivery.
+ */
+@Embeddable
+public class OutboxAttachment {
+
+  private String name;
+
+  private String template;
+
+  @Column(columnDefinition = "text")
+  private String html;
+
+  public OutboxAttachment() {}
+
+  public OutboxAttachment(String name, String template, String html) {
+    this.name = name;
+    this.template = template;
+    this.html = html;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public String getTemplate() {
+    return template;
+  }
+
+  public void setTemplate(String template) {
+    this.template = template;
+  }
+
+  public String getHtml() {
+    return html;
+  }
+
+  public void setHtml(String html) {
+    this.html = html;
+  }
+}
@@ -0,0 +1,164 @@
+package com.zinphraek.leprestigehall.domain.email;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.ID_ALLOCATION_SIZE;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.OUTBOX_STATUS_PENDING;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OrderColumn;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An email written in the same transaction as the business change it notifies about, and delivered
+ * later by the {@link EmailOutboxDispatcher}.
+ */
+@Entity
+@Table(name = "email_outbox")
+public class OutboxEmail {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_outbox_seq")
+  @SequenceGenerator(name = "email_outbox_seq", sequenceName = "email_outbox_seq", allocationSize = ID_ALLOCATION_SIZE)
+  @Column(name = "id")
+  private Long id;
+
+  private String sender;
+
+  private String recipient;
+
+  private String subject;
+
+  @Column(columnDefinition = "text")
+  private String body;
+
+  @ElementCollection(fetch = FetchType.EAGER)
+  @CollectionTable(name = "email_outbox_attachments", joinColumns = @JoinColumn(name = "email_outbox_id"))
+  @OrderColumn(name = "position")
+  private List<OutboxAttachment> attachments = new ArrayList<>();
+
+  private String status = OUTBOX_STATUS_PENDING;
+
+  private int attempts;
+
+  private LocalDateTime nextAttemptAt;
+
+  private LocalDateTime createdAt;
+
+  private LocalDateTime sentAt;
+
+  @Column(length = 2000)
+  private String lastError;
+
+  public OutboxEmail() {}
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getSender() {
+    return sender;
+  }
+
+  public void setSender(String sender) {
+    this.sender = sender;
+  }
+
+  public String getRecipient() {
+    return recipient;
+  }
+
+  public void setRecipient(String recipient) {
+    this.recipient = recipient;
+  }
+
+  public String getSubject() {
+    return subject;
+  }
+
+  public void setSubject(String subject) {
+    this.subject = subject;
+  }
+
+  public String getBody() {
+    return body;
+  }
+
+  public void setBody(String body) {
+    this.body = body;
+  }
+
+  public List<OutboxAttachment> getAttachments() {
+    return attachments;
+  }
+
+  public void setAttachments(List<OutboxAttachment> attachments) {
+    this.attachments = attachments;
+  }
+
+  public void addAttachment(OutboxAttachment attachment) {
+    this.attachments.add(attachment);
+  }
+
+  public String getStatus() {
+    return status;
+  }
+
+  public void setStatus(String status) {
+    this.status = status;
+  }
+
+  public int getAttempts() {
+    return attempts;
+  }
+
+  public void setAttempts(int attempts) {
+    this.attempts = attempts;
+  }
+
+  public LocalDateTime getNextAttemptAt() {
+    return nextAttemptAt;
+  }
+
+  public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+    this.nextAttemptAt = nextAttemptAt;
+  }
+
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(LocalDateTime createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  public LocalDateTime getSentAt() {
+    return sentAt;
+  }
+
+  public void setSentAt(LocalDateTime sentAt) {
+    this.sentAt = sentAt;
+  }
+
+  public String getLastError() {
+    return lastError;
+  }
+
+  public void setLastError(String lastError) {
+    this.lastError = lastError;
+  }
+}
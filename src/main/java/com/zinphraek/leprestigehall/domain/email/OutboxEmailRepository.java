@@ -0,0 +1,43 @@
+package com.zinphraek.leprestigehall.domain.email;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+
+  /**
+   * Lock the oldest due email. Rows already locked by another dispatcher are skipped, so replicas
+   * drain disjoint emails and an email is never handed to two of them at once.
+   */
+  @Query(
+      value = "SELECT * FROM email_outbox WHERE status = :status AND next_attempt_at <= :now "
+          + "ORDER BY next_attempt_at, id LIMIT 1 FOR UPDATE SKIP LOCKED",
+      nativeQuery = true)
+  Optional<OutboxEmail> claimNext(@Param("status") String status, @Param("now") LocalDateTime now);
+
+  /**
+   * Give up on the emails left in flight past their deadline, by a dispatcher that stopped before
+   * recording whether they were sent. They are not sent again, as they may have been delivered.
+   *
+   * @param sending - The in-flight status.
+   * @param failed  - The status to move them to.
+   * @param now     - The current time.
+   * @param error   - The error to record.
+   * @return - The number of emails given up on.
+   */
+  @Modifying
+  @Query(
+      value = "UPDATE email_outbox SET status = :failed, last_error = :error "
+          + "WHERE status = :sending AND next_attempt_at <= :now",
+      nativeQuery = true)
+  int expireInFlight(
+      @Param("sending") String sending,
+      @Param("failed") String failed,
+      @Param("now") LocalDateTime now,
+      @Param("error") String error);
+}
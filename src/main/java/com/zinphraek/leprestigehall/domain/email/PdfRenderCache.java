@@ -0,0 +1,261 @@
+package com.zinphraek.leprestigehall.domain.email;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.*;
+import static com.zinphraek.leprestigehall.utilities.helpers.GenericHelper.contentHash;
+
+/**
+ * Content-addressed cache of the PDFs rendered from attachment templates.
+ * <p>
+ * A document is keyed by the hash of its template name and of the HTML the template renders to.
+ * The HTML is fully determined by the template variables, so an invoice or receipt that has not
+ * changed is converted once however many times it is mailed or downloaded, while any change to it
+ * yields a new key instead of a stale hit.
+ * <p>
+ * The most recently used documents are kept in memory up to {@code PDF_CACHE_MEMORY_BYTES}. When
+ * {@code pdf-cache.directory} is set, every converted document is also written there, so it
+ * survives restarts and is shared by instances mounting the same volume; files unused for
+ * {@code PDF_CACHE_DISK_RETENTION_DAYS} are pruned. Concurrent requests for the same document wait
+ * for a single conversion.
+ */
+@Component
+public class PdfRenderCache {
+
+  private static final String FILE_EXTENSION = ".pdf";
+
+  private final Logger logger = LogManager.getLogger(PdfRenderCache.class);
+
+  // Guarded by itself.
+  private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(16, 0.75f, true);
+
+  private long memoryBytes;
+
+  private final Map<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+
+  @Autowired
+  private final SpringTemplateEngine templateEngine;
+
+  @Autowired
+  private final PdfRenderer pdfRenderer;
+
+  private final Path directory;
+
+  @Autowired
+  public PdfRenderCache(
+      SpringTemplateEngine templateEngine, PdfRenderer pdfRenderer,
+      @Value("${pdf-cache.directory:}") String directory) {
+    this.templateEngine = templateEngine;
+    this.pdfRenderer = pdfRenderer;
+    this.directory = directory == null || directory.isBlank() ? null : Path.of(directory);
+    if (this.directory != null) {
+      try {
+        Files.createDirectories(this.directory);
+      } catch (IOException e) {
+        throw new IllegalStateException("Cannot create the PDF cache directory " + directory, e);
+      }
+    }
+  }
+
+  /**
+   * Render an attachment's template to HTML.
+   *
+   * @param attachment - The attachment to render.
+   * @return - The rendered HTML.
+   */
+  public String renderHtml(Attachment attachment) {
+    Context context = new Context();
+    context.setVariables(attachment.getVariables());
+    return templateEngine.process(attachment.getTemplate(), context);
+  }
+
+  /**
+   * Render an attachment to PDF, converting it only if the same document is not cached yet.
+   *
+   * @param attachment - The attachment to render.
+   * @return - The cached or freshly converted document.
+   */
+  public RenderedPdf render(Attachment attachment) {
+    return render(attachment.getTemplate(), renderHtml(attachment));
+  }
+
+  /**
+   * Convert rendered HTML to PDF, converting it only if the same document is not cached yet.
+   *
+   * @param template - The name of the template the HTML was rendered from, or null if unknown.
+   * @param html     - The rendered HTML.
+   * @return - The cached or freshly converted document.
+   */
+  public RenderedPdf render(String template, String html) {
+    String key = contentHash(template, html);
+    byte[] content = fromMemory(key);
+    if (content != null) {
+      return new RenderedPdf(key, content);
+    }
+
+    CompletableFuture<byte[]> conversion = new CompletableFuture<>();
+    CompletableFuture<byte[]> pending = inFlight.putIfAbsent(key, conversion);
+    if (pending != null) {
+      try {
+        return new RenderedPdf(key, pending.join());
+      } catch (CompletionException e) {
+        throw e.getCause() instanceof RuntimeException cause ? cause : e;
+      }
+    }
+
+    try {
+      // Another thread may have finished the same conversion since the first lookup.
+      content = fromMemory(key);
+      if (content == null) {
+        content = fromDisk(key);
+      }
+      if (content == null) {
+        content = pdfRenderer.render(template, html);
+        toDisk(key, content);
+      }
+      toMemory(key, content);
+      conversion.complete(content);
+      return new RenderedPdf(key, content);
+    } catch (RuntimeException e) {
+      conversion.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key);
+    }
+  }
+
+  /**
+   * Delete the cached files that have not been used for the retention period.
+   */
+  @Scheduled(fixedDelay = PDF_CACHE_PRUNE_INTERVAL_MS, initialDelay = PDF_CACHE_PRUNE_INTERVAL_MS)
+  public void pruneDisk() {
+    if (directory == null) {
+      return;
+    }
+    Instant threshold = Instant.now().minus(Duration.ofDays(PDF_CACHE_DISK_RETENTION_DAYS));
+    int pruned = 0;
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_EXTENSION)) {
+      for (Path file : files) {
+        try {
+          if (Files.getLastModifiedTime(file).toInstant().isBefore(threshold) && Files.deleteIfExists(file)) {
+            pruned++;
+          }
+        } catch (IOException e) {
+          logger.warn("Could not prune cached PDF " + file, e);
+        }
+      }
+    } catch (IOException e) {
+      logger.error("Could not list the PDF cache directory " + directory, e);
+    }
+    if (pruned > 0) {
+      logger.info("Pruned " + pruned + " cached PDFs.");
+    }
+  }
+
+  private byte[] fromMemory(String key) {
+    synchronized (memory) {
+      return memory.get(key);
+    }
+  }
+
+  private void toMemory(String key, byte[] content) {
+    if (content.length > PDF_CACHE_MEMORY_BYTES) {
+      return;
+    }
+    synchronized (memory) {
+      byte[] previous = memory.put(key, content);
+      memoryBytes += content.length - (previous == null ? 0 : previous.length);
+      Iterator<byte[]> eldest = memory.values().iterator();
+      while (memoryBytes > PDF_CACHE_MEMORY_BYTES && eldest.hasNext()) {
+        memoryBytes -= eldest.next().length;
+        eldest.remove();
+      }
+    }
+  }
+
+  private byte[] fromDisk(String key) {
+    if (directory == null) {
+      return null;
+    }
+    Path file = directory.resolve(key + FILE_EXTENSION);
+    try {
+      byte[] content = Files.readAllBytes(file);
+      // Keeps the file from being pruned while it is still in use.
+      Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+      return content;
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException e) {
+      logger.warn("Could not read cached PDF " + file + ", converting it again.", e);
+      return null;
+    }
+  }
+
+  private void toDisk(String key, byte[] content) {
+    if (directory == null) {
+      return;
+    }
+    Path file = directory.resolve(key + FILE_EXTENSION);
+    try {
+      // Written aside then moved in place, so other instances never read a partial file.
+      Path temporary = Files.createTempFile(directory, key, ".tmp");
+      try {
+        Files.write(temporary, content);
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } finally {
+        Files.deleteIfExists(temporary);
+      }
+    } catch (IOException e) {
+      logger.warn("Could not write cached PDF " + file + ".", e);
+    }
+  }
+
+  /**
+   * A rendered document and the content key it is cached under.
+   *
+   * @param key     - The hex encoded content hash, usable as an entity tag.
+   * @param content - The PDF bytes.
+   */
+  public record RenderedPdf(String key, byte[] content) {
+
+    /**
+     * Build the response headers to serve the document inline.
+     *
+     * @param filename - The name to suggest to the browser.
+     * @return - The content type, disposition and entity tag headers.
+     */
+    public HttpHeaders inlineHeaders(String filename) {
+      HttpHeaders headers = new HttpHeaders();
+      headers.setContentType(MediaType.APPLICATION_PDF);
+      headers.setContentDisposition(ContentDisposition.inline().filename(filename).build());
+      headers.setETag("\"" + key + "\"");
+      return headers;
+    }
+  }
+}
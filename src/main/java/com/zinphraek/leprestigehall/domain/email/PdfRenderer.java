@@ -0,0 +1,159 @@
+package com.zinphraek.leprestigehall.domain.email;
+
+import com.itextpdf.html2pdf.ConverterProperties;
+import com.itextpdf.html2pdf.HtmlConverter;
+import com.itextpdf.html2pdf.resolver.font.DefaultFontProvider;
+import com.itextpdf.layout.font.FontProvider;
+import com.itextpdf.layout.font.FontSet;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.*;
+import static com.zinphraek.leprestigehall.domain.constants.GenericResponseMessages.GENERIC_UNEXPECTED_ERROR_MESSAGE;
+
+/**
+ * Converts rendered HTML to PDF on a bounded pool of renderer threads.
+ * <p>
+ * A default {@link HtmlConverter} call loads every font it may need before laying out the document,
+ * which is most of its cost. The fonts are loaded once at startup instead, and the converter
+ * properties built from them are shared by every conversion. Each conversion still gets its own font
+ * provider over the shared font set, as a provider caches the fonts of the document being written.
+ * <p>
+ * The pool has one thread per core and a bounded queue. A conversion that cannot be queued, or does
+ * not finish within {@code PDF_RENDER_TIMEOUT_MS}, fails with 503 rather than piling up. Every call
+ * is timed under {@code pdf.render}, tagged by template and outcome.
+ */
+@Component
+public class PdfRenderer {
+
+  static final String RENDER_TIMER = "pdf.render";
+
+  private static final String DEFAULT_FONT_FAMILY = "Times";
+
+  private static final String WARM_UP_HTML = "<html><body><p>Warm up</p></body></html>";
+
+  private final Logger logger = LogManager.getLogger(PdfRenderer.class);
+
+  private final FontSet fontSet;
+
+  private final ConverterProperties converterProperties;
+
+  private final ThreadPoolExecutor executor;
+
+  @Autowired
+  private final MeterRegistry meterRegistry;
+
+  @Autowired
+  public PdfRenderer(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+    // The same fonts a default conversion registers: the standard PDF fonts and the shipped ones.
+    this.fontSet = new DefaultFontProvider(true, true, false).getFontSet();
+    this.converterProperties = new ConverterProperties();
+
+    int threads = Runtime.getRuntime().availableProcessors();
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(
+        threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(threads * PDF_RENDER_QUEUE_PER_THREAD),
+        runnable -> {
+          Thread thread = new Thread(runnable, "pdf-renderer-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+    this.executor.prestartAllCoreThreads();
+  }
+
+  /**
+   * Run one conversion in the background, so the first document mailed or downloaded does not also
+   * pay for loading the converter.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void warm() {
+    try {
+      executor.execute(() -> {
+        try {
+          convert(WARM_UP_HTML);
+        } catch (RuntimeException e) {
+          logger.warn("PDF renderer warm up failed.", e);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      logger.warn("PDF renderer warm up skipped, the queue is full.");
+    }
+  }
+
+  /**
+   * Convert rendered HTML to PDF on the renderer pool.
+   *
+   * @param template - The name of the template the HTML was rendered from, or null if unknown.
+   * @param html     - The rendered HTML.
+   * @return - The PDF bytes.
+   */
+  public byte[] render(String template, String html) {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String outcome = "failure";
+    try {
+      Future<byte[]> conversion = executor.submit(() -> convert(html));
+      try {
+        byte[] pdf = conversion.get(PDF_RENDER_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        outcome = "success";
+        return pdf;
+      } catch (TimeoutException e) {
+        conversion.cancel(true);
+        outcome = "timeout";
+        logger.error("Rendering " + template + " took longer than " + PDF_RENDER_TIMEOUT_MS + " ms.");
+        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+      } catch (InterruptedException e) {
+        conversion.cancel(true);
+        Thread.currentThread().interrupt();
+        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+      } catch (ExecutionException e) {
+        throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+      }
+    } catch (RejectedExecutionException e) {
+      outcome = "rejected";
+      logger.error("Could not render " + template + ", the PDF renderer queue is full.");
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    } finally {
+      sample.stop(meterRegistry.timer(
+          RENDER_TIMER, "template", template == null ? "unknown" : template, "outcome", outcome));
+    }
+  }
+
+  /**
+   * Convert rendered HTML to PDF on the calling thread, with the shared converter properties.
+   *
+   * @param html - The rendered HTML.
+   * @return - The PDF bytes.
+   */
+  byte[] convert(String html) {
+    ConverterProperties properties = new ConverterProperties(converterProperties);
+    properties.setFontProvider(new FontProvider(fontSet, DEFAULT_FONT_FAMILY));
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    HtmlConverter.convertToPdf(html, outputStream, properties);
+    return outputStream.toByteArray();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+}
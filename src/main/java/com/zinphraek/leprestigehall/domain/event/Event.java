@@ -7,6 +7,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.GenericGenerator;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.format.annotation.DateTimeFormat;
 
@@ -24,7 +25,10 @@ import static com.zinphraek.leprestigehall.domain.constants.Constants.DATE_TIME_
 public class Event {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.UUID)
+  @GeneratedValue(generator = "time-ordered-uuid")
+  @GenericGenerator(
+      name = "time-ordered-uuid",
+      strategy = "com.zinphraek.leprestigehall.utilities.generators.TimeOrderedUuidGenerator")
   @Column(name = "id")
   private UUID id;
 
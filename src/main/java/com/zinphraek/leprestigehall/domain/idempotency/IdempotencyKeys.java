@@ -0,0 +1,304 @@
+package com.zinphraek.leprestigehall.domain.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.util.Pair;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.*;
+import static com.zinphraek.leprestigehall.domain.constants.GenericResponseMessages.*;
+import static com.zinphraek.leprestigehall.utilities.helpers.GenericHelper.contentHash;
+
+/**
+ * Makes create requests safe to retry.
+ * <p>
+ * A request carrying an {@code Idempotency-Key} header runs at most once per operation, caller and
+ * key. Its response is stored in {@code idempotency_keys} and replayed, without running the
+ * operation again, to every retry received before the entry expires. A small LRU cache in front of
+ * the table serves the replays this instance has seen recently.
+ * <p>
+ * The first request claims the key with a single upsert, so two instances can never both run it.
+ * Duplicates arriving while it is still running wait for its outcome: on this instance through the
+ * in-flight latch, across instances by polling the table. A failed request releases its key, and
+ * a key held past its lease by a crashed instance can be claimed again.
+ * <p>
+ * The operation runs in the same transaction that stores its response, so the key is completed if
+ * and only if the operation's writes commit. An instance dying mid-request therefore leaves nothing
+ * behind, and running the operation again once the lease has expired cannot duplicate it.
+ */
+@Component
+public class IdempotencyKeys {
+
+  private static final String FIND_QUERY =
+      "SELECT request_hash, status, response_status, response_body, expires_at FROM idempotency_keys "
+          + "WHERE idempotency_key = ? AND expires_at > ?";
+
+  private static final String CLAIM_QUERY =
+      "INSERT INTO idempotency_keys AS k (idempotency_key, request_hash, status, created_at, expires_at) "
+          + "VALUES (?, ?, ?, ?, ?) ON CONFLICT (idempotency_key) DO UPDATE SET "
+          + "request_hash = EXCLUDED.request_hash, status = EXCLUDED.status, response_status = NULL, "
+          + "response_body = NULL, created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at "
+          + "WHERE k.expires_at <= EXCLUDED.created_at OR (k.status = ? AND k.created_at < ?)";
+
+  private static final String COMPLETE_QUERY =
+      "UPDATE idempotency_keys SET status = ?, response_status = ?, response_body = ?, expires_at = ? "
+          + "WHERE idempotency_key = ?";
+
+  private static final String RELEASE_QUERY = "DELETE FROM idempotency_keys WHERE idempotency_key = ? AND status = ?";
+
+  private static final String PURGE_QUERY = "DELETE FROM idempotency_keys WHERE expires_at <= ?";
+
+  private final Logger logger = LogManager.getLogger(IdempotencyKeys.class);
+
+  private final Map<String, StoredResponse> recentResponses = Collections.synchronizedMap(
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+          return size() > IDEMPOTENCY_CACHE_SIZE;
+        }
+      });
+
+  private final Map<String, CountDownLatch> inFlight = new ConcurrentHashMap<>();
+
+  @Autowired
+  private final JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private final ObjectMapper objectMapper;
+
+  private final TransactionTemplate transactionTemplate;
+
+  @Autowired
+  public IdempotencyKeys(
+      JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.objectMapper = objectMapper;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  /**
+   * Run an operation once per idempotency key, replaying its stored response to retries.
+   *
+   * @param idempotencyKey - The key sent by the client, or null to run the operation unconditionally.
+   * @param operation      - The name of the operation, such as its method and path.
+   * @param request        - The request body, to tell a retry from a different request reusing the key.
+   * @param responseType   - The type of the response body.
+   * @param action         - The operation.
+   * @param <T>            - The type of the response body.
+   * @return - The response of the operation, run now or replayed.
+   */
+  public <T> ResponseEntity<T> execute(
+      String idempotencyKey, String operation, Object request, Class<T> responseType,
+      Supplier<ResponseEntity<T>> action) {
+    if (idempotencyKey == null) {
+      return action.get();
+    }
+    if (idempotencyKey.isBlank() || idempotencyKey.length() > IDEMPOTENCY_KEY_MAX_LENGTH) {
+      logger.error(String.format(INVALID_IDEMPOTENCY_KEY_ERROR_MESSAGE, IDEMPOTENCY_KEY_MAX_LENGTH));
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, String.format(INVALID_IDEMPOTENCY_KEY_ERROR_MESSAGE, IDEMPOTENCY_KEY_MAX_LENGTH));
+    }
+
+    String key = contentHash(operation, currentCaller(), idempotencyKey);
+    String requestHash = contentHash(toJson(request));
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(IDEMPOTENCY_WAIT_MS);
+
+    try {
+      while (true) {
+        StoredResponse stored = find(key);
+        if (stored != null && !requestHash.equals(stored.requestHash())) {
+          logger.error(IDEMPOTENCY_KEY_REUSED_ERROR_MESSAGE);
+          throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, IDEMPOTENCY_KEY_REUSED_ERROR_MESSAGE);
+        }
+        if (stored != null && IDEMPOTENCY_STATUS_COMPLETED.equals(stored.status())) {
+          logger.info("Replaying the response of " + operation + " for a retried request.");
+          return replay(stored, responseType);
+        }
+
+        CountDownLatch running = inFlight.get(key);
+        if (running != null) {
+          awaitUntil(running, deadline);
+          continue;
+        }
+
+        CountDownLatch mine = new CountDownLatch(1);
+        if (inFlight.putIfAbsent(key, mine) != null) {
+          continue;
+        }
+        try {
+          if (claim(key, requestHash)) {
+            return runAndStore(key, requestHash, action);
+          }
+        } finally {
+          inFlight.remove(key, mine);
+          mine.countDown();
+        }
+
+        // Another instance holds the key; look again once it has had time to finish.
+        pauseUntil(deadline);
+      }
+    } catch (DataAccessException | TransactionException e) {
+      logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, e);
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    }
+  }
+
+  /**
+   * Drop the expired entries.
+   */
+  @Scheduled(fixedDelay = IDEMPOTENCY_PURGE_INTERVAL_MS)
+  public void purgeExpired() {
+    try {
+      int purged = jdbcTemplate.update(PURGE_QUERY, LocalDateTime.now());
+      if (purged > 0) {
+        logger.info(purged + " expired idempotency keys purged.");
+      }
+    } catch (DataAccessException e) {
+      logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, e);
+    }
+  }
+
+  private <T> ResponseEntity<T> runAndStore(String key, String requestHash, Supplier<ResponseEntity<T>> action) {
+    Pair<ResponseEntity<T>, StoredResponse> outcome;
+    try {
+      outcome = transactionTemplate.execute(status -> {
+        ResponseEntity<T> response = action.get();
+        StoredResponse stored = new StoredResponse(
+            requestHash,
+            IDEMPOTENCY_STATUS_COMPLETED,
+            response.getStatusCode().value(),
+            toJson(response.getBody()),
+            LocalDateTime.now().plusHours(IDEMPOTENCY_TTL_HOURS));
+        jdbcTemplate.update(COMPLETE_QUERY,
+            stored.status(), stored.responseStatus(), stored.responseBody(), stored.expiresAt(), key);
+        return Pair.of(response, stored);
+      });
+    } catch (RuntimeException re) {
+      // The operation was rolled back with the completion: let the client retry with the same key.
+      jdbcTemplate.update(RELEASE_QUERY, key, IDEMPOTENCY_STATUS_IN_PROGRESS);
+      throw re;
+    }
+
+    recentResponses.put(key, outcome.getSecond());
+    return outcome.getFirst();
+  }
+
+  private boolean claim(String key, String requestHash) {
+    LocalDateTime now = LocalDateTime.now();
+    return jdbcTemplate.update(CLAIM_QUERY,
+        key, requestHash, IDEMPOTENCY_STATUS_IN_PROGRESS, now, now.plusHours(IDEMPOTENCY_TTL_HOURS),
+        IDEMPOTENCY_STATUS_IN_PROGRESS, now.minusSeconds(IDEMPOTENCY_LEASE_SECONDS)) > 0;
+  }
+
+  private StoredResponse find(String key) {
+    LocalDateTime now = LocalDateTime.now();
+    StoredResponse cached = recentResponses.get(key);
+    if (cached != null && cached.expiresAt().isAfter(now)) {
+      return cached;
+    }
+
+    List<StoredResponse> rows = jdbcTemplate.query(FIND_QUERY, (rs, rowNum) -> new StoredResponse(
+        rs.getString("request_hash"),
+        rs.getString("status"),
+        rs.getInt("response_status"),
+        rs.getString("response_body"),
+        rs.getTimestamp("expires_at").toLocalDateTime()), key, now);
+    if (rows.isEmpty()) {
+      recentResponses.remove(key);
+      return null;
+    }
+    if (IDEMPOTENCY_STATUS_COMPLETED.equals(rows.get(0).status())) {
+      recentResponses.put(key, rows.get(0));
+    }
+    return rows.get(0);
+  }
+
+  private <T> ResponseEntity<T> replay(StoredResponse stored, Class<T> responseType) {
+    try {
+      T body = stored.responseBody() == null ? null : objectMapper.readValue(stored.responseBody(), responseType);
+      return ResponseEntity.status(stored.responseStatus()).header(IDEMPOTENT_REPLAY_HEADER, "true").body(body);
+    } catch (JsonProcessingException e) {
+      logger.error(GENERIC_UNEXPECTED_ERROR_LOG_MESSAGE, e);
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    }
+  }
+
+  private void awaitUntil(CountDownLatch running, long deadline) {
+    try {
+      if (!running.await(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+        throw inProgress();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw inProgress();
+    }
+  }
+
+  private void pauseUntil(long deadline) {
+    if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(IDEMPOTENCY_POLL_MS) > deadline) {
+      throw inProgress();
+    }
+    try {
+      Thread.sleep(IDEMPOTENCY_POLL_MS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw inProgress();
+    }
+  }
+
+  private ResponseStatusException inProgress() {
+    logger.error(IDEMPOTENCY_KEY_IN_PROGRESS_ERROR_MESSAGE);
+    return new ResponseStatusException(HttpStatus.CONFLICT, IDEMPOTENCY_KEY_IN_PROGRESS_ERROR_MESSAGE);
+  }
+
+  private String currentCaller() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    return authentication == null ? null : authentication.getName();
+  }
+
+  private String toJson(Object value) {
+    try {
+      return objectMapper.writeValueAsString(value);
+    } catch (JsonProcessingException e) {
+      logger.error(GENERIC_UNEXPECTED_ERROR_LOG_MESSAGE, e);
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    }
+  }
+
+  /**
+   * An entry of the store.
+   *
+   * @param requestHash    - The fingerprint of the request that claimed the key.
+   * @param status         - Whether the request is still running or has completed.
+   * @param responseStatus - The HTTP status of the response, once completed.
+   * @param responseBody   - The JSON body of the response, once completed.
+   * @param expiresAt      - When the entry stops being replayed.
+   */
+  private record StoredResponse(
+      String requestHash, String status, int responseStatus, String responseBody, LocalDateTime expiresAt) {
+  }
+}
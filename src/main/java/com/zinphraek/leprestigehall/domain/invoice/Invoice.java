@@ -17,7 +17,8 @@ import static com.zinphraek.leprestigehall.domain.constants.Constants.*;
 public class Invoice {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "invoices_seq")
+  @SequenceGenerator(name = "invoices_seq", sequenceName = "invoices_seq", allocationSize = ID_ALLOCATION_SIZE)
   @Column(name = "id")
   private Long id;
 
@@ -30,8 +31,11 @@ public class Invoice {
   @NotNull(message = "Due date is required")
   private LocalDateTime dueDate;
 
+  // Maintained by the payment ledger only; updates changing them are rejected.
+  @Column(updatable = false)
   private Double totalAmountPaid = 0.0;
 
+  @Column(updatable = false)
   private Double amountDue;
 
   @NotBlank
@@ -1,8 +1,12 @@
 package com.zinphraek.leprestigehall.domain.invoice;
 
+import static com.zinphraek.leprestigehall.domain.constants.Paths.InvoiceExportPath;
 import static com.zinphraek.leprestigehall.domain.constants.Paths.InvoicePath;
 import static com.zinphraek.leprestigehall.domain.constants.Paths.UserPath;
 
+import com.zinphraek.leprestigehall.domain.email.PdfRenderCache.RenderedPdf;
+import com.zinphraek.leprestigehall.utilities.helpers.CursorPage;
+import com.zinphraek.leprestigehall.utilities.helpers.ExportFormat;
 import java.util.List;
 import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +22,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Controller
 public class InvoiceController {
@@ -35,6 +40,22 @@ public class InvoiceController {
     return new ResponseEntity<>(invoiceService.getInvoices(params), HttpStatus.OK);
   }
 
+  @PreAuthorize("hasRole('admin')")
+  @GetMapping(value = InvoicePath, params = "cursor")
+  public ResponseEntity<CursorPage<Invoice>> getInvoicesByCursor(
+      @RequestParam Map<String, String> params) {
+    return new ResponseEntity<>(invoiceService.getInvoicesByCursor(params), HttpStatus.OK);
+  }
+
+  @PreAuthorize("hasRole('admin')")
+  @GetMapping(InvoiceExportPath)
+  public ResponseEntity<StreamingResponseBody> exportInvoices(
+      @RequestParam(required = false) Map<String, String> params) {
+    ExportFormat format = ExportFormat.fromParam(params.get("format"));
+    return new ResponseEntity<>(
+        invoiceService.exportInvoices(params, format), format.attachmentHeaders("invoices"), HttpStatus.OK);
+  }
+
   @PreAuthorize("#userId == authentication.principal.subject or hasRole('admin')")
   @GetMapping(UserPath +  "/{userId}" + InvoicePath)
   public ResponseEntity<Page<Invoice>> getInvoicesByUserId(
@@ -42,6 +63,13 @@ public class InvoiceController {
     return new ResponseEntity<>(invoiceService.getInvoicesByUserId(userId, params), HttpStatus.OK);
   }
 
+  @PreAuthorize("#userId == authentication.principal.subject or hasRole('admin')")
+  @GetMapping(UserPath + "/{userId}" + InvoicePath + "/{id}/pdf")
+  public ResponseEntity<byte[]> getInvoicePdf(@PathVariable String userId, @PathVariable Long id) {
+    RenderedPdf pdf = invoiceService.getInvoicePdf(userId, id);
+    return new ResponseEntity<>(pdf.content(), pdf.inlineHeaders("Invoice-" + id + ".pdf"), HttpStatus.OK);
+  }
+
   @PreAuthorize("hasRole('admin')")
   @GetMapping(InvoicePath + "/{id}")
   public ResponseEntity<Invoice> getInvoiceById(@PathVariable Long id) {
@@ -0,0 +1,36 @@
+package com.zinphraek.leprestigehall.domain.invoice;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Flat view of an invoice, as written to exports.
+ *
+ * @param id              - The id of the invoice.
+ * @param invoiceNumber   - The invoice number.
+ * @param issuedDate      - The date and time the invoice was issued.
+ * @param dueDate         - The date and time the invoice is due.
+ * @param totalAmountPaid - The amount paid so far.
+ * @param amountDue       - The amount left to pay.
+ * @param status          - The status of the invoice.
+ * @param reservationId   - The id of the invoiced reservation.
+ * @param userId          - The id of the invoiced user.
+ */
+public record InvoiceExportRow(
+    Long id,
+    String invoiceNumber,
+    LocalDateTime issuedDate,
+    LocalDateTime dueDate,
+    Double totalAmountPaid,
+    Double amountDue,
+    String status,
+    Long reservationId,
+    String userId) {
+
+  /**
+   * The attribute of the invoice read into each component, in declaration order.
+   */
+  public static final List<String> COLUMNS = List.of(
+      "id", "invoiceNumber", "issuedDate", "dueDate", "totalAmountPaid", "amountDue", "status",
+      "reservation.id", "user.userId");
+}
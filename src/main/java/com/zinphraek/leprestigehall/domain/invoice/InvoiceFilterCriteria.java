@@ -1,9 +1,12 @@
 package com.zinphraek.leprestigehall.domain.invoice;
 
+import org.springframework.data.jpa.domain.Specification;
+
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 import static com.zinphraek.leprestigehall.domain.constants.Constants.DATE_TIME_FORMAT;
+import static com.zinphraek.leprestigehall.utilities.helpers.SpecificationFilters.*;
 
 public class InvoiceFilterCriteria {
 
@@ -175,4 +178,27 @@ public class InvoiceFilterCriteria {
   public void setUserId(String userId) {
     this.userId = userId;
   }
+
+  /**
+   * Translate the criteria into a specification holding a predicate for each filter supplied only.
+   * The invoice number, status and ids are compared with equality, amounts and dates with a range.
+   * That equality is case-sensitive: the status must be spelled as stored, such as {@code Paid}.
+   *
+   * @return The corresponding specification.
+   */
+  public Specification<Invoice> toSpecification() {
+    return allOf(
+        equal("invoiceNumber", invoiceNumber),
+        atMost("issuedDate", beforeIssuedDate),
+        atLeast("issuedDate", afterIssuedDate),
+        atMost("dueDate", beforeDueDate),
+        atLeast("dueDate", afterDueDate),
+        equal("status", status),
+        atLeast("totalAmountPaid", greaterThanTotalAmountPaid),
+        atMost("totalAmountPaid", lessThanTotalAmountPaid),
+        atLeast("amountDue", greaterThanAmountDue),
+        atMost("amountDue", lessThanAmountDue),
+        equal("reservation.id", reservationId),
+        equal("user.userId", userId));
+  }
 }
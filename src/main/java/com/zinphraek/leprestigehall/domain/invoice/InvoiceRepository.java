@@ -3,48 +3,69 @@ package com.zinphraek.leprestigehall.domain.invoice;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
-
-  @Query(
-      "SELECT i FROM Invoice i WHERE (:invoiceNumber IS NULL OR i.invoiceNumber =:invoiceNumber) "
-          + "AND (CAST(:beforeIssuedDate AS timestamp) IS NULL OR i.issuedDate <= CAST(:beforeIssuedDate AS timestamp)) "
-          + "AND (CAST(:afterIssuedDate AS timestamp) IS NULL OR i.issuedDate >= CAST(:afterIssuedDate AS timestamp)) "
-          + "AND (CAST(:beforeDueDate AS timestamp) IS NULL OR i.dueDate <= CAST(:beforeDueDate AS timestamp)) "
-          + "AND (CAST(:afterDueDate AS timestamp) IS NULL OR i.dueDate >= CAST(:afterDueDate AS timestamp)) "
-          + "AND (:status IS NULL OR LOWER(i.status) LIKE LOWER(CONCAT('%', :status, '%'))) "
-          + "AND (:greaterThanTotalAmountPaid IS NULL OR i.totalAmountPaid >=:greaterThanTotalAmountPaid) "
-          + "AND (:lessThanTotalAmountPaid IS NULL OR i.totalAmountPaid <=:lessThanTotalAmountPaid) "
-          + "AND (:greaterThanAmountDue IS NULL OR i.amountDue >=:greaterThanAmountDue) "
-          + "AND (:lessThanAmountDue IS NULL OR i.amountDue <=:lessThanAmountDue) "
-          + "AND (:reservationId IS NULL OR i.reservation.id =:reservationId) "
-          + "AND (:userId IS NULL OR i.user.userId =:userId)")
-  Page<Invoice> findAllAndFilter(
-      @Param("invoiceNumber") String invoiceNumber,
-      @Param("beforeIssuedDate") LocalDateTime beforeIssuedDate,
-      @Param("afterIssuedDate") LocalDateTime afterIssuedDate,
-      @Param("beforeDueDate") LocalDateTime beforeDueDate,
-      @Param("afterDueDate") LocalDateTime afterDueDate,
-      @Param("status") String status,
-      @Param("greaterThanTotalAmountPaid") Double greaterThanTotalAmountPaid,
-      @Param("lessThanTotalAmountPaid") Double lessThanTotalAmountPaid,
-      @Param("greaterThanAmountDue") Double greaterThanAmountDue,
-      @Param("lessThanAmountDue") Double lessThanAmountDue,
-      @Param("reservationId") Long reservationId,
-      @Param("userId") String userId,
-      Pageable pageable);
+public interface InvoiceRepository extends JpaRepository<Invoice, Long>, JpaSpecificationExecutor<Invoice> {
 
   @Query("SELECT i FROM Invoice i WHERE i.user.userId =:userId")
   Page<Invoice> findByUserId(@Param("userId") String userId, Pageable pageable);
 
   Optional<Invoice> findByReservationId(Long reservationId);
 
+  @Query("SELECT i FROM Invoice i JOIN FETCH i.user JOIN FETCH i.reservation WHERE i.reservation.id IN :reservationIds")
+  List<Invoice> findAllByReservationIdIn(@Param("reservationIds") Collection<Long> reservationIds);
+
+  @Modifying
+  @Query("UPDATE Invoice i SET i.status = :status WHERE i.reservation.id IN :reservationIds")
+  int updateStatusByReservationIdIn(
+      @Param("reservationIds") Collection<Long> reservationIds, @Param("status") String status);
+
   boolean existsByInvoiceNumber(String invoiceNumber);
 
   boolean existsByReservationId(Long reservationId);
+
+  @Query(
+      "SELECT i.id FROM Invoice i WHERE i.id > :cursor AND i.status NOT IN :statuses AND i.dueDate > :now "
+          + "AND i.reservation.startingDateTime < :threshold ORDER BY i.id")
+  List<Long> findIdsToEscalate(
+      @Param("cursor") Long cursor,
+      @Param("statuses") Collection<String> statuses,
+      @Param("now") LocalDateTime now,
+      @Param("threshold") LocalDateTime threshold,
+      Pageable pageable);
+
+  @Modifying
+  @Query(
+      "UPDATE Invoice i SET i.status = :status, i.dueDate = :now "
+          + "WHERE i.id IN :ids AND i.status NOT IN :statuses AND i.dueDate > :now")
+  int escalateByIdIn(
+      @Param("ids") Collection<Long> ids,
+      @Param("statuses") Collection<String> statuses,
+      @Param("now") LocalDateTime now,
+      @Param("status") String status);
+
+  @Query(
+      "SELECT i.id FROM Invoice i WHERE i.id > :cursor AND i.status IN :statuses AND i.dueDate < :cutoff "
+          + "ORDER BY i.id")
+  List<Long> findIdsDueBefore(
+      @Param("cursor") Long cursor,
+      @Param("statuses") Collection<String> statuses,
+      @Param("cutoff") LocalDateTime cutoff,
+      Pageable pageable);
+
+  @Modifying
+  @Query("UPDATE Invoice i SET i.status = :status WHERE i.id IN :ids AND i.status IN :statuses AND i.dueDate < :cutoff")
+  int updateStatusOfDueBeforeByIdIn(
+      @Param("ids") Collection<Long> ids,
+      @Param("statuses") Collection<String> statuses,
+      @Param("cutoff") LocalDateTime cutoff,
+      @Param("status") String status);
 }
@@ -1,17 +1,27 @@
 package com.zinphraek.leprestigehall.domain.invoice;
 
+import com.zinphraek.leprestigehall.domain.email.PdfRenderCache.RenderedPdf;
+import com.zinphraek.leprestigehall.utilities.helpers.CursorPage;
+import com.zinphraek.leprestigehall.utilities.helpers.ExportFormat;
 import java.util.List;
 import java.util.Map;
 import org.springframework.data.domain.Page;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 public interface InvoiceService {
 
   Page<Invoice> getInvoices(Map<String, String> params);
 
+  CursorPage<Invoice> getInvoicesByCursor(Map<String, String> params);
+
+  StreamingResponseBody exportInvoices(Map<String, String> params, ExportFormat format);
+
   Page<Invoice> getInvoicesByUserId(String userId, Map<String, String> params);
 
   Invoice getInvoice(Long invoiceId);
 
+  RenderedPdf getInvoicePdf(String userId, Long invoiceId);
+
   Invoice createInvoice(Invoice newInvoice);
 
   Invoice updateInvoice(Long invoiceId, Invoice newInvoice);
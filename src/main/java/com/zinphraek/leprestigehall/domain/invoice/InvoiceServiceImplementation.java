@@ -1,8 +1,16 @@
 package com.zinphraek.leprestigehall.domain.invoice;
 
+import com.zinphraek.leprestigehall.domain.email.PdfRenderCache;
+import com.zinphraek.leprestigehall.domain.email.PdfRenderCache.RenderedPdf;
 import com.zinphraek.leprestigehall.domain.reservation.ReservationRepository;
 import com.zinphraek.leprestigehall.domain.user.UserRepository;
+import com.zinphraek.leprestigehall.utilities.helpers.CursorPage;
 import com.zinphraek.leprestigehall.utilities.helpers.CustomPage;
+import com.zinphraek.leprestigehall.utilities.helpers.ExportFormat;
+import com.zinphraek.leprestigehall.utilities.helpers.ExportRowReader;
+import com.zinphraek.leprestigehall.utilities.helpers.ExportWriter;
+import com.zinphraek.leprestigehall.utilities.helpers.KeysetPaginator;
+import com.zinphraek.leprestigehall.utilities.helpers.ReservationServiceHelper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,10 +18,12 @@ import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.util.Pair;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -21,7 +31,8 @@ import java.util.*;
 
 import static com.zinphraek.leprestigehall.domain.constants.Constants.*;
 import static com.zinphraek.leprestigehall.domain.constants.GenericResponseMessages.*;
-import static com.zinphraek.leprestigehall.utilities.helpers.GenericHelper.createCustomPageFromParams;
+import static com.zinphraek.leprestigehall.utilities.helpers.GenericHelper.createCappedCustomPageFromParams;
+import static com.zinphraek.leprestigehall.utilities.helpers.GenericHelper.defaultPageRequest;
 
 @Service
 public class InvoiceServiceImplementation implements InvoiceService {
@@ -37,13 +48,38 @@ public class InvoiceServiceImplementation implements InvoiceService {
   @Autowired
   private final UserRepository userRepository;
 
+  @Autowired
+  private final KeysetPaginator keysetPaginator;
+
+  @Autowired
+  private final ExportWriter exportWriter;
+
+  @Autowired
+  private final ExportRowReader exportRowReader;
+
+  @Autowired
+  private final ReservationServiceHelper reservationServiceHelper;
+
+  @Autowired
+  private final PdfRenderCache pdfRenderCache;
+
   public InvoiceServiceImplementation(
       ReservationRepository reservationRepository,
       InvoiceRepository invoiceRepository,
-      UserRepository userRepository) {
+      UserRepository userRepository,
+      KeysetPaginator keysetPaginator,
+      ExportWriter exportWriter,
+      ExportRowReader exportRowReader,
+      ReservationServiceHelper reservationServiceHelper,
+      PdfRenderCache pdfRenderCache) {
     this.reservationRepository = reservationRepository;
     this.invoiceRepository = invoiceRepository;
     this.userRepository = userRepository;
+    this.keysetPaginator = keysetPaginator;
+    this.exportWriter = exportWriter;
+    this.exportRowReader = exportRowReader;
+    this.reservationServiceHelper = reservationServiceHelper;
+    this.pdfRenderCache = pdfRenderCache;
   }
 
   private void checkIfDueDateIsOneWeekPriorToReservationDateAndUpdateStatus(Invoice newInvoice) {
@@ -57,9 +93,18 @@ public class InvoiceServiceImplementation implements InvoiceService {
     }
   }
 
+  /**
+   * @param requested - The amount sent with an update, null if left out.
+   * @param current   - The amount stored.
+   * @return - True if the update sets the amount to another value.
+   */
+  private boolean changed(Double requested, Double current) {
+    return requested != null && (current == null || Math.abs(requested - current) > LEDGER_CENT_TOLERANCE);
+  }
+
   private Pair<CustomPage, InvoiceFilterCriteria> generateCustomPageAndInvoiceFilterCriteria(
       Map<String, String> params) {
-    CustomPage customPage = createCustomPageFromParams(params);
+    CustomPage customPage = createCappedCustomPageFromParams(params);
     InvoiceFilterCriteria invoiceFilterCriteria = new InvoiceFilterCriteria();
 
 
@@ -130,7 +175,7 @@ public class InvoiceServiceImplementation implements InvoiceService {
 
     logger.info("Fetching invoices...");
     Page<Invoice> invoices;
-    Pageable pageable = Pageable.unpaged();
+    Pageable pageable = defaultPageRequest();
     Pair<CustomPage, InvoiceFilterCriteria> customPageAndInvoiceFilterCriteria =
         Pair.of(new CustomPage(), new InvoiceFilterCriteria());
 
@@ -147,20 +192,7 @@ public class InvoiceServiceImplementation implements InvoiceService {
                 customPageAndInvoiceFilterCriteria.getFirst().getSortDirection(),
                 customPageAndInvoiceFilterCriteria.getFirst().getSortBy());
       }
-      invoices = invoiceRepository.findAllAndFilter(
-          customPageAndInvoiceFilterCriteria.getSecond().getInvoiceNumber(),
-          customPageAndInvoiceFilterCriteria.getSecond().getBeforeIssuedDate(),
-          customPageAndInvoiceFilterCriteria.getSecond().getAfterIssuedDate(),
-          customPageAndInvoiceFilterCriteria.getSecond().getBeforeDueDate(),
-          customPageAndInvoiceFilterCriteria.getSecond().getAfterDueDate(),
-          customPageAndInvoiceFilterCriteria.getSecond().getStatus(),
-          customPageAndInvoiceFilterCriteria.getSecond().getGreaterThanTotalAmountPaid(),
-          customPageAndInvoiceFilterCriteria.getSecond().getLessThanTotalAmountPaid(),
-          customPageAndInvoiceFilterCriteria.getSecond().getGreaterThanAmountDue(),
-          customPageAndInvoiceFilterCriteria.getSecond().getLessThanAmountDue(),
-          customPageAndInvoiceFilterCriteria.getSecond().getReservationId(),
-          customPageAndInvoiceFilterCriteria.getSecond().getUserId(),
-          pageable);
+      invoices = invoiceRepository.findAll(customPageAndInvoiceFilterCriteria.getSecond().toSpecification(), pageable);
 
     } catch (DataAccessException e) {
       logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, e);
@@ -175,6 +207,73 @@ public class InvoiceServiceImplementation implements InvoiceService {
     return invoices;
   }
 
+  /**
+   * Retrieves the page of invoices following the provided cursor, without counting the total.
+   *
+   * @param params Map<String, String> object containing the query parameters, including the cursor.
+   * @return CursorPage<Invoice> object containing the invoices and the cursor of the following page.
+   */
+  @Override
+  public CursorPage<Invoice> getInvoicesByCursor(Map<String, String> params) {
+
+    logger.info("Fetching invoices...");
+    try {
+      Pair<CustomPage, InvoiceFilterCriteria> customPageAndInvoiceFilterCriteria =
+          generateCustomPageAndInvoiceFilterCriteria(params);
+
+      CursorPage<Invoice> invoices = keysetPaginator.findPage(
+          Invoice.class,
+          customPageAndInvoiceFilterCriteria.getSecond().toSpecification(),
+          customPageAndInvoiceFilterCriteria.getFirst(),
+          params.get("cursor"));
+
+      logger.info(String.format(BULK_GET_SUCCESS_MESSAGE, "Invoices"));
+      return invoices;
+    } catch (ResponseStatusException rse) {
+      throw rse;
+    } catch (DataAccessException e) {
+      logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, e);
+      throw new ResponseStatusException(
+          HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    } catch (RuntimeException re) {
+      logger.error(GENERIC_UNEXPECTED_ERROR_LOG_MESSAGE, re);
+      throw new ResponseStatusException(
+          HttpStatus.INTERNAL_SERVER_ERROR, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    }
+  }
+
+  /**
+   * Streams the invoices matching the query parameters, whatever their number.
+   *
+   * @param params Map<String, String> object containing the filters and the sort order.
+   * @param format The file format of the export.
+   * @return StreamingResponseBody writing the invoices once the response starts.
+   */
+  @Override
+  public StreamingResponseBody exportInvoices(Map<String, String> params, ExportFormat format) {
+
+    logger.info("Exporting invoices...");
+    try {
+      Pair<CustomPage, InvoiceFilterCriteria> customPageAndInvoiceFilterCriteria =
+          generateCustomPageAndInvoiceFilterCriteria(params);
+      InvoiceFilterCriteria invoiceFilterCriteria = customPageAndInvoiceFilterCriteria.getSecond();
+      Sort sort = Sort.by(
+          customPageAndInvoiceFilterCriteria.getFirst().getSortDirection(),
+          customPageAndInvoiceFilterCriteria.getFirst().getSortBy());
+
+      return exportWriter.write(format, InvoiceExportRow.class, () -> exportRowReader.read(
+          Invoice.class,
+          InvoiceExportRow.class,
+          InvoiceExportRow.COLUMNS,
+          invoiceFilterCriteria.toSpecification(),
+          sort));
+    } catch (RuntimeException re) {
+      logger.error(GENERIC_UNEXPECTED_ERROR_LOG_MESSAGE, re);
+      throw new ResponseStatusException(
+          HttpStatus.INTERNAL_SERVER_ERROR, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    }
+  }
+
   /**
    * Retrieves a list of invoices based on the user id.
    *
@@ -186,7 +285,7 @@ public class InvoiceServiceImplementation implements InvoiceService {
   public Page<Invoice> getInvoicesByUserId(String userId, Map<String, String> params) {
 
     Page<Invoice> invoices;
-    Pageable pageable = Pageable.unpaged();
+    Pageable pageable = defaultPageRequest();
     logger.info("Fetching invoices associated to user with id " + userId + "...");
 
     try {
@@ -242,6 +341,32 @@ public class InvoiceServiceImplementation implements InvoiceService {
     }
   }
 
+  /**
+   * Renders an invoice to PDF. The document is only converted again once the invoice changed.
+   *
+   * @param userId    The id of the user the invoice must belong to.
+   * @param invoiceId The id of the invoice to be rendered.
+   * @return The rendered invoice and its content key.
+   */
+  @Override
+  public RenderedPdf getInvoicePdf(String userId, Long invoiceId) {
+    Invoice invoice = getInvoice(invoiceId);
+    if (invoice.getUser() == null || !Objects.equals(invoice.getUser().getUserId(), userId)) {
+      logger.info(String.format(GET_NOT_FOUND_MESSAGE, "Invoice", invoiceId));
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, String.format(GET_NOT_FOUND_MESSAGE, "Invoice", invoiceId));
+    }
+
+    try {
+      return pdfRenderCache.render(reservationServiceHelper.generateInvoiceAttachment(invoice));
+    } catch (ResponseStatusException rse) {
+      throw rse;
+    } catch (RuntimeException re) {
+      logger.error("Could not render invoice " + invoiceId + " to PDF.", re);
+      throw new ResponseStatusException(
+          HttpStatus.INTERNAL_SERVER_ERROR, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    }
+  }
+
   /**
    * Persists a new invoice to the database.
    *
@@ -307,12 +432,20 @@ public class InvoiceServiceImplementation implements InvoiceService {
             String.format(PARAMETER_MISMATCH_ERROR_MESSAGE, "invoice"));
       }
 
-      if (!invoiceRepository.existsById(invoiceId)) {
+      Optional<Invoice> prevInvoice = invoiceRepository.findById(invoiceId);
+      if (prevInvoice.isEmpty()) {
         logger.info(String.format(UPDATE_NOT_FOUND_MESSAGE, "invoice"));
         throw new ResponseStatusException(HttpStatus.NOT_FOUND,
             String.format(UPDATE_NOT_FOUND_MESSAGE, "invoice"));
       }
 
+      // The totals are only ever moved by the payment ledger; the columns are not updatable.
+      if (changed(newInvoice.getTotalAmountPaid(), prevInvoice.get().getTotalAmountPaid())
+          || changed(newInvoice.getAmountDue(), prevInvoice.get().getAmountDue())) {
+        logger.info(LEDGER_TOTALS_UPDATE_ERROR_MESSAGE);
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, LEDGER_TOTALS_UPDATE_ERROR_MESSAGE);
+      }
+
       if (!reservationRepository.existsById(newInvoice.getReservation().getId())) {
         logger.info("Invoice must be associated with a reservation");
         throw new ResponseStatusException(
@@ -330,6 +463,8 @@ public class InvoiceServiceImplementation implements InvoiceService {
       Invoice invoice = invoiceRepository.save(newInvoice);
       logger.info(String.format(UPDATE_SUCCESS_MESSAGE, "Invoice", invoiceId));
       return invoice;
+    } catch (ResponseStatusException rse) {
+      throw rse;
     } catch (DataAccessException e) {
       logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, e);
       throw new ResponseStatusException(
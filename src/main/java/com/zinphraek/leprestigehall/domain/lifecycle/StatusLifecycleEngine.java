@@ -0,0 +1,160 @@
+package com.zinphraek.leprestigehall.domain.lifecycle;
+
+import com.zinphraek.leprestigehall.domain.analytics.ReservationRollups;
+import com.zinphraek.leprestigehall.domain.invoice.InvoiceRepository;
+import com.zinphraek.leprestigehall.domain.reservation.ReservationRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.*;
+
+/**
+ * Moves reservations and invoices through their time-driven statuses in the background.
+ * <ul>
+ *   <li>Booked, confirmed and in-progress reservations that have ended become Done.</li>
+ *   <li>Done reservations whose invoice is paid become Completed.</li>
+ *   <li>Open invoices of reservations starting within a week become Due, due now.</li>
+ *   <li>Due invoices left unpaid past the grace period become Overdue.</li>
+ * </ul>
+ * Each transition walks the table by id in chunks. A chunk is one select of candidate ids and one
+ * set-based update in its own transaction. The transaction first tries to take a per-transition
+ * advisory lock without waiting. A replica that finds the lock taken leaves that transition to
+ * the holder for this run, so two replicas never apply the same transition at once. The update
+ * re-checks the transition's condition, so rows that were already moved are left untouched.
+ */
+@Component
+public class StatusLifecycleEngine {
+
+  private static final String TRY_LOCK_QUERY = "SELECT pg_try_advisory_xact_lock(?, ?)";
+
+  private static final List<String> ACTIVE_RESERVATION_STATUSES =
+      List.of(STATUS_BOOKED, STATUS_CONFIRMED, STATUS_IN_PROGRESS);
+
+  private static final List<String> SETTLED_INVOICE_STATUSES =
+      List.of(STATUS_PAID, STATUS_WITHDRAWN, STATUS_OVERDUE);
+
+  private static final List<String> OPEN_INVOICE_STATUSES =
+      List.of(STATUS_DUE, STATUS_DUE_IMMEDIATELY, STATUS_PARTIALLY_PAID);
+
+  private final Logger logger = LogManager.getLogger(StatusLifecycleEngine.class);
+
+  @Autowired
+  private final ReservationRepository reservationRepository;
+
+  @Autowired
+  private final InvoiceRepository invoiceRepository;
+
+  @Autowired
+  private final ReservationRollups reservationRollups;
+
+  @Autowired
+  private final JdbcTemplate jdbcTemplate;
+
+  private final TransactionTemplate transactionTemplate;
+
+  @Autowired
+  public StatusLifecycleEngine(
+      ReservationRepository reservationRepository,
+      InvoiceRepository invoiceRepository,
+      ReservationRollups reservationRollups,
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager) {
+    this.reservationRepository = reservationRepository;
+    this.invoiceRepository = invoiceRepository;
+    this.reservationRollups = reservationRollups;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  /**
+   * Run every transition once, against a single reference time.
+   */
+  @Scheduled(fixedDelay = LIFECYCLE_INTERVAL_MS, initialDelay = LIFECYCLE_INTERVAL_MS)
+  public void run() {
+    LocalDateTime now = LocalDateTime.now();
+    Pageable chunk = PageRequest.of(0, LIFECYCLE_CHUNK_SIZE);
+
+    runInChunks("reservations ended", 1,
+        cursor -> reservationRepository.findIdsEndedBefore(cursor, ACTIVE_RESERVATION_STATUSES, now, chunk),
+        ids -> {
+          reservationRollups.moveStatus(ids, STATUS_DONE);
+          return reservationRepository.updateStatusOfEndedByIdIn(ids, ACTIVE_RESERVATION_STATUSES, now, STATUS_DONE);
+        });
+
+    runInChunks("reservations completed", 2,
+        cursor -> reservationRepository.findIdsByStatusAndInvoiceStatus(cursor, STATUS_DONE, STATUS_PAID, chunk),
+        ids -> {
+          reservationRollups.moveStatus(ids, STATUS_COMPLETED);
+          return reservationRepository.updateStatusByIdInAndStatus(ids, STATUS_DONE, STATUS_COMPLETED);
+        });
+
+    LocalDateTime escalationThreshold = now.plusDays(INVOICE_ESCALATION_WINDOW_DAYS);
+    runInChunks("invoices escalated", 3,
+        cursor -> invoiceRepository.findIdsToEscalate(cursor, SETTLED_INVOICE_STATUSES, now, escalationThreshold, chunk),
+        ids -> invoiceRepository.escalateByIdIn(ids, SETTLED_INVOICE_STATUSES, now, STATUS_DUE));
+
+    LocalDateTime overdueCutoff = now.minusHours(INVOICE_OVERDUE_GRACE_HOURS);
+    runInChunks("invoices overdue", 4,
+        cursor -> invoiceRepository.findIdsDueBefore(cursor, OPEN_INVOICE_STATUSES, overdueCutoff, chunk),
+        ids -> invoiceRepository.updateStatusOfDueBeforeByIdIn(ids, OPEN_INVOICE_STATUSES, overdueCutoff, STATUS_OVERDUE));
+  }
+
+  /**
+   * Apply a transition chunk by chunk, until a chunk comes back short or another replica holds it.
+   *
+   * @param name    - The name of the transition, for logging.
+   * @param lockKey - The advisory lock key of the transition.
+   * @param select  - Lists the next chunk of candidate ids after the provided cursor, ordered by id.
+   * @param update  - Applies the transition to the provided ids, returning the number of rows changed.
+   * @return - The number of rows changed.
+   */
+  int runInChunks(
+      String name, int lockKey, Function<Long, List<Long>> select, Function<List<Long>, Integer> update) {
+    long cursor = 0L;
+    int changed = 0;
+
+    while (true) {
+      long from = cursor;
+      Chunk chunk = transactionTemplate.execute(status -> {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            TRY_LOCK_QUERY, Boolean.class, LIFECYCLE_ADVISORY_LOCK_NAMESPACE, lockKey))) {
+          return null;
+        }
+        List<Long> ids = select.apply(from);
+        return ids.isEmpty()
+            ? new Chunk(from, 0, 0)
+            : new Chunk(ids.get(ids.size() - 1), ids.size(), update.apply(ids));
+      });
+
+      if (chunk == null) {
+        logger.info("Lifecycle transition '" + name + "' is being run by another instance.");
+        break;
+      }
+      changed += chunk.changed();
+      cursor = chunk.lastId();
+      if (chunk.scanned() < LIFECYCLE_CHUNK_SIZE) {
+        break;
+      }
+    }
+
+    if (changed > 0) {
+      logger.info("Lifecycle transition '" + name + "' applied to " + changed + " rows.");
+    }
+    return changed;
+  }
+
+  private record Chunk(long lastId, int scanned, int changed) {
+  }
+}
@@ -12,7 +12,8 @@ import java.util.Objects;
 public abstract class Media {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  // One pooled sequence per entity, named after it (e.g. user_media_seq).
+  @GeneratedValue(strategy = GenerationType.SEQUENCE)
   private Long id;
 
   private String type;
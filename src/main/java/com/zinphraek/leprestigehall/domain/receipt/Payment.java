@@ -1,5 +1,7 @@
 package com.zinphraek.leprestigehall.domain.receipt;
 
+import static com.zinphraek.leprestigehall.domain.constants.Constants.ID_ALLOCATION_SIZE;
+
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.zinphraek.leprestigehall.utilities.annotations.AllowedValues;
 import jakarta.persistence.Column;
@@ -9,6 +11,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
@@ -16,7 +19,8 @@ import jakarta.persistence.Table;
 public class Payment {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_seq")
+  @SequenceGenerator(name = "payments_seq", sequenceName = "payments_seq", allocationSize = ID_ALLOCATION_SIZE)
   @Column(name = "id")
   private Long id;
 
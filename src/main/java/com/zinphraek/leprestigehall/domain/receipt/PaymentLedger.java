@@ -0,0 +1,278 @@
+package com.zinphraek.leprestigehall.domain.receipt;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.*;
+import static com.zinphraek.leprestigehall.domain.constants.GenericResponseMessages.GET_NOT_FOUND_MESSAGE;
+
+/**
+ * Posts payments to invoices through an append-only ledger.
+ * <p>
+ * Each posting is a single statement that moves the invoice's materialized totals by the amount
+ * and inserts the ledger entry recording the totals it left behind. The arithmetic, the overpayment
+ * guard and the new status are all computed from the invoice row as the statement locks it, never
+ * from a value read earlier, so concurrent payments cannot overwrite each other and reading an
+ * invoice's balance is still a single row lookup.
+ * <p>
+ * The row lock is held until the calling transaction ends, which also makes the per-invoice receipt
+ * counter gapless: a payment that rolls back gives both its amount and its number back. Postings
+ * must be made within the transaction that saves the receipt.
+ * <p>
+ * Repricing a reservation moves the balance due of its open invoices the same way, recording the
+ * price change as a repricing entry, which does not count as paid.
+ * <p>
+ * A nightly job rebuilds the totals of any invoice that no longer matches its ledger, and the
+ * status they imply.
+ */
+@Component
+public class PaymentLedger {
+
+  /**
+   * The first placeholder holds extra assignments on the invoice, the second the receipt number of
+   * the entry.
+   */
+  private static final String POST_QUERY =
+      "WITH posted AS (UPDATE invoices SET %s total_amount_paid = COALESCE(total_amount_paid, 0) + :amount, "
+          + "amount_due = amount_due - :amount, "
+          + "status = CASE WHEN amount_due - :amount <= :tolerance THEN :paid ELSE :partiallyPaid END "
+          + "WHERE id = :invoiceId AND amount_due - :amount + :tolerance >= 0 "
+          + "RETURNING id, reservation_id, receipt_count, total_amount_paid, amount_due) "
+          + "INSERT INTO payment_ledger_entries "
+          + "(invoice_id, kind, receipt_number, amount, total_paid_after, balance_after, posted_at) "
+          + "SELECT id, :kind, %s, :amount, total_amount_paid, amount_due, :postedAt FROM posted "
+          + "RETURNING receipt_number, amount, total_paid_after, balance_after";
+
+  /**
+   * Payments take the next number of the invoice. The sequence is separated from the invoice id,
+   * which it would otherwise run into: the 12th receipt of invoice 1 and the 2nd of invoice 11 would
+   * both end in {@code IN000112}.
+   */
+  private static final String PAYMENT_QUERY = String.format(POST_QUERY,
+      "receipt_count = receipt_count + 1,", "'RR' || reservation_id || 'IN000' || id || '-' || receipt_count");
+
+  private static final String ADJUSTMENT_QUERY = String.format(POST_QUERY, "", ":receiptNumber");
+
+  private static final List<String> OPEN_INVOICE_STATUSES =
+      List.of(STATUS_DUE, STATUS_DUE_IMMEDIATELY, STATUS_PARTIALLY_PAID, STATUS_OVERDUE);
+
+  private static final String REPRICING_QUERY =
+      "WITH repriced AS (UPDATE invoices SET amount_due = :totalPrice - COALESCE(total_amount_paid, 0), "
+          + "status = " + statusFor("status", "COALESCE(total_amount_paid, 0)", ":totalPrice - COALESCE(total_amount_paid, 0)")
+          + " WHERE reservation_id = :reservationId AND status IN ("
+          + OPEN_INVOICE_STATUSES.stream().map(status -> "'" + status + "'").collect(Collectors.joining(", "))
+          + ") RETURNING id, total_amount_paid, amount_due) "
+          + "INSERT INTO payment_ledger_entries (invoice_id, kind, amount, total_paid_after, balance_after, posted_at) "
+          + "SELECT id, :kind, :amount, COALESCE(total_amount_paid, 0), amount_due, :postedAt FROM repriced";
+
+  private static final String BALANCE_QUERY = "SELECT amount_due FROM invoices WHERE id = ?";
+
+  /**
+   * The total paid on each invoice according to its ledger. Repricing entries move the balance due,
+   * not the amount paid.
+   */
+  private static final String LEDGER_PAID =
+      "(SELECT invoice_id, SUM(amount) AS paid FROM payment_ledger_entries WHERE kind <> '"
+          + LEDGER_ENTRY_REPRICING + "' GROUP BY invoice_id)";
+
+  private static final String DRIFTED_QUERY =
+      "SELECT i.id FROM invoices i LEFT JOIN " + LEDGER_PAID + " l "
+          + "ON l.invoice_id = i.id WHERE ABS(COALESCE(i.total_amount_paid, 0) - COALESCE(l.paid, 0)) > ?";
+
+  private static final String LOCK_QUERY = "SELECT id FROM invoices WHERE id = ? FOR UPDATE";
+
+  private static final String REBUILD_QUERY =
+      "UPDATE invoices i SET total_amount_paid = COALESCE(l.paid, 0), "
+          + "amount_due = r.total_price - COALESCE(l.paid, 0), "
+          + "status = " + statusFor("i.status", "COALESCE(l.paid, 0)", "r.total_price - COALESCE(l.paid, 0)") + " "
+          + "FROM reservations r LEFT JOIN " + LEDGER_PAID + " l ON l.invoice_id = :invoiceId "
+          + "WHERE i.id = :invoiceId AND r.id = i.reservation_id";
+
+  private final Logger logger = LogManager.getLogger(PaymentLedger.class);
+
+  @Autowired
+  private final JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+  private final TransactionTemplate transactionTemplate;
+
+  @Autowired
+  public PaymentLedger(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  /**
+   * Post a payment to an invoice, allocating its receipt number.
+   *
+   * @param invoiceId - The invoice paid.
+   * @param amount    - The amount paid.
+   * @return - The ledger entry, with the receipt number and the invoice totals after the payment.
+   */
+  public LedgerEntry postPayment(Long invoiceId, double amount) {
+    return post(PAYMENT_QUERY, params(invoiceId, amount, LEDGER_ENTRY_PAYMENT), invoiceId);
+  }
+
+  /**
+   * Post a correction of a payment already recorded, such as an edited receipt amount.
+   *
+   * @param invoiceId     - The invoice paid.
+   * @param receiptNumber - The number of the corrected receipt.
+   * @param amount        - The difference with the amount recorded, negative to reduce it.
+   * @return - The ledger entry, with the invoice totals after the correction.
+   */
+  public LedgerEntry postAdjustment(Long invoiceId, String receiptNumber, double amount) {
+    return post(ADJUSTMENT_QUERY,
+        params(invoiceId, amount, LEDGER_ENTRY_ADJUSTMENT).addValue("receiptNumber", receiptNumber), invoiceId);
+  }
+
+  /**
+   * Move the balance due of the open invoices of repriced reservations to their new price, in one
+   * batch, recording each price change in the ledger. Paid and withdrawn invoices are settled and
+   * stay as they are.
+   *
+   * @param changes - The price changes, one per repriced reservation.
+   * @return - The number of invoices repriced.
+   */
+  public int postRepricings(List<PriceChange> changes) {
+    if (changes.isEmpty()) {
+      return 0;
+    }
+    LocalDateTime postedAt = LocalDateTime.now();
+    int[] counts = namedJdbcTemplate.batchUpdate(REPRICING_QUERY, changes.stream()
+        .map(change -> statusParams()
+            .addValue("reservationId", change.reservationId())
+            .addValue("totalPrice", change.totalPrice())
+            .addValue("amount", change.totalPrice() - change.previousTotalPrice())
+            .addValue("kind", LEDGER_ENTRY_REPRICING)
+            .addValue("postedAt", postedAt))
+        .toArray(MapSqlParameterSource[]::new));
+    int repriced = 0;
+    for (int count : counts) {
+      repriced += Math.max(count, 0);
+    }
+    return repriced;
+  }
+
+  /**
+   * Rebuild the totals and the status of every invoice that drifted from its ledger, such as after
+   * a manual fix in the database. Each invoice is locked while it is rebuilt, so payments posted
+   * meanwhile are neither lost nor counted twice.
+   *
+   * @return - The number of invoices rebuilt.
+   */
+  @Scheduled(cron = LEDGER_VERIFY_CRON)
+  public int verify() {
+    List<Long> drifted = jdbcTemplate.queryForList(DRIFTED_QUERY, Long.class, LEDGER_CENT_TOLERANCE);
+    for (Long invoiceId : drifted) {
+      transactionTemplate.executeWithoutResult(status -> {
+        jdbcTemplate.queryForList(LOCK_QUERY, Long.class, invoiceId);
+        namedJdbcTemplate.update(REBUILD_QUERY, statusParams().addValue("invoiceId", invoiceId));
+      });
+      logger.warn("Rebuilt the totals of invoice " + invoiceId + " from its payment ledger.");
+    }
+    logger.info("Payment ledger verified, " + drifted.size() + " invoices rebuilt.");
+    return drifted.size();
+  }
+
+  private MapSqlParameterSource params(Long invoiceId, double amount, String kind) {
+    return new MapSqlParameterSource()
+        .addValue("invoiceId", invoiceId)
+        .addValue("amount", amount)
+        .addValue("kind", kind)
+        .addValue("tolerance", LEDGER_CENT_TOLERANCE)
+        .addValue("paid", STATUS_PAID)
+        .addValue("partiallyPaid", STATUS_PARTIALLY_PAID)
+        .addValue("postedAt", LocalDateTime.now());
+  }
+
+  private MapSqlParameterSource statusParams() {
+    return new MapSqlParameterSource()
+        .addValue("tolerance", LEDGER_CENT_TOLERANCE)
+        .addValue("paid", STATUS_PAID)
+        .addValue("partiallyPaid", STATUS_PARTIALLY_PAID)
+        .addValue("due", STATUS_DUE)
+        .addValue("withdrawn", STATUS_WITHDRAWN);
+  }
+
+  /**
+   * The status an invoice should have given its totals: settled once nothing is due, partially paid
+   * once something was paid. Withdrawn invoices keep their status, and so do unpaid ones, whose
+   * due, due immediately or overdue status is moved on by the status lifecycle.
+   *
+   * @param status - The SQL expression of the current status.
+   * @param paid   - The SQL expression of the total paid.
+   * @param due    - The SQL expression of the balance due.
+   * @return - The SQL computing the status.
+   */
+  private static String statusFor(String status, String paid, String due) {
+    return "CASE WHEN " + status + " = :withdrawn THEN " + status + " "
+        + "WHEN " + due + " <= :tolerance THEN :paid "
+        + "WHEN " + paid + " > :tolerance THEN :partiallyPaid "
+        + "WHEN " + status + " IN (:paid, :partiallyPaid) THEN :due "
+        + "ELSE " + status + " END";
+  }
+
+  private LedgerEntry post(String sql, MapSqlParameterSource params, Long invoiceId) {
+    List<LedgerEntry> entries = namedJdbcTemplate.query(sql, params, (resultSet, rowNumber) -> new LedgerEntry(
+        resultSet.getString("receipt_number"),
+        resultSet.getDouble("amount"),
+        resultSet.getDouble("total_paid_after"),
+        resultSet.getDouble("balance_after")));
+    if (!entries.isEmpty()) {
+      return entries.get(0);
+    }
+
+    if (jdbcTemplate.queryForList(BALANCE_QUERY, Double.class, invoiceId).isEmpty()) {
+      logger.error(String.format(GET_NOT_FOUND_MESSAGE, "Invoice", invoiceId));
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, String.format(GET_NOT_FOUND_MESSAGE, "Invoice", invoiceId));
+    }
+    logger.error("Amount paid cannot be greater than the balance due.");
+    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Amount paid cannot be greater than the balance due.");
+  }
+
+  /**
+   * An amount posted to an invoice.
+   *
+   * @param receiptNumber  - The number of the receipt the amount was paid on.
+   * @param amount         - The amount posted.
+   * @param totalPaidAfter - The total paid on the invoice after this entry.
+   * @param balanceAfter   - The balance due on the invoice after this entry.
+   */
+  public record LedgerEntry(String receiptNumber, double amount, double totalPaidAfter, double balanceAfter) {
+
+    /**
+     * @return - The balance due on the invoice before this entry.
+     */
+    public double balanceBefore() {
+      return balanceAfter + amount;
+    }
+  }
+
+  /**
+   * A change of the price of a reservation.
+   *
+   * @param reservationId      - The repriced reservation.
+   * @param previousTotalPrice - Its price before.
+   * @param totalPrice         - Its new price.
+   */
+  public record PriceChange(Long reservationId, double previousTotalPrice, double totalPrice) {
+  }
+}
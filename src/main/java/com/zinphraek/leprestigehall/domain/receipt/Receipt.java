@@ -1,6 +1,7 @@
 package com.zinphraek.leprestigehall.domain.receipt;
 
 import static com.zinphraek.leprestigehall.domain.constants.Constants.DATE_TIME_FORMAT;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.ID_ALLOCATION_SIZE;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.CascadeType;
@@ -10,6 +11,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -23,7 +25,8 @@ import java.util.Collection;
 public class Receipt {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "receipts_seq")
+  @SequenceGenerator(name = "receipts_seq", sequenceName = "receipts_seq", allocationSize = ID_ALLOCATION_SIZE)
   @Column(name = "id")
   private Long id;
 
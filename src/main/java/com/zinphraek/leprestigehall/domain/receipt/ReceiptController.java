@@ -1,5 +1,9 @@
 package com.zinphraek.leprestigehall.domain.receipt;
 
+import com.zinphraek.leprestigehall.domain.email.PdfRenderCache.RenderedPdf;
+import com.zinphraek.leprestigehall.domain.idempotency.IdempotencyKeys;
+import com.zinphraek.leprestigehall.utilities.helpers.CursorPage;
+import com.zinphraek.leprestigehall.utilities.helpers.ExportFormat;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
@@ -7,11 +11,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
 
+import static com.zinphraek.leprestigehall.domain.constants.Constants.IDEMPOTENCY_KEY_HEADER;
 import static com.zinphraek.leprestigehall.domain.constants.Paths.AdminPath;
+import static com.zinphraek.leprestigehall.domain.constants.Paths.ReceiptExportPath;
 import static com.zinphraek.leprestigehall.domain.constants.Paths.UserPath;
 
 @Controller
@@ -20,8 +27,12 @@ public class ReceiptController {
   @Autowired
   private final ReceiptServiceImplementation receiptService;
 
-  public ReceiptController(ReceiptServiceImplementation receiptService) {
+  @Autowired
+  private final IdempotencyKeys idempotencyKeys;
+
+  public ReceiptController(ReceiptServiceImplementation receiptService, IdempotencyKeys idempotencyKeys) {
     this.receiptService = receiptService;
+    this.idempotencyKeys = idempotencyKeys;
   }
 
   @PreAuthorize("hasRole('admin')")
@@ -31,6 +42,22 @@ public class ReceiptController {
     return new ResponseEntity<>(receiptService.getAllReceipts(params), HttpStatus.OK);
   }
 
+  @PreAuthorize("hasRole('admin')")
+  @GetMapping(value = AdminPath + "/receipts", params = "cursor")
+  public ResponseEntity<CursorPage<Receipt>> getAllReceiptsByCursor(
+      @RequestParam Map<String, String> params) {
+    return new ResponseEntity<>(receiptService.getAllReceiptsByCursor(params), HttpStatus.OK);
+  }
+
+  @PreAuthorize("hasRole('admin')")
+  @GetMapping(ReceiptExportPath)
+  public ResponseEntity<StreamingResponseBody> exportReceipts(
+      @RequestParam(required = false) Map<String, String> params) {
+    ExportFormat format = ExportFormat.fromParam(params.get("format"));
+    return new ResponseEntity<>(
+        receiptService.exportReceipts(params, format), format.attachmentHeaders("receipts"), HttpStatus.OK);
+  }
+
   @PreAuthorize("#userId == authentication.principal.subject or hasRole('admin')")
   @GetMapping(UserPath + "{userId}/receipts")
   public ResponseEntity<Page<Receipt>> getReceiptsByUserId(
@@ -45,10 +72,21 @@ public class ReceiptController {
     return new ResponseEntity<>(receiptService.getReceipt(receiptId), HttpStatus.OK);
   }
 
+  @PreAuthorize("#userId == authentication.principal.subject or hasRole('admin')")
+  @GetMapping(UserPath + "/{userId}/receipts/{receiptId}/pdf")
+  public ResponseEntity<byte[]> getReceiptPdf(
+      @PathVariable("userId") String userId, @PathVariable("receiptId") Long receiptId) {
+    RenderedPdf pdf = receiptService.getReceiptPdf(userId, receiptId);
+    return new ResponseEntity<>(pdf.content(), pdf.inlineHeaders("Receipt-" + receiptId + ".pdf"), HttpStatus.OK);
+  }
+
   @PreAuthorize("hasRole('admin')")
   @PostMapping(AdminPath + "/receipts")
-  public ResponseEntity<Receipt> createReceipt(@RequestPart("receipt") Receipt newReceipt) {
-    return new ResponseEntity<>(receiptService.createReceipt(newReceipt), HttpStatus.CREATED);
+  public ResponseEntity<Receipt> createReceipt(
+      @RequestPart("receipt") Receipt newReceipt,
+      @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+    return idempotencyKeys.execute(idempotencyKey, "POST " + AdminPath + "/receipts", newReceipt, Receipt.class,
+        () -> new ResponseEntity<>(receiptService.createReceipt(newReceipt), HttpStatus.CREATED));
   }
 
   @PreAuthorize("hasRole('admin')")
@@ -0,0 +1,45 @@
+package com.zinphraek.leprestigehall.domain.receipt;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Flat view of a receipt, as written to exports.
+ *
+ * @param id                       - The id of the receipt.
+ * @param receiptNumber            - The receipt number.
+ * @param receiptDate              - The date and time the receipt was issued.
+ * @param paymentDate              - The date and time of the payment.
+ * @param amountPaid               - The amount paid with this receipt.
+ * @param totalAmountPaidTillToday - The amount paid so far, this receipt included.
+ * @param prevBalance              - The balance before the payment.
+ * @param balanceDue               - The balance after the payment.
+ * @param paidBy                   - The name of the payer.
+ * @param cashierName              - The name of the cashier.
+ * @param reservationId            - The id of the reservation paid for.
+ * @param invoiceId                - The id of the invoice paid.
+ * @param userId                   - The id of the paying user.
+ */
+public record ReceiptExportRow(
+    Long id,
+    String receiptNumber,
+    LocalDateTime receiptDate,
+    LocalDateTime paymentDate,
+    Double amountPaid,
+    Double totalAmountPaidTillToday,
+    Double prevBalance,
+    Double balanceDue,
+    String paidBy,
+    String cashierName,
+    Long reservationId,
+    Long invoiceId,
+    String userId) {
+
+  /**
+   * The attribute of the receipt read into each component, in declaration order.
+   */
+  public static final List<String> COLUMNS = List.of(
+      "id", "receiptNumber", "receiptDate", "paymentDate", "amountPaid",
+      "totalAmountPaidTillToday", "prevBalance", "balanceDue", "paidBy", "cashierName",
+      "reservationId", "invoiceId", "userId");
+}
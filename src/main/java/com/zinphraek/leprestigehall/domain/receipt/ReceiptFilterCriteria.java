@@ -1,6 +1,9 @@
 package com.zinphraek.leprestigehall.domain.receipt;
 
 import static com.zinphraek.leprestigehall.domain.constants.Constants.DATE_TIME_FORMAT;
+import static com.zinphraek.leprestigehall.utilities.helpers.SpecificationFilters.*;
+
+import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -172,4 +175,30 @@ public class ReceiptFilterCriteria {
   public void setCashierName(String cashierName) {
     this.cashierName = cashierName;
   }
+
+  /**
+   * Translate the criteria into a specification holding a predicate for each filter supplied only.
+   * Ids are compared with equality, amounts and dates with a range, the receipt number and names
+   * on their prefix.
+   *
+   * @return The corresponding specification.
+   */
+  public Specification<Receipt> toSpecification() {
+    return allOf(
+        equal("id", id),
+        startsWith("receiptNumber", receiptNumber),
+        atMost("receiptDate", beforeReceiptDate),
+        atLeast("receiptDate", afterReceiptDate),
+        atLeast("amountPaid", greaterThanAmountPaid),
+        atMost("amountPaid", lessThanAmountPaid),
+        equal("reservationId", reservationId),
+        equal("userId", userId),
+        equal("invoiceId", invoiceId),
+        atMost("paymentDate", beforePaymentDate),
+        atLeast("paymentDate", afterPaymentDate),
+        atMost("balanceDue", lessThanBalanceDue),
+        atLeast("balanceDue", greaterThanBalanceDue),
+        startsWithIgnoreCase("paidBy", paidBy),
+        startsWithIgnoreCase("cashierName", cashierName));
+  }
 }
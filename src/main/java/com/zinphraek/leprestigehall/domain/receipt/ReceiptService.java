@@ -1,6 +1,10 @@
 package com.zinphraek.leprestigehall.domain.receipt;
 
+import com.zinphraek.leprestigehall.domain.email.PdfRenderCache.RenderedPdf;
+import com.zinphraek.leprestigehall.utilities.helpers.CursorPage;
+import com.zinphraek.leprestigehall.utilities.helpers.ExportFormat;
 import org.springframework.data.domain.Page;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -11,10 +15,16 @@ public interface ReceiptService {
 
   Page<Receipt> getAllReceipts(Map<String, String> params);
 
+  CursorPage<Receipt> getAllReceiptsByCursor(Map<String, String> params);
+
+  StreamingResponseBody exportReceipts(Map<String, String> params, ExportFormat format);
+
   Page<Receipt> getReceiptsByUserId(String userId, Map<String, String> params);
 
   Receipt getReceipt(Long receiptId);
 
+  RenderedPdf getReceiptPdf(String userId, Long receiptId);
+
   Receipt createReceipt(Receipt newReceipt);
 
   Receipt updateReceipt(Long receiptId, Receipt newReceipt);
@@ -2,9 +2,16 @@ package com.zinphraek.leprestigehall.domain.receipt;
 
 import com.zinphraek.leprestigehall.domain.email.EmailServiceImplementation;
 import com.zinphraek.leprestigehall.domain.email.Mail;
+import com.zinphraek.leprestigehall.domain.email.PdfRenderCache;
+import com.zinphraek.leprestigehall.domain.email.PdfRenderCache.RenderedPdf;
 import com.zinphraek.leprestigehall.domain.invoice.Invoice;
 import com.zinphraek.leprestigehall.domain.invoice.InvoiceService;
+import com.zinphraek.leprestigehall.utilities.helpers.CursorPage;
 import com.zinphraek.leprestigehall.utilities.helpers.CustomPage;
+import com.zinphraek.leprestigehall.utilities.helpers.ExportFormat;
+import com.zinphraek.leprestigehall.utilities.helpers.ExportRowReader;
+import com.zinphraek.leprestigehall.utilities.helpers.ExportWriter;
+import com.zinphraek.leprestigehall.utilities.helpers.KeysetPaginator;
 import com.zinphraek.leprestigehall.utilities.helpers.ReceiptServiceHelpers;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -13,19 +20,23 @@ import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.util.Pair;
 import org.springframework.http.HttpStatus;
-import org.springframework.mail.MailException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.IOException;
 import java.util.*;
 
 import static com.zinphraek.leprestigehall.domain.constants.Constants.*;
 import static com.zinphraek.leprestigehall.domain.constants.GenericResponseMessages.DATA_ACCESS_EXCEPTION_LOG_MESSAGE;
+import static com.zinphraek.leprestigehall.domain.constants.GenericResponseMessages.FIELD_MISMATCH_ERROR_MESSAGE;
+import static com.zinphraek.leprestigehall.domain.constants.GenericResponseMessages.GENERIC_UNEXPECTED_ERROR_LOG_MESSAGE;
 import static com.zinphraek.leprestigehall.domain.constants.GenericResponseMessages.GENERIC_UNEXPECTED_ERROR_MESSAGE;
-import static com.zinphraek.leprestigehall.utilities.helpers.GenericHelper.createCustomPageFromParams;
+import static com.zinphraek.leprestigehall.utilities.helpers.GenericHelper.createCappedCustomPageFromParams;
+import static com.zinphraek.leprestigehall.utilities.helpers.GenericHelper.defaultPageRequest;
 
 @Service
 public class ReceiptServiceImplementation implements ReceiptService {
@@ -45,17 +56,42 @@ public class ReceiptServiceImplementation implements ReceiptService {
   @Autowired
   private InvoiceService invoiceService;
 
+  @Autowired
+  private final KeysetPaginator keysetPaginator;
+
+  @Autowired
+  private final ExportWriter exportWriter;
+
+  @Autowired
+  private final ExportRowReader exportRowReader;
+
+  @Autowired
+  private final PdfRenderCache pdfRenderCache;
+
+  @Autowired
+  private final PaymentLedger paymentLedger;
+
   public ReceiptServiceImplementation(
       ReceiptServiceHelpers serviceHelpers,
       ReceiptRepository receiptRepository,
       EmailServiceImplementation emailService,
       PaymentRepository paymentRepository,
-      InvoiceService invoiceService) {
+      InvoiceService invoiceService,
+      KeysetPaginator keysetPaginator,
+      ExportWriter exportWriter,
+      ExportRowReader exportRowReader,
+      PdfRenderCache pdfRenderCache,
+      PaymentLedger paymentLedger) {
     this.serviceHelpers = serviceHelpers;
     this.receiptRepository = receiptRepository;
     this.emailService = emailService;
     this.paymentRepository = paymentRepository;
     this.invoiceService = invoiceService;
+    this.keysetPaginator = keysetPaginator;
+    this.exportWriter = exportWriter;
+    this.exportRowReader = exportRowReader;
+    this.pdfRenderCache = pdfRenderCache;
+    this.paymentLedger = paymentLedger;
   }
 
   /**
@@ -84,7 +120,7 @@ public class ReceiptServiceImplementation implements ReceiptService {
   private Pair<CustomPage, ReceiptFilterCriteria> generateCustomPageAndReceiptFilterCriteria(
       Map<String, String> params) {
 
-    CustomPage customPage = createCustomPageFromParams(params);
+    CustomPage customPage = createCappedCustomPageFromParams(params);
     ReceiptFilterCriteria receiptFilterCriteria = new ReceiptFilterCriteria();
 
     // Setting up the receiptFilterCriteria entity with the corresponding value in the param object.
@@ -161,35 +197,14 @@ public class ReceiptServiceImplementation implements ReceiptService {
   }
 
   /**
-   * Update the invoice with the receipt information.
+   * Copy the invoice totals left by a ledger entry onto its receipt.
    *
    * @param receipt The receipt entity.
+   * @param entry   The ledger entry of the receipt.
    */
-  private void updateInvoiceWithReceiptInformation(Receipt receipt, Invoice invoice) {
-
-    if (invoice.getAmountDue() < 0) {
-      logger.error("Amount paid cannot be greater than the balance due.");
-      throw new ResponseStatusException(
-          HttpStatus.BAD_REQUEST, "Amount paid cannot be greater than the balance due.");
-    }
-
-    if (receipt.getPrevBalance() == null) {
-      receipt.setPrevBalance(invoice.getReservation().getTotalPrice());
-    } else {
-      receipt.setPrevBalance(invoice.getAmountDue());
-    }
-
-    if (Objects.equals(invoice.getAmountDue(), receipt.getAmountPaid())) {
-      invoice.setAmountDue(0.0);
-      invoice.setStatus(STATUS_PAID);
-    } else {
-      invoice.setStatus(STATUS_PARTIALLY_PAID);
-      invoice.addPaymentSessionToTotalAmountPaid(receipt.getAmountPaid());
-      invoice.setAmountDue(invoice.getReservation().getTotalPrice() - invoice.getTotalAmountPaid());
-    }
-
-    receipt.setTotalAmountPaidTillToday(invoice.getTotalAmountPaid());
-    receipt.setBalanceDue(invoice.getAmountDue());
+  private void applyLedgerEntry(Receipt receipt, PaymentLedger.LedgerEntry entry) {
+    receipt.setTotalAmountPaidTillToday(entry.totalPaidAfter());
+    receipt.setBalanceDue(entry.balanceAfter());
   }
 
   /**
@@ -212,7 +227,7 @@ public class ReceiptServiceImplementation implements ReceiptService {
       mail.setEmailTemplate(GENERIC_EMAIL_TEMPLATE);
       logger.info("Sending receipt to: " + receiptMailDTO.address());
       emailService.sendEmail(mail);
-    } catch (IOException | RuntimeException e) {
+    } catch (RuntimeException e) {
       logger.error("Couldn't send receipt email.", e);
     }
 
@@ -227,7 +242,7 @@ public class ReceiptServiceImplementation implements ReceiptService {
   @Override
   public Page<Receipt> getAllReceipts(Map<String, String> params) {
     Page<Receipt> receipts;
-    Pageable pageable = Pageable.unpaged();
+    Pageable pageable = defaultPageRequest();
     Pair<CustomPage, ReceiptFilterCriteria> customPageAndReceiptFilterCriteria =
         Pair.of(new CustomPage(), new ReceiptFilterCriteria());
 
@@ -247,22 +262,7 @@ public class ReceiptServiceImplementation implements ReceiptService {
             );
       }
       receipts =
-          receiptRepository.findAllAndFilter(
-              customPageAndReceiptFilterCriteria.getSecond().getReceiptNumber(),
-              customPageAndReceiptFilterCriteria.getSecond().getBeforeReceiptDate(),
-              customPageAndReceiptFilterCriteria.getSecond().getAfterReceiptDate(),
-              customPageAndReceiptFilterCriteria.getSecond().getGreaterThanAmountPaid(),
-              customPageAndReceiptFilterCriteria.getSecond().getLessThanAmountPaid(),
-              customPageAndReceiptFilterCriteria.getSecond().getReservationId(),
-              customPageAndReceiptFilterCriteria.getSecond().getUserId(),
-              customPageAndReceiptFilterCriteria.getSecond().getInvoiceId(),
-              customPageAndReceiptFilterCriteria.getSecond().getBeforePaymentDate(),
-              customPageAndReceiptFilterCriteria.getSecond().getAfterPaymentDate(),
-              customPageAndReceiptFilterCriteria.getSecond().getGreaterThanBalanceDue(),
-              customPageAndReceiptFilterCriteria.getSecond().getLessThanBalanceDue(),
-              customPageAndReceiptFilterCriteria.getSecond().getPaidBy(),
-              customPageAndReceiptFilterCriteria.getSecond().getCashierName(),
-              pageable);
+          receiptRepository.findAll(customPageAndReceiptFilterCriteria.getSecond().toSpecification(), pageable);
     } catch (DataAccessException e) {
       logger.error("Oops! Something went wrong while trying to retrieve all receipts.");
       throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
@@ -274,6 +274,68 @@ public class ReceiptServiceImplementation implements ReceiptService {
     return receipts;
   }
 
+  /**
+   * Fetch the page of receipts following the provided cursor, without counting the total.
+   *
+   * @param params The params object, including the cursor.
+   * @return A page of receipts and the cursor of the following one.
+   */
+  @Override
+  public CursorPage<Receipt> getAllReceiptsByCursor(Map<String, String> params) {
+    logger.info("Fetching receipts...");
+    try {
+      Pair<CustomPage, ReceiptFilterCriteria> customPageAndReceiptFilterCriteria =
+          generateCustomPageAndReceiptFilterCriteria(params);
+
+      return keysetPaginator.findPage(
+          Receipt.class,
+          customPageAndReceiptFilterCriteria.getSecond().toSpecification(),
+          customPageAndReceiptFilterCriteria.getFirst(),
+          params.get("cursor"));
+    } catch (ResponseStatusException rse) {
+      throw rse;
+    } catch (DataAccessException e) {
+      logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, e);
+      throw new ResponseStatusException(
+          HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    } catch (RuntimeException re) {
+      logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, re);
+      throw new ResponseStatusException(
+          HttpStatus.INTERNAL_SERVER_ERROR, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    }
+  }
+
+  /**
+   * Stream the receipts matching the params object, whatever their number.
+   *
+   * @param params The params object, holding the filters and the sort order.
+   * @param format The file format of the export.
+   * @return A body writing the receipts once the response starts.
+   */
+  @Override
+  public StreamingResponseBody exportReceipts(Map<String, String> params, ExportFormat format) {
+    logger.info("Exporting receipts...");
+    try {
+      Pair<CustomPage, ReceiptFilterCriteria> customPageAndReceiptFilterCriteria =
+          generateCustomPageAndReceiptFilterCriteria(params);
+      ReceiptFilterCriteria receiptFilterCriteria = customPageAndReceiptFilterCriteria.getSecond();
+      Sort sort = Sort.by(
+          customPageAndReceiptFilterCriteria.getFirst().getSortDirection(),
+          customPageAndReceiptFilterCriteria.getFirst().getSortBy());
+
+      return exportWriter.write(format, ReceiptExportRow.class, () -> exportRowReader.read(
+          Receipt.class,
+          ReceiptExportRow.class,
+          ReceiptExportRow.COLUMNS,
+          receiptFilterCriteria.toSpecification(),
+          sort));
+    } catch (RuntimeException re) {
+      logger.error(GENERIC_UNEXPECTED_ERROR_LOG_MESSAGE, re);
+      throw new ResponseStatusException(
+          HttpStatus.INTERNAL_SERVER_ERROR, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    }
+  }
+
   /**
    * Fetch all receipts from the database belonging to a single user.
    *
@@ -284,7 +346,7 @@ public class ReceiptServiceImplementation implements ReceiptService {
   @Override
   public Page<Receipt> getReceiptsByUserId(String userId, Map<String, String> params) {
     Page<Receipt> receipts;
-    Pageable pageable = Pageable.unpaged();
+    Pageable pageable = defaultPageRequest();
     try {
       if (params.isEmpty()) {
         receipts = receiptRepository.findByUserId(userId, pageable);
@@ -301,23 +363,11 @@ public class ReceiptServiceImplementation implements ReceiptService {
                 customPageAndReceiptFilterCriteria.getFirst().getSortDirection(),
                 customPageAndReceiptFilterCriteria.getFirst().getSortBy());
 
+        // Restricting the receipts to the provided user, whatever the params say.
+        customPageAndReceiptFilterCriteria.getSecond().setUserId(userId);
+
         receipts =
-            receiptRepository.findAllAndFilter(
-                customPageAndReceiptFilterCriteria.getSecond().getReceiptNumber(),
-                customPageAndReceiptFilterCriteria.getSecond().getBeforeReceiptDate(),
-                customPageAndReceiptFilterCriteria.getSecond().getAfterReceiptDate(),
-                customPageAndReceiptFilterCriteria.getSecond().getGreaterThanAmountPaid(),
-                customPageAndReceiptFilterCriteria.getSecond().getLessThanAmountPaid(),
-                customPageAndReceiptFilterCriteria.getSecond().getReservationId(),
-                userId,
-                customPageAndReceiptFilterCriteria.getSecond().getInvoiceId(),
-                customPageAndReceiptFilterCriteria.getSecond().getBeforePaymentDate(),
-                customPageAndReceiptFilterCriteria.getSecond().getAfterPaymentDate(),
-                customPageAndReceiptFilterCriteria.getSecond().getGreaterThanBalanceDue(),
-                customPageAndReceiptFilterCriteria.getSecond().getLessThanBalanceDue(),
-                customPageAndReceiptFilterCriteria.getSecond().getPaidBy(),
-                customPageAndReceiptFilterCriteria.getSecond().getCashierName(),
-                pageable);
+            receiptRepository.findAll(customPageAndReceiptFilterCriteria.getSecond().toSpecification(), pageable);
       }
     } catch (DataAccessException e) {
       logger.error(
@@ -359,12 +409,40 @@ public class ReceiptServiceImplementation implements ReceiptService {
     return optionalReceipt.get();
   }
 
+  /**
+   * Render a receipt to PDF. The document is only converted again once the receipt changed.
+   *
+   * @param userId    - The id of the user the receipt must belong to.
+   * @param receiptId - The receipt id.
+   * @return The rendered receipt and its content key.
+   */
+  @Override
+  public RenderedPdf getReceiptPdf(String userId, Long receiptId) {
+    Receipt receipt = getReceipt(receiptId);
+    if (!Objects.equals(receipt.getUserId(), userId)) {
+      logger.error("Receipt with id: " + receiptId + " does not exist.");
+      throw new ResponseStatusException(
+          HttpStatus.NOT_FOUND, "Receipt with id: " + receiptId + " does not exist.");
+    }
+    Invoice invoice = invoiceService.getInvoice(receipt.getInvoiceId());
+
+    try {
+      return pdfRenderCache.render(serviceHelpers.createReceiptAttachment(receipt, invoice));
+    } catch (ResponseStatusException rse) {
+      throw rse;
+    } catch (RuntimeException re) {
+      logger.error("Could not render receipt " + receiptId + " to PDF.", re);
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    }
+  }
+
   /**
    * Persist a new receipt to the database.
    *
    * @param newReceipt The new receipt.
    * @return The new receipt.
    */
+  @Transactional
   @Override
   public Receipt createReceipt(Receipt newReceipt) {
 
@@ -385,16 +463,20 @@ public class ReceiptServiceImplementation implements ReceiptService {
       throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
     }
 
+    // Posting the payment locks the invoice until this payment commits, so the invoice read next
+    // already includes any payment posted concurrently.
+    PaymentLedger.LedgerEntry entry;
+    try {
+      entry = paymentLedger.postPayment(newReceipt.getInvoiceId(), newReceipt.getAmountPaid());
+    } catch (DataAccessException e) {
+      logger.error("Oops! Something went wrong while trying to post the payment.", e);
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+    }
     Invoice invoice = invoiceService.getInvoice(newReceipt.getInvoiceId());
-    long numberOfReceipts = receiptRepository.countByInvoiceId(newReceipt.getInvoiceId()) + 1;
 
-    String receiptNumber =
-        "RR" + invoice.getReservation().getId() + "IN000" + invoice.getId() + numberOfReceipts;
-
-    newReceipt.setReceiptNumber(receiptNumber);
-    newReceipt.addThisPaymentSessionToTotalAmountPaid(newReceipt.getThisPaymentSessionSum());
-
-    updateInvoiceWithReceiptInformation(newReceipt, invoice);
+    newReceipt.setReceiptNumber(entry.receiptNumber());
+    newReceipt.setPrevBalance(entry.balanceBefore());
+    applyLedgerEntry(newReceipt, entry);
 
     try {
       logger.info("Creating a new receipt...");
@@ -402,11 +484,6 @@ public class ReceiptServiceImplementation implements ReceiptService {
       persistPayments(newReceipt);
       logger.info("Successfully created a new receipt with id: " + newReceipt.getId());
 
-      // Update the invoice with the receipt information.
-      logger.info("Updating invoice with id: " + invoice.getId());
-      invoiceService.updateInvoice(invoice.getId(), invoice);
-      logger.info("Successfully updated invoice with id: " + invoice.getId());
-
       // Sending email to the user.
       Mail mail =
           serviceHelpers.getMail(
@@ -416,9 +493,6 @@ public class ReceiptServiceImplementation implements ReceiptService {
     } catch (DataAccessException e) {
       logger.error("Oops! Something went wrong while trying to create a new receipt.");
       throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
-    } catch (MailException | IOException e) {
-      logger.error("Couldn't send confirmation email.");
-      logger.error(e);
     }
     return newReceipt;
   }
@@ -430,6 +504,7 @@ public class ReceiptServiceImplementation implements ReceiptService {
    * @param newReceipt The new receipt.
    * @return The updated receipt.
    */
+  @Transactional
   @Override
   public Receipt updateReceipt(Long receiptId, Receipt newReceipt) {
 
@@ -440,23 +515,35 @@ public class ReceiptServiceImplementation implements ReceiptService {
           "Receipt id: " + receiptId + " does not match the id in the receipt object.");
     }
 
-    if (!receiptRepository.existsById(receiptId)) {
-      logger.error("Receipt with id: " + receiptId + " does not exist.");
+    Receipt receipt = getReceipt(receiptId);
+    if (!Objects.equals(receipt.getInvoiceId(), newReceipt.getInvoiceId())) {
+      logger.error(String.format(FIELD_MISMATCH_ERROR_MESSAGE, "Invoice"));
       throw new ResponseStatusException(
-          HttpStatus.NOT_FOUND, "Receipt with id: " + receiptId + " does not exist.");
+          HttpStatus.BAD_REQUEST, String.format(FIELD_MISMATCH_ERROR_MESSAGE, "Invoice"));
     }
+    newReceipt.setReceiptNumber(receipt.getReceiptNumber());
+    newReceipt.setPrevBalance(receipt.getPrevBalance());
 
-    // Update the invoice with the receipt information.
+    // A changed amount is posted as a correction; the original payment stays in the ledger.
+    double difference = newReceipt.getAmountPaid() - receipt.getAmountPaid();
+    if (Math.abs(difference) > LEDGER_CENT_TOLERANCE) {
+      try {
+        applyLedgerEntry(newReceipt,
+            paymentLedger.postAdjustment(receipt.getInvoiceId(), receipt.getReceiptNumber(), difference));
+      } catch (DataAccessException e) {
+        logger.error("Oops! Something went wrong while trying to post the payment correction.", e);
+        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+      }
+    } else {
+      newReceipt.setTotalAmountPaidTillToday(receipt.getTotalAmountPaidTillToday());
+      newReceipt.setBalanceDue(receipt.getBalanceDue());
+    }
     Invoice invoice = invoiceService.getInvoice(newReceipt.getInvoiceId());
 
-    updateInvoiceWithReceiptInformation(newReceipt, invoice);
-
     try {
       receiptRepository.save(newReceipt);
       logger.info("Receipt with id: " + receiptId + " successfully updated.");
 
-      invoiceService.updateInvoice(invoice.getId(), invoice);
-
       // Sending email to the user.
       Mail mail =
           serviceHelpers.getMail(
@@ -467,9 +554,6 @@ public class ReceiptServiceImplementation implements ReceiptService {
       logger.error(
           "Oops! Something went wrong while trying to update receipt with id: " + receiptId);
       throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
-    } catch (MailException | IOException e) {
-      logger.error("Couldn't send confirmation email.");
-      logger.error(e);
     }
 
     return newReceipt;
@@ -0,0 +1,23 @@
+package com.zinphraek.leprestigehall.domain.repricing;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.DATE_TIME_FORMAT;
+
+/**
+ * The price change of one reservation under the current rate card.
+ *
+ * @param reservationId      - The id of the reservation.
+ * @param startingDateTime   - The date and time when the reservation starts.
+ * @param previousTotalPrice - Its total price under its rate card.
+ * @param totalPrice         - Its total price under the current rate card.
+ */
+public record RepricingDiff(
+    Long reservationId,
+    @JsonFormat(pattern = DATE_TIME_FORMAT) LocalDateTime startingDateTime,
+    double previousTotalPrice,
+    double totalPrice
+) {
+}
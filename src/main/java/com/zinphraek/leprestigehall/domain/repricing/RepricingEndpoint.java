@@ -0,0 +1,57 @@
+package com.zinphraek.leprestigehall.domain.repricing;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.REPRICING_DEFAULT_CHUNK_SIZE;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.REPRICING_MAX_CHUNK_SIZE;
+
+/**
+ * Actuator endpoint starting reservation repricing runs and reporting their progress, at
+ * {@code /actuator/repricing}.
+ */
+@Component
+@WebEndpoint(id = "repricing")
+public class RepricingEndpoint {
+
+  @Autowired
+  private final ReservationRepricing reservationRepricing;
+
+  public RepricingEndpoint(ReservationRepricing reservationRepricing) {
+    this.reservationRepricing = reservationRepricing;
+  }
+
+  /**
+   * @return - The progress of the latest run on this instance.
+   */
+  @ReadOperation
+  public WebEndpointResponse<RepricingProgress> progress() {
+    return reservationRepricing.progress()
+        .map(WebEndpointResponse::new)
+        .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+  }
+
+  /**
+   * Start repricing the future reservations with the current rate card of their venue.
+   *
+   * @param dryRun    - Whether to only report the price changes (defaults to false).
+   * @param chunkSize - The number of reservations handled per chunk (optional).
+   * @return - The progress of the new run.
+   */
+  @WriteOperation
+  public WebEndpointResponse<RepricingProgress> start(@Nullable Boolean dryRun, @Nullable Integer chunkSize) {
+    int size = chunkSize == null ? REPRICING_DEFAULT_CHUNK_SIZE : chunkSize;
+    if (size < 1 || size > REPRICING_MAX_CHUNK_SIZE) {
+      return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+    }
+    return reservationRepricing.start(Boolean.TRUE.equals(dryRun), size)
+        .map(progress -> new WebEndpointResponse<>(progress, HttpStatus.ACCEPTED.value()))
+        .orElseGet(() -> new WebEndpointResponse<>(HttpStatus.CONFLICT.value()));
+  }
+}
@@ -0,0 +1,41 @@
+package com.zinphraek.leprestigehall.domain.repricing;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.DATE_TIME_FORMAT;
+
+/**
+ * Where a repricing run stands.
+ *
+ * @param running          - Whether the run is still going.
+ * @param dryRun           - Whether the run only reports the price changes, without writing them.
+ * @param rateCardVersions - The version of the rate card reservations are repriced with, keyed by venue id.
+ * @param chunkSize        - The number of reservations handled per chunk.
+ * @param startedAt        - When the run started.
+ * @param finishedAt       - When the run finished, if it did.
+ * @param scanned          - The number of reservations priced so far.
+ * @param repriced         - The number of reservations whose price changed (or would change).
+ * @param skipped          - The number of reservations left alone because they changed meanwhile.
+ * @param invoicesUpdated  - The number of open invoices whose amount due was updated.
+ * @param failedChunks     - The number of chunks that failed and were rolled back.
+ * @param diffs            - The first price changes found, for review.
+ */
+public record RepricingProgress(
+    boolean running,
+    boolean dryRun,
+    Map<Long, Long> rateCardVersions,
+    int chunkSize,
+    @JsonFormat(pattern = DATE_TIME_FORMAT) LocalDateTime startedAt,
+    @JsonFormat(pattern = DATE_TIME_FORMAT) LocalDateTime finishedAt,
+    long scanned,
+    long repriced,
+    long skipped,
+    long invoicesUpdated,
+    int failedChunks,
+    List<RepricingDiff> diffs
+) {
+}
@@ -0,0 +1,361 @@
+package com.zinphraek.leprestigehall.domain.repricing;
+
+import com.zinphraek.leprestigehall.domain.addon.RateCard;
+import com.zinphraek.leprestigehall.domain.addon.RateCardRegistry;
+import com.zinphraek.leprestigehall.domain.analytics.ReservationRollups;
+import com.zinphraek.leprestigehall.domain.analytics.RevenueShift;
+import com.zinphraek.leprestigehall.domain.receipt.PaymentLedger;
+import com.zinphraek.leprestigehall.domain.reservation.RateAndDiscountInterner;
+import com.zinphraek.leprestigehall.domain.reservation.Reservation;
+import com.zinphraek.leprestigehall.domain.reservation.ReservationRate;
+import com.zinphraek.leprestigehall.domain.reservation.ReservationRepository;
+import com.zinphraek.leprestigehall.utilities.helpers.ReservationServiceHelper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.*;
+
+/**
+ * Reprices the future reservations that were priced with an older rate card of their venue.
+ * <p>
+ * A run walks the candidates of each venue by id, one chunk at a time, and hands each chunk to a
+ * bounded pool of workers; once the pool and its queue are full the walk prices the next chunk
+ * itself, so it never runs ahead of the writes. A worker loads its chunk with its rates, discount
+ * and add-ons in one read-only query, prices every reservation against its venue's rate card as
+ * captured by the run, then writes the chunk in one transaction: one batched update of the
+ * reservations, one posting the price changes to the ledger of their open invoices and one of the
+ * daily rollups. Each reservation update only applies if the row still carries the price and rate
+ * card version it was loaded with, so rows edited meanwhile, or repriced by another instance, are
+ * skipped rather than overwritten. A dry run prices the chunks the same way but only reports the
+ * price changes. Reservations priced manually are left alone.
+ */
+@Component
+public class ReservationRepricing {
+
+  private static final String REPRICE_RESERVATION_QUERY =
+      "UPDATE reservations SET total_price = ?, add_ons_total_cost = ?, rates_id = ?, rate_card_version = ? "
+          + "WHERE id = ? AND total_price = ? AND COALESCE(rate_card_version, -1) = ?";
+
+  private final Logger logger = LogManager.getLogger(ReservationRepricing.class);
+
+  private final AtomicReference<Run> current = new AtomicReference<>();
+
+  @Autowired
+  private final ReservationRepository reservationRepository;
+
+  @Autowired
+  private final RateCardRegistry rateCardRegistry;
+
+  @Autowired
+  private final RateAndDiscountInterner rateAndDiscountInterner;
+
+  @Autowired
+  private final ReservationRollups reservationRollups;
+
+  @Autowired
+  private final ReservationServiceHelper serviceHelper;
+
+  @Autowired
+  private final PaymentLedger paymentLedger;
+
+  @Autowired
+  private final JdbcTemplate jdbcTemplate;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final TransactionTemplate readOnlyTransactionTemplate;
+
+  @Autowired
+  public ReservationRepricing(
+      ReservationRepository reservationRepository,
+      RateCardRegistry rateCardRegistry,
+      RateAndDiscountInterner rateAndDiscountInterner,
+      ReservationRollups reservationRollups,
+      ReservationServiceHelper serviceHelper,
+      PaymentLedger paymentLedger,
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager) {
+    this.reservationRepository = reservationRepository;
+    this.rateCardRegistry = rateCardRegistry;
+    this.rateAndDiscountInterner = rateAndDiscountInterner;
+    this.reservationRollups = reservationRollups;
+    this.serviceHelper = serviceHelper;
+    this.paymentLedger = paymentLedger;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+    this.readOnlyTransactionTemplate.setReadOnly(true);
+  }
+
+  /**
+   * Start a run in the background, unless one is already going on on this instance.
+   *
+   * @param dryRun    - Whether to only report the price changes, without writing them.
+   * @param chunkSize - The number of reservations handled per chunk.
+   * @return - The progress of the new run, or empty if a run is already going on.
+   */
+  public Optional<RepricingProgress> start(boolean dryRun, int chunkSize) {
+    Run previous = current.get();
+    Run run = new Run(dryRun, chunkSize);
+    if (previous != null && previous.isRunning() || !current.compareAndSet(previous, run)) {
+      return Optional.empty();
+    }
+
+    Thread thread = new Thread(() -> execute(run), "reservation-repricing");
+    thread.setDaemon(true);
+    thread.start();
+    return Optional.of(run.progress());
+  }
+
+  /**
+   * @return - The progress of the latest run on this instance, if any.
+   */
+  public Optional<RepricingProgress> progress() {
+    return Optional.ofNullable(current.get()).map(Run::progress);
+  }
+
+  /**
+   * Run a repricing in the calling thread.
+   *
+   * @param dryRun    - Whether to only report the price changes, without writing them.
+   * @param chunkSize - The number of reservations handled per chunk.
+   * @return - The progress of the finished run.
+   */
+  RepricingProgress run(boolean dryRun, int chunkSize) {
+    Run run = new Run(dryRun, chunkSize);
+    current.set(run);
+    execute(run);
+    return run.progress();
+  }
+
+  private void execute(Run run) {
+    logger.info((run.dryRun ? "Dry run of the repricing" : "Repricing") + " of future reservations started.");
+    ThreadPoolExecutor workers = new ThreadPoolExecutor(
+        REPRICING_WORKERS, REPRICING_WORKERS, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(REPRICING_WORKERS), new ThreadPoolExecutor.CallerRunsPolicy());
+
+    try {
+      LocalDateTime now = LocalDateTime.now();
+      Pageable chunk = PageRequest.of(0, run.chunkSize);
+      // Rates may have changed through another instance since this one last checked.
+      rateCardRegistry.synchronize();
+      for (Long venueId : reservationRepository.findVenueIdsStartingAfter(now)) {
+        RateCard rateCard = rateCardRegistry.current(venueId);
+        run.rateCardVersions.put(venueId, rateCard.version());
+        long cursor = 0L;
+        while (true) {
+          List<Long> ids = reservationRepository.findIdsToReprice(
+              cursor, venueId, now, STATUS_CANCELLED, COMPUTATION_METHOD_MANUAL_FLAG, rateCard.version(), chunk);
+          if (ids.isEmpty()) {
+            break;
+          }
+          workers.execute(() -> repriceChunk(run, rateCard, ids));
+          cursor = ids.get(ids.size() - 1);
+          if (ids.size() < run.chunkSize) {
+            break;
+          }
+        }
+      }
+    } catch (RuntimeException e) {
+      run.failedChunks.incrementAndGet();
+      logger.error("Repricing stopped while listing reservations.", e);
+    } finally {
+      workers.shutdown();
+      try {
+        while (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+          logger.info("Repricing still in progress: " + run.scanned.sum() + " reservations priced.");
+        }
+      } catch (InterruptedException e) {
+        workers.shutdownNow();
+        Thread.currentThread().interrupt();
+      }
+      run.finishedAt = LocalDateTime.now();
+    }
+
+    logger.info((run.dryRun ? "Dry run of the repricing" : "Repricing") + " finished: "
+        + run.scanned.sum() + " reservations priced, " + run.repriced.sum() + " with a new price, "
+        + run.skipped.sum() + " skipped, " + run.failedChunks.get() + " chunks failed.");
+  }
+
+  /**
+   * Price a chunk of reservations, and write the new prices unless the run is a dry run. A failed
+   * chunk is rolled back and counted, and the run moves on.
+   *
+   * @param run      - The run the chunk belongs to.
+   * @param rateCard - The rate card of the venue of the chunk.
+   * @param ids      - The ids of the reservations of the chunk.
+   */
+  private void repriceChunk(Run run, RateCard rateCard, List<Long> ids) {
+    try {
+      // Loaded in a transaction of its own, so the priced entities are detached and never flushed.
+      List<Reservation> reservations = readOnlyTransactionTemplate.execute(
+          status -> reservationRepository.findForRepricingByIdIn(ids));
+      List<Repriced> repriced = new ArrayList<>(reservations.size());
+      for (Reservation reservation : reservations) {
+        Repriced entry = new Repriced(reservation, reservation.getTotalPrice(),
+            reservation.getAddOnsTotalCost(), reservation.getRateCardVersion());
+        serviceHelper.computeTotalPrice(reservation, rateCard);
+        repriced.add(entry);
+      }
+
+      Written written = run.dryRun ? new Written(repriced, 0) : transactionTemplate.execute(status -> write(repriced));
+      run.scanned.add(repriced.size());
+      run.skipped.add(repriced.size() - written.reservations().size());
+      run.invoicesUpdated.add(written.invoices());
+      written.reservations().stream().filter(Repriced::priceChanged).forEach(entry -> {
+        run.repriced.increment();
+        run.record(entry.diff());
+      });
+    } catch (RuntimeException e) {
+      run.failedChunks.incrementAndGet();
+      logger.error("Repricing of the reservations " + ids.get(0) + " to " + ids.get(ids.size() - 1) + " failed.", e);
+    }
+  }
+
+  /**
+   * Write the new prices of a chunk, in the surrounding transaction.
+   *
+   * @param repriced - The priced reservations of the chunk.
+   * @return - The reservations actually updated, and the number of invoices updated with them.
+   */
+  private Written write(List<Repriced> repriced) {
+    // Reservations of a chunk mostly share the same rates; each distinct set is only resolved once.
+    Map<String, ReservationRate> ratesByContentHash = new HashMap<>();
+    List<Object[]> rows = new ArrayList<>(repriced.size());
+    for (Repriced entry : repriced) {
+      Reservation reservation = entry.reservation();
+      ReservationRate rates = reservation.getRates();
+      reservation.setRates(ratesByContentHash.computeIfAbsent(rates.computeContentHash(), contentHash -> {
+        rateAndDiscountInterner.intern(rates);
+        return rates;
+      }));
+      rows.add(new Object[]{
+          reservation.getTotalPrice(),
+          reservation.getAddOnsTotalCost(),
+          reservation.getRates().getId(),
+          reservation.getRateCardVersion(),
+          reservation.getId(),
+          entry.previousTotalPrice(),
+          Objects.requireNonNullElse(entry.previousRateCardVersion(), -1L)});
+    }
+
+    int[] counts = jdbcTemplate.batchUpdate(REPRICE_RESERVATION_QUERY, rows);
+    List<Repriced> written = new ArrayList<>(repriced.size());
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] != 0) {
+        written.add(repriced.get(i));
+      }
+    }
+
+    reservationRollups.shiftRevenue(written.stream()
+        .filter(Repriced::priceChanged)
+        .map(entry -> RevenueShift.of(
+            entry.reservation(), entry.previousTotalPrice(), entry.previousAddOnsTotalCost()))
+        .toList());
+    return new Written(written, written.isEmpty() ? 0 : updateInvoices(written));
+  }
+
+  /**
+   * Bring the amount due of the open invoices of the updated reservations in line with their new
+   * price, through the payment ledger. Paid and withdrawn invoices are settled and stay as they are.
+   *
+   * @param written - The reservations updated.
+   * @return - The number of invoices updated.
+   */
+  private int updateInvoices(List<Repriced> written) {
+    return paymentLedger.postRepricings(written.stream()
+        .filter(Repriced::priceChanged)
+        .map(entry -> new PaymentLedger.PriceChange(
+            entry.reservation().getId(), entry.previousTotalPrice(), entry.reservation().getTotalPrice()))
+        .toList());
+  }
+
+  private record Repriced(
+      Reservation reservation, double previousTotalPrice, Double previousAddOnsTotalCost, Long previousRateCardVersion) {
+
+    boolean priceChanged() {
+      return reservation.getTotalPrice() != previousTotalPrice;
+    }
+
+    RepricingDiff diff() {
+      return new RepricingDiff(
+          reservation.getId(), reservation.getStartingDateTime(), previousTotalPrice, reservation.getTotalPrice());
+    }
+  }
+
+  private record Written(List<Repriced> reservations, int invoices) {
+  }
+
+  private static final class Run {
+
+    private final boolean dryRun;
+
+    private final int chunkSize;
+
+    private final Map<Long, Long> rateCardVersions = new ConcurrentHashMap<>();
+
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    private volatile LocalDateTime finishedAt;
+
+    private final LongAdder scanned = new LongAdder();
+
+    private final LongAdder repriced = new LongAdder();
+
+    private final LongAdder skipped = new LongAdder();
+
+    private final LongAdder invoicesUpdated = new LongAdder();
+
+    private final AtomicInteger failedChunks = new AtomicInteger();
+
+    private final List<RepricingDiff> diffs = new ArrayList<>();
+
+    private Run(boolean dryRun, int chunkSize) {
+      this.dryRun = dryRun;
+      this.chunkSize = chunkSize;
+    }
+
+    private boolean isRunning() {
+      return finishedAt == null;
+    }
+
+    private void record(RepricingDiff diff) {
+      synchronized (diffs) {
+        if (diffs.size() < REPRICING_MAX_DIFFS) {
+          diffs.add(diff);
+        }
+      }
+    }
+
+    private RepricingProgress progress() {
+      List<RepricingDiff> diffsSoFar;
+      synchronized (diffs) {
+        diffsSoFar = List.copyOf(diffs);
+      }
+      return new RepricingProgress(isRunning(), dryRun, Map.copyOf(rateCardVersions), chunkSize, startedAt, finishedAt,
+          scanned.sum(), repriced.sum(), skipped.sum(), invoicesUpdated.sum(), failedChunks.get(), diffsSoFar);
+    }
+  }
+}
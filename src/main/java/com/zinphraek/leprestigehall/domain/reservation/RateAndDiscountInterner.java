@@ -0,0 +1,98 @@
+package com.zinphraek.leprestigehall.domain.reservation;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.MAX_INTERNED_RATES_AND_DISCOUNTS;
+
+/**
+ * Resolves reservation rates and discounts to a single shared row per distinct content.
+ * <p>
+ * Rows are keyed by the content hash of their values. Known hashes are answered from memory;
+ * unknown ones go through a single upsert statement, so concurrent bookings cannot insert
+ * duplicates. Rate and discount rows are never modified in place, so a remembered id stays valid.
+ */
+@Component
+public class RateAndDiscountInterner {
+
+  private final Map<String, Long> rateIds = new ConcurrentHashMap<>();
+
+  private final Map<String, Long> discountIds = new ConcurrentHashMap<>();
+
+  @Autowired
+  private final ReservationRateRepo reservationRateRepo;
+
+  @Autowired
+  private final ReservationDiscountRepo reservationDiscountRepo;
+
+  public RateAndDiscountInterner(
+      ReservationRateRepo reservationRateRepo, ReservationDiscountRepo reservationDiscountRepo) {
+    this.reservationRateRepo = reservationRateRepo;
+    this.reservationDiscountRepo = reservationDiscountRepo;
+  }
+
+  /**
+   * Point the rate at the row holding the same values, creating the row if needed.
+   *
+   * @param rate - The rate to resolve; its id and content hash are set in place.
+   */
+  public void intern(ReservationRate rate) {
+    String contentHash = rate.computeContentHash();
+    rate.setContentHash(contentHash);
+    rate.setId(resolve(rateIds, contentHash, () -> reservationRateRepo.upsert(
+            rate.getCleaningRate(), rate.getFacilityRate(), rate.getOvertimeRate(), rate.getSeatRate(), contentHash)
+        .or(() -> reservationRateRepo.findIdByContentHash(contentHash))));
+  }
+
+  /**
+   * Point the discount at the row holding the same values, creating the row if needed.
+   *
+   * @param discount - The discount to resolve; its id and content hash are set in place.
+   */
+  public void intern(ReservationDiscount discount) {
+    String contentHash = discount.computeContentHash();
+    discount.setContentHash(contentHash);
+    discount.setId(resolve(discountIds, contentHash, () -> reservationDiscountRepo.upsert(
+            discount.getPercentage(), discount.getAmount(), discount.getName(), discount.getCode(),
+            discount.getType(), discount.getAvailable(), discount.getDescription(), contentHash)
+        .or(() -> reservationDiscountRepo.findIdByContentHash(contentHash))));
+  }
+
+  private Long resolve(Map<String, Long> ids, String contentHash, Supplier<Optional<Long>> upsert) {
+    Long id = ids.get(contentHash);
+    if (id != null) {
+      return id;
+    }
+
+    id = upsert.get().orElseThrow(() -> new IllegalStateException(
+        "No row found for content hash " + contentHash + " right after upserting it."));
+    remember(ids, contentHash, id);
+    return id;
+  }
+
+  /**
+   * Cache the id once the surrounding transaction commits, so a rolled back insert is never served.
+   */
+  private void remember(Map<String, Long> ids, String contentHash, Long id) {
+    if (ids.size() >= MAX_INTERNED_RATES_AND_DISCOUNTS) {
+      return;
+    }
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          ids.put(contentHash, id);
+        }
+      });
+    } else {
+      ids.put(contentHash, id);
+    }
+  }
+}
@@ -4,7 +4,6 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.zinphraek.leprestigehall.domain.addon.RequestedAddOn;
 import com.zinphraek.leprestigehall.utilities.annotations.AllowedValues;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
@@ -20,7 +19,8 @@ import static com.zinphraek.leprestigehall.domain.constants.Constants.*;
 public class Reservation {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservations_seq")
+  @SequenceGenerator(name = "reservations_seq", sequenceName = "reservations_seq", allocationSize = ID_ALLOCATION_SIZE)
   @Column(name = "id")
   private Long id;
 
@@ -33,7 +33,6 @@ public class Reservation {
   private LocalDateTime effectiveEndingDateTime;
 
   @NotNull(message = "Number of seats is required")
-  @Max(value = 200, message = "Maximum number of seats is 200")
   private int numberOfSeats;
 
   @NotBlank(message = "Event type is required")
@@ -107,6 +106,10 @@ public class Reservation {
       message = "Invalid price computation method")
   private String priceComputationMethod;
 
+  private Long rateCardVersion;
+
+  private Long venueId = DEFAULT_VENUE_ID;
+
   @NotBlank(message = "User is required")
   private String userId;
 
@@ -270,6 +273,25 @@ public class Reservation {
     this.priceComputationMethod = priceComputationMethod;
   }
 
+  public Long getRateCardVersion() {
+    return rateCardVersion;
+  }
+
+  public void setRateCardVersion(Long rateCardVersion) {
+    this.rateCardVersion = rateCardVersion;
+  }
+
+  public Long getVenueId() {
+    return venueId;
+  }
+
+  /**
+   * @param venueId - The venue booked; bookings made without one go to the original hall.
+   */
+  public void setVenueId(Long venueId) {
+    this.venueId = venueId != null ? venueId : DEFAULT_VENUE_ID;
+  }
+
   public String getUserId() {
     return userId;
   }
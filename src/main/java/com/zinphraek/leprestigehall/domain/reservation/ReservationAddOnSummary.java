@@ -0,0 +1,25 @@
+package com.zinphraek.leprestigehall.domain.reservation;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * An add-on requested for a reservation, as shown in reservation listings.
+ *
+ * @param reservationId - The reservation the add-on was requested for.
+ * @param id            - The id of the requested add-on.
+ * @param addOnId       - The id of the add-on.
+ * @param name          - The name of the add-on.
+ * @param category      - The category of the add-on.
+ * @param price         - The unit price of the add-on.
+ * @param quantity      - The requested quantity.
+ */
+public record ReservationAddOnSummary(
+    @JsonIgnore Long reservationId,
+    Long id,
+    Long addOnId,
+    String name,
+    String category,
+    Double price,
+    Double quantity
+) {
+}
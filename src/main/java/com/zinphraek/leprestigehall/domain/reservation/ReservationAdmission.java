@@ -0,0 +1,164 @@
+package com.zinphraek.leprestigehall.domain.reservation;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.*;
+import static com.zinphraek.leprestigehall.domain.constants.GenericResponseMessages.DATA_ACCESS_EXCEPTION_LOG_MESSAGE;
+import static com.zinphraek.leprestigehall.domain.constants.GenericResponseMessages.GENERIC_UNEXPECTED_ERROR_MESSAGE;
+
+/**
+ * Serializes bookings whose time windows could conflict, and only those.
+ * <p>
+ * A booking locks every calendar day of its venue touched by its window widened by the reservation
+ * buffer. Two conflicting bookings therefore always share at least one venue day. Within this
+ * instance, venue days map to a fixed set of striped locks. Across instances, each venue day is
+ * also guarded by a transaction-scoped PostgreSQL advisory lock. The availability check and the
+ * insert run inside that transaction, so no other booking for the same venue days can pass the
+ * check until this one has committed or rolled back. Bookings for different days, or different
+ * venues, never wait on each other.
+ */
+@Component
+public class ReservationAdmission {
+
+  private static final String ADVISORY_LOCK_QUERY = "SELECT 1 FROM pg_advisory_xact_lock(?, ?)";
+
+  private final Logger logger = LogManager.getLogger(ReservationAdmission.class);
+
+  private final ReentrantLock[] stripes = new ReentrantLock[BOOKING_LOCK_STRIPES];
+
+  @Autowired
+  private final JdbcTemplate jdbcTemplate;
+
+  private final TransactionTemplate transactionTemplate;
+
+  @Autowired
+  public ReservationAdmission(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    for (int i = 0; i < stripes.length; i++) {
+      stripes[i] = new ReentrantLock();
+    }
+  }
+
+  /**
+   * Run a booking once no other booking touching the same days of the same venue is in flight.
+   *
+   * @param venueId - The venue booked.
+   * @param start   - The date and time when the reservation starts.
+   * @param end     - The date and time when the reservation (effectively) ends.
+   * @param booking - The availability check and writes of the booking.
+   * @param <T>     - The type of the booking result.
+   * @return - The result of the booking, once its transaction has committed.
+   */
+  public <T> T admit(Long venueId, LocalDateTime start, LocalDateTime end, Supplier<T> booking) {
+    return admitDays(venueId, daysCovered(start, end), booking);
+  }
+
+  /**
+   * Run a booking spanning several windows of a venue, such as a reservation series, once no other
+   * booking touching any of their days is in flight. Only the days of the windows are locked, not
+   * the days in between.
+   *
+   * @param venueId - The venue booked.
+   * @param windows - The windows of the booking.
+   * @param booking - The availability check and writes of the booking.
+   * @param <T>     - The type of the booking result.
+   * @return - The result of the booking, once its transaction has committed.
+   */
+  public <T> T admitAll(Long venueId, Collection<ReservationInterval> windows, Supplier<T> booking) {
+    SortedSet<LocalDate> days = new TreeSet<>();
+    windows.forEach(window -> days.addAll(daysCovered(window.start(), window.end())));
+    return admitDays(venueId, new ArrayList<>(days), booking);
+  }
+
+  private <T> T admitDays(Long venueId, List<LocalDate> days, Supplier<T> booking) {
+    List<Integer> keys = days.stream().map(day -> lockKey(venueId, day)).toList();
+    List<ReentrantLock> locks = stripesFor(keys);
+
+    try {
+      for (ReentrantLock lock : locks) {
+        lock.lockInterruptibly();
+      }
+    } catch (InterruptedException e) {
+      unlock(locks);
+      Thread.currentThread().interrupt();
+      logger.error("Interrupted while waiting for the booking locks.", e);
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    }
+
+    try {
+      return transactionTemplate.execute(status -> {
+        keys.forEach(key -> jdbcTemplate.queryForObject(
+            ADVISORY_LOCK_QUERY, Integer.class, BOOKING_ADVISORY_LOCK_NAMESPACE, key));
+        return booking.get();
+      });
+    } catch (DataAccessException | TransactionException e) {
+      logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, e);
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    } finally {
+      unlock(locks);
+    }
+  }
+
+  /**
+   * List the calendar days, in ascending order, touched by the buffered window. Acquiring the
+   * advisory locks in this order keeps two instances from deadlocking on each other.
+   */
+  static List<LocalDate> daysCovered(LocalDateTime start, LocalDateTime end) {
+    List<LocalDate> days = new ArrayList<>();
+    if (start == null) {
+      return days;
+    }
+
+    LocalDate day = start.minusHours(RESERVATION_BUFFER_HOURS).toLocalDate();
+    LocalDate lastDay = (end != null && end.isAfter(start) ? end : start)
+        .plusHours(RESERVATION_BUFFER_HOURS).toLocalDate();
+    while (!day.isAfter(lastDay)) {
+      days.add(day);
+      day = day.plusDays(1);
+    }
+    return days;
+  }
+
+  /**
+   * The lock key of a day of a venue. Keys grow with the day, so ascending days lock in ascending
+   * key order; the same day of neighbouring venues gets neighbouring keys, and thus other stripes.
+   */
+  static int lockKey(Long venueId, LocalDate day) {
+    return (int) (day.toEpochDay() * BOOKING_LOCK_VENUE_SLOTS + Math.floorMod(venueId, BOOKING_LOCK_VENUE_SLOTS));
+  }
+
+  /**
+   * Map lock keys to their stripes, deduplicated and ordered by stripe index, so that every thread
+   * locks stripes in the same order.
+   */
+  private List<ReentrantLock> stripesFor(List<Integer> keys) {
+    SortedSet<Integer> indexes = new TreeSet<>();
+    keys.forEach(key -> indexes.add(Math.floorMod(key, stripes.length)));
+    return indexes.stream().map(index -> stripes[index]).toList();
+  }
+
+  private void unlock(List<ReentrantLock> locks) {
+    locks.stream().filter(ReentrantLock::isHeldByCurrentThread).forEach(ReentrantLock::unlock);
+  }
+}
@@ -0,0 +1,17 @@
+package com.zinphraek.leprestigehall.domain.reservation;
+
+import java.time.LocalDateTime;
+
+/**
+ * A contiguous stretch of the booking calendar that is either open for booking or not.
+ *
+ * @param start     - Start of the block.
+ * @param end       - End of the block.
+ * @param available - Whether a reservation may be placed within the block.
+ */
+public record ReservationAvailabilityBlock(
+    LocalDateTime start,
+    LocalDateTime end,
+    boolean available
+) {
+}
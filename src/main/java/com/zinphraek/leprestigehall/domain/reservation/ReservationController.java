@@ -1,55 +1,138 @@
 package com.zinphraek.leprestigehall.domain.reservation;
 
+import com.zinphraek.leprestigehall.domain.idempotency.IdempotencyKeys;
+import com.zinphraek.leprestigehall.utilities.helpers.CursorPage;
+import com.zinphraek.leprestigehall.utilities.helpers.ExportFormat;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
+import static com.zinphraek.leprestigehall.domain.constants.Constants.DEFAULT_VENUE_ID;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.IDEMPOTENCY_KEY_HEADER;
+import static com.zinphraek.leprestigehall.domain.constants.Paths.ReservationAvailabilityPath;
+import static com.zinphraek.leprestigehall.domain.constants.Paths.ReservationExportPath;
+import static com.zinphraek.leprestigehall.domain.constants.Paths.ReservationHoldPath;
 import static com.zinphraek.leprestigehall.domain.constants.Paths.ReservationPath;
+import static com.zinphraek.leprestigehall.domain.constants.Paths.ReservationQuotesPath;
+import static com.zinphraek.leprestigehall.domain.constants.Paths.ReservationSeriesPath;
 import static com.zinphraek.leprestigehall.domain.constants.Paths.UserPath;
 
 /**
  * Reservation endpoint.
  */
 @RestController
+@Validated
 public class ReservationController {
 
   @Autowired
   private final ReservationServiceImplementation reservationService;
 
-  public ReservationController(ReservationServiceImplementation reservationService) {
+  @Autowired
+  private final IdempotencyKeys idempotencyKeys;
+
+  public ReservationController(
+      ReservationServiceImplementation reservationService, IdempotencyKeys idempotencyKeys) {
     this.reservationService = reservationService;
+    this.idempotencyKeys = idempotencyKeys;
   }
 
   @PreAuthorize("hasRole('admin')")
   @GetMapping(ReservationPath)
-  public ResponseEntity<Page<Reservation>> getReservations(
+  public ResponseEntity<Page<ReservationSummary>> getReservations(
       @RequestParam(required = false) Map<String, String> params) {
     return new ResponseEntity<>(reservationService.getReservations(params), HttpStatus.OK);
   }
 
+  @PreAuthorize("hasRole('admin')")
+  @GetMapping(value = ReservationPath, params = "cursor")
+  public ResponseEntity<CursorPage<ReservationSummary>> getReservationsByCursor(
+      @RequestParam Map<String, String> params) {
+    return new ResponseEntity<>(reservationService.getReservationsByCursor(params), HttpStatus.OK);
+  }
+
+  @PreAuthorize("hasRole('admin')")
+  @GetMapping(ReservationExportPath)
+  public ResponseEntity<StreamingResponseBody> exportReservations(
+      @RequestParam(required = false) Map<String, String> params) {
+    ExportFormat format = ExportFormat.fromParam(params.get("format"));
+    return new ResponseEntity<>(
+        reservationService.exportReservations(params, format), format.attachmentHeaders("reservations"), HttpStatus.OK);
+  }
+
   @PreAuthorize("#userId == #principal.subject or hasRole('admin')")
   @GetMapping(UserPath + "/{userId}" + ReservationPath)
-  public ResponseEntity<Page<Reservation>> getReservationByUserId(
+  public ResponseEntity<Page<ReservationSummary>> getReservationByUserId(
       @PathVariable String userId,
       @RequestParam(required = false) Map<String, String> params,
       @AuthenticationPrincipal Jwt principal) {
-    Page<Reservation> userReservations = reservationService.getReservationsByUserId(userId, params);
+    Page<ReservationSummary> userReservations = reservationService.getReservationsByUserId(userId, params);
     return new ResponseEntity<>(userReservations, HttpStatus.OK);
   }
 
+  @PreAuthorize("#userId == #principal.subject or hasRole('admin')")
+  @GetMapping(UserPath + "/{userId}" + ReservationPath + "/{id}")
+  public ResponseEntity<Reservation> getReservation(
+      @PathVariable String userId, @PathVariable Long id, @AuthenticationPrincipal Jwt principal) {
+    return new ResponseEntity<>(reservationService.getReservation(userId, id), HttpStatus.OK);
+  }
+
+  @GetMapping(ReservationAvailabilityPath)
+  public ResponseEntity<List<ReservationAvailabilityBlock>> getAvailability(
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      @RequestParam(required = false) Long venueId) {
+    return new ResponseEntity<>(reservationService.getAvailability(
+        venueId != null ? venueId : DEFAULT_VENUE_ID, from, to), HttpStatus.OK);
+  }
+
+  @PostMapping(ReservationQuotesPath)
+  public ResponseEntity<List<ReservationQuote>> quoteReservations(
+      @RequestPart("quotes") List<@Valid ReservationQuoteRequest> quoteRequests) {
+    return new ResponseEntity<>(reservationService.quoteReservations(quoteRequests), HttpStatus.OK);
+  }
+
   @PostMapping(ReservationPath)
   public ResponseEntity<Reservation> createReservation(
-      @RequestPart("reservation") Reservation newReservation) {
-    Reservation reservation = reservationService.createReservation(newReservation);
-    return new ResponseEntity<>(reservation, HttpStatus.CREATED);
+      @RequestPart("reservation") Reservation newReservation,
+      @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+    return idempotencyKeys.execute(idempotencyKey, "POST " + ReservationPath, newReservation, Reservation.class,
+        () -> new ResponseEntity<>(reservationService.createReservation(newReservation), HttpStatus.CREATED));
+  }
+
+  @PostMapping(ReservationSeriesPath)
+  public ResponseEntity<ReservationSeries> createReservationSeries(
+      @RequestPart("series") ReservationSeriesRequest seriesRequest,
+      @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+    return idempotencyKeys.execute(idempotencyKey, "POST " + ReservationSeriesPath, seriesRequest, ReservationSeries.class,
+        () -> {
+          ReservationSeries series = reservationService.createReservationSeries(seriesRequest);
+          return new ResponseEntity<>(series, series.booked() > 0 ? HttpStatus.CREATED : HttpStatus.CONFLICT);
+        });
+  }
+
+  @PostMapping(ReservationHoldPath)
+  public ResponseEntity<ReservationHold> placeHold(
+      @RequestPart("hold") ReservationHoldRequest holdRequest, @AuthenticationPrincipal Jwt principal) {
+    return new ResponseEntity<>(reservationService.placeHold(principal.getSubject(), holdRequest), HttpStatus.CREATED);
+  }
+
+  @DeleteMapping(ReservationHoldPath + "/{holdId}")
+  public ResponseEntity<Void> releaseHold(@PathVariable String holdId, @AuthenticationPrincipal Jwt principal) {
+    reservationService.releaseHold(principal.getSubject(), holdId);
+    return new ResponseEntity<>(HttpStatus.NO_CONTENT);
   }
 
   @PreAuthorize("#updatedReservation.userId == #principal.subject or hasRole('admin')")
@@ -1,9 +1,12 @@
 package com.zinphraek.leprestigehall.domain.reservation;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.zinphraek.leprestigehall.utilities.annotations.AllowedValues;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 
+import static com.zinphraek.leprestigehall.utilities.helpers.GenericHelper.contentHash;
+
 @Entity
 @Table(name = "reservation_discounts")
 public class ReservationDiscount {
@@ -26,6 +29,10 @@ public class ReservationDiscount {
   private Boolean isAvailable;
   private String description;
 
+  @JsonIgnore
+  @Column(unique = true, length = 64)
+  private String contentHash;
+
   public ReservationDiscount() {
   }
 
@@ -112,6 +119,27 @@ public class ReservationDiscount {
     this.description = description;
   }
 
+  public String getContentHash() {
+    return contentHash;
+  }
+
+  public void setContentHash(String contentHash) {
+    this.contentHash = contentHash;
+  }
+
+  /**
+   * @return - A fingerprint of the discount, shared by every discount row holding the same values.
+   */
+  public String computeContentHash() {
+    return contentHash(percentage, amount, name, code, type, isAvailable, description);
+  }
+
+  @PrePersist
+  @PreUpdate
+  void updateContentHash() {
+    contentHash = computeContentHash();
+  }
+
   public Double applyDiscount(Double price) {
     if (this.type.equals("Percentage")) {
       return price * (1 - this.percentage / 100);
@@ -1,26 +1,43 @@
 package com.zinphraek.leprestigehall.domain.reservation;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 public interface ReservationDiscountRepo extends JpaRepository<ReservationDiscount, Long> {
 
-  boolean existsByPercentageAndAmountAndNameAndCodeAndTypeAndIsAvailableAndDescription(
-      Double percentage,
-      Double amount,
-      String name,
-      String code,
-      String type,
-      Boolean isAvailable,
-      String description);
+  /**
+   * Insert the discount unless a row with the same content hash exists, in a single statement.
+   *
+   * @return - The id of the inserted or existing row. Empty only if the existing row was committed
+   * by a concurrent transaction after this statement started.
+   */
+  @Transactional
+  @Query(
+      value = "WITH inserted AS ("
+          + "INSERT INTO reservation_discounts "
+          + "(percentage, amount, name, code, type, is_available, description, content_hash) "
+          + "VALUES (CAST(:percentage AS float8), CAST(:amount AS float8), CAST(:name AS varchar), "
+          + "CAST(:code AS varchar), CAST(:type AS varchar), CAST(:isAvailable AS boolean), "
+          + "CAST(:description AS varchar), :contentHash) "
+          + "ON CONFLICT (content_hash) DO NOTHING RETURNING id) "
+          + "SELECT id FROM inserted "
+          + "UNION ALL SELECT id FROM reservation_discounts WHERE content_hash = :contentHash "
+          + "LIMIT 1",
+      nativeQuery = true)
+  Optional<Long> upsert(
+      @Param("percentage") Double percentage,
+      @Param("amount") Double amount,
+      @Param("name") String name,
+      @Param("code") String code,
+      @Param("type") String type,
+      @Param("isAvailable") Boolean isAvailable,
+      @Param("description") String description,
+      @Param("contentHash") String contentHash);
 
-  Optional<ReservationDiscount> findByPercentageAndAmountAndNameAndCodeAndTypeAndIsAvailableAndDescription(
-      Double percentage,
-      Double amount,
-      String name,
-      String code,
-      String type,
-      Boolean isAvailable,
-      String description);
+  @Query("SELECT d.id FROM ReservationDiscount d WHERE d.contentHash = :contentHash")
+  Optional<Long> findIdByContentHash(@Param("contentHash") String contentHash);
 }
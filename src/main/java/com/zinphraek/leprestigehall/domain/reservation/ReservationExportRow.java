@@ -0,0 +1,47 @@
+package com.zinphraek.leprestigehall.domain.reservation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Flat view of a reservation, as written to exports.
+ *
+ * @param id                        - The id of the reservation.
+ * @param userId                    - The id of the user who made the reservation.
+ * @param eventType                 - The type of event.
+ * @param status                    - The status of the reservation.
+ * @param startingDateTime          - The date and time when the reservation starts.
+ * @param endingDateTime            - The date and time when the reservation ends.
+ * @param effectiveEndingDateTime   - The date and time when the reservation effectively ends, if set.
+ * @param numberOfSeats             - The number of seats.
+ * @param isFullPackage             - Whether the full package was booked.
+ * @param addOnsTotalCost           - The total cost of the requested add-ons.
+ * @param taxRate                   - The tax rate applied.
+ * @param totalPrice                - The total price.
+ * @param isSecurityDepositRefunded - Whether the security deposit was refunded.
+ * @param priceComputationMethod    - How the price was computed.
+ */
+public record ReservationExportRow(
+    Long id,
+    String userId,
+    String eventType,
+    String status,
+    LocalDateTime startingDateTime,
+    LocalDateTime endingDateTime,
+    LocalDateTime effectiveEndingDateTime,
+    Integer numberOfSeats,
+    Boolean isFullPackage,
+    Double addOnsTotalCost,
+    Double taxRate,
+    Double totalPrice,
+    Boolean isSecurityDepositRefunded,
+    String priceComputationMethod) {
+
+  /**
+   * The attribute of the reservation read into each component, in declaration order.
+   */
+  public static final List<String> COLUMNS = List.of(
+      "id", "userId", "eventType", "status", "startingDateTime", "endingDateTime",
+      "effectiveEndingDateTime", "numberOfSeats", "isFullPackage", "addOnsTotalCost", "taxRate",
+      "totalPrice", "isSecurityDepositRefunded", "priceComputationMethod");
+}
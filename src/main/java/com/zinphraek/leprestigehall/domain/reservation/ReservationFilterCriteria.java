@@ -1,6 +1,9 @@
 package com.zinphraek.leprestigehall.domain.reservation;
 
 import static com.zinphraek.leprestigehall.domain.constants.Constants.DATE_TIME_FORMAT;
+import static com.zinphraek.leprestigehall.utilities.helpers.SpecificationFilters.*;
+
+import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -15,11 +18,11 @@ public class ReservationFilterCriteria {
 
   private String eventType;
 
-  private boolean isFullPackage;
+  private Boolean isFullPackage;
 
   private String status;
 
-  private boolean isSecurityDepositRefunded;
+  private Boolean isSecurityDepositRefunded;
 
   private Double taxRate;
 
@@ -31,6 +34,8 @@ public class ReservationFilterCriteria {
 
   private String userId;
 
+  private Long venueId;
+
   public ReservationFilterCriteria() {
   }
 
@@ -90,11 +95,11 @@ public class ReservationFilterCriteria {
     this.eventType = eventType;
   }
 
-  public boolean isFullPackage() {
+  public Boolean isFullPackage() {
     return isFullPackage;
   }
 
-  public void setFullPackage(boolean fullPackage) {
+  public void setFullPackage(Boolean fullPackage) {
     isFullPackage = fullPackage;
   }
 
@@ -107,11 +112,11 @@ public class ReservationFilterCriteria {
   }
 
 
-  public boolean isSecurityDepositRefunded() {
+  public Boolean isSecurityDepositRefunded() {
     return isSecurityDepositRefunded;
   }
 
-  public void setSecurityDepositRefunded(boolean securityDepositRefunded) {
+  public void setSecurityDepositRefunded(Boolean securityDepositRefunded) {
     isSecurityDepositRefunded = securityDepositRefunded;
   }
 
@@ -154,4 +159,35 @@ public class ReservationFilterCriteria {
   public void setUserId(String userId) {
     this.userId = userId;
   }
+
+  public Long getVenueId() {
+    return venueId;
+  }
+
+  public void setVenueId(Long venueId) {
+    this.venueId = venueId;
+  }
+
+  /**
+   * Translate the criteria into a specification holding a predicate for each filter supplied only.
+   * The event type, status and price computation method take their values from closed sets and are
+   * compared with equality, like the flags and ids; the start and the price with a range. That
+   * equality is case-sensitive: the values must be spelled as stored, such as {@code Booked}.
+   *
+   * @return The corresponding specification.
+   */
+  public Specification<Reservation> toSpecification() {
+    return allOf(
+        equal("venueId", venueId),
+        atMost("startingDateTime", startedBefore),
+        atLeast("startingDateTime", startedAfter),
+        equal("eventType", eventType),
+        equal("isFullPackage", isFullPackage),
+        equal("status", status),
+        equal("isSecurityDepositRefunded", isSecurityDepositRefunded),
+        atLeast("totalPrice", minTotalPrice),
+        atMost("totalPrice", maxTotalPrice),
+        equal("userId", userId),
+        equal("priceComputationMethod", priceComputationMethod));
+  }
 }
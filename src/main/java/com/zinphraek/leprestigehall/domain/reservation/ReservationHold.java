@@ -0,0 +1,39 @@
+package com.zinphraek.leprestigehall.domain.reservation;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.DATE_TIME_FORMAT;
+
+/**
+ * A time window kept free for a customer while they complete their booking.
+ *
+ * @param id               - The token of the hold.
+ * @param userId           - The customer holding the window.
+ * @param venueId          - The venue of the held window.
+ * @param startingDateTime - The date and time when the held window starts.
+ * @param endingDateTime   - The date and time when the held window (effectively) ends.
+ * @param expiresAt        - When the window is released unless booked.
+ */
+public record ReservationHold(
+    String id,
+    String userId,
+    Long venueId,
+    @JsonFormat(pattern = DATE_TIME_FORMAT) LocalDateTime startingDateTime,
+    @JsonFormat(pattern = DATE_TIME_FORMAT) LocalDateTime endingDateTime,
+    @JsonFormat(pattern = DATE_TIME_FORMAT) LocalDateTime expiresAt
+) {
+
+  /**
+   * Check whether this hold intersects with the provided (inclusive) window of a venue.
+   *
+   * @param venueId - The venue of the window.
+   * @param from    - Start of the window.
+   * @param to      - End of the window.
+   * @return - True if both windows are at the same venue and share at least one instant.
+   */
+  public boolean overlaps(Long venueId, LocalDateTime from, LocalDateTime to) {
+    return this.venueId.equals(venueId) && !startingDateTime.isAfter(to) && !endingDateTime.isBefore(from);
+  }
+}
@@ -0,0 +1,33 @@
+package com.zinphraek.leprestigehall.domain.reservation;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.DATE_TIME_FORMAT;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.DEFAULT_VENUE_ID;
+
+/**
+ * A window to hold while the customer completes their booking.
+ *
+ * @param startingDateTime        - The date and time when the event would start.
+ * @param endingDateTime          - The date and time when the event would end.
+ * @param effectiveEndingDateTime - The date and time when the event would effectively end (optional).
+ * @param minutes                 - How long to hold the window (optional).
+ * @param venueId                 - The venue of the window (optional, defaults to the main hall).
+ */
+public record ReservationHoldRequest(
+    @NotNull @JsonFormat(pattern = DATE_TIME_FORMAT) LocalDateTime startingDateTime,
+    @NotNull @JsonFormat(pattern = DATE_TIME_FORMAT) LocalDateTime endingDateTime,
+    @JsonFormat(pattern = DATE_TIME_FORMAT) LocalDateTime effectiveEndingDateTime,
+    Integer minutes,
+    Long venueId
+) {
+
+  public ReservationHoldRequest {
+    if (venueId == null) {
+      venueId = DEFAULT_VENUE_ID;
+    }
+  }
+}
@@ -0,0 +1,189 @@
+package com.zinphraek.leprestigehall.domain.reservation;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.*;
+import static com.zinphraek.leprestigehall.domain.constants.GenericResponseMessages.DATA_ACCESS_EXCEPTION_LOG_MESSAGE;
+
+/**
+ * Tentative holds on booking windows, kept while customers complete their booking.
+ * <p>
+ * Holds live in {@code reservation_holds} only, which every check and the availability calendar
+ * query, so holds placed on any instance are honoured and a hold takes effect, or is released,
+ * with the transaction writing it. Every query ignores expired rows, so expiry needs no timer per
+ * hold: a single statement purges the expired rows periodically, whichever instance placed them.
+ */
+@Component
+public class ReservationHolds {
+
+  private static final String SELECT_COLUMNS =
+      "SELECT id, user_id, venue_id, starting_date_time, ending_date_time, expires_at FROM reservation_holds ";
+
+  private static final String INSERT_QUERY =
+      "INSERT INTO reservation_holds (id, user_id, venue_id, starting_date_time, ending_date_time, created_at, expires_at) "
+          + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+  private static final String OVERLAPPING_QUERY = SELECT_COLUMNS
+      + "WHERE expires_at > ? AND user_id <> ? AND venue_id = ? AND starting_date_time <= ? "
+      + "AND ending_date_time >= ? ORDER BY starting_date_time";
+
+  private static final String EXISTS_OVERLAPPING_QUERY =
+      "SELECT EXISTS (SELECT 1 FROM reservation_holds "
+          + "WHERE expires_at > ? AND user_id <> ? AND venue_id = ? AND starting_date_time <= ? "
+          + "AND ending_date_time >= ?)";
+
+  private static final String HOLDER_LOCK_QUERY = "SELECT 1 FROM pg_advisory_xact_lock(?, hashtext(?))";
+
+  private static final String COUNT_ACTIVE_QUERY =
+      "SELECT COUNT(*) FROM reservation_holds WHERE expires_at > ? AND user_id = ?";
+
+  private static final String RELEASE_QUERY = "DELETE FROM reservation_holds WHERE id = ? AND user_id = ?";
+
+  private static final String RELEASE_OVERLAPPING_QUERY =
+      "DELETE FROM reservation_holds "
+          + "WHERE user_id = ? AND venue_id = ? AND starting_date_time <= ? AND ending_date_time >= ?";
+
+  private static final String PURGE_QUERY = "DELETE FROM reservation_holds WHERE expires_at <= ?";
+
+  private static final RowMapper<ReservationHold> HOLD_MAPPER = (rs, rowNum) -> new ReservationHold(
+      rs.getString("id"),
+      rs.getString("user_id"),
+      rs.getLong("venue_id"),
+      rs.getTimestamp("starting_date_time").toLocalDateTime(),
+      rs.getTimestamp("ending_date_time").toLocalDateTime(),
+      rs.getTimestamp("expires_at").toLocalDateTime());
+
+  private final Logger logger = LogManager.getLogger(ReservationHolds.class);
+
+  @Autowired
+  private final JdbcTemplate jdbcTemplate;
+
+  public ReservationHolds(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Hold a window for a customer. The hold takes effect once the surrounding transaction commits.
+   *
+   * @param userId  - The customer.
+   * @param venueId - The venue of the window.
+   * @param start   - The date and time when the held window starts.
+   * @param end     - The date and time when the held window (effectively) ends.
+   * @param minutes - How long to hold the window.
+   * @return - The new hold.
+   */
+  public ReservationHold place(String userId, Long venueId, LocalDateTime start, LocalDateTime end, int minutes) {
+    LocalDateTime now = LocalDateTime.now();
+    ReservationHold hold = new ReservationHold(
+        UUID.randomUUID().toString(), userId, venueId, start, end, now.plusMinutes(minutes));
+    jdbcTemplate.update(INSERT_QUERY, hold.id(), userId, venueId, start, end, now, hold.expiresAt());
+    return hold;
+  }
+
+  /**
+   * Release a hold before it expires.
+   *
+   * @param holdId - The token of the hold.
+   * @param userId - The customer holding it.
+   * @return - True if the customer held it.
+   */
+  public boolean release(String holdId, String userId) {
+    return jdbcTemplate.update(RELEASE_QUERY, holdId, userId) > 0;
+  }
+
+  /**
+   * Release the holds of a customer intersecting a window, typically once they booked it, in the
+   * same transaction, so a booking rolled back keeps them.
+   *
+   * @param userId  - The customer.
+   * @param venueId - The venue of the window.
+   * @param from    - Start of the window.
+   * @param to      - End of the window.
+   */
+  public void releaseOverlapping(String userId, Long venueId, LocalDateTime from, LocalDateTime to) {
+    jdbcTemplate.update(RELEASE_OVERLAPPING_QUERY, userId, venueId, to, from);
+  }
+
+  /**
+   * Check, against every instance, whether another customer holds part of a window.
+   *
+   * @param venueId        - The venue of the window.
+   * @param from           - Start of the window.
+   * @param to             - End of the window.
+   * @param excludedUserId - The customer booking the window, whose own holds never block them.
+   * @return - True if the window is held by someone else.
+   */
+  public boolean existsOverlapping(Long venueId, LocalDateTime from, LocalDateTime to, String excludedUserId) {
+    return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+        EXISTS_OVERLAPPING_QUERY, Boolean.class, LocalDateTime.now(), orNone(excludedUserId), venueId, to, from));
+  }
+
+  /**
+   * Find, against every instance, the active holds of other customers intersecting a window.
+   *
+   * @param venueId        - The venue of the window.
+   * @param from           - Start of the window.
+   * @param to             - End of the window.
+   * @param excludedUserId - The customer whose own holds are ignored.
+   * @return - The holds, ordered by starting date-time.
+   */
+  public List<ReservationHold> findActiveOverlapping(
+      Long venueId, LocalDateTime from, LocalDateTime to, String excludedUserId) {
+    return jdbcTemplate.query(
+        OVERLAPPING_QUERY, HOLD_MAPPER, LocalDateTime.now(), orNone(excludedUserId), venueId, to, from);
+  }
+
+  /**
+   * Serialize the hold placements of a customer across every instance until the surrounding
+   * transaction ends, so that counting their active holds and placing a new one cannot interleave
+   * with another placement. Must be called inside a transaction.
+   *
+   * @param userId - The customer.
+   */
+  public void lockHolder(String userId) {
+    jdbcTemplate.queryForObject(HOLDER_LOCK_QUERY, Integer.class, HOLD_ADVISORY_LOCK_NAMESPACE, userId);
+  }
+
+  /**
+   * @param userId - The customer.
+   * @return - The number of active holds of the customer, across every instance.
+   */
+  public int countActive(String userId) {
+    Integer count = jdbcTemplate.queryForObject(COUNT_ACTIVE_QUERY, Integer.class, LocalDateTime.now(), userId);
+    return count == null ? 0 : count;
+  }
+
+  /**
+   * Drop the expired holds, including those of instances that stopped before they expired.
+   */
+  @Scheduled(fixedDelay = HOLD_PURGE_INTERVAL_MS)
+  public void purgeExpired() {
+    try {
+      int purged = jdbcTemplate.update(PURGE_QUERY, LocalDateTime.now());
+      if (purged > 0) {
+        logger.info(purged + " expired reservation holds purged.");
+      }
+    } catch (DataAccessException e) {
+      // Expired rows are ignored by every query; the next purge drops them.
+      logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, e);
+    }
+  }
+
+  /**
+   * User ids are never blank, so a blank id excludes nobody.
+   */
+  private String orNone(String userId) {
+    return userId == null ? "" : userId;
+  }
+}
@@ -0,0 +1,39 @@
+package com.zinphraek.leprestigehall.domain.reservation;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight view of the time window occupied by a reservation.
+ *
+ * @param id      - The id of the reservation.
+ * @param venueId - The venue booked.
+ * @param start   - The date and time when the reservation starts.
+ * @param end     - The date and time when the reservation (effectively) ends.
+ */
+public record ReservationInterval(Long id, Long venueId, LocalDateTime start, LocalDateTime end) {
+
+  /**
+   * Build the interval occupied by a reservation, preferring the effective ending date-time when set.
+   *
+   * @param reservation - The reservation to map.
+   * @return - The interval occupied by the reservation.
+   */
+  public static ReservationInterval of(Reservation reservation) {
+    LocalDateTime end = reservation.getEffectiveEndingDateTime() != null
+        ? reservation.getEffectiveEndingDateTime()
+        : reservation.getEndingDateTime();
+    return new ReservationInterval(
+        reservation.getId(), reservation.getVenueId(), reservation.getStartingDateTime(), end);
+  }
+
+  /**
+   * Check whether this interval intersects with the provided (inclusive) window.
+   *
+   * @param from - Start of the window.
+   * @param to   - End of the window.
+   * @return - True if both intervals share at least one instant.
+   */
+  public boolean overlaps(LocalDateTime from, LocalDateTime to) {
+    return !start.isAfter(to) && !end.isBefore(from);
+  }
+}
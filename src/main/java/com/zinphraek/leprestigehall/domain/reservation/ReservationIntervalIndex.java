@@ -0,0 +1,237 @@
+package com.zinphraek.leprestigehall.domain.reservation;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.STATUS_CANCELLED;
+
+/**
+ * In-memory index of the time windows occupied by non-cancelled reservations, partitioned by venue.
+ * <p>
+ * Each venue has its own partition, with intervals kept sorted by starting date-time, so an overlap
+ * lookup only seeks within that venue's partition to {@code from - longestInterval} and walks forward
+ * until {@code to}. Bookings of one venue never scan, nor wait on, another venue's intervals. The
+ * index is warmed at startup and updated by the reservation service once each write commits. It
+ * does not see the writes of other instances, so neither a hit nor a miss is an answer: the
+ * database confirms every lookup, and the hits it does not confirm are evicted.
+ */
+@Component
+public class ReservationIntervalIndex implements CommandLineRunner {
+
+  private static final Comparator<ReservationInterval> BY_START =
+      Comparator.comparing(ReservationInterval::start).thenComparing(ReservationInterval::id);
+
+  private final Logger logger = LogManager.getLogger(ReservationIntervalIndex.class);
+
+  private final Map<Long, Partition> partitions = new ConcurrentHashMap<>();
+
+  private final Map<Long, ReservationInterval> intervalsById = new ConcurrentHashMap<>();
+
+  @Autowired
+  private final ReservationRepository reservationRepository;
+
+  public ReservationIntervalIndex(ReservationRepository reservationRepository) {
+    this.reservationRepository = reservationRepository;
+  }
+
+  /**
+   * Warm the index once the application context is ready.
+   *
+   * @param args All arguments
+   */
+  @Override
+  public void run(String... args) {
+    logger.info("Reservation interval index warmed with " + rebuild() + " intervals.");
+  }
+
+  /**
+   * Reload every upcoming non-cancelled reservation interval from the database.
+   *
+   * @return - The number of intervals indexed.
+   */
+  public synchronized int rebuild() {
+    List<ReservationInterval> upcoming =
+        reservationRepository.findIntervalsEndingAfter(LocalDateTime.now(), STATUS_CANCELLED);
+
+    partitions.clear();
+    intervalsById.clear();
+    upcoming.forEach(this::add);
+    return upcoming.size();
+  }
+
+  /**
+   * Record the current state of a reservation once the surrounding transaction commits, or right
+   * away if none is active. Nothing is recorded if the transaction rolls back.
+   *
+   * @param reservation - The reservation being persisted.
+   */
+  public void recordAfterCommit(Reservation reservation) {
+    if (reservation.getId() == null) {
+      return;
+    }
+    Long id = reservation.getId();
+    ReservationInterval interval = STATUS_CANCELLED.equals(reservation.getStatus())
+        ? null : ReservationInterval.of(reservation);
+    afterCommit(() -> {
+      if (interval != null) {
+        record(interval);
+      } else {
+        remove(id);
+      }
+    });
+  }
+
+  /**
+   * Record an interval once the surrounding transaction commits, or right away if none is active.
+   *
+   * @param interval - The interval of a reservation known not to be cancelled.
+   */
+  public void recordAfterCommit(ReservationInterval interval) {
+    afterCommit(() -> record(interval));
+  }
+
+  /**
+   * Drop the interval of a reservation once the surrounding transaction commits, or right away if
+   * none is active.
+   *
+   * @param id - The id of the reservation.
+   */
+  public void removeAfterCommit(Long id) {
+    afterCommit(() -> remove(id));
+  }
+
+  /**
+   * Insert, move or drop the interval of a reservation according to its current state.
+   *
+   * @param reservation - The reservation that was just persisted.
+   */
+  public synchronized void record(Reservation reservation) {
+    if (reservation.getId() == null) {
+      return;
+    }
+    remove(reservation.getId());
+    if (!STATUS_CANCELLED.equals(reservation.getStatus())
+        && reservation.getStartingDateTime() != null && reservation.getEndingDateTime() != null) {
+      add(ReservationInterval.of(reservation));
+    }
+  }
+
+  /**
+   * Insert or move the interval of a reservation known not to be cancelled.
+   *
+   * @param interval - The interval of the reservation.
+   */
+  public synchronized void record(ReservationInterval interval) {
+    remove(interval.id());
+    if (interval.start() != null && interval.end() != null) {
+      add(interval);
+    }
+  }
+
+  /**
+   * Drop the interval of a reservation from the index.
+   *
+   * @param id - The id of the reservation.
+   */
+  public synchronized void remove(Long id) {
+    ReservationInterval previous = intervalsById.remove(id);
+    if (previous != null) {
+      partitionOf(previous.venueId()).intervals.remove(previous);
+    }
+  }
+
+  /**
+   * Drop an interval the database no longer confirms, unless the reservation was recorded again
+   * since it was looked up.
+   *
+   * @param stale - The interval, as found in the index.
+   */
+  public synchronized void evict(ReservationInterval stale) {
+    if (stale.equals(intervalsById.get(stale.id()))) {
+      remove(stale.id());
+    }
+  }
+
+  /**
+   * Find every indexed interval of a venue intersecting the provided (inclusive) window.
+   *
+   * @param venueId    - The venue.
+   * @param from       - Start of the window.
+   * @param to         - End of the window.
+   * @param excludedId - The id of a reservation to ignore (0 or null to ignore none).
+   * @return - The overlapping intervals, ordered by starting date-time.
+   */
+  public List<ReservationInterval> findOverlapping(
+      Long venueId, LocalDateTime from, LocalDateTime to, Long excludedId) {
+    Partition partition = partitions.get(venueId);
+    if (partition == null) {
+      return List.of();
+    }
+    ReservationInterval lowerBound =
+        new ReservationInterval(Long.MIN_VALUE, venueId, from.minus(partition.longestInterval), null);
+    ReservationInterval upperBound = new ReservationInterval(Long.MAX_VALUE, venueId, to, null);
+
+    return partition.intervals.subSet(lowerBound, true, upperBound, true).stream()
+        .filter(interval -> !interval.id().equals(excludedId))
+        .filter(interval -> interval.overlaps(from, to))
+        .toList();
+  }
+
+  /**
+   * @return - The number of intervals currently indexed.
+   */
+  public int size() {
+    return intervalsById.size();
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          action.run();
+        }
+      });
+    } else {
+      action.run();
+    }
+  }
+
+  private void add(ReservationInterval interval) {
+    Partition partition = partitionOf(interval.venueId());
+    partition.intervals.add(interval);
+    intervalsById.put(interval.id(), interval);
+    Duration length = Duration.between(interval.start(), interval.end());
+    if (length.compareTo(partition.longestInterval) > 0) {
+      partition.longestInterval = length;
+    }
+  }
+
+  private Partition partitionOf(Long venueId) {
+    return partitions.computeIfAbsent(venueId, id -> new Partition());
+  }
+
+  /**
+   * The intervals of one venue.
+   */
+  private static final class Partition {
+
+    private final NavigableSet<ReservationInterval> intervals = new ConcurrentSkipListSet<>(BY_START);
+
+    private volatile Duration longestInterval = Duration.ZERO;
+  }
+}
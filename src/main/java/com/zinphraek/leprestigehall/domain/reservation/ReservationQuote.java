@@ -0,0 +1,23 @@
+package com.zinphraek.leprestigehall.domain.reservation;
+
+import java.util.List;
+
+/**
+ * The price of a candidate booking, in cents.
+ *
+ * @param subtotalCents   - The sum of all line items.
+ * @param discountCents   - The amount taken off by the discount.
+ * @param taxCents        - The taxes applied after the discount.
+ * @param totalCents      - The amount the customer would pay.
+ * @param rateCardVersion - The version of the rate card used.
+ * @param lineItems       - The detail of the charges.
+ */
+public record ReservationQuote(
+    long subtotalCents,
+    long discountCents,
+    long taxCents,
+    long totalCents,
+    long rateCardVersion,
+    List<ReservationQuoteLineItem> lineItems
+) {
+}
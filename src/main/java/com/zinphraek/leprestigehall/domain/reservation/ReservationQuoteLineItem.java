@@ -0,0 +1,19 @@
+package com.zinphraek.leprestigehall.domain.reservation;
+
+/**
+ * A single row of a quote, laid out like the rows of the invoice attachment.
+ *
+ * @param position   - The row number.
+ * @param service    - The service or product being charged.
+ * @param quantity   - The charged quantity.
+ * @param rateCents  - The unit price, in cents.
+ * @param totalCents - The row total, in cents.
+ */
+public record ReservationQuoteLineItem(
+    int position,
+    String service,
+    double quantity,
+    long rateCents,
+    long totalCents
+) {
+}
@@ -0,0 +1,43 @@
+package com.zinphraek.leprestigehall.domain.reservation;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.DATE_TIME_FORMAT;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.DEFAULT_VENUE_ID;
+
+/**
+ * A candidate booking to be priced without being persisted.
+ *
+ * @param startingDateTime        - The date and time when the event would start.
+ * @param endingDateTime          - The date and time when the event would end.
+ * @param effectiveEndingDateTime - The date and time when the event would effectively end (optional).
+ * @param numberOfSeats           - The number of guests, up to the capacity of the venue.
+ * @param addOns                  - The requested quantity keyed by add-on id (optional).
+ * @param discount                - The discount to apply (optional), with the percentage or amount its
+ *                                type calls for.
+ * @param taxRate                 - The tax rate to apply (optional).
+ * @param venueId                 - The venue to book (optional, defaults to the main hall).
+ */
+public record ReservationQuoteRequest(
+    @NotNull @JsonFormat(pattern = DATE_TIME_FORMAT) LocalDateTime startingDateTime,
+    @NotNull @JsonFormat(pattern = DATE_TIME_FORMAT) LocalDateTime endingDateTime,
+    @JsonFormat(pattern = DATE_TIME_FORMAT) LocalDateTime effectiveEndingDateTime,
+    @PositiveOrZero int numberOfSeats,
+    Map<@NotNull Long, @NotNull @PositiveOrZero Double> addOns,
+    @Valid ReservationDiscount discount,
+    @PositiveOrZero Double taxRate,
+    Long venueId
+) {
+
+  public ReservationQuoteRequest {
+    if (venueId == null) {
+      venueId = DEFAULT_VENUE_ID;
+    }
+  }
+}
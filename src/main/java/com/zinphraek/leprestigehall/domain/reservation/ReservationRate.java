@@ -1,12 +1,17 @@
 package com.zinphraek.leprestigehall.domain.reservation;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 
+import static com.zinphraek.leprestigehall.utilities.helpers.GenericHelper.contentHash;
+
 @Entity
 @Table(name = "reservation_rates")
 public class ReservationRate {
@@ -24,6 +29,10 @@ public class ReservationRate {
 
   private Double seatRate;
 
+  @JsonIgnore
+  @Column(unique = true, length = 64)
+  private String contentHash;
+
   public ReservationRate() {}
 
   public ReservationRate(
@@ -74,4 +83,25 @@ public class ReservationRate {
   public void setSeatRate(Double seatRate) {
     this.seatRate = seatRate;
   }
+
+  public String getContentHash() {
+    return contentHash;
+  }
+
+  public void setContentHash(String contentHash) {
+    this.contentHash = contentHash;
+  }
+
+  /**
+   * @return - A fingerprint of the rates, shared by every rate row holding the same values.
+   */
+  public String computeContentHash() {
+    return contentHash(cleaningRate, facilityRate, overtimeRate, seatRate);
+  }
+
+  @PrePersist
+  @PreUpdate
+  void updateContentHash() {
+    contentHash = computeContentHash();
+  }
 }
@@ -1,13 +1,38 @@
 package com.zinphraek.leprestigehall.domain.reservation;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 public interface ReservationRateRepo extends JpaRepository<ReservationRate, Long> {
-  boolean existsBySeatRateAndCleaningRateAndFacilityRateAndOvertimeRate(
-      Double seatRate, Double cleaningRate, Double facilityRate, Double overtimeRate);
 
-  Optional<ReservationRate> findBySeatRateAndCleaningRateAndFacilityRateAndOvertimeRate(
-      Double seatRate, Double cleaningRate, Double facilityRate, Double overtimeRate);
+  /**
+   * Insert the rate unless a row with the same content hash exists, in a single statement.
+   *
+   * @return - The id of the inserted or existing row. Empty only if the existing row was committed
+   * by a concurrent transaction after this statement started.
+   */
+  @Transactional
+  @Query(
+      value = "WITH inserted AS ("
+          + "INSERT INTO reservation_rates (cleaning_rate, facility_rate, overtime_rate, seat_rate, content_hash) "
+          + "VALUES (CAST(:cleaningRate AS float8), CAST(:facilityRate AS float8), "
+          + "CAST(:overtimeRate AS float8), CAST(:seatRate AS float8), :contentHash) "
+          + "ON CONFLICT (content_hash) DO NOTHING RETURNING id) "
+          + "SELECT id FROM inserted "
+          + "UNION ALL SELECT id FROM reservation_rates WHERE content_hash = :contentHash "
+          + "LIMIT 1",
+      nativeQuery = true)
+  Optional<Long> upsert(
+      @Param("cleaningRate") Double cleaningRate,
+      @Param("facilityRate") Double facilityRate,
+      @Param("overtimeRate") Double overtimeRate,
+      @Param("seatRate") Double seatRate,
+      @Param("contentHash") String contentHash);
+
+  @Query("SELECT r.id FROM ReservationRate r WHERE r.contentHash = :contentHash")
+  Optional<Long> findIdByContentHash(@Param("contentHash") String contentHash);
 }
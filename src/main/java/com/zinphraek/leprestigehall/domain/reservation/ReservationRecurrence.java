@@ -0,0 +1,90 @@
+package com.zinphraek.leprestigehall.domain.reservation;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.*;
+
+/**
+ * How a reservation repeats.
+ *
+ * @param frequency  - Daily, Weekly or Monthly.
+ * @param interval   - Repeat every that many days, weeks or months (defaults to 1).
+ * @param count      - Stop after that many occurrences (optional if until is set).
+ * @param until      - Stop after that day (optional if count is set).
+ * @param daysOfWeek - The weekdays a weekly series falls on (defaults to the weekday of the first occurrence).
+ */
+public record ReservationRecurrence(
+    String frequency,
+    Integer interval,
+    Integer count,
+    LocalDate until,
+    Set<DayOfWeek> daysOfWeek
+) {
+
+  /**
+   * @return - True if the recurrence names a known frequency, a positive interval and an end.
+   */
+  public boolean isValid() {
+    return (RECURRENCE_DAILY.equals(frequency) || RECURRENCE_WEEKLY.equals(frequency)
+        || RECURRENCE_MONTHLY.equals(frequency))
+        && (interval == null || interval > 0)
+        && ((count != null && count > 0) || until != null);
+  }
+
+  /**
+   * List the starting date-times of the occurrences, in chronological order. Occurrences keep the
+   * time of day of the first one; monthly occurrences falling past the end of a shorter month are
+   * moved to its last day.
+   *
+   * @param first - The starting date-time of the first occurrence.
+   * @param limit - The maximum number of occurrences; one more is returned when the series is longer.
+   * @return - The starting date-times, or an empty list when the recurrence is invalid.
+   */
+  public List<LocalDateTime> expand(LocalDateTime first, int limit) {
+    List<LocalDateTime> starts = new ArrayList<>();
+    if (first == null || !isValid()) {
+      return starts;
+    }
+
+    long step = interval == null ? 1 : interval;
+    if (RECURRENCE_WEEKLY.equals(frequency) && daysOfWeek != null && !daysOfWeek.isEmpty()) {
+      List<DayOfWeek> days = daysOfWeek.stream().sorted().toList();
+      LocalDate monday = first.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+      for (long week = 0; ; week += step) {
+        for (DayOfWeek day : days) {
+          LocalDate date = monday.plusWeeks(week).with(TemporalAdjusters.nextOrSame(day));
+          if (!date.isBefore(first.toLocalDate()) && !accept(starts, date.atTime(first.toLocalTime()), limit)) {
+            return starts;
+          }
+        }
+      }
+    }
+
+    for (long k = 0; ; k += step) {
+      LocalDateTime start = switch (frequency) {
+        case RECURRENCE_DAILY -> first.plusDays(k);
+        case RECURRENCE_WEEKLY -> first.plusWeeks(k);
+        default -> first.plusMonths(k);
+      };
+      if (!accept(starts, start, limit)) {
+        return starts;
+      }
+    }
+  }
+
+  private boolean accept(List<LocalDateTime> starts, LocalDateTime start, int limit) {
+    if ((count != null && starts.size() >= count)
+        || (until != null && start.toLocalDate().isAfter(until))
+        || starts.size() > limit) {
+      return false;
+    }
+    starts.add(start);
+    return true;
+  }
+}
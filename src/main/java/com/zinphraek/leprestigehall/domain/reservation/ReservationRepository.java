@@ -1,51 +1,147 @@
 package com.zinphraek.leprestigehall.domain.reservation;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+public interface ReservationRepository
+    extends JpaRepository<Reservation, Long>, JpaSpecificationExecutor<Reservation> {
 
+  @EntityGraph(attributePaths = {"rates", "discount"})
   Page<Reservation> findByUserId(String userId, Pageable pageable);
 
   @Query(
-      "SELECT r FROM Reservation r WHERE (CAST(:startedBefore AS timestamp) IS NULL OR r.startingDateTime <= CAST(:startedBefore AS timestamp)) "
-          + "AND (CAST(:startedAfter AS timestamp) IS NULL OR r.startingDateTime >= CAST(:startedAfter AS timestamp)) "
-          + "AND (:eventType IS NULL OR LOWER(r.eventType) LIKE LOWER(CONCAT('%', :eventType, '%'))) "
-          + "AND (:isFullPackage IS NULL OR r.isFullPackage =:isFullPackage) "
-          + "AND (:status IS NULL OR LOWER(r.status) LIKE LOWER(CONCAT('%', :status, '%'))) "
-          + "AND (:isSecurityDepositRefunded IS NULL OR r.isSecurityDepositRefunded =:isSecurityDepositRefunded) "
-          + "AND (:minTotalPrice IS NULL OR r.totalPrice >=:minTotalPrice) AND (:maxTotalPrice IS NULL OR r.totalPrice <=:maxTotalPrice) "
-          + "AND (:userId IS NULL OR r.userId =:userId) "
-          + "AND (:priceComputationMethod IS NULL OR LOWER(r.priceComputationMethod) LIKE LOWER(CONCAT('%', :priceComputationMethod, '%')))")
-  Page<Reservation> findAllAndFilter(
-      @Param("startedBefore") LocalDateTime startedBefore,
-      @Param("startedAfter") LocalDateTime startedAfter,
-      @Param("eventType") String eventType,
-      @Param("isFullPackage") Boolean isFullPackage,
+      "SELECT DISTINCT r FROM Reservation r "
+          + "LEFT JOIN FETCH r.rates LEFT JOIN FETCH r.discount "
+          + "LEFT JOIN FETCH r.addOns ra LEFT JOIN FETCH ra.addOn a LEFT JOIN FETCH a.media "
+          + "WHERE r.id = :id")
+  Optional<Reservation> findDetailById(@Param("id") Long id);
+
+  /**
+   * The filtered listing, with the rates and discount of each reservation loaded in the same
+   * statement.
+   */
+  @Override
+  @EntityGraph(attributePaths = {"rates", "discount"})
+  Page<Reservation> findAll(Specification<Reservation> filter, Pageable pageable);
+
+  @Query(
+      "SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Reservation r "
+          + "WHERE r.venueId = :venueId AND r.status <> :status AND r.id <> :id "
+          + "AND r.startingDateTime <= :end "
+          + "AND COALESCE(r.effectiveEndingDateTime, r.endingDateTime) >= :start")
+  boolean existsOverlappingInterval(
+      @Param("venueId") Long venueId,
+      @Param("start") LocalDateTime start,
+      @Param("end") LocalDateTime end,
       @Param("status") String status,
-      @Param("isSecurityDepositRefunded") Boolean isSecurityDepositRefunded,
-      @Param("minTotalPrice") Double minTotalPrice,
-      @Param("maxTotalPrice") Double maxTotalPrice,
-      @Param("userId") String userId,
-      @Param("priceComputationMethod") String priceComputationMethod,
+      @Param("id") Long id);
+
+  @Query(
+      "SELECT new com.zinphraek.leprestigehall.domain.reservation.ReservationInterval("
+          + "r.id, r.venueId, r.startingDateTime, COALESCE(r.effectiveEndingDateTime, r.endingDateTime)) "
+          + "FROM Reservation r WHERE r.status <> :status "
+          + "AND COALESCE(r.effectiveEndingDateTime, r.endingDateTime) >= :after")
+  List<ReservationInterval> findIntervalsEndingAfter(
+      @Param("after") LocalDateTime after, @Param("status") String status);
+
+  @Query(
+      "SELECT new com.zinphraek.leprestigehall.domain.reservation.ReservationInterval("
+          + "r.id, r.venueId, r.startingDateTime, COALESCE(r.effectiveEndingDateTime, r.endingDateTime)) "
+          + "FROM Reservation r WHERE r.venueId = :venueId AND r.status <> :status "
+          + "AND r.startingDateTime <= :end "
+          + "AND COALESCE(r.effectiveEndingDateTime, r.endingDateTime) >= :start "
+          + "ORDER BY r.startingDateTime")
+  List<ReservationInterval> findIntervalsOverlapping(
+      @Param("venueId") Long venueId,
+      @Param("start") LocalDateTime start,
+      @Param("end") LocalDateTime end,
+      @Param("status") String status);
+
+  @Query(
+      "SELECT new com.zinphraek.leprestigehall.domain.reservation.ReservationInterval("
+          + "r.id, r.venueId, r.startingDateTime, COALESCE(r.effectiveEndingDateTime, r.endingDateTime)) "
+          + "FROM Reservation r WHERE r.id IN :ids")
+  List<ReservationInterval> findIntervalsByIdIn(@Param("ids") Collection<Long> ids);
+
+  @Modifying
+  @Query("UPDATE Reservation r SET r.status = :status WHERE r.id IN :ids")
+  int updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("status") String status);
+
+  @Query(
+      "SELECT r.id FROM Reservation r WHERE r.id > :cursor AND r.status IN :statuses "
+          + "AND COALESCE(r.effectiveEndingDateTime, r.endingDateTime) < :now ORDER BY r.id")
+  List<Long> findIdsEndedBefore(
+      @Param("cursor") Long cursor,
+      @Param("statuses") Collection<String> statuses,
+      @Param("now") LocalDateTime now,
       Pageable pageable);
 
-  boolean existsByStartingDateTimeBetweenAndStatusNot(
-      LocalDateTime dateTime1, LocalDateTime dateTime2, String status);
+  @Modifying
+  @Query(
+      "UPDATE Reservation r SET r.status = :status WHERE r.id IN :ids AND r.status IN :statuses "
+          + "AND COALESCE(r.effectiveEndingDateTime, r.endingDateTime) < :now")
+  int updateStatusOfEndedByIdIn(
+      @Param("ids") Collection<Long> ids,
+      @Param("statuses") Collection<String> statuses,
+      @Param("now") LocalDateTime now,
+      @Param("status") String status);
+
+  @Query(
+      "SELECT i.reservation.id FROM Invoice i WHERE i.reservation.id > :cursor "
+          + "AND i.reservation.status = :status AND i.status = :invoiceStatus ORDER BY i.reservation.id")
+  List<Long> findIdsByStatusAndInvoiceStatus(
+      @Param("cursor") Long cursor,
+      @Param("status") String status,
+      @Param("invoiceStatus") String invoiceStatus,
+      Pageable pageable);
 
-  boolean existsByEndingDateTimeBetweenAndStatusNot(
-      LocalDateTime dateTime1, LocalDateTime dateTime2, String status);
+  @Modifying
+  @Query("UPDATE Reservation r SET r.status = :newStatus WHERE r.id IN :ids AND r.status = :status")
+  int updateStatusByIdInAndStatus(
+      @Param("ids") Collection<Long> ids,
+      @Param("status") String status,
+      @Param("newStatus") String newStatus);
 
-  boolean existsByStartingDateTimeBetweenAndStatusNotAndIdNot(LocalDateTime dateTime1, LocalDateTime dateTime2, String status, Long id);
+  @Query("SELECT DISTINCT r.venueId FROM Reservation r WHERE r.startingDateTime > :now ORDER BY r.venueId")
+  List<Long> findVenueIdsStartingAfter(@Param("now") LocalDateTime now);
 
-  boolean existsByEndingDateTimeBetweenAndStatusNotAndIdNot(LocalDateTime dateTime1, LocalDateTime dateTime2, String status, Long id);
+  @Query(
+      "SELECT r.id FROM Reservation r WHERE r.id > :cursor AND r.venueId = :venueId "
+          + "AND r.startingDateTime > :now "
+          + "AND COALESCE(r.status, '') <> :excludedStatus "
+          + "AND COALESCE(r.priceComputationMethod, '') <> :excludedMethod "
+          + "AND COALESCE(r.rateCardVersion, -1) <> :rateCardVersion ORDER BY r.id")
+  List<Long> findIdsToReprice(
+      @Param("cursor") Long cursor,
+      @Param("venueId") Long venueId,
+      @Param("now") LocalDateTime now,
+      @Param("excludedStatus") String excludedStatus,
+      @Param("excludedMethod") String excludedMethod,
+      @Param("rateCardVersion") Long rateCardVersion,
+      Pageable pageable);
 
-  boolean existsByEffectiveEndingDateTimeBetweenAndStatusNotAndIdNot(LocalDateTime dateTime1, LocalDateTime dateTime2, String status, Long id);
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  @Query(
+      "SELECT DISTINCT r FROM Reservation r "
+          + "LEFT JOIN FETCH r.rates LEFT JOIN FETCH r.discount "
+          + "LEFT JOIN FETCH r.addOns ra LEFT JOIN FETCH ra.addOn "
+          + "WHERE r.id IN :ids ORDER BY r.id")
+  List<Reservation> findForRepricingByIdIn(@Param("ids") Collection<Long> ids);
 }
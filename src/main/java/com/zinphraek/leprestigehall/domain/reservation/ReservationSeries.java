@@ -0,0 +1,15 @@
+package com.zinphraek.leprestigehall.domain.reservation;
+
+import java.util.List;
+
+/**
+ * The outcome of a reservation series booking.
+ *
+ * @param booked      - The number of occurrences booked.
+ * @param occurrences - Every occurrence of the series, in chronological order.
+ */
+public record ReservationSeries(
+    int booked,
+    List<ReservationSeriesOccurrence> occurrences
+) {
+}
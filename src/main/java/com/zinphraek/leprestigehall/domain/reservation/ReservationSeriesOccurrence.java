@@ -0,0 +1,27 @@
+package com.zinphraek.leprestigehall.domain.reservation;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.DATE_TIME_FORMAT;
+
+/**
+ * The outcome of one occurrence of a reservation series.
+ *
+ * @param startingDateTime - The date and time when the occurrence starts.
+ * @param endingDateTime   - The date and time when the occurrence ends.
+ * @param reservationId    - The id of the reservation booked, or null on conflict.
+ * @param invoiceNumber    - The number of its invoice, or null on conflict.
+ * @param totalPrice       - The price of the occurrence, or null on conflict.
+ * @param conflict         - Why the occurrence could not be booked, or null if it was.
+ */
+public record ReservationSeriesOccurrence(
+    @JsonFormat(pattern = DATE_TIME_FORMAT) LocalDateTime startingDateTime,
+    @JsonFormat(pattern = DATE_TIME_FORMAT) LocalDateTime endingDateTime,
+    Long reservationId,
+    String invoiceNumber,
+    Double totalPrice,
+    String conflict
+) {
+}
@@ -0,0 +1,15 @@
+package com.zinphraek.leprestigehall.domain.reservation;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * A reservation to be booked repeatedly.
+ *
+ * @param reservation - The first occurrence; every other occurrence copies it at a later date.
+ * @param recurrence  - How the reservation repeats.
+ */
+public record ReservationSeriesRequest(
+    @NotNull Reservation reservation,
+    @NotNull ReservationRecurrence recurrence
+) {
+}
@@ -1,7 +1,11 @@
 package com.zinphraek.leprestigehall.domain.reservation;
 
+import com.zinphraek.leprestigehall.utilities.helpers.CursorPage;
+import com.zinphraek.leprestigehall.utilities.helpers.ExportFormat;
 import org.springframework.data.domain.Page;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -10,12 +14,28 @@ import java.util.Map;
  */
 public interface ReservationService {
 
-  Page<Reservation> getReservations(Map<String, String> params);
+  Page<ReservationSummary> getReservations(Map<String, String> params);
 
-  Page<Reservation> getReservationsByUserId(String userId, Map<String, String> params);
+  CursorPage<ReservationSummary> getReservationsByCursor(Map<String, String> params);
+
+  StreamingResponseBody exportReservations(Map<String, String> params, ExportFormat format);
+
+  Page<ReservationSummary> getReservationsByUserId(String userId, Map<String, String> params);
+
+  Reservation getReservation(String userId, Long reservationId);
+
+  List<ReservationAvailabilityBlock> getAvailability(Long venueId, LocalDate from, LocalDate to);
+
+  List<ReservationQuote> quoteReservations(List<ReservationQuoteRequest> requests);
 
   Reservation createReservation(Reservation newReservation);
 
+  ReservationSeries createReservationSeries(ReservationSeriesRequest seriesRequest);
+
+  ReservationHold placeHold(String userId, ReservationHoldRequest holdRequest);
+
+  void releaseHold(String userId, String holdId);
+
   Reservation updateReservation(Long reservationId, Reservation newReservation);
 
   void cancelReservation(Long reservationId);
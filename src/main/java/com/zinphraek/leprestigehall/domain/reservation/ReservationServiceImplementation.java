@@ -1,9 +1,13 @@
 package com.zinphraek.leprestigehall.domain.reservation;
 
 import com.twilio.exception.TwilioException;
+import com.zinphraek.leprestigehall.domain.addon.AddOn;
 import com.zinphraek.leprestigehall.domain.addon.AddOnRepository;
+import com.zinphraek.leprestigehall.domain.addon.RateCard;
+import com.zinphraek.leprestigehall.domain.addon.RateCardRegistry;
 import com.zinphraek.leprestigehall.domain.addon.RequestedAddOn;
 import com.zinphraek.leprestigehall.domain.addon.RequestedAddOnRepository;
+import com.zinphraek.leprestigehall.domain.analytics.ReservationRollups;
 import com.zinphraek.leprestigehall.domain.email.EmailServiceImplementation;
 import com.zinphraek.leprestigehall.domain.email.Mail;
 import com.zinphraek.leprestigehall.domain.invoice.Invoice;
@@ -12,30 +16,44 @@ import com.zinphraek.leprestigehall.domain.invoice.InvoiceService;
 import com.zinphraek.leprestigehall.domain.sms.SMSServiceImplementation;
 import com.zinphraek.leprestigehall.domain.user.User;
 import com.zinphraek.leprestigehall.domain.user.UserServiceImpl;
+import com.zinphraek.leprestigehall.domain.venue.Venue;
+import com.zinphraek.leprestigehall.domain.venue.VenueRepository;
+import com.zinphraek.leprestigehall.utilities.helpers.CursorPage;
 import com.zinphraek.leprestigehall.utilities.helpers.CustomPage;
+import com.zinphraek.leprestigehall.utilities.helpers.ExportFormat;
+import com.zinphraek.leprestigehall.utilities.helpers.ExportRowReader;
+import com.zinphraek.leprestigehall.utilities.helpers.ExportWriter;
+import com.zinphraek.leprestigehall.utilities.helpers.KeysetPaginator;
+import com.zinphraek.leprestigehall.utilities.helpers.ReservationQuoteEngine;
 import com.zinphraek.leprestigehall.utilities.helpers.ReservationServiceHelper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.util.Pair;
 import org.springframework.http.HttpStatus;
-import org.springframework.mail.MailException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
 import static com.zinphraek.leprestigehall.domain.constants.Constants.*;
 import static com.zinphraek.leprestigehall.domain.constants.GenericResponseMessages.*;
 import static com.zinphraek.leprestigehall.utilities.helpers.GenericHelper.buildPageRequestFromCustomPage;
+import static com.zinphraek.leprestigehall.utilities.helpers.GenericHelper.defaultPageRequest;
 
 /**
  * Implementing the reservation service class.
@@ -73,10 +91,37 @@ public class ReservationServiceImplementation implements ReservationService {
   private final RequestedAddOnRepository requestedAddOnRepository;
 
   @Autowired
-  private final ReservationDiscountRepo reservationDiscountRepo;
+  private final RateAndDiscountInterner rateAndDiscountInterner;
 
   @Autowired
-  private final ReservationRateRepo reservationRateRepo;
+  private final ReservationIntervalIndex intervalIndex;
+
+  @Autowired
+  private final ReservationAdmission reservationAdmission;
+
+  @Autowired
+  private final ReservationRollups reservationRollups;
+
+  @Autowired
+  private final RateCardRegistry rateCardRegistry;
+
+  @Autowired
+  private final ReservationQuoteEngine quoteEngine;
+
+  @Autowired
+  private final KeysetPaginator keysetPaginator;
+
+  @Autowired
+  private final ExportWriter exportWriter;
+
+  @Autowired
+  private final ExportRowReader exportRowReader;
+
+  @Autowired
+  private final ReservationHolds reservationHolds;
+
+  @Autowired
+  private final VenueRepository venueRepository;
 
   @Autowired
   public ReservationServiceImplementation(
@@ -87,7 +132,11 @@ public class ReservationServiceImplementation implements ReservationService {
       AddOnRepository addOnRepository,
       InvoiceRepository invoiceRepository,
       InvoiceService invoiceService,
-      RequestedAddOnRepository requestedAddOnRepository, ReservationDiscountRepo reservationDiscountRepo, ReservationRateRepo reservationRateRepo) {
+      RequestedAddOnRepository requestedAddOnRepository, RateAndDiscountInterner rateAndDiscountInterner,
+      ReservationIntervalIndex intervalIndex, ReservationAdmission reservationAdmission,
+      ReservationRollups reservationRollups, RateCardRegistry rateCardRegistry,
+      ReservationQuoteEngine quoteEngine, KeysetPaginator keysetPaginator, ExportWriter exportWriter,
+      ExportRowReader exportRowReader, ReservationHolds reservationHolds, VenueRepository venueRepository) {
     this.serviceHelper = serviceHelper;
     this.reservationRepository = reservationRepository;
     this.emailService = emailService;
@@ -97,67 +146,105 @@ public class ReservationServiceImplementation implements ReservationService {
     this.invoiceRepository = invoiceRepository;
     this.invoiceService = invoiceService;
     this.requestedAddOnRepository = requestedAddOnRepository;
-    this.reservationDiscountRepo = reservationDiscountRepo;
-    this.reservationRateRepo = reservationRateRepo;
+    this.rateAndDiscountInterner = rateAndDiscountInterner;
+    this.intervalIndex = intervalIndex;
+    this.reservationAdmission = reservationAdmission;
+    this.reservationRollups = reservationRollups;
+    this.rateCardRegistry = rateCardRegistry;
+    this.quoteEngine = quoteEngine;
+    this.keysetPaginator = keysetPaginator;
+    this.exportWriter = exportWriter;
+    this.exportRowReader = exportRowReader;
+    this.reservationHolds = reservationHolds;
+    this.venueRepository = venueRepository;
+  }
+
+  /**
+   * @param reservation - The reservation being booked.
+   * @return - The date and time when the reservation effectively ends.
+   */
+  private LocalDateTime bookedUntil(Reservation reservation) {
+    return reservation.getEffectiveEndingDateTime() != null
+        ? reservation.getEffectiveEndingDateTime() : reservation.getEndingDateTime();
   }
 
   /**
-   * Check whether a specific date time interval is available for booking.
+   * Check that a venue is open for bookings and can seat the guests.
    *
+   * @param venueId       - The id of the venue.
+   * @param numberOfSeats - The number of guests (null to skip the capacity check).
+   * @return - The venue.
+   */
+  private Venue checkVenue(Long venueId, Integer numberOfSeats) {
+    Optional<Venue> venue = venueRepository.findById(venueId);
+    if (venue.isEmpty() || !venue.get().isActive()) {
+      logger.error(String.format(RESERVATION_WITH_NON_EXISTENT_VENUE_ERROR_MESSAGE, venueId));
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, String.format(RESERVATION_WITH_NON_EXISTENT_VENUE_ERROR_MESSAGE, venueId));
+    }
+
+    if (numberOfSeats != null && numberOfSeats > venue.get().getCapacity()) {
+      logger.error(String.format(VENUE_CAPACITY_EXCEEDED_ERROR_MESSAGE, venue.get().getCapacity()));
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, String.format(VENUE_CAPACITY_EXCEEDED_ERROR_MESSAGE, venue.get().getCapacity()));
+    }
+    return venue.get();
+  }
+
+  /**
+   * Check whether a specific date time interval of a venue is available for booking.
+   * <p>
+   * A single overlap query is the authority, as the in-memory interval index may miss bookings made
+   * on other instances and still hold ones they cancelled or moved. Indexed intervals the query
+   * does not confirm are stale and evicted. Windows held for other customers are busy as well.
+   * Bookings of other venues never conflict.
+   *
+   * @param venueId   - The id of the venue.
    * @param dateTime1 - Starting date-time value.
    * @param dateTime2 - Ending date-time value.
    * @param dateTime3 - Effective ending date-time value.
    * @param id        - The id of the targeted reservation (0 if the action is a creation).
+   * @param holderId  - The id of the customer booking, whose own holds do not block them.
    */
-  private void checkDateTimeIntervalAvailability(LocalDateTime dateTime1, LocalDateTime dateTime2, LocalDateTime dateTime3, long id) {
-    LocalDateTime checkStart = dateTime1.minusHours(2L);
-    LocalDateTime checkEnd = dateTime2.plusHours(2L);
-    LocalDateTime checkEffectiveEnd = dateTime3 != null ? dateTime3.plusHours(2L) : null;
-
-    if (id != 0) {
-      if (dateTime3 != null) {
-        if (reservationRepository.existsByStartingDateTimeBetweenAndStatusNotAndIdNot(
-            checkStart, checkEffectiveEnd, STATUS_CANCELLED, id)
-            || reservationRepository.existsByEffectiveEndingDateTimeBetweenAndStatusNotAndIdNot(
-            checkStart, checkEffectiveEnd, STATUS_CANCELLED, id)) {
-          logger.error(UNAVAILABLE_TIME_SLOT_ERROR_MESSAGE);
-          throw new ResponseStatusException(HttpStatus.CONFLICT, UNAVAILABLE_TIME_SLOT_ERROR_MESSAGE);
-        }
-      } else {
-        if (reservationRepository.existsByStartingDateTimeBetweenAndStatusNotAndIdNot(
-            checkStart, checkEnd, STATUS_CANCELLED, id)
-            || reservationRepository.existsByEndingDateTimeBetweenAndStatusNotAndIdNot(
-            checkStart, checkEnd, STATUS_CANCELLED, id)) {
-          logger.error(UNAVAILABLE_TIME_SLOT_ERROR_MESSAGE);
-          throw new ResponseStatusException(HttpStatus.CONFLICT, UNAVAILABLE_TIME_SLOT_ERROR_MESSAGE);
-        }
-      }
-    } else {
-      if (reservationRepository.existsByStartingDateTimeBetweenAndStatusNot(checkStart, checkEnd, STATUS_CANCELLED)
-          || reservationRepository.existsByEndingDateTimeBetweenAndStatusNot(checkStart, checkEnd, STATUS_CANCELLED)) {
-        logger.error(UNAVAILABLE_TIME_SLOT_ERROR_MESSAGE);
-        throw new ResponseStatusException(HttpStatus.CONFLICT, UNAVAILABLE_TIME_SLOT_ERROR_MESSAGE);
-      }
+  private void checkDateTimeIntervalAvailability(
+      Long venueId, LocalDateTime dateTime1, LocalDateTime dateTime2, LocalDateTime dateTime3, long id,
+      String holderId) {
+    LocalDateTime checkStart = dateTime1.minusHours(RESERVATION_BUFFER_HOURS);
+    LocalDateTime checkEnd = (dateTime3 != null ? dateTime3 : dateTime2).plusHours(RESERVATION_BUFFER_HOURS);
+
+    List<ReservationInterval> indexed = intervalIndex.findOverlapping(venueId, checkStart, checkEnd, id);
+    if (reservationRepository.existsOverlappingInterval(venueId, checkStart, checkEnd, STATUS_CANCELLED, id)) {
+      logger.error(UNAVAILABLE_TIME_SLOT_ERROR_MESSAGE);
+      throw new ResponseStatusException(HttpStatus.CONFLICT, UNAVAILABLE_TIME_SLOT_ERROR_MESSAGE);
+    }
+    indexed.forEach(intervalIndex::evict);
+
+    if (reservationHolds.existsOverlapping(venueId, checkStart, checkEnd, holderId)) {
+      logger.error(HELD_TIME_SLOT_ERROR_MESSAGE);
+      throw new ResponseStatusException(HttpStatus.CONFLICT, HELD_TIME_SLOT_ERROR_MESSAGE);
     }
   }
 
   /**
    * Check whether a provided date is available to book when creating and updating reservations.
    *
+   * @param venueId                       - The id of the venue booked.
    * @param targetStartingDateTime        - The date and time when the reservation starts.
    * @param targetEndingDateTime          - The date and time when the reservation ends.
    * @param targetEffectiveEndingDateTime - The date and time when the reservation effectively ends.
-   * @param requestType                   - The scenario in which the action occur (either "create" or "update")
+   * @param requestType                   - The scenario in which the action occur ("create", "update" or "hold")
    * @param id                            - The id of the targeted reservation (0 if the action is a creation).
+   * @param holderId                      - The id of the customer booking, whose own holds do not block them.
    * @param dateTimes                     - The previously selected date time interval for the targeted reservation
    *                                      (Only apply in the "update" scenario).
    */
   private void checkDateTimeAvailability(
+      Long venueId,
       LocalDateTime targetStartingDateTime,
       LocalDateTime targetEndingDateTime,
       LocalDateTime targetEffectiveEndingDateTime,
       String requestType,
-      long id, LocalDateTime... dateTimes) {
+      long id, String holderId, LocalDateTime... dateTimes) {
     LocalDateTime today = LocalDateTime.now();
 
     if (targetStartingDateTime.isBefore(today)) {
@@ -181,12 +268,15 @@ public class ReservationServiceImplementation implements ReservationService {
 
     switch (requestType) {
       case "create" -> checkDateTimeIntervalAvailability(
-          targetStartingDateTime, targetEndingDateTime, null, id);
+          venueId, targetStartingDateTime, targetEndingDateTime, null, id, holderId);
+      case "hold" -> checkDateTimeIntervalAvailability(
+          venueId, targetStartingDateTime, targetEndingDateTime, targetEffectiveEndingDateTime, id, holderId);
       case "update" -> {
         if ((targetEffectiveEndingDateTime != null && dateTimes[2] != null && !targetEffectiveEndingDateTime.isEqual(dateTimes[2]))
             || (targetEffectiveEndingDateTime != null && dateTimes[2] == null && !targetEffectiveEndingDateTime.isEqual(dateTimes[1]))
             || !targetStartingDateTime.isEqual(dateTimes[0]) || !targetEndingDateTime.isEqual(dateTimes[1])) {
-          checkDateTimeIntervalAvailability(targetStartingDateTime, targetEndingDateTime, targetEffectiveEndingDateTime, id);
+          checkDateTimeIntervalAvailability(
+              venueId, targetStartingDateTime, targetEndingDateTime, targetEffectiveEndingDateTime, id, holderId);
         }
       }
     }
@@ -200,34 +290,22 @@ public class ReservationServiceImplementation implements ReservationService {
   private void persistRequestedAddOn(Reservation newReservation) {
     Collection<RequestedAddOn> requestedAddOns = newReservation.getAddOns();
 
-    if (requestedAddOns != null) {
-      requestedAddOns.forEach(
-          requestedAddOn -> {
-            requestedAddOn.setReservation(newReservation);
-            requestedAddOnRepository.save(requestedAddOn);
-            logger.info(String.format(CREATE_SUCCESS_MESSAGE, "Requested AddOn"));
-          });
+    if (requestedAddOns != null && !requestedAddOns.isEmpty()) {
+      requestedAddOns.forEach(requestedAddOn -> requestedAddOn.setReservation(newReservation));
+      // Saved together so the inserts go out as a single JDBC batch.
+      requestedAddOnRepository.saveAll(requestedAddOns);
+      logger.info(String.format(CREATE_SUCCESS_MESSAGE, requestedAddOns.size() + " Requested AddOns"));
     }
   }
 
   /**
-   * Checking that each AddOn provided exists in the database.
+   * Checking that each AddOn provided exists in the database and is offered at the venue.
    *
    * @param requestedAddOns The collection of chosen AddOns.
+   * @param venueId         The id of the venue booked.
    */
-  private void checkIfChosenAddOnExists(Collection<RequestedAddOn> requestedAddOns) {
-    if (requestedAddOns != null && !requestedAddOns.isEmpty()) {
-      requestedAddOns.forEach(
-          requestedAddOn -> {
-            if (!addOnRepository.existsById(requestedAddOn.getAddOn().getId())) {
-              logger.error(String.format(RESERVATION_WITH_NON_EXISTENT_ADD_ON_ERROR_MESSAGE,
-                  requestedAddOn.getAddOn().getId()));
-              throw new ResponseStatusException(
-                  HttpStatus.BAD_REQUEST, String.format(RESERVATION_WITH_NON_EXISTENT_ADD_ON_ERROR_MESSAGE,
-                  requestedAddOn.getAddOn().getId()));
-            }
-          });
-    }
+  private void checkIfChosenAddOnExists(Collection<RequestedAddOn> requestedAddOns, Long venueId) {
+    findChosenAddOns(requestedAddOns, venueId);
   }
 
   /**
@@ -237,14 +315,7 @@ public class ReservationServiceImplementation implements ReservationService {
    */
   private void saveRateIfNotExistent(ReservationRate rate) {
     if (rate != null) {
-      if (!reservationRateRepo.existsBySeatRateAndCleaningRateAndFacilityRateAndOvertimeRate(
-          rate.getSeatRate(), rate.getCleaningRate(), rate.getFacilityRate(), rate.getOvertimeRate())) {
-        reservationRateRepo.save(rate);
-      } else {
-        Optional<ReservationRate> existingRate = reservationRateRepo.findBySeatRateAndCleaningRateAndFacilityRateAndOvertimeRate(
-            rate.getSeatRate(), rate.getCleaningRate(), rate.getFacilityRate(), rate.getOvertimeRate());
-        existingRate.ifPresent(reservationRate -> rate.setId(reservationRate.getId()));
-      }
+      rateAndDiscountInterner.intern(rate);
     }
   }
 
@@ -255,16 +326,7 @@ public class ReservationServiceImplementation implements ReservationService {
    */
   private void saveDiscountIfNotExistent(ReservationDiscount discount) {
     if (discount != null) {
-      if (!reservationDiscountRepo.existsByPercentageAndAmountAndNameAndCodeAndTypeAndIsAvailableAndDescription(
-          discount.getPercentage(), discount.getAmount(), discount.getName(), discount.getCode(), discount.getType(),
-          discount.getAvailable(), discount.getDescription())) {
-        reservationDiscountRepo.save(discount);
-      } else {
-        Optional<ReservationDiscount> existingDiscount = reservationDiscountRepo.findByPercentageAndAmountAndNameAndCodeAndTypeAndIsAvailableAndDescription(
-            discount.getPercentage(), discount.getAmount(), discount.getName(), discount.getCode(), discount.getType(),
-            discount.getAvailable(), discount.getDescription());
-        existingDiscount.ifPresent(reservationDiscount -> discount.setId(reservationDiscount.getId()));
-      }
+      rateAndDiscountInterner.intern(discount);
     }
   }
 
@@ -276,18 +338,41 @@ public class ReservationServiceImplementation implements ReservationService {
    * @return - The targeted reservations.
    */
   private Page<Reservation> retrieveReservations(ReservationFilterCriteria reservationFilterCriteria, Pageable pageable) {
-    return reservationRepository.findAllAndFilter(
-        reservationFilterCriteria.getStartedBefore(),
-        reservationFilterCriteria.getStartedAfter(),
-        reservationFilterCriteria.getEventType(),
-        reservationFilterCriteria.isFullPackage(),
-        reservationFilterCriteria.getStatus(),
-        reservationFilterCriteria.isSecurityDepositRefunded(),
-        reservationFilterCriteria.getMinTotalPrice(),
-        reservationFilterCriteria.getMaxTotalPrice(),
-        reservationFilterCriteria.getUserId(),
-        reservationFilterCriteria.getPriceComputationMethod(),
-        pageable);
+    return reservationRepository.findAll(reservationFilterCriteria.toSpecification(), pageable);
+  }
+
+  /**
+   * Build the listing view of the provided reservations. The requested add-ons of the whole batch
+   * are loaded with a single query, whatever the number of reservations.
+   *
+   * @param reservations - The reservations, with their rates and discount loaded.
+   * @return - The reservation summaries, in the same order.
+   */
+  private List<ReservationSummary> summarize(List<Reservation> reservations) {
+    if (reservations.isEmpty()) {
+      return List.of();
+    }
+
+    List<Long> ids = reservations.stream().map(Reservation::getId).toList();
+    Map<Long, List<ReservationAddOnSummary>> addOnsByReservationId =
+        requestedAddOnRepository.findSummariesByReservationIdIn(ids).stream()
+            .collect(Collectors.groupingBy(ReservationAddOnSummary::reservationId));
+
+    return reservations.stream()
+        .map(reservation -> ReservationSummary.from(
+            reservation, addOnsByReservationId.getOrDefault(reservation.getId(), List.of())))
+        .toList();
+  }
+
+  /**
+   * Build the listing view of a page of reservations.
+   *
+   * @param reservations - The page of reservations.
+   * @return - The page of reservation summaries.
+   */
+  private Page<ReservationSummary> summarize(Page<Reservation> reservations) {
+    return new PageImpl<>(
+        summarize(reservations.getContent()), reservations.getPageable(), reservations.getTotalElements());
   }
 
   /**
@@ -298,11 +383,11 @@ public class ReservationServiceImplementation implements ReservationService {
    */
   @PreAuthorize("hasRole('admin')")
   @Override
-  public Page<Reservation> getReservations(Map<String, String> params) {
+  public Page<ReservationSummary> getReservations(Map<String, String> params) {
 
     logger.info("Fetching reservations...");
-    Page<Reservation> reservations;
-    Pageable pageable = Pageable.unpaged();
+    Page<ReservationSummary> reservations;
+    Pageable pageable = defaultPageRequest();
     Pair<CustomPage, ReservationFilterCriteria> pageReservationFilterCriteriaPair =
         Pair.of(new CustomPage(), new ReservationFilterCriteria());
 
@@ -313,7 +398,7 @@ public class ReservationServiceImplementation implements ReservationService {
 
         pageable = buildPageRequestFromCustomPage(pageReservationFilterCriteriaPair.getFirst());
       }
-      reservations = retrieveReservations(pageReservationFilterCriteriaPair.getSecond(), pageable);
+      reservations = summarize(retrieveReservations(pageReservationFilterCriteriaPair.getSecond(), pageable));
 
     } catch (DataAccessException dae) {
       logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, dae);
@@ -327,6 +412,75 @@ public class ReservationServiceImplementation implements ReservationService {
     return reservations;
   }
 
+  /**
+   * Fetch the page of reservations following the provided cursor, without counting the total.
+   *
+   * @param params The sorting and filtering options, including the cursor.
+   * @return - The page and the cursor of the following one.
+   */
+  @PreAuthorize("hasRole('admin')")
+  @Override
+  public CursorPage<ReservationSummary> getReservationsByCursor(Map<String, String> params) {
+
+    logger.info("Fetching reservations...");
+    try {
+      Pair<CustomPage, ReservationFilterCriteria> pageReservationFilterCriteriaPair =
+          serviceHelper.generateCustomPageAndReservationFilterCriteria(params);
+
+      CursorPage<Reservation> reservations = keysetPaginator.findPage(
+          Reservation.class,
+          pageReservationFilterCriteriaPair.getSecond().toSpecification(),
+          pageReservationFilterCriteriaPair.getFirst(),
+          params.get("cursor"),
+          List.of("rates", "discount"));
+
+      logger.info(String.format(BULK_GET_SUCCESS_MESSAGE, "Reservations"));
+      return new CursorPage<>(
+          summarize(reservations.content()), reservations.pageSize(), reservations.nextCursor());
+
+    } catch (ResponseStatusException rse) {
+      throw rse;
+    } catch (DataAccessException dae) {
+      logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, dae);
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    } catch (RuntimeException re) {
+      logger.error(GENERIC_UNEXPECTED_ERROR_LOG_MESSAGE, re);
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    }
+  }
+
+  /**
+   * Stream all reservations matching the filters, whatever their number.
+   *
+   * @param params - The sorting and filtering options
+   * @param format - The file format of the export.
+   * @return - A body writing the reservations once the response starts.
+   */
+  @PreAuthorize("hasRole('admin')")
+  @Override
+  public StreamingResponseBody exportReservations(Map<String, String> params, ExportFormat format) {
+
+    logger.info("Exporting reservations...");
+    try {
+      Pair<CustomPage, ReservationFilterCriteria> pageReservationFilterCriteriaPair =
+          serviceHelper.generateCustomPageAndReservationFilterCriteria(params);
+      ReservationFilterCriteria reservationFilterCriteria = pageReservationFilterCriteriaPair.getSecond();
+      Sort sort = Sort.by(
+          pageReservationFilterCriteriaPair.getFirst().getSortDirection(),
+          pageReservationFilterCriteriaPair.getFirst().getSortBy());
+
+      return exportWriter.write(format, ReservationExportRow.class, () -> exportRowReader.read(
+          Reservation.class,
+          ReservationExportRow.class,
+          ReservationExportRow.COLUMNS,
+          reservationFilterCriteria.toSpecification(),
+          sort));
+    } catch (RuntimeException re) {
+      logger.error(GENERIC_UNEXPECTED_ERROR_LOG_MESSAGE, re);
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    }
+  }
+
   /**
    * Fetch all reservations associated to a single user.
    *
@@ -334,14 +488,14 @@ public class ReservationServiceImplementation implements ReservationService {
    * @return - A list of reservations
    */
   @Override
-  public Page<Reservation> getReservationsByUserId(String userId, Map<String, String> params) {
+  public Page<ReservationSummary> getReservationsByUserId(String userId, Map<String, String> params) {
 
     logger.info("Fetching reservations associated to the user id: " + userId + "...");
-    Page<Reservation> reservations;
+    Page<ReservationSummary> reservations;
 
     try {
       if (params.isEmpty()) {
-        reservations = reservationRepository.findByUserId(userId, Pageable.unpaged());
+        reservations = summarize(reservationRepository.findByUserId(userId, defaultPageRequest()));
       } else {
 
         // Setting up the customPage entity and the reservationFilterCriteria with the corresponding
@@ -354,7 +508,8 @@ public class ReservationServiceImplementation implements ReservationService {
         // Setting the userId filter criteria to the provided user id.
         reservationFilterCriteria.setUserId(userId);
 
-        reservations = retrieveReservations(reservationFilterCriteria, buildPageRequestFromCustomPage(customPage));
+        reservations = summarize(
+            retrieveReservations(reservationFilterCriteria, buildPageRequestFromCustomPage(customPage)));
       }
     } catch (DataAccessException dae) {
       logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, dae);
@@ -369,13 +524,341 @@ public class ReservationServiceImplementation implements ReservationService {
   }
 
   /**
-   * Persists a newly created reservation
+   * Fetch a single reservation with its rates, discount and requested add-ons.
+   *
+   * @param userId        - The id of the user the reservation belongs to.
+   * @param reservationId - The id of the reservation.
+   * @return - The reservation.
+   */
+  @Override
+  public Reservation getReservation(String userId, Long reservationId) {
+
+    logger.info("Fetching reservation with id: " + reservationId + "...");
+    try {
+      Optional<Reservation> reservation = reservationRepository.findDetailById(reservationId)
+          .filter(candidate -> Objects.equals(candidate.getUserId(), userId));
+
+      if (reservation.isEmpty()) {
+        logger.info(String.format(GET_NOT_FOUND_MESSAGE, "reservation", reservationId));
+        throw new ResponseStatusException(
+            HttpStatus.NOT_FOUND, String.format(GET_NOT_FOUND_MESSAGE, "reservation", reservationId));
+      }
+
+      logger.info(String.format(GET_SUCCESS_MESSAGE, "Reservation", reservationId));
+      return reservation.get();
+
+    } catch (ResponseStatusException rse) {
+      throw rse;
+    } catch (DataAccessException dae) {
+      logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, dae);
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    } catch (RuntimeException re) {
+      logger.error(RUNTIME_EXCEPTION_LOG_MESSAGE, re);
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    }
+  }
+
+  /**
+   * Compute the free and busy blocks of the booking calendar of a venue between two days (inclusive).
+   * <p>
+   * Busy blocks include the buffer kept around every reservation and hold, and anything before the
+   * current date-time is reported as busy since it cannot be booked. The reservations of the whole
+   * range are read with a single range query, so bookings made through any instance are included.
+   *
+   * @param venueId - The id of the venue.
+   * @param from    - The first day of the range.
+   * @param to      - The last day of the range.
+   * @return - The consecutive availability blocks covering the range.
+   */
+  @Override
+  public List<ReservationAvailabilityBlock> getAvailability(Long venueId, LocalDate from, LocalDate to) {
+    try {
+      if (from == null || to == null || to.isBefore(from)
+          || ChronoUnit.DAYS.between(from, to) >= AVAILABILITY_MAX_RANGE_DAYS) {
+        logger.error(String.format(INVALID_AVAILABILITY_RANGE_ERROR_MESSAGE, AVAILABILITY_MAX_RANGE_DAYS));
+        throw new ResponseStatusException(
+            HttpStatus.BAD_REQUEST, String.format(INVALID_AVAILABILITY_RANGE_ERROR_MESSAGE, AVAILABILITY_MAX_RANGE_DAYS));
+      }
+
+      LocalDateTime windowStart = from.atStartOfDay();
+      LocalDateTime windowEnd = to.plusDays(1L).atStartOfDay();
+      LocalDateTime now = LocalDateTime.now();
+
+      List<ReservationAvailabilityBlock> blocks = new ArrayList<>();
+      LocalDateTime cursor = windowStart;
+      LocalDateTime busyStart = null;
+      LocalDateTime busyEnd = null;
+
+      if (now.isAfter(windowStart)) {
+        busyStart = windowStart;
+        busyEnd = now.isBefore(windowEnd) ? now : windowEnd;
+      }
+
+      // Read from the database: the interval index of this instance may miss bookings made on others.
+      List<ReservationInterval> intervals = new ArrayList<>(reservationRepository.findIntervalsOverlapping(venueId,
+          windowStart.minusHours(RESERVATION_BUFFER_HOURS), windowEnd.plusHours(RESERVATION_BUFFER_HOURS),
+          STATUS_CANCELLED));
+      reservationHolds.findActiveOverlapping(venueId,
+              windowStart.minusHours(RESERVATION_BUFFER_HOURS), windowEnd.plusHours(RESERVATION_BUFFER_HOURS), null)
+          .forEach(hold -> intervals.add(
+              new ReservationInterval(null, venueId, hold.startingDateTime(), hold.endingDateTime())));
+      intervals.sort(Comparator.comparing(ReservationInterval::start));
+
+      for (ReservationInterval interval : intervals) {
+        LocalDateTime start = interval.start().minusHours(RESERVATION_BUFFER_HOURS);
+        LocalDateTime end = interval.end().plusHours(RESERVATION_BUFFER_HOURS);
+        start = start.isBefore(windowStart) ? windowStart : start;
+        end = end.isAfter(windowEnd) ? windowEnd : end;
+
+        if (!end.isAfter(start)) {
+          continue;
+        }
+
+        // Merging with the pending busy block when both touch or overlap.
+        if (busyEnd != null && !start.isAfter(busyEnd)) {
+          busyEnd = end.isAfter(busyEnd) ? end : busyEnd;
+          continue;
+        }
+
+        if (busyEnd != null) {
+          blocks.add(new ReservationAvailabilityBlock(busyStart, busyEnd, false));
+          cursor = busyEnd;
+        }
+        if (start.isAfter(cursor)) {
+          blocks.add(new ReservationAvailabilityBlock(cursor, start, true));
+        }
+        busyStart = start;
+        busyEnd = end;
+      }
+
+      if (busyEnd != null) {
+        blocks.add(new ReservationAvailabilityBlock(busyStart, busyEnd, false));
+        cursor = busyEnd;
+      }
+      if (cursor.isBefore(windowEnd)) {
+        blocks.add(new ReservationAvailabilityBlock(cursor, windowEnd, true));
+      }
+
+      return blocks;
+    } catch (ResponseStatusException rse) {
+      throw rse;
+    } catch (DataAccessException dae) {
+      logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, dae);
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    } catch (RuntimeException re) {
+      logger.error(RUNTIME_EXCEPTION_LOG_MESSAGE, re);
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    }
+  }
+
+  /**
+   * Price a batch of candidate bookings without persisting anything.
+   * <p>
+   * All requests of a venue are priced against the same rate card snapshot, and the add-ons and
+   * venues they reference are each resolved with a single query.
+   *
+   * @param requests - The candidate bookings.
+   * @return - One quote per request, in the same order.
+   */
+  @Override
+  public List<ReservationQuote> quoteReservations(List<ReservationQuoteRequest> requests) {
+    if (requests == null || requests.isEmpty() || requests.size() > MAX_QUOTES_PER_REQUEST) {
+      logger.error(String.format(INVALID_QUOTE_BATCH_SIZE_ERROR_MESSAGE, MAX_QUOTES_PER_REQUEST));
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, String.format(INVALID_QUOTE_BATCH_SIZE_ERROR_MESSAGE, MAX_QUOTES_PER_REQUEST));
+    }
+
+    try {
+      Set<Long> addOnIds = new HashSet<>();
+      Set<Long> venueIds = new HashSet<>();
+      for (ReservationQuoteRequest request : requests) {
+        if (request.startingDateTime() == null || request.endingDateTime() == null) {
+          logger.error(String.format(MISSING_FIELD_ERROR_MESSAGE, "starting and ending date time"));
+          throw new ResponseStatusException(
+              HttpStatus.BAD_REQUEST, String.format(MISSING_FIELD_ERROR_MESSAGE, "starting and ending date time"));
+        }
+        checkQuoteDiscount(request.discount());
+        if (request.addOns() != null) {
+          addOnIds.addAll(request.addOns().keySet());
+        }
+        venueIds.add(request.venueId());
+      }
+
+      Map<Long, Venue> venuesById = new HashMap<>();
+      venueRepository.findAllById(venueIds).forEach(venue -> venuesById.put(venue.getId(), venue));
+      for (ReservationQuoteRequest request : requests) {
+        Venue venue = venuesById.get(request.venueId());
+        if (venue == null || !venue.isActive()) {
+          logger.error(String.format(RESERVATION_WITH_NON_EXISTENT_VENUE_ERROR_MESSAGE, request.venueId()));
+          throw new ResponseStatusException(
+              HttpStatus.BAD_REQUEST, String.format(RESERVATION_WITH_NON_EXISTENT_VENUE_ERROR_MESSAGE, request.venueId()));
+        }
+        if (request.numberOfSeats() > venue.getCapacity()) {
+          logger.error(String.format(VENUE_CAPACITY_EXCEEDED_ERROR_MESSAGE, venue.getCapacity()));
+          throw new ResponseStatusException(
+              HttpStatus.BAD_REQUEST, String.format(VENUE_CAPACITY_EXCEEDED_ERROR_MESSAGE, venue.getCapacity()));
+        }
+      }
+
+      Map<Long, AddOn> addOnsById = new HashMap<>();
+      if (!addOnIds.isEmpty()) {
+        addOnRepository.findAllById(addOnIds).forEach(addOn -> addOnsById.put(addOn.getId(), addOn));
+      }
+      addOnIds.stream().filter(addOnId -> !addOnsById.containsKey(addOnId)).sorted().findFirst()
+          .ifPresent(addOnId -> {
+            logger.error(String.format(RESERVATION_WITH_NON_EXISTENT_ADD_ON_ERROR_MESSAGE, addOnId));
+            throw new ResponseStatusException(
+                HttpStatus.BAD_REQUEST, String.format(RESERVATION_WITH_NON_EXISTENT_ADD_ON_ERROR_MESSAGE, addOnId));
+          });
+
+      Map<Long, RateCard> rateCardsByVenue = new HashMap<>();
+      List<ReservationQuote> quotes = new ArrayList<>(requests.size());
+      for (ReservationQuoteRequest request : requests) {
+        if (request.addOns() != null) {
+          checkOfferedAt(request.addOns().keySet().stream().map(addOnsById::get).toList(), request.venueId());
+        }
+        RateCard rateCard = rateCardsByVenue.computeIfAbsent(request.venueId(), rateCardRegistry::current);
+        quotes.add(quoteEngine.quote(request, rateCard, addOnsById));
+      }
+      return quotes;
+
+    } catch (ResponseStatusException rse) {
+      throw rse;
+    } catch (DataAccessException dae) {
+      logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, dae);
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    } catch (RuntimeException re) {
+      logger.error(GENERIC_UNEXPECTED_ERROR_LOG_MESSAGE, re);
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    }
+  }
+
+  /**
+   * Check that a quoted discount carries the value its type calls for.
+   *
+   * @param discount - The discount to apply, if any.
+   */
+  private void checkQuoteDiscount(ReservationDiscount discount) {
+    if (discount == null) {
+      return;
+    }
+    String missingField;
+    if (DISCOUNT_TYPE_PERCENTAGE.equals(discount.getType())) {
+      missingField = discount.getPercentage() == null ? "discount percentage" : null;
+    } else if (DISCOUNT_TYPE_AMOUNT.equals(discount.getType())) {
+      missingField = discount.getAmount() == null ? "discount amount" : null;
+    } else {
+      missingField = "discount type";
+    }
+    if (missingField != null) {
+      logger.error(String.format(MISSING_FIELD_ERROR_MESSAGE, missingField));
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, String.format(MISSING_FIELD_ERROR_MESSAGE, missingField));
+    }
+  }
+
+  /**
+   * Hold a window for a customer while they complete their booking. The window must be free, and
+   * stays busy for everyone else until the hold is booked, released or expires.
+   *
+   * @param userId      - The customer.
+   * @param holdRequest - The window to hold and for how long.
+   * @return - The hold.
+   */
+  @Override
+  public ReservationHold placeHold(String userId, ReservationHoldRequest holdRequest) {
+    if (holdRequest == null || holdRequest.startingDateTime() == null || holdRequest.endingDateTime() == null) {
+      logger.error(String.format(MISSING_FIELD_ERROR_MESSAGE, "starting and ending date time"));
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, String.format(MISSING_FIELD_ERROR_MESSAGE, "starting and ending date time"));
+    }
+    int minutes = holdRequest.minutes() == null ? HOLD_DEFAULT_MINUTES : holdRequest.minutes();
+    if (minutes < 1 || minutes > HOLD_MAX_MINUTES) {
+      logger.error(String.format(INVALID_HOLD_DURATION_ERROR_MESSAGE, HOLD_MAX_MINUTES));
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, String.format(INVALID_HOLD_DURATION_ERROR_MESSAGE, HOLD_MAX_MINUTES));
+    }
+
+    LocalDateTime start = holdRequest.startingDateTime();
+    LocalDateTime end = holdRequest.effectiveEndingDateTime() != null
+        ? holdRequest.effectiveEndingDateTime() : holdRequest.endingDateTime();
+    Long venueId = holdRequest.venueId();
+    return reservationAdmission.admit(venueId, start, end, () -> {
+      try {
+        checkVenue(venueId, null);
+        checkDateTimeAvailability(venueId,
+            start, holdRequest.endingDateTime(), holdRequest.effectiveEndingDateTime(), "hold", 0, userId);
+
+        reservationHolds.lockHolder(userId);
+        if (reservationHolds.countActive(userId) >= HOLD_MAX_PER_USER) {
+          logger.error(String.format(TOO_MANY_HOLDS_ERROR_MESSAGE, HOLD_MAX_PER_USER));
+          throw new ResponseStatusException(
+              HttpStatus.CONFLICT, String.format(TOO_MANY_HOLDS_ERROR_MESSAGE, HOLD_MAX_PER_USER));
+        }
+
+        ReservationHold hold = reservationHolds.place(userId, venueId, start, end, minutes);
+        logger.info(String.format(CREATE_SUCCESS_MESSAGE, "Reservation hold"));
+        return hold;
+
+      } catch (ResponseStatusException rse) {
+        throw rse;
+      } catch (DataAccessException dae) {
+        logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, dae);
+        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+      } catch (RuntimeException re) {
+        logger.error(GENERIC_UNEXPECTED_ERROR_LOG_MESSAGE, re);
+        throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+      }
+    });
+  }
+
+  /**
+   * Release a hold before it expires.
+   *
+   * @param userId - The customer holding it.
+   * @param holdId - The token of the hold.
+   */
+  @Override
+  public void releaseHold(String userId, String holdId) {
+    try {
+      if (!reservationHolds.release(holdId, userId)) {
+        logger.error(String.format(DELETE_NOT_FOUND_MESSAGE, "reservation hold"));
+        throw new ResponseStatusException(
+            HttpStatus.NOT_FOUND, String.format(DELETE_NOT_FOUND_MESSAGE, "reservation hold"));
+      }
+      logger.info(String.format(DELETE_SUCCESS_MESSAGE, "Reservation hold", holdId));
+
+    } catch (ResponseStatusException rse) {
+      throw rse;
+    } catch (DataAccessException dae) {
+      logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, dae);
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    } catch (RuntimeException re) {
+      logger.error(GENERIC_UNEXPECTED_ERROR_LOG_MESSAGE, re);
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    }
+  }
+
+  /**
+   * Persists a newly created reservation, once no conflicting booking is in flight.
    *
    * @param newReservation - The reservation to persist.
    * @return - The newly created reservation.
    */
   @Override
   public Reservation createReservation(Reservation newReservation) {
+    return reservationAdmission.admit(
+        newReservation.getVenueId(), newReservation.getStartingDateTime(), bookedUntil(newReservation),
+        () -> persistNewReservation(newReservation));
+  }
+
+  /**
+   * Check the availability of a new reservation, then persist it along with its invoice.
+   *
+   * @param newReservation - The reservation to persist.
+   * @return - The newly created reservation.
+   */
+  private Reservation persistNewReservation(Reservation newReservation) {
     try {
       logger.info("Creating reservation...");
       if (newReservation.getId() != null
@@ -386,12 +869,12 @@ public class ReservationServiceImplementation implements ReservationService {
             String.format(CREATE_CONFLICT_MESSAGE1, "reservation", newReservation.getId()));
       }
 
-      checkDateTimeAvailability(
+      checkVenue(newReservation.getVenueId(), newReservation.getNumberOfSeats());
+      checkDateTimeAvailability(newReservation.getVenueId(),
           newReservation.getStartingDateTime(), newReservation.getEndingDateTime(),
-          newReservation.getEffectiveEndingDateTime(), "create", 0);
+          newReservation.getEffectiveEndingDateTime(), "create", 0, newReservation.getUserId());
 
       User user;
-      Invoice invoice = new Invoice();
 
       if (newReservation.getUserId() == null || newReservation.getUserId().isBlank()) {
         logger.error(String.format(MISSING_FIELD_ERROR_MESSAGE, "user id"));
@@ -399,30 +882,25 @@ public class ReservationServiceImplementation implements ReservationService {
       }
       user = userService.getUserById(newReservation.getUserId());
 
-      checkIfChosenAddOnExists(newReservation.getAddOns());
+      checkIfChosenAddOnExists(newReservation.getAddOns(), newReservation.getVenueId());
 
       // Computing the total price.
-      serviceHelper.computeTotalPrice(
-          newReservation, addOnName -> addOnRepository.findByName(addOnName).orElse(null));
+      serviceHelper.computeTotalPrice(newReservation, rateCardRegistry.current(newReservation.getVenueId()));
 
       // Persisting the rates and discount associated to the reservation.
       saveRateIfNotExistent(newReservation.getRates());
       saveDiscountIfNotExistent(newReservation.getDiscount());
 
       reservationRepository.save(newReservation);
+      reservationRollups.add(newReservation);
+      intervalIndex.recordAfterCommit(newReservation);
+      reservationHolds.releaseOverlapping(newReservation.getUserId(), newReservation.getVenueId(),
+          newReservation.getStartingDateTime(), bookedUntil(newReservation));
       persistRequestedAddOn(newReservation);
       logger.info(String.format(CREATE_SUCCESS_MESSAGE, "Reservation"));
 
       // Create invoice
-      invoice.setUser(user);
-      invoice.setStatus(STATUS_DUE);
-      invoice.setReservation(newReservation);
-      invoice.setAmountDue(newReservation.getTotalPrice());
-      invoice.setInvoiceNumber("INV-000" + newReservation.getId());
-      invoice.setDueDate(serviceHelper.computeDueDate(newReservation.getStartingDateTime()));
-      invoice.setIssuedDate(
-          LocalDateTime.now().format(DateTimeFormatter.ofPattern(DATE_TIME_FORMAT)));
-
+      Invoice invoice = invoiceFor(newReservation, user);
       invoiceRepository.save(invoice);
 
       // Sending confirmation email.
@@ -451,8 +929,6 @@ public class ReservationServiceImplementation implements ReservationService {
     } catch (DataAccessException e) {
       logger.error(e.getMessage());
       throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
-    } catch (MailException | IOException e) {
-      logger.error("Couldn't send confirmation email.", e);
     } catch (TwilioException e) {
       logger.error("Couldn't send SMS.", e);
     } catch (RuntimeException re) {
@@ -464,7 +940,258 @@ public class ReservationServiceImplementation implements ReservationService {
   }
 
   /**
-   * Update a reservation.
+   * Book every occurrence of a recurring reservation at once.
+   * <p>
+   * The days of all occurrences are locked together, checked against the existing reservations
+   * with a single range query, priced against the same rate card snapshot and persisted in batches.
+   * An occurrence that cannot be booked is reported as a conflict; the others are still booked.
+   *
+   * @param seriesRequest - The first occurrence and how it repeats.
+   * @return - The outcome of each occurrence.
+   */
+  @Override
+  public ReservationSeries createReservationSeries(ReservationSeriesRequest seriesRequest) {
+    Reservation template = seriesRequest == null ? null : seriesRequest.reservation();
+    if (template == null || template.getStartingDateTime() == null || template.getEndingDateTime() == null) {
+      logger.error(String.format(MISSING_FIELD_ERROR_MESSAGE, "starting and ending date time"));
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, String.format(MISSING_FIELD_ERROR_MESSAGE, "starting and ending date time"));
+    }
+    if (bookedUntil(template).isBefore(template.getStartingDateTime())) {
+      logger.error(String.format(RESERVATION_END_BEFORE_START_ERROR_MESSAGE, "ending"));
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, String.format(RESERVATION_END_BEFORE_START_ERROR_MESSAGE, "ending"));
+    }
+
+    List<LocalDateTime> starts = seriesRequest.recurrence() == null ? List.of()
+        : seriesRequest.recurrence().expand(template.getStartingDateTime(), MAX_SERIES_OCCURRENCES);
+    if (starts.isEmpty() || starts.size() > MAX_SERIES_OCCURRENCES) {
+      logger.error(String.format(INVALID_RECURRENCE_ERROR_MESSAGE, MAX_SERIES_OCCURRENCES));
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, String.format(INVALID_RECURRENCE_ERROR_MESSAGE, MAX_SERIES_OCCURRENCES));
+    }
+
+    List<Reservation> occurrences = starts.stream().map(start -> occurrenceOf(template, start)).toList();
+    return reservationAdmission.admitAll(template.getVenueId(),
+        occurrences.stream().map(ReservationInterval::of).toList(),
+        () -> persistReservationSeries(template, occurrences));
+  }
+
+  /**
+   * Check the availability of every occurrence of a series, then persist the available ones along
+   * with their add-ons and invoices.
+   *
+   * @param template    - The first occurrence, as requested.
+   * @param occurrences - Every occurrence, in chronological order, not yet persisted.
+   * @return - The outcome of each occurrence.
+   */
+  private ReservationSeries persistReservationSeries(Reservation template, List<Reservation> occurrences) {
+    try {
+      logger.info("Creating a series of " + occurrences.size() + " reservations...");
+      if (template.getUserId() == null || template.getUserId().isBlank()) {
+        logger.error(String.format(MISSING_FIELD_ERROR_MESSAGE, "user id"));
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, String.format(MISSING_FIELD_ERROR_MESSAGE, "user id"));
+      }
+      User user = userService.getUserById(template.getUserId());
+      Long venueId = template.getVenueId();
+      checkVenue(venueId, template.getNumberOfSeats());
+      Map<Long, AddOn> addOnsById = findChosenAddOns(template.getAddOns(), venueId);
+
+      LocalDateTime now = LocalDateTime.now();
+      LocalDateTime seriesStart = occurrences.get(0).getStartingDateTime();
+      LocalDateTime seriesEnd = bookedUntil(occurrences.get(occurrences.size() - 1));
+      List<ReservationInterval> taken = new ArrayList<>(reservationRepository.findIntervalsOverlapping(venueId,
+          seriesStart.minusHours(RESERVATION_BUFFER_HOURS), seriesEnd.plusHours(RESERVATION_BUFFER_HOURS),
+          STATUS_CANCELLED));
+      List<ReservationHold> heldByOthers = reservationHolds.findActiveOverlapping(venueId,
+          seriesStart.minusHours(RESERVATION_BUFFER_HOURS), seriesEnd.plusHours(RESERVATION_BUFFER_HOURS),
+          template.getUserId());
+
+      RateCard rateCard = rateCardRegistry.current(venueId);
+      saveDiscountIfNotExistent(template.getDiscount());
+      Map<String, ReservationRate> ratesByContentHash = new HashMap<>();
+
+      List<Reservation> booked = new ArrayList<>();
+      List<String> conflicts = new ArrayList<>(occurrences.size());
+      for (Reservation occurrence : occurrences) {
+        LocalDateTime checkStart = occurrence.getStartingDateTime().minusHours(RESERVATION_BUFFER_HOURS);
+        LocalDateTime checkEnd = bookedUntil(occurrence).plusHours(RESERVATION_BUFFER_HOURS);
+
+        if (occurrence.getStartingDateTime().isBefore(now)) {
+          conflicts.add(RESERVATION_START_IN_THE_PAST_ERROR_MESSAGE);
+          continue;
+        }
+        if (taken.stream().anyMatch(interval -> interval.overlaps(checkStart, checkEnd))) {
+          conflicts.add(UNAVAILABLE_TIME_SLOT_ERROR_MESSAGE);
+          continue;
+        }
+        if (heldByOthers.stream().anyMatch(hold -> hold.overlaps(venueId, checkStart, checkEnd))) {
+          conflicts.add(HELD_TIME_SLOT_ERROR_MESSAGE);
+          continue;
+        }
+        conflicts.add(null);
+
+        if (template.getAddOns() != null) {
+          for (RequestedAddOn requestedAddOn : template.getAddOns()) {
+            occurrence.addAddon(new RequestedAddOn(
+                null, addOnsById.get(requestedAddOn.getAddOn().getId()), occurrence, requestedAddOn.getQuantity()));
+          }
+        }
+        serviceHelper.computeTotalPrice(occurrence, rateCard);
+        // Occurrences mostly share the same rates; each distinct set is only resolved once.
+        ReservationRate rates = occurrence.getRates();
+        occurrence.setRates(ratesByContentHash.computeIfAbsent(rates.computeContentHash(), contentHash -> {
+          saveRateIfNotExistent(rates);
+          return rates;
+        }));
+
+        booked.add(occurrence);
+        taken.add(ReservationInterval.of(occurrence));
+      }
+
+      List<Invoice> invoices = new ArrayList<>(booked.size());
+      if (!booked.isEmpty()) {
+        // Saved together so the inserts of each table go out as JDBC batches.
+        reservationRepository.saveAll(booked);
+        requestedAddOnRepository.saveAll(booked.stream().flatMap(reservation -> reservation.getAddOns().stream()).toList());
+        booked.forEach(reservation -> invoices.add(invoiceFor(reservation, user)));
+        invoiceRepository.saveAll(invoices);
+        booked.forEach(reservation -> {
+          reservationRollups.add(reservation);
+          intervalIndex.recordAfterCommit(reservation);
+        });
+        reservationHolds.releaseOverlapping(template.getUserId(), venueId, seriesStart, seriesEnd);
+        logger.info(String.format(CREATE_SUCCESS_MESSAGE, booked.size() + " Reservations"));
+
+        List<Mail> mails = new ArrayList<>(invoices.size());
+        for (Invoice invoice : invoices) {
+          mails.add(serviceHelper.getMail(
+              invoice, RESERVATION_EMAIL_TEMPLATE, NO_REPLY_EMAIL_ADDRESS, RESERVATION_CONFIRMATION_SUBJECT, true));
+        }
+        logger.info("Sending reservation booking confirmation emails...");
+        emailService.sendEmails(mails);
+      }
+
+      List<ReservationSeriesOccurrence> outcomes = new ArrayList<>(occurrences.size());
+      Iterator<Invoice> invoiceIterator = invoices.iterator();
+      for (int i = 0; i < occurrences.size(); i++) {
+        Reservation occurrence = occurrences.get(i);
+        Invoice invoice = conflicts.get(i) == null ? invoiceIterator.next() : null;
+        outcomes.add(new ReservationSeriesOccurrence(
+            occurrence.getStartingDateTime(),
+            occurrence.getEndingDateTime(),
+            invoice == null ? null : occurrence.getId(),
+            invoice == null ? null : invoice.getInvoiceNumber(),
+            invoice == null ? null : occurrence.getTotalPrice(),
+            conflicts.get(i)));
+      }
+      return new ReservationSeries(booked.size(), outcomes);
+
+    } catch (ResponseStatusException rse) {
+      throw rse;
+    } catch (DataAccessException e) {
+      logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, e);
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    } catch (RuntimeException re) {
+      logger.error(GENERIC_UNEXPECTED_ERROR_LOG_MESSAGE, re);
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    }
+  }
+
+  /**
+   * Copy the requested reservation to another starting date-time, keeping its length.
+   *
+   * @param template - The first occurrence, as requested.
+   * @param start    - The starting date-time of the copy.
+   * @return - The copy, without id, add-ons nor price.
+   */
+  private Reservation occurrenceOf(Reservation template, LocalDateTime start) {
+    DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DATE_TIME_FORMAT);
+    Duration shift = Duration.between(template.getStartingDateTime(), start);
+
+    Reservation occurrence = new Reservation();
+    occurrence.setStartingDateTime(start.format(formatter));
+    occurrence.setEndingDateTime(template.getEndingDateTime().plus(shift).format(formatter));
+    if (template.getEffectiveEndingDateTime() != null) {
+      occurrence.setEffectiveEndingDateTime(template.getEffectiveEndingDateTime().plus(shift).format(formatter));
+    }
+    occurrence.setNumberOfSeats(template.getNumberOfSeats());
+    occurrence.setEventType(template.getEventType());
+    occurrence.setFullPackage(template.isFullPackage());
+    occurrence.setAddOns(new ArrayList<>());
+    occurrence.setStatus(template.getStatus());
+    occurrence.setTaxRate(template.getTaxRate());
+    occurrence.setDiscount(template.getDiscount());
+    occurrence.setPriceComputationMethod(template.getPriceComputationMethod());
+    occurrence.setUserId(template.getUserId());
+    occurrence.setVenueId(template.getVenueId());
+    return occurrence;
+  }
+
+  /**
+   * Load the chosen add-ons with a single query, checking that each of them exists and is offered
+   * at the venue.
+   *
+   * @param requestedAddOns - The collection of chosen AddOns.
+   * @param venueId         - The id of the venue booked.
+   * @return - The add-ons on file, keyed by id.
+   */
+  private Map<Long, AddOn> findChosenAddOns(Collection<RequestedAddOn> requestedAddOns, Long venueId) {
+    Map<Long, AddOn> addOnsById = new HashMap<>();
+    if (requestedAddOns == null || requestedAddOns.isEmpty()) {
+      return addOnsById;
+    }
+
+    Set<Long> addOnIds = requestedAddOns.stream()
+        .map(requestedAddOn -> requestedAddOn.getAddOn().getId()).collect(Collectors.toSet());
+    addOnRepository.findAllById(addOnIds).forEach(addOn -> addOnsById.put(addOn.getId(), addOn));
+    addOnIds.stream().filter(addOnId -> !addOnsById.containsKey(addOnId)).sorted().findFirst()
+        .ifPresent(addOnId -> {
+          logger.error(String.format(RESERVATION_WITH_NON_EXISTENT_ADD_ON_ERROR_MESSAGE, addOnId));
+          throw new ResponseStatusException(
+              HttpStatus.BAD_REQUEST, String.format(RESERVATION_WITH_NON_EXISTENT_ADD_ON_ERROR_MESSAGE, addOnId));
+        });
+    checkOfferedAt(addOnsById.values(), venueId);
+    return addOnsById;
+  }
+
+  /**
+   * Check that add-ons on file can be booked at a venue.
+   *
+   * @param addOns  - The add-ons.
+   * @param venueId - The id of the venue booked.
+   */
+  private void checkOfferedAt(Collection<AddOn> addOns, Long venueId) {
+    addOns.stream().filter(addOn -> !addOn.isOfferedAt(venueId)).map(AddOn::getId).sorted().findFirst()
+        .ifPresent(addOnId -> {
+          logger.error(String.format(ADD_ON_NOT_OFFERED_AT_VENUE_ERROR_MESSAGE, addOnId));
+          throw new ResponseStatusException(
+              HttpStatus.BAD_REQUEST, String.format(ADD_ON_NOT_OFFERED_AT_VENUE_ERROR_MESSAGE, addOnId));
+        });
+  }
+
+  /**
+   * Build the invoice of a reservation that was just persisted.
+   *
+   * @param reservation - The reservation, with its id and total price set.
+   * @param user        - The customer.
+   * @return - The invoice, not yet persisted.
+   */
+  private Invoice invoiceFor(Reservation reservation, User user) {
+    Invoice invoice = new Invoice();
+    invoice.setUser(user);
+    invoice.setStatus(STATUS_DUE);
+    invoice.setReservation(reservation);
+    invoice.setAmountDue(reservation.getTotalPrice());
+    invoice.setInvoiceNumber("INV-000" + reservation.getId());
+    invoice.setDueDate(serviceHelper.computeDueDate(reservation.getStartingDateTime()));
+    invoice.setIssuedDate(
+        LocalDateTime.now().format(DateTimeFormatter.ofPattern(DATE_TIME_FORMAT)));
+    return invoice;
+  }
+
+  /**
+   * Update a reservation, once no booking conflicting with its new window is in flight.
    *
    * @param id             - The id of the targeted reservation
    * @param newReservation - The new reservation
@@ -472,18 +1199,38 @@ public class ReservationServiceImplementation implements ReservationService {
    */
   @Override
   public Reservation updateReservation(Long id, Reservation newReservation) {
+    return reservationAdmission.admit(
+        newReservation.getVenueId(), newReservation.getStartingDateTime(), bookedUntil(newReservation),
+        () -> persistUpdatedReservation(id, newReservation));
+  }
+
+  /**
+   * Check the availability of the new window of a reservation, then persist the update.
+   *
+   * @param id             - The id of the targeted reservation
+   * @param newReservation - The new reservation
+   * @return - The new reservation.
+   */
+  private Reservation persistUpdatedReservation(Long id, Reservation newReservation) {
     try {
       Optional<Reservation> prevReservation;
 
       prevReservation = reservationRepository.findById(id);
 
       if (prevReservation.isPresent()) {
+        if (!Objects.equals(prevReservation.get().getVenueId(), newReservation.getVenueId())) {
+          logger.error(String.format(UPDATE_NON_MATCHING_FIELD_MESSAGE, "venue", "reservation",
+              prevReservation.get().getVenueId(), newReservation.getVenueId()));
+          throw new ResponseStatusException(HttpStatus.BAD_REQUEST, String.format(FIELD_MISMATCH_ERROR_MESSAGE, "venue"));
+        }
+        checkVenue(newReservation.getVenueId(), newReservation.getNumberOfSeats());
         checkDateTimeAvailability(
+            newReservation.getVenueId(),
             newReservation.getStartingDateTime(),
             newReservation.getEndingDateTime(),
             newReservation.getEffectiveEndingDateTime(),
             "update",
-            id, prevReservation.get().getStartingDateTime(),
+            id, newReservation.getUserId(), prevReservation.get().getStartingDateTime(),
             prevReservation.get().getEndingDateTime(), prevReservation.get().getEffectiveEndingDateTime());
       } else {
         logger.error(String.format(UPDATE_NOT_FOUND_MESSAGE, "reservation"));
@@ -497,11 +1244,10 @@ public class ReservationServiceImplementation implements ReservationService {
         throw new ResponseStatusException(HttpStatus.BAD_REQUEST, String.format(FIELD_MISMATCH_ERROR_MESSAGE, "user's id"));
       }
 
-      checkIfChosenAddOnExists(newReservation.getAddOns());
+      checkIfChosenAddOnExists(newReservation.getAddOns(), newReservation.getVenueId());
 
       // Computing the total price.
-      serviceHelper.computeTotalPrice(
-          newReservation, addOnName -> addOnRepository.findByName(addOnName).orElse(null));
+      serviceHelper.computeTotalPrice(newReservation, rateCardRegistry.current(newReservation.getVenueId()));
 
 
       LocalDateTime prevStartingDateTime = prevReservation.get().getStartingDateTime();
@@ -511,7 +1257,10 @@ public class ReservationServiceImplementation implements ReservationService {
       saveDiscountIfNotExistent(newReservation.getDiscount());
 
       logger.info("Updating reservation...");
+      reservationRollups.subtract(prevReservation.get());
       reservationRepository.save(newReservation);
+      reservationRollups.add(newReservation);
+      intervalIndex.recordAfterCommit(newReservation);
       logger.info(String.format(UPDATE_SUCCESS_MESSAGE, "Reservation", id));
 
       if (prevReservation.get().getAddOns() != newReservation.getAddOns()) {
@@ -546,8 +1295,6 @@ public class ReservationServiceImplementation implements ReservationService {
         // smsService.sendSMS(DEFAULT_ADMIN_PHONE_NUMBER, message);
       }
 
-    } catch (MailException | IOException e) {
-      logger.error("Couldn't send confirmation email.", e);
     } catch (ResponseStatusException rse) {
       throw rse;
     } catch (DataAccessException e) {
@@ -568,15 +1315,19 @@ public class ReservationServiceImplementation implements ReservationService {
    *
    * @param reservationId The id of the reservation to cancel.
    */
+  @Transactional
   @Override
   public void cancelReservation(Long reservationId) {
     try {
       Optional<Reservation> reservation;
       reservation = reservationRepository.findById(reservationId);
       if (reservation.isPresent()) {
+        reservationRollups.subtract(reservation.get());
         reservation.get().setStatus(STATUS_CANCELLED);
         logger.info("Cancelling reservation...");
         reservationRepository.save(reservation.get());
+        reservationRollups.add(reservation.get());
+        intervalIndex.removeAfterCommit(reservationId);
         logger.info(String.format(GENERIC_ACTION_SUCCESS_MESSAGE, "Reservation", reservationId, "cancelled"));
 
         // Updating the associated invoice and sending a confirmation email.
@@ -615,9 +1366,6 @@ public class ReservationServiceImplementation implements ReservationService {
     } catch (DataAccessException e) {
       logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, e);
       throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
-    } catch (MailException | IOException e) {
-      logger.error("Couldn't send confirmation email.");
-      logger.error(e);
     } catch (TwilioException e) {
       logger.error("Couldn't send SMS.", e);
     } catch (RuntimeException re) {
@@ -631,43 +1379,11 @@ public class ReservationServiceImplementation implements ReservationService {
    *
    * @param ids The list of ids of the reservations to cancel.
    */
+  @Transactional
   @Override
   public void cancelMultipleReservations(List<Long> ids) {
-    List<Long> existentReservations = new ArrayList<>();
-    StringBuilder nonexistentReservations = new StringBuilder();
-
-    try {
-      ids.forEach(
-          id -> {
-            if (reservationRepository.existsById(id)) {
-              existentReservations.add(id);
-            } else {
-              nonexistentReservations.append(id).append(", ");
-            }
-          });
-
-      if (!existentReservations.isEmpty()) {
-        existentReservations.parallelStream().forEach(this::cancelReservation);
-      }
-
-      if (!nonexistentReservations.isEmpty()) {
-        String errorMessageIds =
-            Arrays.stream(nonexistentReservations.toString().split(", "))
-                .sorted()
-                .collect(Collectors.joining(", "));
-        logger.error(String.format(MASS_ACTION_NOT_FOUND_MESSAGE, "cancel", "reservations", errorMessageIds));
-        throw new ResponseStatusException(
-            HttpStatus.BAD_REQUEST, String.format(MASS_ACTION_NOT_FOUND_MESSAGE, "cancel", "reservations", errorMessageIds));
-      }
-    } catch (ResponseStatusException rse) {
-      throw rse;
-    } catch (DataAccessException dae) {
-      logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, dae);
-      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
-    } catch (RuntimeException re) {
-      logger.error(GENERIC_UNEXPECTED_ERROR_LOG_MESSAGE, re);
-      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, GENERIC_UNEXPECTED_ERROR_MESSAGE);
-    }
+    bulkReservationStatusUpdate(ids, "cancel", STATUS_CANCELLED, STATUS_WITHDRAWN,
+        RESERVATION_CANCELLATION_EMAIL_TEMPLATE, RESERVATION_CANCELLATION_SUBJECT, false);
   }
 
   /**
@@ -677,6 +1393,7 @@ public class ReservationServiceImplementation implements ReservationService {
    * @param status        The status to set.
    */
   @PreAuthorize("hasRole('admin')")
+  @Transactional
   @Override
   public void restoreReservation(Long reservationId, String status) {
 
@@ -685,8 +1402,11 @@ public class ReservationServiceImplementation implements ReservationService {
       reservation = reservationRepository.findById(reservationId);
       if (reservation.isPresent()) {
 
+        reservationRollups.subtract(reservation.get());
         reservation.get().setStatus(status);
         reservationRepository.save(reservation.get());
+        reservationRollups.add(reservation.get());
+        intervalIndex.recordAfterCommit(reservation.get());
         logger.info(String.format(GENERIC_ACTION_SUCCESS_MESSAGE, "Reservation", reservationId, "restored"));
 
         // Updating the associated invoice and sending a confirmation email.
@@ -715,9 +1435,6 @@ public class ReservationServiceImplementation implements ReservationService {
     } catch (DataAccessException dae) {
       logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, dae);
       throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
-    } catch (MailException | IOException e) {
-      logger.error("Couldn't send confirmation email.");
-      logger.error(e);
     } catch (RuntimeException re) {
       logger.error(GENERIC_UNEXPECTED_ERROR_LOG_MESSAGE, re);
       throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, GENERIC_UNEXPECTED_ERROR_MESSAGE);
@@ -729,35 +1446,79 @@ public class ReservationServiceImplementation implements ReservationService {
    *
    * @param ids The list of ids of the reservations to restore.
    */
+  @Transactional
   @Override
   public void restoreMultipleReservations(List<Long> ids) {
+    bulkReservationStatusUpdate(ids, "restore", STATUS_BOOKED, STATUS_DUE,
+        RESERVATION_EMAIL_TEMPLATE, RESERVATION_CONFIRMATION_SUBJECT, true);
+  }
 
-    List<Long> existentReservations = new ArrayList<>();
-    StringBuilder nonexistentReservations = new StringBuilder();
+  /**
+   * Move a set of reservations and their invoices to new statuses with one statement per table.
+   * <p>
+   * The ids are validated with a single query and nothing is updated if any of them is unknown.
+   * The confirmation emails are queued as one batch in the same transaction.
+   *
+   * @param ids           The ids of the reservations to update.
+   * @param action        The action name used in error messages.
+   * @param status        The status to set on the reservations.
+   * @param invoiceStatus The status to set on the associated invoices.
+   * @param emailTemplate The template of the confirmation email.
+   * @param subject       The subject of the confirmation email.
+   * @param hasAttachment Whether the invoice should be attached to the confirmation email.
+   */
+  private void bulkReservationStatusUpdate(
+      List<Long> ids,
+      String action,
+      String status,
+      String invoiceStatus,
+      String emailTemplate,
+      String subject,
+      boolean hasAttachment) {
 
     try {
-      ids.forEach(
-          id -> {
-            if (reservationRepository.existsById(id)) {
-              existentReservations.add(id);
-            } else {
-              nonexistentReservations.append(id).append(", ");
-            }
-          });
-
-      if (!existentReservations.isEmpty()) {
-        existentReservations.parallelStream().forEach(reservationId -> restoreReservation(reservationId, STATUS_BOOKED));
+      Set<Long> requestedIds = new LinkedHashSet<>(ids);
+      if (requestedIds.isEmpty()) {
+        return;
       }
 
-      if (!nonexistentReservations.isEmpty()) {
+      List<ReservationInterval> intervals = reservationRepository.findIntervalsByIdIn(requestedIds);
+
+      Set<Long> existentReservations =
+          intervals.stream().map(ReservationInterval::id).collect(Collectors.toSet());
+      if (existentReservations.size() < requestedIds.size()) {
         String errorMessageIds =
-            Arrays.stream(nonexistentReservations.toString().split(", "))
+            requestedIds.stream()
+                .filter(id -> !existentReservations.contains(id))
                 .sorted()
+                .map(String::valueOf)
                 .collect(Collectors.joining(", "));
-        logger.error(String.format(MASS_ACTION_NOT_FOUND_MESSAGE, "restore", "reservations", errorMessageIds));
+        logger.error(String.format(MASS_ACTION_NOT_FOUND_MESSAGE, action, "reservations", errorMessageIds));
         throw new ResponseStatusException(
-            HttpStatus.BAD_REQUEST, String.format(MASS_ACTION_NOT_FOUND_MESSAGE, "restore", "reservations", errorMessageIds));
+            HttpStatus.BAD_REQUEST, String.format(MASS_ACTION_NOT_FOUND_MESSAGE, action, "reservations", errorMessageIds));
+      }
+
+      reservationRollups.moveStatus(requestedIds, status);
+      int updatedReservations = reservationRepository.updateStatusByIdIn(requestedIds, status);
+      int updatedInvoices = invoiceRepository.updateStatusByReservationIdIn(requestedIds, invoiceStatus);
+      logger.info(String.format("%s reservations set to %s, %s invoices set to %s.",
+          updatedReservations, status, updatedInvoices, invoiceStatus));
+
+      if (STATUS_CANCELLED.equals(status)) {
+        requestedIds.forEach(intervalIndex::removeAfterCommit);
+      } else {
+        intervals.forEach(intervalIndex::recordAfterCommit);
+      }
+
+      List<Mail> mails = new ArrayList<>();
+      for (Invoice invoice : invoiceRepository.findAllByReservationIdIn(requestedIds)) {
+        mails.add(serviceHelper.getMail(invoice, emailTemplate, NO_REPLY_EMAIL_ADDRESS, subject, hasAttachment));
       }
+      if (!mails.isEmpty()) {
+        logger.info("Queueing " + mails.size() + " confirmation emails...");
+        emailService.sendEmails(mails);
+      }
+
     } catch (ResponseStatusException rse) {
       throw rse;
     } catch (DataAccessException dae) {
@@ -785,8 +1546,11 @@ public class ReservationServiceImplementation implements ReservationService {
       }
       reservation = reservationRepository.findById(id);
       if (reservation.isPresent()) {
+        reservationRollups.subtract(reservation.get());
         reservation.get().setStatus(status);
         reservationRepository.save(reservation.get());
+        reservationRollups.add(reservation.get());
+        intervalIndex.recordAfterCommit(reservation.get());
         logger.info(String.format(GENERIC_ACTION_SUCCESS_MESSAGE, "Reservation", id, "updated to " + status));
 
         User user = userService.getUserById(reservation.get().getUserId());
@@ -809,9 +1573,6 @@ public class ReservationServiceImplementation implements ReservationService {
     } catch (DataAccessException dae) {
       logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, dae);
       throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
-    } catch (MailException e) {
-      logger.error("Couldn't send confirmation email.");
-      logger.error(e);
     } catch (RuntimeException re) {
       logger.error(GENERIC_UNEXPECTED_ERROR_LOG_MESSAGE, re);
       throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, GENERIC_UNEXPECTED_ERROR_MESSAGE);
@@ -822,6 +1583,7 @@ public class ReservationServiceImplementation implements ReservationService {
    * @param reservationId The id of the reservation to update.
    * @param action        The status update action to perform.
    */
+  @Transactional
   @Override
   public void updateReservationStatus(Long reservationId, String action) {
 
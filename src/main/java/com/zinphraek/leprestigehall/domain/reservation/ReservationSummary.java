@@ -0,0 +1,81 @@
+package com.zinphraek.leprestigehall.domain.reservation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A reservation as shown in listings.
+ * <p>
+ * Carries the same fields as {@link Reservation}, but the requested add-ons are flattened and the
+ * add-on media are left out, so a page can be built without walking the entity graph.
+ *
+ * @param id                      - The id of the reservation.
+ * @param startingDateTime        - The date and time when the reservation starts.
+ * @param endingDateTime          - The date and time when the reservation ends.
+ * @param effectiveEndingDateTime - The date and time when the reservation effectively ends.
+ * @param numberOfSeats           - The number of guests.
+ * @param eventType               - The type of event.
+ * @param fullPackage             - Whether the full package was booked.
+ * @param addOns                  - The requested add-ons.
+ * @param addOnsTotalCost         - The total cost of the requested add-ons.
+ * @param status                  - The status of the reservation.
+ * @param securityDepositRefunded - Whether the security deposit was refunded.
+ * @param taxRate                 - The tax rate applied.
+ * @param totalPrice              - The total price.
+ * @param rates                   - The rates the reservation was priced with.
+ * @param discount                - The discount applied, if any.
+ * @param priceComputationMethod  - How the price was computed.
+ * @param rateCardVersion         - The version of the rate card the reservation was priced with.
+ * @param userId                  - The id of the user who booked the reservation.
+ */
+public record ReservationSummary(
+    Long id,
+    LocalDateTime startingDateTime,
+    LocalDateTime endingDateTime,
+    LocalDateTime effectiveEndingDateTime,
+    int numberOfSeats,
+    String eventType,
+    boolean fullPackage,
+    List<ReservationAddOnSummary> addOns,
+    Double addOnsTotalCost,
+    String status,
+    boolean securityDepositRefunded,
+    Double taxRate,
+    double totalPrice,
+    ReservationRate rates,
+    ReservationDiscount discount,
+    String priceComputationMethod,
+    Long rateCardVersion,
+    String userId
+) {
+
+  /**
+   * Build the summary of a reservation. The requested add-ons collection of the reservation is not
+   * accessed.
+   *
+   * @param reservation - The reservation, with its rates and discount loaded.
+   * @param addOns      - The add-ons requested for the reservation.
+   * @return - The summary.
+   */
+  public static ReservationSummary from(Reservation reservation, List<ReservationAddOnSummary> addOns) {
+    return new ReservationSummary(
+        reservation.getId(),
+        reservation.getStartingDateTime(),
+        reservation.getEndingDateTime(),
+        reservation.getEffectiveEndingDateTime(),
+        reservation.getNumberOfSeats(),
+        reservation.getEventType(),
+        reservation.isFullPackage(),
+        addOns,
+        reservation.getAddOnsTotalCost(),
+        reservation.getStatus(),
+        reservation.isSecurityDepositRefunded(),
+        reservation.getTaxRate(),
+        reservation.getTotalPrice(),
+        reservation.getRates(),
+        reservation.getDiscount(),
+        reservation.getPriceComputationMethod(),
+        reservation.getRateCardVersion(),
+        reservation.getUserId());
+  }
+}
@@ -0,0 +1,86 @@
+package com.zinphraek.leprestigehall.domain.venue;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.ID_ALLOCATION_SIZE;
+
+/**
+ * A hall that can be booked. Each venue has its own booking calendar and seating capacity.
+ */
+@Entity
+@Table(name = "venues")
+public class Venue {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "venues_seq")
+  @SequenceGenerator(name = "venues_seq", sequenceName = "venues_seq", allocationSize = ID_ALLOCATION_SIZE)
+  private Long id;
+
+  @NotBlank(message = "Name is required.")
+  private String name;
+
+  private String address;
+
+  @Min(value = 1, message = "Capacity must be at least 1.")
+  private int capacity;
+
+  private boolean isActive = true;
+
+  public Venue() {
+  }
+
+  public Venue(Long id, String name, String address, int capacity, boolean isActive) {
+    this.id = id;
+    this.name = name;
+    this.address = address;
+    this.capacity = capacity;
+    this.isActive = isActive;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public String getAddress() {
+    return address;
+  }
+
+  public void setAddress(String address) {
+    this.address = address;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public void setCapacity(int capacity) {
+    this.capacity = capacity;
+  }
+
+  public boolean isActive() {
+    return isActive;
+  }
+
+  public void setActive(boolean active) {
+    isActive = active;
+  }
+}
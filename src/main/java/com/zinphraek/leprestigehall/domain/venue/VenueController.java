@@ -0,0 +1,51 @@
+package com.zinphraek.leprestigehall.domain.venue;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestPart;
+
+import java.util.List;
+
+import static com.zinphraek.leprestigehall.domain.constants.Paths.VenuePath;
+
+@Controller
+@RequestMapping(VenuePath)
+public class VenueController {
+
+  @Autowired
+  private final VenueServiceImplementation venueService;
+
+  public VenueController(VenueServiceImplementation venueService) {
+    this.venueService = venueService;
+  }
+
+  @GetMapping
+  public ResponseEntity<List<Venue>> getVenues() {
+    return new ResponseEntity<>(venueService.getVenues(), HttpStatus.OK);
+  }
+
+  @GetMapping("/{id}")
+  public ResponseEntity<Venue> getVenue(@PathVariable Long id) {
+    return new ResponseEntity<>(venueService.getVenueById(id), HttpStatus.OK);
+  }
+
+  @PreAuthorize("hasRole('admin')")
+  @PostMapping
+  public ResponseEntity<Venue> createVenue(@RequestPart("venue") Venue venue) {
+    return new ResponseEntity<>(venueService.createVenue(venue), HttpStatus.CREATED);
+  }
+
+  @PreAuthorize("hasRole('admin')")
+  @PutMapping("/{id}")
+  public ResponseEntity<Venue> updateVenue(@PathVariable Long id, @RequestPart("venue") Venue venue) {
+    return new ResponseEntity<>(venueService.updateVenue(id, venue), HttpStatus.OK);
+  }
+}
@@ -0,0 +1,16 @@
+package com.zinphraek.leprestigehall.domain.venue;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface VenueRepository extends JpaRepository<Venue, Long> {
+
+  boolean existsByName(String name);
+
+  boolean existsByNameAndIdNot(String name, Long id);
+
+  List<Venue> findByIsActiveTrueOrderByName();
+}
@@ -0,0 +1,14 @@
+package com.zinphraek.leprestigehall.domain.venue;
+
+import java.util.List;
+
+public interface VenueService {
+
+  List<Venue> getVenues();
+
+  Venue getVenueById(Long id);
+
+  Venue createVenue(Venue venue);
+
+  Venue updateVenue(Long id, Venue venue);
+}
@@ -0,0 +1,148 @@
+package com.zinphraek.leprestigehall.domain.venue;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Objects;
+
+import static com.zinphraek.leprestigehall.domain.constants.GenericResponseMessages.*;
+
+@Service
+public class VenueServiceImplementation implements VenueService {
+
+  private final Logger logger = LogManager.getLogger(VenueServiceImplementation.class);
+
+  @Autowired
+  private final VenueRepository venueRepository;
+
+  public VenueServiceImplementation(VenueRepository venueRepository) {
+    this.venueRepository = venueRepository;
+  }
+
+  /**
+   * Fetch the venues open for booking.
+   *
+   * @return - The active venues, ordered by name.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public List<Venue> getVenues() {
+    try {
+      List<Venue> venues = venueRepository.findByIsActiveTrueOrderByName();
+      logger.info(String.format(BULK_GET_SUCCESS_MESSAGE, "Venues"));
+      return venues;
+    } catch (DataAccessException e) {
+      logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, e);
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    } catch (RuntimeException e) {
+      logger.error(GENERIC_UNEXPECTED_ERROR_LOG_MESSAGE, e);
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    }
+  }
+
+  /**
+   * Fetch a venue.
+   *
+   * @param id - The id of the venue.
+   * @return - The venue.
+   */
+  @Override
+  public Venue getVenueById(Long id) {
+    try {
+      Venue venue = venueRepository.findById(id).orElseThrow(() -> {
+        logger.error(String.format(GET_NOT_FOUND_MESSAGE, "venue", id));
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, String.format(GET_NOT_FOUND_MESSAGE, "venue", id));
+      });
+      logger.info(String.format(GET_SUCCESS_MESSAGE, "Venue", id));
+      return venue;
+    } catch (ResponseStatusException rse) {
+      throw rse;
+    } catch (DataAccessException e) {
+      logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, e);
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    } catch (RuntimeException e) {
+      logger.error(GENERIC_UNEXPECTED_ERROR_LOG_MESSAGE, e);
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    }
+  }
+
+  /**
+   * Open a new venue.
+   *
+   * @param venue - The venue to create.
+   * @return - The created venue.
+   */
+  @Override
+  public Venue createVenue(Venue venue) {
+    try {
+      if (venue.getId() != null && venueRepository.existsById(venue.getId())) {
+        logger.error(String.format(CREATE_CONFLICT_MESSAGE1, "venue", venue.getId()));
+        throw new ResponseStatusException(
+            HttpStatus.CONFLICT, String.format(CREATE_CONFLICT_MESSAGE1, "venue", venue.getId()));
+      }
+      if (venueRepository.existsByName(venue.getName())) {
+        logger.error(String.format(FIELD_CONFLICT_MESSAGE1, "venue", "name", venue.getName()));
+        throw new ResponseStatusException(
+            HttpStatus.CONFLICT, String.format(FIELD_CONFLICT_MESSAGE1, "venue", "name", venue.getName()));
+      }
+
+      Venue created = venueRepository.save(venue);
+      logger.info(String.format(CREATE_SUCCESS_MESSAGE, "Venue"));
+      return created;
+    } catch (ResponseStatusException rse) {
+      throw rse;
+    } catch (DataAccessException e) {
+      logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, e);
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    } catch (RuntimeException e) {
+      logger.error(GENERIC_UNEXPECTED_ERROR_LOG_MESSAGE, e);
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    }
+  }
+
+  /**
+   * Update a venue. Lowering its capacity leaves existing reservations untouched.
+   *
+   * @param id    - The id of the venue.
+   * @param venue - The new state of the venue.
+   * @return - The updated venue.
+   */
+  @Override
+  public Venue updateVenue(Long id, Venue venue) {
+    try {
+      if (!Objects.equals(venue.getId(), id)) {
+        logger.error(String.format(PARAMETER_MISMATCH_ERROR_MESSAGE, "venue"));
+        throw new ResponseStatusException(
+            HttpStatus.BAD_REQUEST, String.format(PARAMETER_MISMATCH_ERROR_MESSAGE, "venue"));
+      }
+      if (!venueRepository.existsById(id)) {
+        logger.error(String.format(UPDATE_NOT_FOUND_MESSAGE, "venue"));
+        throw new ResponseStatusException(HttpStatus.NOT_FOUND, String.format(UPDATE_NOT_FOUND_MESSAGE, "venue"));
+      }
+      if (venueRepository.existsByNameAndIdNot(venue.getName(), id)) {
+        logger.error(String.format(FIELD_CONFLICT_MESSAGE1, "venue", "name", venue.getName()));
+        throw new ResponseStatusException(
+            HttpStatus.CONFLICT, String.format(FIELD_CONFLICT_MESSAGE1, "venue", "name", venue.getName()));
+      }
+
+      Venue updated = venueRepository.save(venue);
+      logger.info(String.format(UPDATE_SUCCESS_MESSAGE, "Venue", id));
+      return updated;
+    } catch (ResponseStatusException rse) {
+      throw rse;
+    } catch (DataAccessException e) {
+      logger.error(DATA_ACCESS_EXCEPTION_LOG_MESSAGE, e);
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    } catch (RuntimeException e) {
+      logger.error(GENERIC_UNEXPECTED_ERROR_LOG_MESSAGE, e);
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, GENERIC_UNEXPECTED_ERROR_MESSAGE);
+    }
+  }
+}
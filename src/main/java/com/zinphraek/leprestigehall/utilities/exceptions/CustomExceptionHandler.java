@@ -1,5 +1,6 @@
 package com.zinphraek.leprestigehall.utilities.exceptions;
 
+import jakarta.validation.ConstraintViolationException;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -11,6 +12,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 @ControllerAdvice
@@ -33,4 +35,21 @@ public class CustomExceptionHandler extends ResponseEntityExceptionHandler {
 
     return new ResponseEntity<>(responseBody, headers, status);
   }
+
+  @ExceptionHandler(ConstraintViolationException.class)
+  protected ResponseEntity<Object> handleConstraintViolation(ConstraintViolationException ex) {
+
+    Map<String, Object> responseBody = new LinkedHashMap<>();
+    responseBody.put("timestamp", new Date());
+    responseBody.put("status", HttpStatus.BAD_REQUEST.value());
+
+    List<String> errors = ex.getConstraintViolations()
+        .stream()
+        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+        .collect(Collectors.toList());
+
+    responseBody.put("errors", errors);
+
+    return new ResponseEntity<>(responseBody, HttpStatus.BAD_REQUEST);
+  }
 }
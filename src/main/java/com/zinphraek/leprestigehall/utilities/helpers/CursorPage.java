@@ -0,0 +1,18 @@
+package com.zinphraek.leprestigehall.utilities.helpers;
+
+import java.util.List;
+
+/**
+ * A page of results fetched by seeking past the last row of the previous page.
+ *
+ * @param content    - The rows of the page.
+ * @param pageSize   - The maximum number of rows per page.
+ * @param nextCursor - The opaque token to fetch the following page, or null on the last page.
+ * @param <T>        - The type of the rows.
+ */
+public record CursorPage<T>(
+    List<T> content,
+    int pageSize,
+    String nextCursor
+) {
+}
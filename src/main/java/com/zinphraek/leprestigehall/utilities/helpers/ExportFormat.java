@@ -0,0 +1,65 @@
+package com.zinphraek.leprestigehall.utilities.helpers;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+
+import static com.zinphraek.leprestigehall.domain.constants.GenericResponseMessages.INVALID_EXPORT_FORMAT_ERROR_MESSAGE;
+
+/**
+ * The file formats an export can be streamed in.
+ */
+public enum ExportFormat {
+  CSV("csv", new MediaType("text", "csv")),
+  NDJSON("ndjson", new MediaType("application", "x-ndjson"));
+
+  private final String extension;
+
+  private final MediaType mediaType;
+
+  ExportFormat(String extension, MediaType mediaType) {
+    this.extension = extension;
+    this.mediaType = mediaType;
+  }
+
+  public String getExtension() {
+    return extension;
+  }
+
+  public MediaType getMediaType() {
+    return mediaType;
+  }
+
+  /**
+   * Resolve the format requested by a client, csv being the default.
+   *
+   * @param format - The requested format, case-insensitive.
+   * @return - The matching format.
+   */
+  public static ExportFormat fromParam(String format) {
+    if (format == null) {
+      return CSV;
+    }
+    for (ExportFormat exportFormat : values()) {
+      if (exportFormat.extension.equalsIgnoreCase(format)) {
+        return exportFormat;
+      }
+    }
+    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, INVALID_EXPORT_FORMAT_ERROR_MESSAGE);
+  }
+
+  /**
+   * Build the headers downloading an export as an attachment.
+   *
+   * @param baseName - The file name, without extension.
+   * @return - The content type and disposition headers.
+   */
+  public HttpHeaders attachmentHeaders(String baseName) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(mediaType);
+    headers.setContentDisposition(ContentDisposition.attachment().filename(baseName + "." + extension).build());
+    return headers;
+  }
+}
@@ -0,0 +1,70 @@
+package com.zinphraek.leprestigehall.utilities.helpers;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.EXPORT_FETCH_SIZE;
+
+/**
+ * Reads the flat rows of an export, filtered by the same specification as the listing, through a
+ * forward-only cursor fetching a few hundred rows per round trip. Only the exported columns are
+ * selected; no entity is loaded.
+ */
+@Component
+public class ExportRowReader {
+
+  @Autowired
+  private final EntityManager entityManager;
+
+  public ExportRowReader(EntityManager entityManager) {
+    this.entityManager = entityManager;
+  }
+
+  /**
+   * Open the cursor over the rows. The stream must be consumed, and closed, within a transaction.
+   *
+   * @param entityType - The entity to export.
+   * @param rowType    - The record type of the rows.
+   * @param columns    - The attribute of each record component, in declaration order.
+   * @param filter     - The filters to apply, if any.
+   * @param sort       - The order of the rows.
+   * @param <T>        - The entity type.
+   * @param <R>        - The type of the rows.
+   * @return - The rows.
+   */
+  public <T, R extends Record> Stream<R> read(
+      Class<T> entityType, Class<R> rowType, List<String> columns, Specification<T> filter, Sort sort) {
+
+    CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+    CriteriaQuery<R> query = criteriaBuilder.createQuery(rowType);
+    Root<T> root = query.from(entityType);
+
+    query.select(criteriaBuilder.construct(rowType, columns.stream()
+        .map(column -> SpecificationFilters.path(root, column))
+        .toArray(Selection[]::new)));
+    if (filter != null) {
+      Predicate predicate = filter.toPredicate(root, query, criteriaBuilder);
+      if (predicate != null) {
+        query.where(predicate);
+      }
+    }
+    query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+
+    return entityManager.createQuery(query)
+        .setHint(HibernateHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE)
+        .getResultStream();
+  }
+}
@@ -0,0 +1,140 @@
+package com.zinphraek.leprestigehall.utilities.helpers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static com.zinphraek.leprestigehall.domain.constants.GenericResponseMessages.GENERIC_UNEXPECTED_ERROR_LOG_MESSAGE;
+
+/**
+ * Streams query results to the client as csv or ndjson, one row at a time.
+ * <p>
+ * Rows are flat records read through a forward-only cursor, inside a read-only transaction that
+ * stays open for the duration of the download. Nothing is accumulated on the way: each row is
+ * written to a small buffer and dropped, so an export holds the same amount of memory whether it
+ * has ten rows or ten million. The csv columns are the record components, in declaration order.
+ */
+@Component
+public class ExportWriter {
+
+  private final Logger logger = LogManager.getLogger(ExportWriter.class);
+
+  @Autowired
+  private final ObjectMapper objectMapper;
+
+  private final TransactionTemplate transactionTemplate;
+
+  @Autowired
+  public ExportWriter(ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+    this.objectMapper = objectMapper;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+  }
+
+  /**
+   * Build the body of an export. The rows are only queried once the response starts streaming.
+   *
+   * @param format  - The file format.
+   * @param rowType - The record type of the rows.
+   * @param rows    - Opens the cursor over the rows; it must be called within a transaction.
+   * @param <T>     - The type of the rows.
+   * @return - The streaming response body.
+   */
+  public <T extends Record> StreamingResponseBody write(
+      ExportFormat format, Class<T> rowType, Supplier<Stream<T>> rows) {
+    RecordComponent[] columns = rowType.getRecordComponents();
+
+    return outputStream -> {
+      Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+      try {
+        transactionTemplate.executeWithoutResult(status -> {
+          try (Stream<T> stream = rows.get()) {
+            if (format == ExportFormat.CSV) {
+              writeCsvHeader(writer, columns);
+            }
+            stream.forEach(row -> writeRow(writer, format, columns, row));
+          }
+        });
+      } catch (UncheckedIOException e) {
+        // The client went away; there is nobody left to report to.
+        throw e.getCause();
+      } catch (RuntimeException re) {
+        logger.error(GENERIC_UNEXPECTED_ERROR_LOG_MESSAGE, re);
+        throw re;
+      }
+      writer.flush();
+    };
+  }
+
+  private void writeRow(Writer writer, ExportFormat format, RecordComponent[] columns, Record row) {
+    try {
+      if (format == ExportFormat.NDJSON) {
+        writer.write(objectMapper.writeValueAsString(row));
+      } else {
+        for (int i = 0; i < columns.length; i++) {
+          if (i > 0) {
+            writer.write(',');
+          }
+          writer.write(toCsvCell(columns[i].getAccessor().invoke(row)));
+        }
+      }
+      writer.write('\n');
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (IllegalAccessException | InvocationTargetException e) {
+      throw new IllegalStateException("Unreadable export column.", e);
+    }
+  }
+
+  private void writeCsvHeader(Writer writer, RecordComponent[] columns) {
+    try {
+      for (int i = 0; i < columns.length; i++) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        writer.write(columns[i].getName());
+      }
+      writer.write('\n');
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Render a value as a csv cell. Text that a spreadsheet would evaluate as a formula is prefixed
+   * with a quote, and cells holding separators, quotes or line breaks are quoted.
+   *
+   * @param value - The value, possibly null.
+   * @return - The csv cell.
+   */
+  static String toCsvCell(Object value) {
+    if (value == null) {
+      return "";
+    }
+
+    String cell = value.toString();
+    if (value instanceof CharSequence && !cell.isEmpty() && "=+-@".indexOf(cell.charAt(0)) >= 0) {
+      cell = "'" + cell;
+    }
+    if (cell.contains(",") || cell.contains("\"") || cell.contains("\n") || cell.contains("\r")) {
+      cell = "\"" + cell.replace("\"", "\"\"") + "\"";
+    }
+    return cell;
+  }
+}
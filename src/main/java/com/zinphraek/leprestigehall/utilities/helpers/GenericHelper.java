@@ -8,9 +8,16 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
+import static com.zinphraek.leprestigehall.domain.constants.Constants.MAX_PAGE_SIZE;
 import static com.zinphraek.leprestigehall.domain.constants.Regex.LOWERCASE_LETTERS_AND_UNDERSCORE_REGEX;
 
 public class GenericHelper {
@@ -67,6 +74,22 @@ public class GenericHelper {
    * @return - The CustomPage object
    */
   public static CustomPage createCustomPageFromParams(Map<String, String> params) {
+    return createCustomPageFromParams(params, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Creates a CustomPage object from the request parameters of a listing whose page size is capped,
+   * "all" included: the reservation, invoice and receipt listings, whose full results are streamed
+   * by their exports instead.
+   *
+   * @param params - The request parameters
+   * @return - The CustomPage object
+   */
+  public static CustomPage createCappedCustomPageFromParams(Map<String, String> params) {
+    return createCustomPageFromParams(params, MAX_PAGE_SIZE);
+  }
+
+  private static CustomPage createCustomPageFromParams(Map<String, String> params, int maxPageSize) {
     CustomPage customPage = new CustomPage();
 
     String page = params.get("page");
@@ -79,9 +102,10 @@ public class GenericHelper {
     }
 
     if ("all".equalsIgnoreCase(pageSize)) {
-      customPage.setPageSize(Integer.MAX_VALUE);
+      customPage.setPageSize(maxPageSize);
     } else if (StringUtils.isNumeric(pageSize)) {
-      customPage.setPageSize(Integer.parseInt(pageSize));
+      customPage.setPageSize(
+          pageSize.length() > 9 ? maxPageSize : Math.min(Integer.parseInt(pageSize), maxPageSize));
     }
 
     if (sortOrder != null) {
@@ -108,4 +132,32 @@ public class GenericHelper {
         customPage.getSortDirection(),
         customPage.getSortBy());
   }
+
+  /**
+   * Build the request used when a capped listing is queried without pagination parameters: the
+   * largest allowed page, sorted by id.
+   *
+   * @return - The Pageable object.
+   */
+  public static Pageable defaultPageRequest() {
+    return buildPageRequestFromCustomPage(new CustomPage(0, MAX_PAGE_SIZE, Sort.Direction.ASC, "id"));
+  }
+
+  /**
+   * Fingerprint a list of values. The same values in the same order always yield the same hash.
+   *
+   * @param values - The values to fingerprint; nulls are allowed.
+   * @return - The hex encoded SHA-256 digest of the values.
+   */
+  public static String contentHash(Object... values) {
+    String canonical = Arrays.stream(values)
+        .map(value -> value == null ? "\u0000" : value.toString())
+        .collect(Collectors.joining("\u001F"));
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available.", e);
+    }
+  }
 }
@@ -0,0 +1,274 @@
+package com.zinphraek.leprestigehall.utilities.helpers;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.MAX_CURSOR_PAGE_SIZE;
+import static com.zinphraek.leprestigehall.domain.constants.GenericResponseMessages.INVALID_CURSOR_ERROR_MESSAGE;
+import static com.zinphraek.leprestigehall.domain.constants.GenericResponseMessages.INVALID_SORT_FIELD_ERROR_MESSAGE;
+
+/**
+ * Keyset (cursor) pagination over any entity with a {@code Long id}.
+ * <p>
+ * Rows are ordered by (sortField, id) and each page seeks past the last row of the previous one,
+ * so a deep page costs the same as the first and no count query is issued. The cursor is an opaque
+ * token carrying the sort field, the direction and the position of the last row returned. Null
+ * sort values follow the PostgreSQL defaults: last when ascending, first when descending.
+ */
+@Component
+public class KeysetPaginator {
+
+  private static final String ID = "id";
+
+  private static final String SEPARATOR = "|";
+
+  private static final String NULL_VALUE = "n";
+
+  private static final String VALUE_PREFIX = "v:";
+
+  private final Logger logger = LogManager.getLogger(KeysetPaginator.class);
+
+  @Autowired
+  private final EntityManager entityManager;
+
+  public KeysetPaginator(EntityManager entityManager) {
+    this.entityManager = entityManager;
+  }
+
+  /**
+   * Fetch the page following the provided cursor.
+   *
+   * @param entityType - The entity to page through.
+   * @param filter     - The filters to apply, if any.
+   * @param customPage - The page size and, when no cursor is provided, the sort options.
+   * @param cursor     - The cursor returned with the previous page, or blank for the first page.
+   * @param <T>        - The entity type.
+   * @return - The page and the cursor of the following one.
+   */
+  public <T> CursorPage<T> findPage(
+      Class<T> entityType, Specification<T> filter, CustomPage customPage, String cursor) {
+    return findPage(entityType, filter, customPage, cursor, List.of());
+  }
+
+  /**
+   * Fetch the page following the provided cursor, loading the listed to-one associations in the
+   * same statement.
+   *
+   * @param entityType - The entity to page through.
+   * @param filter     - The filters to apply, if any.
+   * @param customPage - The page size and, when no cursor is provided, the sort options.
+   * @param cursor     - The cursor returned with the previous page, or blank for the first page.
+   * @param fetches    - The to-one associations to join fetch.
+   * @param <T>        - The entity type.
+   * @return - The page and the cursor of the following one.
+   */
+  public <T> CursorPage<T> findPage(
+      Class<T> entityType,
+      Specification<T> filter,
+      CustomPage customPage,
+      String cursor,
+      List<String> fetches) {
+
+    Position position = cursor == null || cursor.isBlank()
+        ? new Position(customPage.getSortBy(), customPage.getSortDirection(), null, null)
+        : decode(cursor);
+
+    SingularAttribute<? super T, ?> sortAttribute = sortAttribute(entityType, position.sortField());
+    int pageSize = Math.max(1, Math.min(customPage.getPageSize(), MAX_CURSOR_PAGE_SIZE));
+    boolean ascending = position.direction().isAscending();
+
+    CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+    Root<T> root = query.from(entityType);
+    fetches.forEach(fetch -> root.fetch(fetch, JoinType.LEFT));
+    Path<Object> sortPath = root.get(position.sortField());
+    Path<Long> idPath = root.get(ID);
+
+    List<Predicate> predicates = new ArrayList<>();
+    if (filter != null) {
+      Predicate filterPredicate = filter.toPredicate(root, query, criteriaBuilder);
+      if (filterPredicate != null) {
+        predicates.add(filterPredicate);
+      }
+    }
+    if (position.lastId() != null) {
+      Object lastValue = position.lastValue() == null
+          ? null
+          : parseValue(sortAttribute.getJavaType(), position.lastValue());
+      predicates.add(seek(criteriaBuilder, sortPath, idPath, lastValue, position.lastId(), ascending));
+    }
+
+    query.multiselect(root, sortPath, idPath)
+        .where(predicates.toArray(new Predicate[0]))
+        .orderBy(
+            ascending ? criteriaBuilder.asc(sortPath) : criteriaBuilder.desc(sortPath),
+            ascending ? criteriaBuilder.asc(idPath) : criteriaBuilder.desc(idPath));
+
+    List<Tuple> rows = entityManager.createQuery(query).setMaxResults(pageSize + 1).getResultList();
+
+    List<T> content = new ArrayList<>(Math.min(rows.size(), pageSize));
+    for (int i = 0; i < rows.size() && i < pageSize; i++) {
+      content.add(rows.get(i).get(0, entityType));
+    }
+
+    String nextCursor = null;
+    if (rows.size() > pageSize) {
+      Tuple last = rows.get(pageSize - 1);
+      nextCursor = encode(new Position(
+          position.sortField(),
+          position.direction(),
+          last.get(1) == null ? null : last.get(1).toString(),
+          last.get(2, Long.class)));
+    }
+
+    return new CursorPage<>(content, pageSize, nextCursor);
+  }
+
+  /**
+   * Build the predicate selecting the rows strictly after (lastValue, lastId) in the page order.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private Predicate seek(
+      CriteriaBuilder criteriaBuilder,
+      Path<Object> sortPath,
+      Path<Long> idPath,
+      Object lastValue,
+      Long lastId,
+      boolean ascending) {
+
+    Predicate afterId = ascending
+        ? criteriaBuilder.greaterThan(idPath, lastId)
+        : criteriaBuilder.lessThan(idPath, lastId);
+
+    if (lastValue == null) {
+      Predicate sameNullValue = criteriaBuilder.and(criteriaBuilder.isNull(sortPath), afterId);
+      return ascending
+          ? sameNullValue
+          : criteriaBuilder.or(sameNullValue, criteriaBuilder.isNotNull(sortPath));
+    }
+
+    Expression<Comparable> sortValue = (Expression) sortPath;
+    Comparable value = (Comparable) lastValue;
+    Predicate sameValue = criteriaBuilder.and(criteriaBuilder.equal(sortPath, value), afterId);
+    return ascending
+        ? criteriaBuilder.or(criteriaBuilder.greaterThan(sortValue, value), sameValue, criteriaBuilder.isNull(sortPath))
+        : criteriaBuilder.or(criteriaBuilder.lessThan(sortValue, value), sameValue);
+  }
+
+  /**
+   * Resolve the sort field against the entity model, rejecting anything that is not a basic,
+   * comparable attribute.
+   */
+  private <T> SingularAttribute<? super T, ?> sortAttribute(Class<T> entityType, String sortField) {
+    try {
+      SingularAttribute<? super T, ?> attribute =
+          entityManager.getMetamodel().entity(entityType).getSingularAttribute(sortField);
+      Class<?> javaType = attribute.getJavaType();
+      if (attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC
+          && (javaType.isPrimitive() || Comparable.class.isAssignableFrom(javaType))) {
+        return attribute;
+      }
+    } catch (IllegalArgumentException e) {
+      logger.error(String.format(INVALID_SORT_FIELD_ERROR_MESSAGE, sortField), e);
+    }
+    throw new ResponseStatusException(
+        HttpStatus.BAD_REQUEST, String.format(INVALID_SORT_FIELD_ERROR_MESSAGE, sortField));
+  }
+
+  /**
+   * Convert the textual sort value carried by a cursor back to the attribute type.
+   */
+  private Object parseValue(Class<?> javaType, String value) {
+    try {
+      if (javaType == String.class) {
+        return value;
+      } else if (javaType == Long.class || javaType == long.class) {
+        return Long.valueOf(value);
+      } else if (javaType == Integer.class || javaType == int.class) {
+        return Integer.valueOf(value);
+      } else if (javaType == Double.class || javaType == double.class) {
+        return Double.valueOf(value);
+      } else if (javaType == Boolean.class || javaType == boolean.class) {
+        return Boolean.valueOf(value);
+      } else if (javaType == BigDecimal.class) {
+        return new BigDecimal(value);
+      } else if (javaType == LocalDateTime.class) {
+        return LocalDateTime.parse(value);
+      } else if (javaType == LocalDate.class) {
+        return LocalDate.parse(value);
+      }
+    } catch (RuntimeException e) {
+      logger.error(INVALID_CURSOR_ERROR_MESSAGE, e);
+    }
+    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, INVALID_CURSOR_ERROR_MESSAGE);
+  }
+
+  /**
+   * @param position - The position to encode.
+   * @return - The opaque cursor pointing at the position.
+   */
+  static String encode(Position position) {
+    String raw = position.sortField() + SEPARATOR
+        + position.direction().name() + SEPARATOR
+        + position.lastId() + SEPARATOR
+        + (position.lastValue() == null ? NULL_VALUE : VALUE_PREFIX + position.lastValue());
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @param cursor - The opaque cursor.
+   * @return - The position the cursor points at.
+   */
+  static Position decode(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] parts = raw.split("\\" + SEPARATOR, 4);
+      if (parts.length == 4 && (parts[3].equals(NULL_VALUE) || parts[3].startsWith(VALUE_PREFIX))) {
+        return new Position(
+            parts[0],
+            Sort.Direction.valueOf(parts[1]),
+            parts[3].equals(NULL_VALUE) ? null : parts[3].substring(VALUE_PREFIX.length()),
+            Long.valueOf(parts[2]));
+      }
+    } catch (IllegalArgumentException e) {
+      // Falls through to the bad request below.
+    }
+    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, INVALID_CURSOR_ERROR_MESSAGE);
+  }
+
+  /**
+   * The sort options of a listing and the position of the last row returned.
+   *
+   * @param sortField - The field the rows are sorted by.
+   * @param direction - The sort direction, also applied to the id tie-breaker.
+   * @param lastValue - The sort value of the last row returned, as text.
+   * @param lastId    - The id of the last row returned, or null before the first page.
+   */
+  record Position(String sortField, Sort.Direction direction, String lastValue, Long lastId) {
+  }
+}
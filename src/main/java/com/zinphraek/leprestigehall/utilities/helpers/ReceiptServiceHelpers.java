@@ -13,7 +13,6 @@ import com.zinphraek.leprestigehall.domain.email.Mail;
 import com.zinphraek.leprestigehall.domain.invoice.Invoice;
 import com.zinphraek.leprestigehall.domain.receipt.Receipt;
 import com.zinphraek.leprestigehall.utilities.tables.invoice.InvoiceTableColumnData;
-import java.io.IOException;
 import java.text.DecimalFormat;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -164,10 +163,8 @@ public class ReceiptServiceHelpers {
    * @param sender The sender of the email.
    * @param subject The subject of the email.
    * @return A mail object.
-   * @throws IOException If an error occurs when creating the attachment.
    */
-  public Mail getMail(Receipt receipt, Invoice invoice, String sender, String subject)
-      throws IOException {
+  public Mail getMail(Receipt receipt, Invoice invoice, String sender, String subject) {
     Mail mail = new Mail();
     mail.setEmailTemplate(EMAIL_RECEIPT_TEMPLATE);
     mail.setSubject(subject);
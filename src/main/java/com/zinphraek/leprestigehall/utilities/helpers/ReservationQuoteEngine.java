@@ -0,0 +1,111 @@
+package com.zinphraek.leprestigehall.utilities.helpers;
+
+import com.zinphraek.leprestigehall.domain.addon.AddOn;
+import com.zinphraek.leprestigehall.domain.addon.RateCard;
+import com.zinphraek.leprestigehall.domain.reservation.ReservationDiscount;
+import com.zinphraek.leprestigehall.domain.reservation.ReservationQuote;
+import com.zinphraek.leprestigehall.domain.reservation.ReservationQuoteLineItem;
+import com.zinphraek.leprestigehall.domain.reservation.ReservationQuoteRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.DISCOUNT_TYPE_PERCENTAGE;
+
+/**
+ * Stateless price computation for candidate bookings.
+ * <p>
+ * Applies the same rules as {@link ReservationServiceHelper#computeTotalPrice} but works in integer
+ * cents, touches no repository and persists nothing. Quotes are priced from the rate card and the
+ * loaded add-ons directly, without building the rate and add-on entities a booking would hold; the
+ * only objects created are the line items and the quote returned. Line items are laid out by the
+ * same {@link ReservationServiceHelper} methods as the rows invoices are rendered from, so a quote
+ * and the invoice of the same booking list the same rows and amounts.
+ * <p>
+ * Discounts are expected complete, with the percentage or the amount their type calls for.
+ */
+@Component
+public class ReservationQuoteEngine {
+
+  @Autowired
+  private final ReservationServiceHelper serviceHelper;
+
+  public ReservationQuoteEngine(ReservationServiceHelper serviceHelper) {
+    this.serviceHelper = serviceHelper;
+  }
+
+  /**
+   * Convert a dollar amount to cents, rounding half up.
+   *
+   * @param amount The amount in dollars.
+   * @return The amount in cents.
+   */
+  public static long toCents(double amount) {
+    return Math.round(amount * 100d);
+  }
+
+  /**
+   * Price a candidate booking.
+   *
+   * @param request    The booking to price.
+   * @param rateCard   The rate card to price the booking with.
+   * @param addOnsById The add-ons referenced by the request, keyed by id.
+   * @return The quote, including the invoice line items.
+   */
+  public ReservationQuote quote(
+      ReservationQuoteRequest request, RateCard rateCard, Map<Long, AddOn> addOnsById) {
+
+    double overtime = serviceHelper.computeOvertime(
+        request.effectiveEndingDateTime(), request.endingDateTime(), request.startingDateTime());
+
+    Map<Long, Double> addOns = request.addOns() != null ? request.addOns() : Map.of();
+    List<ReservationQuoteLineItem> lineItems = new ArrayList<>(4 + addOns.size());
+    int position = serviceHelper.addRateLineItems(
+        lineItems,
+        rateCard.facilityRateFor(request.startingDateTime()),
+        rateCard.seatRate(),
+        rateCard.cleaningRateFor(request.numberOfSeats()),
+        rateCard.overtimeRate(),
+        request.numberOfSeats(),
+        overtime);
+    for (Map.Entry<Long, Double> addOn : addOns.entrySet()) {
+      serviceHelper.addAddOnLineItem(lineItems, position++, addOnsById.get(addOn.getKey()), addOn.getValue());
+    }
+
+    long subtotalCents = 0L;
+    for (ReservationQuoteLineItem lineItem : lineItems) {
+      subtotalCents += lineItem.totalCents();
+    }
+
+    long discountedCents = applyDiscount(subtotalCents, request.discount());
+    long taxCents = request.taxRate() != null ? Math.round(discountedCents * request.taxRate()) : 0L;
+
+    return new ReservationQuote(
+        subtotalCents,
+        subtotalCents - discountedCents,
+        taxCents,
+        discountedCents + taxCents,
+        rateCard.version(),
+        lineItems);
+  }
+
+  /**
+   * Apply a discount the same way {@link ReservationDiscount#applyDiscount} does, in cents.
+   *
+   * @param amountCents The amount to discount.
+   * @param discount    The discount, if any.
+   * @return The discounted amount.
+   */
+  private long applyDiscount(long amountCents, ReservationDiscount discount) {
+    if (discount == null) {
+      return amountCents;
+    }
+    if (DISCOUNT_TYPE_PERCENTAGE.equals(discount.getType())) {
+      return Math.round(amountCents * (1 - discount.getPercentage() / 100));
+    }
+    return amountCents - toCents(discount.getAmount());
+  }
+}
@@ -1,6 +1,7 @@
 package com.zinphraek.leprestigehall.utilities.helpers;
 
 import com.zinphraek.leprestigehall.domain.addon.AddOn;
+import com.zinphraek.leprestigehall.domain.addon.RateCard;
 import com.zinphraek.leprestigehall.domain.addon.RequestedAddOn;
 import com.zinphraek.leprestigehall.domain.constants.FacilityInfo;
 import com.zinphraek.leprestigehall.domain.email.Attachment;
@@ -8,24 +9,23 @@ import com.zinphraek.leprestigehall.domain.email.Mail;
 import com.zinphraek.leprestigehall.domain.invoice.Invoice;
 import com.zinphraek.leprestigehall.domain.reservation.Reservation;
 import com.zinphraek.leprestigehall.domain.reservation.ReservationFilterCriteria;
+import com.zinphraek.leprestigehall.domain.reservation.ReservationQuoteLineItem;
 import com.zinphraek.leprestigehall.domain.reservation.ReservationRate;
 import com.zinphraek.leprestigehall.utilities.tables.invoice.InvoiceTableColumnData;
 import org.apache.commons.lang.StringUtils;
 import org.springframework.data.util.Pair;
 import org.springframework.stereotype.Component;
 
-import java.io.IOException;
 import java.text.DecimalFormat;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.function.Function;
-import java.util.stream.IntStream;
 
 import static com.zinphraek.leprestigehall.domain.constants.Constants.*;
-import static com.zinphraek.leprestigehall.utilities.helpers.GenericHelper.createCustomPageFromParams;
+import static com.zinphraek.leprestigehall.utilities.helpers.GenericHelper.createCappedCustomPageFromParams;
+import static com.zinphraek.leprestigehall.utilities.helpers.ReservationQuoteEngine.toCents;
 
 @Component
 public class ReservationServiceHelper {
@@ -104,11 +104,12 @@ public class ReservationServiceHelper {
   }
 
   /**
-   * Compute the total cost of the reservation.
+   * Compute the total cost of the reservation from a rate card snapshot, without any lookup.
    *
    * @param reservation The reservation to compute the total cost.
+   * @param rateCard    The rate card to price the reservation with.
    */
-  public void computeTotalPrice(Reservation reservation, Function<String, AddOn> getAddOnByName) {
+  public void computeTotalPrice(Reservation reservation, RateCard rateCard) {
 
     double totalPrice = 0d;
 
@@ -116,45 +117,15 @@ public class ReservationServiceHelper {
 
     ReservationRate rates = new ReservationRate();
 
-    String day = reservation.getStartingDateTime().getDayOfWeek().toString().toLowerCase();
-
-    // Extracting defined rates through addOn if they exist.
-    AddOn seatRateAddOn = getAddOnByName.apply(SEAT_RATE_NAME);
-    AddOn overtimeRateAddOn = getAddOnByName.apply(OVERTIME_HOURLY_RATE_NAME);
-    AddOn regularFacilityRateAddOn = getAddOnByName.apply(REGULAR_FACILITY_RATE_NAME);
-    AddOn saturdayFacilityRateAddOn = getAddOnByName.apply(SATURDAY_FACILITY_RATE_NAME);
-    AddOn cleaningFeesSmallGuestsCountAddOn =
-        getAddOnByName.apply(CLEANING_FEES_SMALL_GUESTS_COUNT_NAME);
-    AddOn cleaningFeesLargeGuestsCountAddOn =
-        getAddOnByName.apply(CLEANING_FEES_LARGE_GUESTS_COUNT_NAME);
-
     // Setting rates
-    double seatRate = seatRateAddOn != null ? seatRateAddOn.getPrice() : SEAT_RATE;
+    double seatRate = rateCard.seatRate();
 
     rates.setSeatRate(seatRate);
 
-    double overtimeRate =
-        overtimeRateAddOn != null ? overtimeRateAddOn.getPrice() : OVERTIME_HOURLY_RATE;
+    double overtimeRate = rateCard.overtimeRate();
 
     rates.setOvertimeRate(overtimeRate);
 
-    double regularFacilityRate =
-        regularFacilityRateAddOn != null
-            ? regularFacilityRateAddOn.getPrice()
-            : REGULAR_DAYS_FACILITY_RATE;
-    double saturdayFacilityRate =
-        saturdayFacilityRateAddOn != null
-            ? saturdayFacilityRateAddOn.getPrice()
-            : SATURDAY_FACILITY_RATE;
-    double cleaningFeesSmallGuestsCountRate =
-        cleaningFeesSmallGuestsCountAddOn != null
-            ? cleaningFeesSmallGuestsCountAddOn.getPrice()
-            : CLEANING_FEES_SMALL_GUESTS_COUNT;
-    double cleaningFeesLargeGuestsCountRate =
-        cleaningFeesLargeGuestsCountAddOn != null
-            ? cleaningFeesLargeGuestsCountAddOn.getPrice()
-            : CLEANING_FEES_LARGE_GUESTS_COUNT;
-
     if (reservation.getNumberOfSeats() > 0) {
       totalPrice += reservation.getNumberOfSeats() * seatRate;
     }
@@ -173,20 +144,14 @@ public class ReservationServiceHelper {
     }
 
     // Adding facility fees.
-    double facilityFee =
-        Objects.equals(day, WEEK_DAYS.get(6).toLowerCase())
-            ? saturdayFacilityRate
-            : regularFacilityRate;
+    double facilityFee = rateCard.facilityRateFor(reservation.getStartingDateTime());
 
     rates.setFacilityRate(facilityFee);
 
     totalPrice += facilityFee;
 
     // Adding cleaning fees
-    double cleaningFees =
-        (reservation.getNumberOfSeats() > 0 && reservation.getNumberOfSeats() <= 100)
-            ? cleaningFeesSmallGuestsCountRate
-            : cleaningFeesLargeGuestsCountRate;
+    double cleaningFees = rateCard.cleaningRateFor(reservation.getNumberOfSeats());
 
     rates.setCleaningRate(cleaningFees);
 
@@ -212,6 +177,7 @@ public class ReservationServiceHelper {
 
     reservation.setTotalPrice(totalPrice);
     reservation.setRates(rates);
+    reservation.setRateCardVersion(rateCard.version());
   }
 
   public Attachment generateInvoiceAttachment(Invoice invoice) {
@@ -258,88 +224,107 @@ public class ReservationServiceHelper {
 
     attachment.addVariable("columns", columns);
 
-    List<Map<String, Object>> rows = new ArrayList<>();
-
-    Map<String, Object> row1 = new HashMap<>();
-    row1.put("col1", "1");
-    row1.put("col2", "Facility");
-    row1.put("col3", 1);
-    row1.put("col4", invoice.getReservation().getRates().getFacilityRate());
-    row1.put("col5", "Dollar ($)");
-    row1.put("col6", invoice.getReservation().getRates().getFacilityRate());
-
-    rows.add(row1);
-
-    Map<String, Object> row2 = new HashMap<>();
-    row2.put("col1", "2");
-    row2.put("col2", "Guests Count");
-    row2.put("col3", invoice.getReservation().getNumberOfSeats());
-    row2.put("col4", invoice.getReservation().getRates().getSeatRate());
-    row2.put("col5", "Dollar ($)");
-    row2.put(
-        "col6",
-        invoice.getReservation().getNumberOfSeats()
-            * invoice.getReservation().getRates().getSeatRate());
-
-    rows.add(row2);
-
-    Map<String, Object> row3 = new HashMap<>();
-    row3.put("col1", "3");
-    row3.put("col2", "Cleaning Fees");
-    row3.put("col3", 1);
-    row3.put("col4", invoice.getReservation().getRates().getCleaningRate());
-    row3.put("col5", "Dollar ($)");
-    row3.put("col6", invoice.getReservation().getRates().getCleaningRate());
-
-    rows.add(row3);
-
+    Reservation reservation = invoice.getReservation();
     double overtime =
         computeOvertime(
-            invoice.getReservation().getEffectiveEndingDateTime(),
-            invoice.getReservation().getEndingDateTime(),
-            invoice.getReservation().getStartingDateTime());
-
-    if (overtime > 0d) {
-      Map<String, Object> row4 = new HashMap<>();
-      row4.put("col1", "4");
-      row4.put("col2", "Overtime");
-      row4.put("col3", overtime);
-      row4.put("col4", invoice.getReservation().getRates().getOvertimeRate());
-      row4.put("col5", "Dollar ($)");
-      row4.put("col6", invoice.getReservation().getRates().getOvertimeRate() * overtime);
-
-      rows.add(row4);
-    }
+            reservation.getEffectiveEndingDateTime(),
+            reservation.getEndingDateTime(),
+            reservation.getStartingDateTime());
 
-    Collection<RequestedAddOn> addOns = invoice.getReservation().getAddOns();
-    List<RequestedAddOn> requestedAddOnList =
-        addOns != null ? addOns.stream().toList() : new ArrayList<>();
-    int baseIndex = overtime > 0d ? 5 : 4;
-    if (!requestedAddOnList.isEmpty()) {
-      List<Map<String, Object>> addOnRows =
-          IntStream.range(0, requestedAddOnList.size())
-              .mapToObj(
-                  index -> {
-                    RequestedAddOn requestedAddOn = requestedAddOnList.get(index);
-                    Map<String, Object> addOnRow = new HashMap<>();
-                    addOnRow.put("col1", index + baseIndex);
-                    addOnRow.put("col2", requestedAddOn.getAddOn().getName());
-                    addOnRow.put("col3", requestedAddOn.getQuantity());
-                    addOnRow.put("col4", requestedAddOn.getAddOn().getPrice());
-                    addOnRow.put("col5", "Dollar ($)");
-                    addOnRow.put(
-                        "col6",
-                        requestedAddOn.getQuantity() * requestedAddOn.getAddOn().getPrice());
-                    return addOnRow;
-                  })
-              .toList();
-      rows.addAll(addOnRows);
+    List<Map<String, Object>> rows = new ArrayList<>();
+    for (ReservationQuoteLineItem lineItem :
+        computeLineItems(reservation.getRates(), reservation.getNumberOfSeats(), overtime, reservation.getAddOns())) {
+      Map<String, Object> row = new HashMap<>();
+      row.put("col1", String.valueOf(lineItem.position()));
+      row.put("col2", lineItem.service());
+      row.put("col3", lineItem.quantity() == Math.rint(lineItem.quantity())
+          ? (Object) (long) lineItem.quantity() : lineItem.quantity());
+      row.put("col4", lineItem.rateCents() / 100d);
+      row.put("col5", "Dollar ($)");
+      row.put("col6", lineItem.totalCents() / 100d);
+      rows.add(row);
     }
     attachment.addVariable("rows", rows);
 
     return attachment;
   }
 
+  /**
+   * Lay out the charges of a booking as invoice rows: facility, guests, cleaning fees, overtime when
+   * due, then each add-on. Invoices and quotes both use this layout and round every row to the cent
+   * the same way, so a quote matches the invoice later issued for the same booking.
+   *
+   * @param rates         The rates the booking is priced with.
+   * @param numberOfSeats The number of guests.
+   * @param overtime      The overtime hours, as computed by computeOvertime.
+   * @param addOns        The requested add-ons, if any.
+   * @return The rows, amounts in cents.
+   */
+  public List<ReservationQuoteLineItem> computeLineItems(
+      ReservationRate rates, int numberOfSeats, double overtime, Collection<RequestedAddOn> addOns) {
+    List<ReservationQuoteLineItem> lineItems = new ArrayList<>();
+    int position = addRateLineItems(lineItems, rates.getFacilityRate(), rates.getSeatRate(), rates.getCleaningRate(),
+        rates.getOvertimeRate(), numberOfSeats, overtime);
+
+    if (addOns != null) {
+      for (RequestedAddOn requestedAddOn : addOns) {
+        double quantity = requestedAddOn.getQuantity() != null ? requestedAddOn.getQuantity() : 0d;
+        addAddOnLineItem(lineItems, position++, requestedAddOn.getAddOn(), quantity);
+      }
+    }
+    return lineItems;
+  }
+
+  /**
+   * Append the rows charged from the rates, in the layout of {@link #computeLineItems}.
+   *
+   * @param lineItems     The rows to append to.
+   * @param facilityRate  The facility rate.
+   * @param seatRate      The rate per guest.
+   * @param cleaningRate  The cleaning fees.
+   * @param overtimeRate  The rate per overtime hour.
+   * @param numberOfSeats The number of guests.
+   * @param overtime      The overtime hours, as computed by computeOvertime.
+   * @return The position of the next row.
+   */
+  public int addRateLineItems(
+      List<ReservationQuoteLineItem> lineItems, double facilityRate, double seatRate, double cleaningRate,
+      double overtimeRate, int numberOfSeats, double overtime) {
+    int seats = Math.max(numberOfSeats, 0);
+
+    long facilityCents = toCents(facilityRate);
+    lineItems.add(new ReservationQuoteLineItem(1, "Facility", 1, facilityCents, facilityCents));
+
+    long seatRateCents = toCents(seatRate);
+    lineItems.add(new ReservationQuoteLineItem(2, "Guests Count", seats, seatRateCents, seats * seatRateCents));
+
+    long cleaningCents = toCents(cleaningRate);
+    lineItems.add(new ReservationQuoteLineItem(3, "Cleaning Fees", 1, cleaningCents, cleaningCents));
+
+    int position = 4;
+    if (overtime > 0d) {
+      long overtimeRateCents = toCents(overtimeRate);
+      lineItems.add(new ReservationQuoteLineItem(
+          position++, "Overtime", overtime, overtimeRateCents, Math.round(overtime * overtimeRateCents)));
+    }
+    return position;
+  }
+
+  /**
+   * Append the row of an add-on, in the layout of {@link #computeLineItems}.
+   *
+   * @param lineItems The rows to append to.
+   * @param position  The position of the row.
+   * @param addOn     The add-on.
+   * @param quantity  The requested quantity.
+   */
+  public void addAddOnLineItem(
+      List<ReservationQuoteLineItem> lineItems, int position, AddOn addOn, double quantity) {
+    long priceCents = toCents(addOn.getPrice());
+    lineItems.add(new ReservationQuoteLineItem(
+        position, addOn.getName(), quantity, priceCents, Math.round(priceCents * quantity)));
+  }
+
   /**
    * Generate a mail object with an invoice attachment with the provided invoice and subject
    *
@@ -351,8 +336,7 @@ public class ReservationServiceHelper {
    * @return The constructed mail.
    */
   public Mail getMail(
-      Invoice invoice, String emailTemplate, String sender, String subject, boolean hasAttachment)
-      throws IOException {
+      Invoice invoice, String emailTemplate, String sender, String subject, boolean hasAttachment) {
     Mail mail = new Mail();
     mail.setEmailTemplate(emailTemplate);
     mail.setSubject(subject);
@@ -408,7 +392,7 @@ public class ReservationServiceHelper {
   public Pair<CustomPage, ReservationFilterCriteria> generateCustomPageAndReservationFilterCriteria(
       Map<String, String> params) {
 
-    CustomPage customPage = createCustomPageFromParams(params);
+    CustomPage customPage = createCappedCustomPageFromParams(params);
     ReservationFilterCriteria reservationFilterCriteria = createReservationFilterCriteriaFromParams(params);
 
     return Pair.of(customPage, reservationFilterCriteria);
@@ -457,6 +441,9 @@ public class ReservationServiceHelper {
         case "userId":
           reservationFilterCriteria.setUserId(value);
           break;
+        case "venueId":
+          reservationFilterCriteria.setVenueId(Long.parseLong(value));
+          break;
       }
     }
 
@@ -0,0 +1,150 @@
+package com.zinphraek.leprestigehall.utilities.helpers;
+
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Building blocks of the listing filters.
+ * <p>
+ * Each block returns null when its value was not supplied, and {@link #allOf} drops those, so the
+ * generated query only carries a predicate for each filter a request actually sets. Unset filters
+ * no longer reach the database as {@code :param IS NULL OR ...} branches, which the planner cannot
+ * serve from an index. Values are compared with equality or a range where their type allows it, and
+ * free text is matched on its prefix, which a {@code text_pattern_ops} index can serve.
+ * <p>
+ * Attributes are named as in JPQL, with a dot to reach into an association, such as
+ * {@code reservation.id}.
+ */
+public final class SpecificationFilters {
+
+  private static final char LIKE_ESCAPE = '\\';
+
+  private SpecificationFilters() {
+  }
+
+  /**
+   * @param filters - The filters, null for those not supplied.
+   * @param <T>     - The entity type.
+   * @return - A specification matching the rows that pass every supplied filter, or all rows when
+   * none was supplied.
+   */
+  @SafeVarargs
+  public static <T> Specification<T> allOf(Specification<T>... filters) {
+    return (root, query, criteriaBuilder) -> {
+      List<Predicate> predicates = new ArrayList<>();
+      for (Specification<T> filter : filters) {
+        Predicate predicate = filter == null ? null : filter.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+          predicates.add(predicate);
+        }
+      }
+      return predicates.isEmpty() ? null : criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+    };
+  }
+
+  /**
+   * @param attribute - The attribute to compare.
+   * @param value     - The value it must be equal to, or null if not supplied.
+   * @param <T>       - The entity type.
+   * @return - The filter, or null if the value was not supplied.
+   */
+  public static <T> Specification<T> equal(String attribute, Object value) {
+    if (value == null) {
+      return null;
+    }
+    return (root, query, criteriaBuilder) -> criteriaBuilder.equal(path(root, attribute), value);
+  }
+
+  /**
+   * @param attribute - The attribute to compare.
+   * @param value     - The lowest value accepted, inclusive, or null if not supplied.
+   * @param <T>       - The entity type.
+   * @param <Y>       - The attribute type.
+   * @return - The filter, or null if the value was not supplied.
+   */
+  public static <T, Y extends Comparable<? super Y>> Specification<T> atLeast(String attribute, Y value) {
+    if (value == null) {
+      return null;
+    }
+    return (root, query, criteriaBuilder) ->
+        criteriaBuilder.greaterThanOrEqualTo(SpecificationFilters.<Y>path(root, attribute), value);
+  }
+
+  /**
+   * @param attribute - The attribute to compare.
+   * @param value     - The highest value accepted, inclusive, or null if not supplied.
+   * @param <T>       - The entity type.
+   * @param <Y>       - The attribute type.
+   * @return - The filter, or null if the value was not supplied.
+   */
+  public static <T, Y extends Comparable<? super Y>> Specification<T> atMost(String attribute, Y value) {
+    if (value == null) {
+      return null;
+    }
+    return (root, query, criteriaBuilder) ->
+        criteriaBuilder.lessThanOrEqualTo(SpecificationFilters.<Y>path(root, attribute), value);
+  }
+
+  /**
+   * @param attribute - The text attribute to match.
+   * @param prefix    - The text it must start with, or null or blank if not supplied.
+   * @param <T>       - The entity type.
+   * @return - The filter, or null if the prefix was not supplied.
+   */
+  public static <T> Specification<T> startsWith(String attribute, String prefix) {
+    if (prefix == null || prefix.isBlank()) {
+      return null;
+    }
+    return (root, query, criteriaBuilder) ->
+        criteriaBuilder.like(SpecificationFilters.<String>path(root, attribute), likePrefix(prefix), LIKE_ESCAPE);
+  }
+
+  /**
+   * @param attribute - The text attribute to match, whatever its case.
+   * @param prefix    - The text it must start with, or null or blank if not supplied.
+   * @param <T>       - The entity type.
+   * @return - The filter, or null if the prefix was not supplied.
+   */
+  public static <T> Specification<T> startsWithIgnoreCase(String attribute, String prefix) {
+    if (prefix == null || prefix.isBlank()) {
+      return null;
+    }
+    return (root, query, criteriaBuilder) -> criteriaBuilder.like(
+        criteriaBuilder.lower(SpecificationFilters.<String>path(root, attribute)),
+        likePrefix(prefix.toLowerCase()),
+        LIKE_ESCAPE);
+  }
+
+  /**
+   * Resolve a dotted attribute name from the provided root.
+   *
+   * @param root      - The root, or any path, of the query.
+   * @param attribute - The attribute, with a dot to reach into an association.
+   * @param <Y>       - The attribute type.
+   * @return - The path of the attribute.
+   */
+  @SuppressWarnings("unchecked")
+  public static <Y> Path<Y> path(Path<?> root, String attribute) {
+    Path<?> path = root;
+    for (String part : attribute.split("\\.")) {
+      path = path.get(part);
+    }
+    return (Path<Y>) path;
+  }
+
+  /**
+   * Escape the wildcards of the provided text, so it only matches itself, and append the one
+   * matching any suffix.
+   */
+  static String likePrefix(String prefix) {
+    return prefix
+        .replace(String.valueOf(LIKE_ESCAPE), "" + LIKE_ESCAPE + LIKE_ESCAPE)
+        .replace("%", LIKE_ESCAPE + "%")
+        .replace("_", LIKE_ESCAPE + "_")
+        + "%";
+  }
+}
@@ -0,0 +1,4 @@
+-- Queued attachments remember the template they were rendered from, so their PDF conversion is
+-- cached under the same content key as the downloads of the same document.
+
+ALTER TABLE email_outbox_attachments ADD COLUMN template VARCHAR(255);
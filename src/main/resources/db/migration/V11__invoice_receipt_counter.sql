@@ -0,0 +1,7 @@
+-- Receipt numbers are allocated from a counter on their invoice, incremented in the transaction that
+-- records the payment, instead of from a count of the invoice's receipts.
+
+ALTER TABLE invoices ADD COLUMN receipt_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE invoices i
+SET receipt_count = (SELECT COUNT(*) FROM receipts r WHERE r.invoice_id = i.id);
@@ -0,0 +1,38 @@
+-- Append-only ledger of the amounts posted to each invoice. Every entry is inserted by the same
+-- statement that moves the invoice's materialized totals, and records the totals it left behind,
+-- so the totals can always be rebuilt from the ledger.
+
+CREATE TABLE payment_ledger_entries
+(
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    invoice_id       BIGINT       NOT NULL REFERENCES invoices (id) ON DELETE CASCADE,
+    kind             VARCHAR(32)  NOT NULL,
+    receipt_number   VARCHAR(255),
+    amount           FLOAT(53)    NOT NULL,
+    total_paid_after FLOAT(53)    NOT NULL,
+    balance_after    FLOAT(53),
+    posted_at        TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX payment_ledger_entries_invoice_idx ON payment_ledger_entries (invoice_id, id);
+
+-- Entries are never changed; they only go away with their invoice.
+CREATE FUNCTION payment_ledger_entries_append_only() RETURNS trigger AS
+$$
+BEGIN
+    IF TG_OP = 'DELETE' AND pg_trigger_depth() > 1 THEN
+        RETURN OLD;
+    END IF;
+    RAISE EXCEPTION 'payment_ledger_entries is append-only';
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER payment_ledger_entries_append_only
+    BEFORE UPDATE OR DELETE ON payment_ledger_entries
+    FOR EACH ROW EXECUTE FUNCTION payment_ledger_entries_append_only();
+
+-- Opens the ledger of the invoices that already have payments with what they have been paid.
+INSERT INTO payment_ledger_entries (invoice_id, kind, amount, total_paid_after, balance_after, posted_at)
+SELECT id, 'Opening', total_amount_paid, total_amount_paid, amount_due, now()
+FROM invoices
+WHERE COALESCE(total_amount_paid, 0) <> 0;
@@ -0,0 +1,3 @@
+-- Databases baselined before the rate card snapshot was introduced have no column for it; the
+-- baseline schema already declares it. Runs before V14, which numbers the rate card past it.
+ALTER TABLE reservations ADD COLUMN IF NOT EXISTS rate_card_version BIGINT;
@@ -0,0 +1,12 @@
+-- Indexes backing the listing filters that are not ids, dates or amounts.
+
+-- Receipt numbers and payer names are matched on their prefix. A LIKE prefix only uses a btree
+-- index built with the pattern operator class, whatever the collation of the database.
+CREATE INDEX IF NOT EXISTS idx_receipts_receipt_number_prefix
+    ON receipts (receipt_number text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_receipts_paid_by_prefix
+    ON receipts (LOWER(paid_by) text_pattern_ops);
+
+-- Invoice numbers are compared with equality.
+CREATE INDEX IF NOT EXISTS idx_invoices_invoice_number
+    ON invoices (invoice_number);
@@ -0,0 +1,13 @@
+-- Rate cards are versioned by a counter bumped in the transaction of every rate add-on change,
+-- replacing the fingerprint of the rates, which could repeat and was not ordered.
+
+CREATE TABLE rate_card_version
+(
+    id      SMALLINT PRIMARY KEY DEFAULT 1 CHECK (id = 1),
+    version BIGINT NOT NULL
+);
+
+-- Start past every fingerprint stored so far, so no reservation looks priced with the current rates.
+INSERT INTO rate_card_version (id, version)
+SELECT 1, COALESCE(MAX(rate_card_version), 0) + 1
+FROM reservations;
@@ -0,0 +1,4 @@
+-- Emails are marked in flight, and committed, before they are handed to the mail server. Rows a
+-- dispatcher left in flight past their deadline are looked up by this index and given up on.
+
+CREATE INDEX idx_email_outbox_in_flight ON email_outbox (next_attempt_at) WHERE status = 'Sending';
@@ -0,0 +1,15 @@
+-- Rollup amounts become exact decimals, each price rounded to the cent before it is summed, so
+-- the incremental totals equal a rebuild to the cent. The totals are recomputed in the new form.
+
+ALTER TABLE reservation_daily_rollups
+    ALTER COLUMN revenue TYPE NUMERIC(19, 2) USING ROUND(CAST(revenue AS numeric), 2),
+    ALTER COLUMN add_on_revenue TYPE NUMERIC(19, 2) USING ROUND(CAST(add_on_revenue AS numeric), 2);
+
+DELETE FROM reservation_daily_rollups;
+
+INSERT INTO reservation_daily_rollups (day, event_type, status, bookings, seats, revenue, add_on_revenue)
+SELECT CAST(starting_date_time AS date), COALESCE(event_type, ''), COALESCE(status, ''),
+       COUNT(*), SUM(number_of_seats), SUM(ROUND(CAST(total_price AS numeric), 2)),
+       SUM(ROUND(CAST(COALESCE(add_ons_total_cost, 0) AS numeric), 2))
+FROM reservations
+GROUP BY 1, 2, 3;
@@ -0,0 +1,5 @@
+-- Venues take their ids from a pooled sequence, like the other entities (see V3).
+-- The increment must match the allocation size of the id generators (ID_ALLOCATION_SIZE).
+
+CREATE SEQUENCE IF NOT EXISTS venues_seq INCREMENT BY 50;
+SELECT setval('venues_seq', COALESCE((SELECT MAX(id) FROM venues), 0) + 50, false);
@@ -0,0 +1,5 @@
+-- Cashier names are matched on their prefix, whatever their case, like payer names. A LIKE prefix
+-- only uses a btree index built with the pattern operator class, whatever the collation of the
+-- database.
+CREATE INDEX IF NOT EXISTS idx_receipts_cashier_name_prefix
+    ON receipts (LOWER(cashier_name) text_pattern_ops);
@@ -0,0 +1,234 @@
+-- Schema as previously generated by Hibernate (ddl-auto: update).
+-- Databases created that way are baselined at this version and skip this script.
+
+CREATE TABLE user_media
+(
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    type      VARCHAR(255),
+    blob_name VARCHAR(255),
+    media_url VARCHAR(255),
+    size      BIGINT
+);
+
+CREATE TABLE add_on_media
+(
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    type      VARCHAR(255),
+    blob_name VARCHAR(255),
+    media_url VARCHAR(255),
+    size      BIGINT
+);
+
+CREATE TABLE event_media
+(
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    type      VARCHAR(255),
+    blob_name VARCHAR(255),
+    media_url VARCHAR(255),
+    size      BIGINT,
+    event_id  UUID
+);
+
+CREATE TABLE users
+(
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id          VARCHAR(255) UNIQUE,
+    username         VARCHAR(255),
+    first_name       VARCHAR(255),
+    last_name        VARCHAR(255),
+    email            VARCHAR(255),
+    phone            VARCHAR(255),
+    date_of_birth    VARCHAR(255),
+    gender           VARCHAR(255),
+    street           VARCHAR(255),
+    city             VARCHAR(255),
+    state            VARCHAR(255),
+    zip_code         VARCHAR(255),
+    enabled          BOOLEAN NOT NULL,
+    required_actions VARCHAR(255) ARRAY,
+    user_media_id    BIGINT REFERENCES user_media (id)
+);
+
+CREATE TABLE addons
+(
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255) NOT NULL,
+    category    VARCHAR(255) NOT NULL,
+    media_id    BIGINT REFERENCES add_on_media (id),
+    description VARCHAR(255),
+    price       FLOAT(53) NOT NULL,
+    is_active   BOOLEAN NOT NULL
+);
+
+CREATE TABLE reservation_rates
+(
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    cleaning_rate FLOAT(53),
+    facility_rate FLOAT(53),
+    overtime_rate FLOAT(53),
+    seat_rate     FLOAT(53)
+);
+
+CREATE TABLE reservation_discounts
+(
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    percentage   FLOAT(53),
+    amount       FLOAT(53),
+    name         VARCHAR(255),
+    code         VARCHAR(255),
+    type         VARCHAR(255),
+    is_available BOOLEAN,
+    description  VARCHAR(255)
+);
+
+CREATE TABLE reservations
+(
+    id                           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    starting_date_time           TIMESTAMP(6) NOT NULL,
+    ending_date_time             TIMESTAMP(6) NOT NULL,
+    effective_ending_date_time   TIMESTAMP(6),
+    number_of_seats              INTEGER NOT NULL,
+    event_type                   VARCHAR(255),
+    is_full_package              BOOLEAN NOT NULL,
+    add_ons_total_cost           FLOAT(53),
+    status                       VARCHAR(255),
+    is_security_deposit_refunded BOOLEAN NOT NULL,
+    tax_rate                     FLOAT(53) NOT NULL,
+    total_price                  FLOAT(53) NOT NULL,
+    rates_id                     BIGINT REFERENCES reservation_rates (id),
+    discount_id                  BIGINT REFERENCES reservation_discounts (id),
+    price_computation_method     VARCHAR(255),
+    rate_card_version            BIGINT,
+    user_id                      VARCHAR(255)
+);
+
+CREATE TABLE requested_add_ons
+(
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    add_on_id      BIGINT NOT NULL REFERENCES addons (id),
+    reservation_id BIGINT REFERENCES reservations (id),
+    quantity       FLOAT(53) NOT NULL
+);
+
+CREATE TABLE invoices
+(
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    invoice_number    VARCHAR(255),
+    issued_date       TIMESTAMP(6) NOT NULL,
+    due_date          TIMESTAMP(6) NOT NULL,
+    total_amount_paid FLOAT(53),
+    amount_due        FLOAT(53),
+    status            VARCHAR(255),
+    reservation_id    BIGINT NOT NULL REFERENCES reservations (id),
+    user_id           BIGINT NOT NULL REFERENCES users (id)
+);
+
+CREATE TABLE receipts
+(
+    id                           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    receipt_number               VARCHAR(255),
+    receipt_date                 TIMESTAMP(6) NOT NULL,
+    amount_paid                  FLOAT(53) NOT NULL,
+    reservation_id               BIGINT NOT NULL,
+    user_id                      VARCHAR(255) NOT NULL,
+    invoice_id                   BIGINT NOT NULL,
+    total_amount_paid_till_today FLOAT(53),
+    paid_by                      VARCHAR(255) NOT NULL,
+    payment_date                 TIMESTAMP(6) NOT NULL,
+    prev_balance                 FLOAT(53),
+    balance_due                  FLOAT(53) NOT NULL,
+    cashier_name                 VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE payments
+(
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    receipt_id     BIGINT REFERENCES receipts (id),
+    method         VARCHAR(255),
+    amount         FLOAT(53),
+    card_last_four VARCHAR(255),
+    other_details  VARCHAR(255)
+);
+
+CREATE TABLE event_likes_dislikes
+(
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    users_liked    VARCHAR(255) ARRAY,
+    users_disliked VARCHAR(255) ARRAY
+);
+
+CREATE TABLE comment_likes_dislikes
+(
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    users_liked    VARCHAR(255) ARRAY,
+    users_disliked VARCHAR(255) ARRAY
+);
+
+CREATE TABLE events
+(
+    id                UUID PRIMARY KEY,
+    created_date      TIMESTAMP(6) WITH TIME ZONE,
+    title             VARCHAR(255) NOT NULL UNIQUE,
+    description       VARCHAR(2000),
+    likes_dislikes_id BIGINT REFERENCES event_likes_dislikes (id),
+    comments_count    BIGINT,
+    posted_date       TIMESTAMP(6),
+    is_active         BOOLEAN NOT NULL
+);
+
+CREATE TABLE event_comment
+(
+    id                        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    content                   VARCHAR(255),
+    user_id                   VARCHAR(255),
+    posted_date               TIMESTAMP(6),
+    edited                    BOOLEAN NOT NULL,
+    event_id                  UUID NOT NULL,
+    based_comment_id          BIGINT,
+    comment_likes_dislikes_id BIGINT REFERENCES comment_likes_dislikes (id)
+);
+
+CREATE TABLE review_comments
+(
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    content          VARCHAR(255),
+    user_id          VARCHAR(255),
+    posted_date      TIMESTAMP(6),
+    edited           BOOLEAN NOT NULL,
+    review_id        BIGINT NOT NULL,
+    based_comment_id BIGINT NOT NULL
+);
+
+CREATE TABLE reviews
+(
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title            VARCHAR(255),
+    rating           BIGINT NOT NULL,
+    comment          VARCHAR(2000) NOT NULL,
+    posted_date      TIMESTAMP(6) NOT NULL,
+    last_edited_date TIMESTAMP(6),
+    user_id          VARCHAR(255)
+);
+
+CREATE TABLE appointments
+(
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name      VARCHAR(255),
+    last_name       VARCHAR(255),
+    phone           VARCHAR(255),
+    email           VARCHAR(255),
+    date_time       TIMESTAMP(6) NOT NULL,
+    raison          VARCHAR(255),
+    additional_info VARCHAR(255),
+    status          VARCHAR(255),
+    user_id         VARCHAR(255)
+);
+
+CREATE TABLE faqs
+(
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    category    VARCHAR(255),
+    question    VARCHAR(255),
+    answer      OID,
+    more_detail OID
+);
@@ -0,0 +1,43 @@
+-- Indexes backing the availability checks, per-user listings and child lookups.
+
+-- Overlap checks compare the effective end of a booking with the candidate start.
+CREATE INDEX IF NOT EXISTS idx_reservations_effective_end_start
+    ON reservations ((COALESCE(effective_ending_date_time, ending_date_time)), starting_date_time);
+CREATE INDEX IF NOT EXISTS idx_reservations_start_end
+    ON reservations (starting_date_time, ending_date_time);
+CREATE INDEX IF NOT EXISTS idx_reservations_user_start
+    ON reservations (user_id, starting_date_time);
+CREATE INDEX IF NOT EXISTS idx_reservations_status_start
+    ON reservations (status, starting_date_time);
+
+CREATE INDEX IF NOT EXISTS idx_requested_add_ons_reservation
+    ON requested_add_ons (reservation_id);
+CREATE INDEX IF NOT EXISTS idx_requested_add_ons_add_on
+    ON requested_add_ons (add_on_id);
+
+CREATE INDEX IF NOT EXISTS idx_invoices_reservation
+    ON invoices (reservation_id);
+CREATE INDEX IF NOT EXISTS idx_invoices_user
+    ON invoices (user_id);
+
+CREATE INDEX IF NOT EXISTS idx_receipts_invoice
+    ON receipts (invoice_id);
+CREATE INDEX IF NOT EXISTS idx_receipts_user
+    ON receipts (user_id);
+
+CREATE INDEX IF NOT EXISTS idx_payments_receipt
+    ON payments (receipt_id);
+
+-- First level comments are listed per event, newest first; replies are fetched by parent.
+CREATE INDEX IF NOT EXISTS idx_event_comment_event_posted
+    ON event_comment (event_id, posted_date DESC)
+    WHERE based_comment_id IS NULL;
+CREATE INDEX IF NOT EXISTS idx_event_comment_based_comment
+    ON event_comment (based_comment_id);
+
+-- Only booked appointments take part in conflict checks and upcoming listings.
+CREATE INDEX IF NOT EXISTS idx_appointments_booked_date_time
+    ON appointments (date_time)
+    WHERE status = 'Booked';
+CREATE INDEX IF NOT EXISTS idx_appointments_user
+    ON appointments (user_id);
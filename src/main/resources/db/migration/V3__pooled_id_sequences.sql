@@ -0,0 +1,33 @@
+-- Pooled sequences for the entities written in bulk, so Hibernate can batch their inserts.
+-- The increment must match the allocation size of the id generators (ID_ALLOCATION_SIZE).
+-- Each sequence starts one block past the highest existing id.
+
+CREATE SEQUENCE IF NOT EXISTS reservations_seq INCREMENT BY 50;
+SELECT setval('reservations_seq', COALESCE((SELECT MAX(id) FROM reservations), 0) + 50, false);
+
+CREATE SEQUENCE IF NOT EXISTS requested_add_ons_seq INCREMENT BY 50;
+SELECT setval('requested_add_ons_seq', COALESCE((SELECT MAX(id) FROM requested_add_ons), 0) + 50, false);
+
+CREATE SEQUENCE IF NOT EXISTS invoices_seq INCREMENT BY 50;
+SELECT setval('invoices_seq', COALESCE((SELECT MAX(id) FROM invoices), 0) + 50, false);
+
+CREATE SEQUENCE IF NOT EXISTS receipts_seq INCREMENT BY 50;
+SELECT setval('receipts_seq', COALESCE((SELECT MAX(id) FROM receipts), 0) + 50, false);
+
+CREATE SEQUENCE IF NOT EXISTS payments_seq INCREMENT BY 50;
+SELECT setval('payments_seq', COALESCE((SELECT MAX(id) FROM payments), 0) + 50, false);
+
+CREATE SEQUENCE IF NOT EXISTS event_comment_seq INCREMENT BY 50;
+SELECT setval('event_comment_seq', COALESCE((SELECT MAX(id) FROM event_comment), 0) + 50, false);
+
+CREATE SEQUENCE IF NOT EXISTS review_comment_seq INCREMENT BY 50;
+SELECT setval('review_comment_seq', COALESCE((SELECT MAX(id) FROM review_comments), 0) + 50, false);
+
+CREATE SEQUENCE IF NOT EXISTS add_on_media_seq INCREMENT BY 50;
+SELECT setval('add_on_media_seq', COALESCE((SELECT MAX(id) FROM add_on_media), 0) + 50, false);
+
+CREATE SEQUENCE IF NOT EXISTS event_media_seq INCREMENT BY 50;
+SELECT setval('event_media_seq', COALESCE((SELECT MAX(id) FROM event_media), 0) + 50, false);
+
+CREATE SEQUENCE IF NOT EXISTS user_media_seq INCREMENT BY 50;
+SELECT setval('user_media_seq', COALESCE((SELECT MAX(id) FROM user_media), 0) + 50, false);
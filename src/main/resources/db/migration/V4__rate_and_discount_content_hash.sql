@@ -0,0 +1,10 @@
+-- Content hashes let identical rates and discounts share one row, inserted through a single
+-- ON CONFLICT upsert. Rows written before this migration keep a null hash and are not reused.
+
+ALTER TABLE reservation_rates ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+ALTER TABLE reservation_rates
+    ADD CONSTRAINT uk_reservation_rates_content_hash UNIQUE (content_hash);
+
+ALTER TABLE reservation_discounts ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+ALTER TABLE reservation_discounts
+    ADD CONSTRAINT uk_reservation_discounts_content_hash UNIQUE (content_hash);
@@ -0,0 +1,31 @@
+-- Outbox of notification emails, written in the same transaction as the business change and
+-- drained by the dispatcher. Bodies and attachments are stored already rendered.
+
+CREATE SEQUENCE IF NOT EXISTS email_outbox_seq INCREMENT BY 50;
+
+CREATE TABLE email_outbox
+(
+    id              BIGINT PRIMARY KEY,
+    sender          VARCHAR(255),
+    recipient       VARCHAR(255),
+    subject         VARCHAR(255),
+    body            TEXT,
+    status          VARCHAR(255),
+    attempts        INTEGER NOT NULL,
+    next_attempt_at TIMESTAMP(6),
+    created_at      TIMESTAMP(6),
+    sent_at         TIMESTAMP(6),
+    last_error      VARCHAR(2000)
+);
+
+CREATE TABLE email_outbox_attachments
+(
+    email_outbox_id BIGINT  NOT NULL REFERENCES email_outbox (id),
+    position        INTEGER NOT NULL,
+    name            VARCHAR(255),
+    html            TEXT,
+    PRIMARY KEY (email_outbox_id, position)
+);
+
+-- Only pending rows are polled; delivered and abandoned ones stay out of the index.
+CREATE INDEX idx_email_outbox_due ON email_outbox (next_attempt_at, id) WHERE status = 'Pending';
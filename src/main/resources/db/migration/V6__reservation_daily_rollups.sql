@@ -0,0 +1,20 @@
+-- Daily reservation totals per event type and status, maintained incrementally on every
+-- reservation write and rebuilt nightly. Missing event types and statuses are stored as ''.
+
+CREATE TABLE reservation_daily_rollups
+(
+    day            DATE         NOT NULL,
+    event_type     VARCHAR(255) NOT NULL,
+    status         VARCHAR(255) NOT NULL,
+    bookings       BIGINT       NOT NULL,
+    seats          BIGINT       NOT NULL,
+    revenue        FLOAT(53)    NOT NULL,
+    add_on_revenue FLOAT(53)    NOT NULL,
+    PRIMARY KEY (day, event_type, status)
+);
+
+INSERT INTO reservation_daily_rollups (day, event_type, status, bookings, seats, revenue, add_on_revenue)
+SELECT CAST(starting_date_time AS date), COALESCE(event_type, ''), COALESCE(status, ''),
+       COUNT(*), SUM(number_of_seats), SUM(total_price), SUM(COALESCE(add_ons_total_cost, 0))
+FROM reservations
+GROUP BY 1, 2, 3;
@@ -0,0 +1,15 @@
+-- Responses of create requests sent with an Idempotency-Key header, replayed to retries of the same
+-- request until they expire. The key is a hash of the operation, the caller and the client key.
+
+CREATE TABLE idempotency_keys
+(
+    idempotency_key VARCHAR(64) PRIMARY KEY,
+    request_hash    VARCHAR(64)  NOT NULL,
+    status          VARCHAR(255) NOT NULL,
+    response_status INTEGER,
+    response_body   TEXT,
+    created_at      TIMESTAMP(6) NOT NULL,
+    expires_at      TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
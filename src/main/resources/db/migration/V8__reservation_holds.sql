@@ -0,0 +1,16 @@
+-- Dates held for a customer while they complete a booking. Every replica checks new bookings and
+-- holds against the active rows; expired rows are ignored until they are purged.
+
+CREATE TABLE reservation_holds
+(
+    id                 VARCHAR(36) PRIMARY KEY,
+    user_id            VARCHAR(255) NOT NULL,
+    starting_date_time TIMESTAMP(6) NOT NULL,
+    ending_date_time   TIMESTAMP(6) NOT NULL,
+    created_at         TIMESTAMP(6) NOT NULL,
+    expires_at         TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX idx_reservation_holds_window ON reservation_holds (starting_date_time, ending_date_time);
+CREATE INDEX idx_reservation_holds_user_id ON reservation_holds (user_id);
+CREATE INDEX idx_reservation_holds_expires_at ON reservation_holds (expires_at);
@@ -0,0 +1,32 @@
+-- Venues partition the booking calendar: reservations and holds belong to one venue, and only
+-- conflict with bookings of the same venue. Add-ons without a venue are offered everywhere; rate
+-- add-ons with a venue override the shared rates for that venue.
+
+CREATE TABLE venues
+(
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name      VARCHAR(255) NOT NULL UNIQUE,
+    address   VARCHAR(255),
+    capacity  INTEGER      NOT NULL,
+    is_active BOOLEAN      NOT NULL DEFAULT TRUE
+);
+
+-- The existing hall, which every booking made so far belongs to.
+INSERT INTO venues (id, name, capacity) VALUES (1, 'Le Prestige Hall', 200);
+SELECT setval(pg_get_serial_sequence('venues', 'id'), (SELECT MAX(id) FROM venues));
+
+ALTER TABLE reservations ADD COLUMN venue_id BIGINT NOT NULL DEFAULT 1 REFERENCES venues (id);
+ALTER TABLE reservation_holds ADD COLUMN venue_id BIGINT NOT NULL DEFAULT 1 REFERENCES venues (id);
+ALTER TABLE addons ADD COLUMN venue_id BIGINT REFERENCES venues (id);
+
+-- Availability checks, calendars and listings of one venue only touch that venue's entries.
+CREATE INDEX idx_reservations_venue_effective_end_start
+    ON reservations (venue_id, (COALESCE(effective_ending_date_time, ending_date_time)), starting_date_time);
+CREATE INDEX idx_reservations_venue_start
+    ON reservations (venue_id, starting_date_time);
+
+DROP INDEX IF EXISTS idx_reservation_holds_window;
+CREATE INDEX idx_reservation_holds_venue_window
+    ON reservation_holds (venue_id, starting_date_time, ending_date_time);
+
+CREATE INDEX idx_addons_venue ON addons (venue_id);
@@ -24,9 +24,12 @@ import org.springframework.web.server.ResponseStatusException;
 import java.io.IOException;
 import java.util.*;
 
+import static com.zinphraek.leprestigehall.domain.constants.Constants.DEFAULT_VENUE_ID;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.SEAT_RATE_NAME;
 import static com.zinphraek.leprestigehall.domain.constants.GenericResponseMessages.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -48,11 +51,14 @@ public class AddOnServiceImplementationTest {
   @InjectMocks
   private AddOnServiceImplementation addOnService;
 
+  private RateCardRegistry rateCardRegistry;
+
   @BeforeEach
   void setUp() {
+    rateCardRegistry = new RateCardRegistry(this.addOnRepository);
     addOnService =
         new AddOnServiceImplementation(
-            this.addOnRepository, this.mediaService, this.blobStorageService);
+            this.addOnRepository, this.mediaService, this.blobStorageService, rateCardRegistry);
   }
 
   @Test
@@ -63,7 +69,7 @@ public class AddOnServiceImplementationTest {
     when(this.mediaService.saveAddOnMedia(any())).thenReturn(addOnMedia);
     when(this.addOnRepository.save(any())).thenReturn(addOn);
     when(this.addOnRepository.existsById(any())).thenReturn(false);
-    when(this.addOnRepository.existsByName(any())).thenReturn(false);
+    when(this.addOnRepository.existsByNameAndVenueId(any(), any())).thenReturn(false);
     AddOn createdAddOn = this.addOnService.createAddOn(addOn, multipartFile);
     assert createdAddOn != null;
     assert createdAddOn.getName().equals(addOn.getName());
@@ -83,7 +89,7 @@ public class AddOnServiceImplementationTest {
     String expectedReason =
         "An addOn with name: " + addOn.getName() + " already exists in the database.";
     MultipartFile multipartFile = new MockMultipartFile("test", "test", "image/png", new byte[0]);
-    when(this.addOnRepository.existsByName(any())).thenReturn(true);
+    when(this.addOnRepository.existsByNameAndVenueId(any(), any())).thenReturn(true);
     ResponseStatusException exception =
         assertThrows(
             ResponseStatusException.class,
@@ -120,7 +126,7 @@ public class AddOnServiceImplementationTest {
     when(this.addOnRepository.save(any())).thenThrow(new DataAccessException("Database error") {
     });
     when(this.addOnRepository.existsById(any())).thenReturn(false);
-    when(this.addOnRepository.existsByName(any())).thenReturn(false);
+    when(this.addOnRepository.existsByNameAndVenueId(any(), any())).thenReturn(false);
     ResponseStatusException exception =
         assertThrows(
             ResponseStatusException.class,
@@ -139,7 +145,7 @@ public class AddOnServiceImplementationTest {
         .thenThrow(new IOException("Input/Output Exception") {
         });
     when(this.addOnRepository.existsById(any())).thenReturn(false);
-    when(this.addOnRepository.existsByName(any())).thenReturn(false);
+    when(this.addOnRepository.existsByNameAndVenueId(any(), any())).thenReturn(false);
     ResponseStatusException exception =
         assertThrows(
             ResponseStatusException.class,
@@ -172,7 +178,7 @@ public class AddOnServiceImplementationTest {
   void getAddOnByNameTestSuccessfulCase() {
     String name = "Test";
     AddOn addOn = addonFactory.generateAddOnWithSpecificName(name);
-    when(this.addOnRepository.findByName(any())).thenReturn(Optional.ofNullable(addOn));
+    when(this.addOnRepository.findFirstByNameOrderByIdAsc(any())).thenReturn(Optional.ofNullable(addOn));
     AddOn retreivedAddOn = this.addOnService.getAddOnByName(name);
     assertNotNull(retreivedAddOn);
     assertNotNull(addOn);
@@ -181,26 +187,26 @@ public class AddOnServiceImplementationTest {
     assertEquals(addOn.getPrice(), retreivedAddOn.getPrice());
     assertEquals(addOn.getDescription(), retreivedAddOn.getDescription());
 
-    verify(addOnRepository, times(1)).findByName(any());
+    verify(addOnRepository, times(1)).findFirstByNameOrderByIdAsc(any());
   }
 
   @Test
   void getAddOnByNameTestNoFoundCase() {
     String name = "Test";
     String expectedReason = "No AddOn with name: " + name + " found in the database.";
-    when(this.addOnRepository.findByName(any())).thenReturn(Optional.empty());
+    when(this.addOnRepository.findFirstByNameOrderByIdAsc(any())).thenReturn(Optional.empty());
     ResponseStatusException exception =
         assertThrows(ResponseStatusException.class, () -> this.addOnService.getAddOnByName(name));
     assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
     assertEquals(expectedReason, exception.getReason());
 
-    verify(addOnRepository, times(1)).findByName(any());
+    verify(addOnRepository, times(1)).findFirstByNameOrderByIdAsc(any());
   }
 
   @Test
   void getAddOnByNameTestDataAccessExceptionCase() {
     String name = "Test";
-    when(this.addOnRepository.findByName(name))
+    when(this.addOnRepository.findFirstByNameOrderByIdAsc(name))
         .thenThrow(new DataAccessException("Database error") {
         });
     ResponseStatusException exception =
@@ -208,13 +214,13 @@ public class AddOnServiceImplementationTest {
     assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
     assertEquals(GENERIC_UNEXPECTED_ERROR_MESSAGE, exception.getReason());
 
-    verify(addOnRepository, times(1)).findByName(any());
+    verify(addOnRepository, times(1)).findFirstByNameOrderByIdAsc(any());
   }
 
   @Test
   void getAddOnByNameTestGenericExceptionCase() {
     String name = "Test";
-    when(this.addOnRepository.findByName(name))
+    when(this.addOnRepository.findFirstByNameOrderByIdAsc(name))
         .thenThrow(new RuntimeException("Generic Exception") {
         });
     ResponseStatusException exception =
@@ -222,7 +228,7 @@ public class AddOnServiceImplementationTest {
     assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, exception.getStatusCode());
     assertEquals(GENERIC_UNEXPECTED_ERROR_MESSAGE, exception.getReason());
 
-    verify(addOnRepository, times(1)).findByName(any());
+    verify(addOnRepository, times(1)).findFirstByNameOrderByIdAsc(any());
   }
 
   @Test
@@ -474,6 +480,59 @@ public class AddOnServiceImplementationTest {
     verify(addOnRepository, times(1)).save(any());
   }
 
+  @Test
+  void updateAddOnTestRateAddOnPublishesNewRateCard() {
+    long id = 1L;
+    AddOn existingAddOn = addonFactory.generateRandomAddon(id);
+    existingAddOn.setName(SEAT_RATE_NAME);
+    AddOn updatedAddOn = addonFactory.generateRandomAddon(id);
+    updatedAddOn.setName(SEAT_RATE_NAME);
+    updatedAddOn.setPrice(4.25D);
+
+    when(this.addOnRepository.existsById(id)).thenReturn(true);
+    when(this.addOnRepository.findById(id)).thenReturn(Optional.of(existingAddOn));
+    when(this.addOnRepository.findByNameInOfferedAt(any(), eq(DEFAULT_VENUE_ID)))
+        .thenReturn(List.of(existingAddOn), List.of(updatedAddOn));
+    when(this.addOnRepository.findRateCardVersion()).thenReturn(7L, 8L);
+    rateCardRegistry.current(DEFAULT_VENUE_ID);
+
+    this.addOnService.updateAddOn(id, updatedAddOn, null);
+
+    assertEquals(4.25D, rateCardRegistry.current(DEFAULT_VENUE_ID).seatRate());
+    assertEquals(8L, rateCardRegistry.current(DEFAULT_VENUE_ID).version());
+    verify(addOnRepository, times(1)).incrementRateCardVersion();
+    verify(addOnRepository, times(2)).findByNameInOfferedAt(any(), eq(DEFAULT_VENUE_ID));
+  }
+
+  @Test
+  void rateCardRegistryReloadsRatesChangedThroughAnotherInstance() {
+    AddOn seatRate = addonFactory.generateRandomAddon(1L);
+    seatRate.setName(SEAT_RATE_NAME);
+    seatRate.setPrice(3D);
+    AddOn newSeatRate = addonFactory.generateRandomAddon(1L);
+    newSeatRate.setName(SEAT_RATE_NAME);
+    newSeatRate.setPrice(4.25D);
+    RateCardRegistry otherInstance = new RateCardRegistry(this.addOnRepository);
+
+    when(this.addOnRepository.findByNameInOfferedAt(any(), eq(DEFAULT_VENUE_ID)))
+        .thenReturn(List.of(seatRate), List.of(seatRate), List.of(newSeatRate), List.of(newSeatRate));
+    when(this.addOnRepository.findRateCardVersion()).thenReturn(7L, 7L, 7L, 8L, 8L, 8L);
+    rateCardRegistry.current(DEFAULT_VENUE_ID);
+    otherInstance.current(DEFAULT_VENUE_ID);
+
+    // Nothing changed yet: the rate card is kept.
+    rateCardRegistry.synchronize();
+    assertEquals(7L, rateCardRegistry.current(DEFAULT_VENUE_ID).version());
+
+    otherInstance.recordChange();
+    assertEquals(3D, rateCardRegistry.current(DEFAULT_VENUE_ID).seatRate());
+
+    rateCardRegistry.synchronize();
+    assertEquals(8L, rateCardRegistry.current(DEFAULT_VENUE_ID).version());
+    assertEquals(4.25D, rateCardRegistry.current(DEFAULT_VENUE_ID).seatRate());
+    verify(addOnRepository, times(1)).incrementRateCardVersion();
+  }
+
   @Test
   void updateAddOnTestNonMatchingIdsCase() {
     long id = 1L;
@@ -0,0 +1,102 @@
+package com.zinphraek.leprestigehall.domain.analytics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AnalyticsServiceImplementationTest {
+
+  private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+
+  private static final LocalDate TO = LocalDate.of(2024, 2, 29);
+
+  @Mock
+  private ReservationRollups reservationRollups;
+
+  private AnalyticsServiceImplementation analyticsService;
+
+  @BeforeEach
+  void setUp() {
+    analyticsService = new AnalyticsServiceImplementation(reservationRollups);
+  }
+
+  @Test
+  void getReservationAnalyticsFoldsStatusesIntoOneRowPerPeriodAndEventType() {
+    LocalDate january = LocalDate.of(2024, 1, 1);
+    LocalDate february = LocalDate.of(2024, 2, 1);
+    when(reservationRollups.findTotals("month", FROM, TO, null, null)).thenReturn(List.of(
+        new ReservationRollupTotals(january, "Wedding", STATUS_BOOKED, 3, 300, 9000, 600),
+        new ReservationRollupTotals(january, "Wedding", STATUS_CANCELLED, 1, 100, 3000, 0),
+        new ReservationRollupTotals(january, "Wedding", STATUS_COMPLETED, 4, 250, 8000, 400),
+        new ReservationRollupTotals(february, "Birthday", STATUS_BOOKED, 2, 80, 1500, 100)));
+
+    List<ReservationAnalyticsRow> rows = analyticsService.getReservationAnalytics("month", FROM, TO, null, null);
+
+    assertEquals(2, rows.size());
+    ReservationAnalyticsRow weddings = rows.get(0);
+    assertEquals(january, weddings.period());
+    assertEquals("Wedding", weddings.eventType());
+    assertEquals(7, weddings.bookings());
+    assertEquals(1, weddings.cancellations());
+    assertEquals(0.125, weddings.cancellationRate());
+    assertEquals(550, weddings.seats());
+    assertEquals(17000, weddings.revenue());
+    assertEquals(1000, weddings.addOnRevenue());
+    assertEquals(
+        Map.of(STATUS_BOOKED, 3L, STATUS_CANCELLED, 1L, STATUS_COMPLETED, 4L), weddings.bookingsByStatus());
+
+    ReservationAnalyticsRow birthdays = rows.get(1);
+    assertEquals(february, birthdays.period());
+    assertEquals(2, birthdays.bookings());
+    assertEquals(0, birthdays.cancellationRate());
+  }
+
+  @Test
+  void getReservationAnalyticsRejectsUnknownIntervals() {
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> analyticsService.getReservationAnalytics("year", FROM, TO, null, null));
+
+    assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    verifyNoInteractions(reservationRollups);
+  }
+
+  @Test
+  void getReservationAnalyticsRejectsInvertedAndOversizedRanges() {
+    ResponseStatusException inverted = assertThrows(ResponseStatusException.class,
+        () -> analyticsService.getReservationAnalytics("day", TO, FROM, null, null));
+    ResponseStatusException oversized = assertThrows(ResponseStatusException.class,
+        () -> analyticsService.getReservationAnalytics(
+            "day", FROM, FROM.plusDays(ANALYTICS_MAX_RANGE_DAYS), null, null));
+
+    assertEquals(HttpStatus.BAD_REQUEST, inverted.getStatusCode());
+    assertEquals(HttpStatus.BAD_REQUEST, oversized.getStatusCode());
+    verifyNoInteractions(reservationRollups);
+  }
+
+  @Test
+  void getReservationAnalyticsReportsUnavailableDatabase() {
+    when(reservationRollups.findTotals(any(), any(), any(), any(), any()))
+        .thenThrow(new QueryTimeoutException("timeout"));
+
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> analyticsService.getReservationAnalytics("week", FROM, TO, "Wedding", null));
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+  }
+}
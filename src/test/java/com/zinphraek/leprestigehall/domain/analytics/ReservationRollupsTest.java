@@ -0,0 +1,256 @@
+package com.zinphraek.leprestigehall.domain.analytics;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zinphraek.leprestigehall.domain.reservation.Reservation;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.DATE_TIME_FORMAT;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.STATUS_BOOKED;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.STATUS_CANCELLED;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.STATUS_WITHDRAWN;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Applies sequences of reservation writes to a migrated PostgreSQL instance the way the reservation
+ * and repricing services do, keeping the rollups up to date with deltas, and checks the rollups
+ * then hold exactly what a rebuild from the reservations computes.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class ReservationRollupsTest {
+
+  private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(DATE_TIME_FORMAT);
+
+  private static final String INSERT_QUERY =
+      "INSERT INTO reservations (id, starting_date_time, ending_date_time, number_of_seats, event_type, "
+          + "is_full_package, add_ons_total_cost, status, is_security_deposit_refunded, tax_rate, total_price) "
+          + "VALUES (?, ?, ?, ?, ?, false, ?, ?, false, 0, ?)";
+
+  private static final String UPDATE_QUERY =
+      "UPDATE reservations SET starting_date_time = ?, ending_date_time = ?, number_of_seats = ?, event_type = ?, "
+          + "add_ons_total_cost = ?, status = ?, total_price = ? WHERE id = ?";
+
+  private static final String ROLLUPS_QUERY =
+      "SELECT day, event_type, status, bookings, seats, revenue, add_on_revenue FROM reservation_daily_rollups "
+          + "WHERE bookings <> 0 OR seats <> 0 OR revenue <> 0 OR add_on_revenue <> 0 ORDER BY 1, 2, 3";
+
+  private static final List<String> EVENT_TYPES = new ArrayList<>(List.of("Wedding", "Birthday", "Conference"));
+
+  private static final List<String> STATUSES = new ArrayList<>(List.of(STATUS_BOOKED, STATUS_CANCELLED, STATUS_WITHDRAWN));
+
+  static {
+    EVENT_TYPES.add(null);
+    STATUSES.add(null);
+  }
+
+  @Container
+  private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+  private static HikariDataSource dataSource;
+
+  private static JdbcTemplate jdbcTemplate;
+
+  private static ReservationRollups reservationRollups;
+
+  private final Map<Long, Reservation> reservations = new LinkedHashMap<>();
+
+  @BeforeAll
+  static void setUp() {
+    Flyway.configure()
+        .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+        .locations("classpath:db/migration")
+        .load()
+        .migrate();
+
+    HikariConfig config = new HikariConfig();
+    config.setJdbcUrl(postgres.getJdbcUrl());
+    config.setUsername(postgres.getUsername());
+    config.setPassword(postgres.getPassword());
+    dataSource = new HikariDataSource(config);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    reservationRollups = new ReservationRollups(jdbcTemplate, new DataSourceTransactionManager(dataSource));
+  }
+
+  @AfterAll
+  static void tearDown() {
+    dataSource.close();
+  }
+
+  @BeforeEach
+  void clear() {
+    jdbcTemplate.execute("TRUNCATE reservations, reservation_daily_rollups CASCADE");
+  }
+
+  @Test
+  void createMoveAndCancelMatchARebuild() {
+    Reservation wedding = create(1L, "2030-06-01T18:00", 120, "Wedding", STATUS_BOOKED, 2350.10, 150.0);
+    Reservation birthday = create(2L, "2030-06-01T12:00", 40, "Birthday", STATUS_BOOKED, 0.1 + 0.2, null);
+    create(3L, "2030-06-02T18:00", 80, "Wedding", null, 1999.995, 0.1 + 0.7);
+
+    move(List.of(1L, 2L, 3L), STATUS_WITHDRAWN);
+    move(List.of(2L, 3L), STATUS_BOOKED);
+    cancel(wedding);
+    cancel(birthday);
+
+    assertMatchesRebuild();
+  }
+
+  @ParameterizedTest(name = "seed {0}")
+  @ValueSource(longs = {1L, 7L, 42L, 2024L})
+  void randomWriteSequencesMatchARebuild(long seed) {
+    Random random = new Random(seed);
+    long nextId = 1L;
+
+    for (int step = 0; step < 300; step++) {
+      int action = reservations.isEmpty() ? 0 : random.nextInt(5);
+      switch (action) {
+        case 0 -> create(nextId++, randomStart(random), 1 + random.nextInt(300), pick(random, EVENT_TYPES),
+            pick(random, STATUSES), randomAmount(random), random.nextBoolean() ? randomAmount(random) : null);
+        case 1 -> {
+          List<Long> ids = new ArrayList<>();
+          for (Long id : reservations.keySet()) {
+            if (random.nextInt(4) == 0) {
+              ids.add(id);
+            }
+          }
+          move(ids, pick(random, STATUSES.subList(0, 3)));
+        }
+        case 2 -> cancel(pick(random, new ArrayList<>(reservations.values())));
+        case 3 -> {
+          Reservation reservation = pick(random, new ArrayList<>(reservations.values()));
+          update(reservation, () -> {
+            reservation.setStartingDateTime(randomStart(random).format(FORMATTER));
+            reservation.setNumberOfSeats(1 + random.nextInt(300));
+            reservation.setEventType(pick(random, EVENT_TYPES));
+            reservation.setTotalPrice(randomAmount(random));
+          });
+        }
+        default -> reprice(pick(random, new ArrayList<>(reservations.values())), randomAmount(random),
+            randomAmount(random));
+      }
+    }
+
+    assertMatchesRebuild();
+  }
+
+  /**
+   * Snapshot the rollups kept by the deltas, rebuild them and compare. Rows the deltas zeroed out
+   * are left out, as a rebuild never writes them.
+   */
+  private void assertMatchesRebuild() {
+    List<String> incremental = rollups();
+    assertFalse(incremental.isEmpty());
+
+    reservationRollups.rebuild();
+
+    assertEquals(rollups(), incremental);
+  }
+
+  private List<String> rollups() {
+    return jdbcTemplate.query(ROLLUPS_QUERY, (rs, rowNum) -> String.join(" | ",
+        rs.getString("day"), rs.getString("event_type"), rs.getString("status"),
+        rs.getString("bookings"), rs.getString("seats"),
+        rs.getBigDecimal("revenue").toPlainString(), rs.getBigDecimal("add_on_revenue").toPlainString()));
+  }
+
+  /**
+   * Insert a reservation and count it, as the reservation service does on creation.
+   */
+  private Reservation create(
+      long id, String start, int seats, String eventType, String status, double totalPrice, Double addOnsTotalCost) {
+    return create(id, LocalDateTime.parse(start), seats, eventType, status, totalPrice, addOnsTotalCost);
+  }
+
+  private Reservation create(
+      long id, LocalDateTime start, int seats, String eventType, String status, double totalPrice,
+      Double addOnsTotalCost) {
+    Reservation reservation = new Reservation();
+    reservation.setId(id);
+    reservation.setStartingDateTime(start.format(FORMATTER));
+    reservation.setNumberOfSeats(seats);
+    reservation.setEventType(eventType);
+    reservation.setStatus(status);
+    reservation.setTotalPrice(totalPrice);
+    reservation.setAddOnsTotalCost(addOnsTotalCost);
+
+    jdbcTemplate.update(INSERT_QUERY, id, start, start.plusHours(6), seats, eventType, addOnsTotalCost, status,
+        totalPrice);
+    reservationRollups.add(reservation);
+    reservations.put(id, reservation);
+    return reservation;
+  }
+
+  /**
+   * Rewrite a reservation, as the reservation service does on update: uncount, write, recount.
+   */
+  private void update(Reservation reservation, Runnable change) {
+    reservationRollups.subtract(reservation);
+    change.run();
+    jdbcTemplate.update(UPDATE_QUERY, reservation.getStartingDateTime(), reservation.getStartingDateTime().plusHours(6),
+        reservation.getNumberOfSeats(), reservation.getEventType(), reservation.getAddOnsTotalCost(),
+        reservation.getStatus(), reservation.getTotalPrice(), reservation.getId());
+    reservationRollups.add(reservation);
+  }
+
+  private void cancel(Reservation reservation) {
+    update(reservation, () -> reservation.setStatus(STATUS_CANCELLED));
+  }
+
+  /**
+   * Move reservations to a status in bulk, as the mass status update does.
+   */
+  private void move(List<Long> ids, String status) {
+    reservationRollups.moveStatus(ids, status);
+    jdbcTemplate.batchUpdate("UPDATE reservations SET status = ? WHERE id = ?",
+        ids.stream().map(id -> new Object[]{status, id}).toList());
+    ids.forEach(id -> reservations.get(id).setStatus(status));
+  }
+
+  /**
+   * Reprice a reservation and shift its revenue, as the repricing job does.
+   */
+  private void reprice(Reservation reservation, double totalPrice, double addOnsTotalCost) {
+    double previousTotalPrice = reservation.getTotalPrice();
+    Double previousAddOnsTotalCost = reservation.getAddOnsTotalCost();
+    reservation.setTotalPrice(totalPrice);
+    reservation.setAddOnsTotalCost(addOnsTotalCost);
+    jdbcTemplate.update("UPDATE reservations SET total_price = ?, add_ons_total_cost = ? WHERE id = ?",
+        totalPrice, addOnsTotalCost, reservation.getId());
+    reservationRollups.shiftRevenue(List.of(RevenueShift.of(reservation, previousTotalPrice, previousAddOnsTotalCost)));
+  }
+
+  private static LocalDateTime randomStart(Random random) {
+    return LocalDateTime.of(2030, 6, 1, 10, 0).plusDays(random.nextInt(5)).plusHours(random.nextInt(10));
+  }
+
+  /**
+   * An amount with more than two decimals, as computed prices often have.
+   */
+  private static double randomAmount(Random random) {
+    return random.nextInt(500_000) / 100.0 + random.nextInt(10) * 0.001 + 0.1 * random.nextInt(3);
+  }
+
+  private static <T> T pick(Random random, List<T> values) {
+    return values.get(random.nextInt(values.size()));
+  }
+}
@@ -0,0 +1,190 @@
+package com.zinphraek.leprestigehall.domain.email;
+
+import jakarta.mail.MessagingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailOutboxDispatcherTest {
+
+  @Mock
+  private OutboxEmailRepository outboxEmailRepository;
+  @Mock
+  private EmailServiceImplementation emailService;
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private EmailOutboxDispatcher dispatcher;
+
+  @BeforeEach
+  void setUp() {
+    dispatcher = new EmailOutboxDispatcher(outboxEmailRepository, emailService, transactionManager);
+  }
+
+  private OutboxEmail pendingEmail(long id, int attempts) {
+    OutboxEmail email = new OutboxEmail();
+    email.setId(id);
+    email.setRecipient("customer@example.com");
+    email.setAttempts(attempts);
+    email.setNextAttemptAt(LocalDateTime.now().minusMinutes(1));
+    return email;
+  }
+
+  @Test
+  void dispatchNextMarksDeliveredEmailsAsSent() throws MessagingException {
+    OutboxEmail email = pendingEmail(1L, 0);
+    when(outboxEmailRepository.claimNext(eq(OUTBOX_STATUS_PENDING), any())).thenReturn(Optional.of(email));
+
+    assertTrue(dispatcher.dispatchNext());
+
+    verify(emailService, times(1)).deliver(email);
+    // Once to mark it in flight, once to record the delivery.
+    verify(outboxEmailRepository, times(2)).save(email);
+    assertEquals(OUTBOX_STATUS_SENT, email.getStatus());
+    assertEquals(1, email.getAttempts());
+    assertNotNull(email.getSentAt());
+    assertNull(email.getLastError());
+  }
+
+  @Test
+  void dispatchNextSchedulesRetryWithBackoffOnFailure() throws MessagingException {
+    OutboxEmail email = pendingEmail(1L, 2);
+    when(outboxEmailRepository.claimNext(eq(OUTBOX_STATUS_PENDING), any())).thenReturn(Optional.of(email));
+    doThrow(new MailSendException("SMTP down")).when(emailService).deliver(email);
+
+    LocalDateTime before = LocalDateTime.now();
+    dispatcher.dispatchNext();
+
+    assertEquals(OUTBOX_STATUS_PENDING, email.getStatus());
+    assertEquals(3, email.getAttempts());
+    assertEquals("SMTP down", email.getLastError());
+    assertTrue(!email.getNextAttemptAt().isBefore(before.plusSeconds(OUTBOX_RETRY_BASE_SECONDS * 4)));
+    assertTrue(email.getNextAttemptAt().isBefore(before.plusSeconds(OUTBOX_RETRY_BASE_SECONDS * 4 + 60)));
+  }
+
+  @Test
+  void dispatchNextGivesUpAfterMaxAttempts() throws MessagingException {
+    OutboxEmail email = pendingEmail(1L, OUTBOX_MAX_ATTEMPTS - 1);
+    when(outboxEmailRepository.claimNext(eq(OUTBOX_STATUS_PENDING), any())).thenReturn(Optional.of(email));
+    doThrow(new MessagingException("Invalid address")).when(emailService).deliver(email);
+
+    dispatcher.dispatchNext();
+
+    assertEquals(OUTBOX_STATUS_FAILED, email.getStatus());
+    assertEquals(OUTBOX_MAX_ATTEMPTS, email.getAttempts());
+    assertNull(email.getSentAt());
+  }
+
+  @Test
+  void dispatchKeepsSendingAfterOneFailure() throws MessagingException {
+    OutboxEmail failing = pendingEmail(1L, 0);
+    OutboxEmail healthy = pendingEmail(2L, 0);
+    when(outboxEmailRepository.claimNext(eq(OUTBOX_STATUS_PENDING), any()))
+        .thenReturn(Optional.of(failing), Optional.of(healthy), Optional.empty());
+    doThrow(new MailSendException("Mailbox full")).when(emailService).deliver(failing);
+
+    dispatcher.dispatch();
+
+    assertEquals(OUTBOX_STATUS_PENDING, failing.getStatus());
+    assertEquals(OUTBOX_STATUS_SENT, healthy.getStatus());
+  }
+
+  @Test
+  void dispatchStopsOnceNoEmailIsDue() {
+    when(outboxEmailRepository.claimNext(eq(OUTBOX_STATUS_PENDING), any()))
+        .thenReturn(Optional.of(new OutboxEmail()), Optional.of(new OutboxEmail()), Optional.empty());
+
+    dispatcher.dispatch();
+
+    verify(outboxEmailRepository, times(3)).claimNext(eq(OUTBOX_STATUS_PENDING), any());
+    // One transaction to expire stale emails, one per claim and one per recorded outcome.
+    verify(transactionManager, times(1 + 3 + 2)).commit(any());
+  }
+
+  @Test
+  void dispatchClaimsEachEmailRightBeforeSendingIt() throws MessagingException {
+    OutboxEmail first = pendingEmail(1L, 0);
+    OutboxEmail second = pendingEmail(2L, 0);
+    when(outboxEmailRepository.claimNext(eq(OUTBOX_STATUS_PENDING), any()))
+        .thenReturn(Optional.of(first), Optional.of(second), Optional.empty());
+    // A dispatcher stopping during the first delivery must leave the second email pending.
+    doAnswer(invocation -> {
+      assertEquals(OUTBOX_STATUS_SENDING, first.getStatus());
+      assertEquals(0, second.getAttempts());
+      verify(outboxEmailRepository, times(1)).claimNext(eq(OUTBOX_STATUS_PENDING), any());
+      verify(transactionManager, times(2)).commit(any());
+      return null;
+    }).when(emailService).deliver(first);
+
+    dispatcher.dispatch();
+
+    verify(emailService, times(1)).deliver(first);
+    verify(emailService, times(1)).deliver(second);
+  }
+
+  @Test
+  void dispatchNeverResendsAnEmailWhoseOutcomeCouldNotBeCommitted() throws MessagingException {
+    OutboxEmail email = pendingEmail(1L, 0);
+    // The status the database holds, and the one written by the transaction in progress.
+    AtomicReference<String> committedStatus = new AtomicReference<>(OUTBOX_STATUS_PENDING);
+    AtomicReference<String> writtenStatus = new AtomicReference<>();
+
+    when(outboxEmailRepository.claimNext(eq(OUTBOX_STATUS_PENDING), any()))
+        .thenAnswer(invocation ->
+            OUTBOX_STATUS_PENDING.equals(committedStatus.get()) ? Optional.of(email) : Optional.empty());
+    when(outboxEmailRepository.save(email)).thenAnswer(invocation -> {
+      writtenStatus.set(email.getStatus());
+      return email;
+    });
+    // The connection drops while the delivery is being recorded.
+    doAnswer(invocation -> {
+      String written = writtenStatus.getAndSet(null);
+      if (OUTBOX_STATUS_SENT.equals(written)) {
+        throw new TransactionSystemException("Connection lost");
+      }
+      if (written != null) {
+        committedStatus.set(written);
+      }
+      return null;
+    }).when(transactionManager).commit(any());
+
+    dispatcher.dispatch();
+    dispatcher.dispatch();
+
+    verify(emailService, times(1)).deliver(email);
+    assertEquals(OUTBOX_STATUS_SENDING, committedStatus.get());
+  }
+
+  @Test
+  void dispatchGivesUpOnEmailsLeftInFlight() {
+    when(outboxEmailRepository.expireInFlight(
+        eq(OUTBOX_STATUS_SENDING), eq(OUTBOX_STATUS_FAILED), any(), eq(OUTBOX_IN_FLIGHT_EXPIRED_ERROR)))
+        .thenReturn(2);
+    when(outboxEmailRepository.claimNext(eq(OUTBOX_STATUS_PENDING), any())).thenReturn(Optional.empty());
+
+    dispatcher.dispatch();
+
+    verify(outboxEmailRepository, times(1)).expireInFlight(
+        eq(OUTBOX_STATUS_SENDING), eq(OUTBOX_STATUS_FAILED), any(), eq(OUTBOX_IN_FLIGHT_EXPIRED_ERROR));
+    verify(outboxEmailRepository, never()).save(any());
+  }
+}
@@ -0,0 +1,160 @@
+package com.zinphraek.leprestigehall.domain.email;
+
+import com.itextpdf.html2pdf.HtmlConverter;
+import com.zinphraek.leprestigehall.domain.invoice.Invoice;
+import com.zinphraek.leprestigehall.domain.receipt.Payment;
+import com.zinphraek.leprestigehall.domain.receipt.Receipt;
+import com.zinphraek.leprestigehall.domain.reservation.Reservation;
+import com.zinphraek.leprestigehall.domain.reservation.ReservationRate;
+import com.zinphraek.leprestigehall.domain.user.User;
+import com.zinphraek.leprestigehall.utilities.helpers.ReceiptServiceHelpers;
+import com.zinphraek.leprestigehall.utilities.helpers.ReservationServiceHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.*;
+
+/**
+ * Throughput of converting the invoice and receipt templates to PDF: {@code cold} is the default
+ * {@link HtmlConverter} call the renderer replaced, which loads its fonts on every conversion;
+ * {@code warm} is a conversion with the renderer's shared fonts and properties, and {@code pooled}
+ * is the full path through the renderer pool under concurrent callers.
+ * <p>
+ * Not run by the test suite. Run it from the IDE, or after {@code mvn test-compile} with the test
+ * classpath: {@code java -cp <test classpath> com.zinphraek.leprestigehall.domain.email.PdfRenderBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PdfRenderBenchmark {
+
+  private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(DATE_TIME_FORMAT);
+
+  @Param({INVOICE_PDF_TEMPLATE, RECEIPT_PDF_TEMPLATE})
+  public String template;
+
+  private String html;
+
+  private PdfRenderer renderer;
+
+  @Setup
+  public void setUp() {
+    ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+    resolver.setPrefix("templates/");
+    resolver.setSuffix(".html");
+    resolver.setTemplateMode(TemplateMode.HTML);
+    resolver.setCharacterEncoding("UTF-8");
+    SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+    templateEngine.setTemplateResolver(resolver);
+
+    Invoice invoice = invoice();
+    Attachment attachment = INVOICE_PDF_TEMPLATE.equals(template)
+        ? new ReservationServiceHelper().generateInvoiceAttachment(invoice)
+        : new ReceiptServiceHelpers().createReceiptAttachment(receipt(), invoice);
+    Context context = new Context();
+    context.setVariables(attachment.getVariables());
+    html = templateEngine.process(attachment.getTemplate(), context);
+
+    renderer = new PdfRenderer(new SimpleMeterRegistry());
+  }
+
+  @TearDown
+  public void tearDown() {
+    renderer.shutdown();
+  }
+
+  @Benchmark
+  public byte[] cold() {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    HtmlConverter.convertToPdf(html, outputStream);
+    return outputStream.toByteArray();
+  }
+
+  @Benchmark
+  public byte[] warm() {
+    return renderer.convert(html);
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public byte[] pooled() {
+    return renderer.render(template, html);
+  }
+
+  private static Invoice invoice() {
+    LocalDateTime start = LocalDateTime.of(2030, 6, 1, 18, 0);
+
+    Reservation reservation = new Reservation();
+    reservation.setStartingDateTime(start.format(FORMATTER));
+    reservation.setEndingDateTime(start.plusHours(6).format(FORMATTER));
+    reservation.setNumberOfSeats(120);
+    reservation.setTaxRate(0.075);
+    reservation.setTotalPrice(2350.0);
+    reservation.setRates(new ReservationRate(1L, 250.0, 1500.0, 150.0, 2.5));
+
+    User user = new User();
+    user.setUserId("benchmark-user");
+    user.setFirstName("Ada");
+    user.setLastName("Lovelace");
+    user.setEmail("ada@example.com");
+
+    Invoice invoice = new Invoice();
+    invoice.setInvoiceNumber("INV-000001");
+    invoice.setIssuedDate(start.minusMonths(2).format(FORMATTER));
+    invoice.setDueDate(start.minusWeeks(1).format(FORMATTER));
+    invoice.setAmountDue(1350.0);
+    invoice.setReservation(reservation);
+    invoice.setUser(user);
+    return invoice;
+  }
+
+  private static Receipt receipt() {
+    Payment payment = new Payment();
+    payment.setMethod("Card");
+    payment.setAmount(1000.0);
+
+    Receipt receipt = new Receipt();
+    receipt.setReceiptNumber("RCT-000001");
+    receipt.setReceiptDate(LocalDateTime.of(2030, 4, 1, 10, 0).format(FORMATTER));
+    receipt.setAmountPaid(1000.0);
+    receipt.setPayments(List.of(payment));
+    receipt.setTotalAmountPaidTillToday(1000.0);
+    receipt.setPaidBy("Ada Lovelace");
+    receipt.setPrevBalance(2350.0);
+    receipt.setBalanceDue(1350.0);
+    receipt.setCashierName("Front desk");
+    return receipt;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(PdfRenderBenchmark.class.getSimpleName()).build()).run();
+  }
+}
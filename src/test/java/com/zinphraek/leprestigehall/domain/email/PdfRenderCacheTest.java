@@ -0,0 +1,73 @@
+package com.zinphraek.leprestigehall.domain.email;
+
+import com.zinphraek.leprestigehall.domain.email.PdfRenderCache.RenderedPdf;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.INVOICE_PDF_TEMPLATE;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.RECEIPT_PDF_TEMPLATE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PdfRenderCacheTest {
+
+  private static final String HTML = "<html><body><p>Invoice INV-1</p></body></html>";
+
+  @TempDir
+  Path directory;
+
+  private PdfRenderer renderer;
+
+  @BeforeEach
+  void setUp() {
+    renderer = new PdfRenderer(new SimpleMeterRegistry());
+  }
+
+  @AfterEach
+  void tearDown() {
+    renderer.shutdown();
+  }
+
+  @Test
+  void theSameDocumentIsOnlyConvertedOnce() {
+    PdfRenderCache cache = new PdfRenderCache(new SpringTemplateEngine(), renderer, "");
+
+    RenderedPdf first = cache.render(INVOICE_PDF_TEMPLATE, HTML);
+    RenderedPdf second = cache.render(INVOICE_PDF_TEMPLATE, HTML);
+
+    assertEquals(first.key(), second.key());
+    assertSame(first.content(), second.content());
+  }
+
+  @Test
+  void anyChangeToTheDocumentYieldsANewKey() {
+    PdfRenderCache cache = new PdfRenderCache(new SpringTemplateEngine(), renderer, "");
+
+    RenderedPdf invoice = cache.render(INVOICE_PDF_TEMPLATE, HTML);
+
+    assertNotEquals(invoice.key(), cache.render(INVOICE_PDF_TEMPLATE, HTML.replace("INV-1", "INV-2")).key());
+    assertNotEquals(invoice.key(), cache.render(RECEIPT_PDF_TEMPLATE, HTML).key());
+  }
+
+  @Test
+  void convertedDocumentsAreServedFromDiskAfterARestart() {
+    RenderedPdf converted = new PdfRenderCache(new SpringTemplateEngine(), renderer, directory.toString())
+        .render(INVOICE_PDF_TEMPLATE, HTML);
+
+    assertTrue(Files.exists(directory.resolve(converted.key() + ".pdf")));
+    // A second conversion would embed a new document id and creation date.
+    RenderedPdf restarted = new PdfRenderCache(new SpringTemplateEngine(), renderer, directory.toString())
+        .render(INVOICE_PDF_TEMPLATE, HTML);
+    assertArrayEquals(converted.content(), restarted.content());
+  }
+}
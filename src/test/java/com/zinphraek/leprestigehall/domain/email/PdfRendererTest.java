@@ -0,0 +1,48 @@
+package com.zinphraek.leprestigehall.domain.email;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.INVOICE_PDF_TEMPLATE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PdfRendererTest {
+
+  private SimpleMeterRegistry meterRegistry;
+
+  private PdfRenderer renderer;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    renderer = new PdfRenderer(meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    renderer.shutdown();
+  }
+
+  @Test
+  void renderConvertsTheHtmlAndTimesItByTemplate() {
+    byte[] pdf = renderer.render(INVOICE_PDF_TEMPLATE, "<html><body><p>Invoice INV-1</p></body></html>");
+
+    assertTrue(new String(pdf, 0, 5, StandardCharsets.ISO_8859_1).startsWith("%PDF-"));
+    assertEquals(1, meterRegistry.get(PdfRenderer.RENDER_TIMER)
+        .tags("template", INVOICE_PDF_TEMPLATE, "outcome", "success").timer().count());
+  }
+
+  @Test
+  void aFailedConversionIsRecordedAsSuch() {
+    assertThrows(RuntimeException.class, () -> renderer.render(null, null));
+
+    assertEquals(1, meterRegistry.get(PdfRenderer.RENDER_TIMER)
+        .tags("template", "unknown", "outcome", "failure").timer().count());
+  }
+}
@@ -0,0 +1,177 @@
+package com.zinphraek.leprestigehall.domain.idempotency;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.web.server.ResponseStatusException;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.IDEMPOTENT_REPLAY_HEADER;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the idempotency store against a migrated PostgreSQL instance, with two stores standing in
+ * for two application replicas.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class IdempotencyKeysTest {
+
+  private static final String OPERATION = "POST /reservations";
+
+  @Container
+  private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+  private static JdbcTemplate jdbcTemplate;
+
+  private static DataSourceTransactionManager transactionManager;
+
+  private IdempotencyKeys firstReplica;
+
+  private IdempotencyKeys secondReplica;
+
+  record Booking(Long id, String eventType) {
+  }
+
+  @BeforeAll
+  static void migrate() {
+    Flyway.configure()
+        .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+        .locations("classpath:db/migration")
+        .load()
+        .migrate();
+    DriverManagerDataSource dataSource =
+        new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    transactionManager = new DataSourceTransactionManager(dataSource);
+    jdbcTemplate.execute("CREATE TABLE bookings (id BIGINT PRIMARY KEY)");
+  }
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate.update("DELETE FROM idempotency_keys");
+    jdbcTemplate.update("DELETE FROM bookings");
+    firstReplica = new IdempotencyKeys(jdbcTemplate, Jackson2ObjectMapperBuilder.json().build(), transactionManager);
+    secondReplica = new IdempotencyKeys(jdbcTemplate, Jackson2ObjectMapperBuilder.json().build(), transactionManager);
+  }
+
+  @Test
+  void retriesReplayTheFirstResponseWithoutRunningTheOperationAgain() {
+    AtomicInteger runs = new AtomicInteger();
+    Booking request = new Booking(null, "Wedding");
+
+    ResponseEntity<Booking> first = firstReplica.execute("key-1", OPERATION, request, Booking.class,
+        () -> new ResponseEntity<>(new Booking((long) runs.incrementAndGet(), "Wedding"), HttpStatus.CREATED));
+    ResponseEntity<Booking> retry = secondReplica.execute("key-1", OPERATION, request, Booking.class,
+        () -> new ResponseEntity<>(new Booking((long) runs.incrementAndGet(), "Wedding"), HttpStatus.CREATED));
+
+    assertEquals(1, runs.get());
+    assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+    assertEquals(first.getBody(), retry.getBody());
+    assertEquals("true", retry.getHeaders().getFirst(IDEMPOTENT_REPLAY_HEADER));
+  }
+
+  @Test
+  void reusingAKeyForADifferentRequestIsRejected() {
+    firstReplica.execute("key-2", OPERATION, new Booking(null, "Wedding"), Booking.class,
+        () -> new ResponseEntity<>(new Booking(1L, "Wedding"), HttpStatus.CREATED));
+
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> firstReplica.execute("key-2", OPERATION, new Booking(null, "Birthday"), Booking.class,
+            () -> new ResponseEntity<>(new Booking(2L, "Birthday"), HttpStatus.CREATED)));
+
+    assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, exception.getStatusCode());
+  }
+
+  @Test
+  void aFailedRequestReleasesItsKey() {
+    Booking request = new Booking(null, "Wedding");
+
+    assertThrows(ResponseStatusException.class, () -> firstReplica.execute("key-3", OPERATION, request, Booking.class,
+        () -> {
+          throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE);
+        }));
+    ResponseEntity<Booking> retry = firstReplica.execute("key-3", OPERATION, request, Booking.class,
+        () -> new ResponseEntity<>(new Booking(1L, "Wedding"), HttpStatus.CREATED));
+
+    assertEquals(new Booking(1L, "Wedding"), retry.getBody());
+    assertNull(retry.getHeaders().getFirst(IDEMPOTENT_REPLAY_HEADER));
+  }
+
+  @Test
+  void anOperationWhoseResponseCannotBeStoredIsRolledBack() {
+    Booking request = new Booking(null, "Wedding");
+
+    // The write commits only with the completed key; a response that cannot be stored undoes it.
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> firstReplica.execute("key-4", OPERATION, request, Object.class, () -> {
+          jdbcTemplate.update("INSERT INTO bookings (id) VALUES (1)");
+          return new ResponseEntity<>(new Object(), HttpStatus.CREATED);
+        }));
+    assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, exception.getStatusCode());
+    assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings", Integer.class));
+
+    ResponseEntity<Booking> retry = secondReplica.execute("key-4", OPERATION, request, Booking.class, () -> {
+      jdbcTemplate.update("INSERT INTO bookings (id) VALUES (1)");
+      return new ResponseEntity<>(new Booking(1L, "Wedding"), HttpStatus.CREATED);
+    });
+
+    assertEquals(new Booking(1L, "Wedding"), retry.getBody());
+    assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings", Integer.class));
+  }
+
+  @Test
+  void concurrentDuplicatesWaitForTheFirstRequest() throws Exception {
+    AtomicInteger runs = new AtomicInteger();
+    Booking request = new Booking(null, "Wedding");
+    String key = UUID.randomUUID().toString();
+    ExecutorService executor = Executors.newFixedThreadPool(16);
+    CountDownLatch startingGate = new CountDownLatch(1);
+    List<Future<ResponseEntity<Booking>>> responses = new ArrayList<>();
+
+    for (int i = 0; i < 32; i++) {
+      IdempotencyKeys replica = i % 2 == 0 ? firstReplica : secondReplica;
+      responses.add(executor.submit(() -> {
+        startingGate.await();
+        return replica.execute(key, OPERATION, request, Booking.class, () -> {
+          int run = runs.incrementAndGet();
+          sleep(300);
+          return new ResponseEntity<>(new Booking((long) run, "Wedding"), HttpStatus.CREATED);
+        });
+      }));
+    }
+
+    startingGate.countDown();
+    for (Future<ResponseEntity<Booking>> response : responses) {
+      assertEquals(new Booking(1L, "Wedding"), response.get().getBody());
+    }
+    executor.shutdown();
+
+    assertEquals(1, runs.get());
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package com.zinphraek.leprestigehall.domain.lifecycle;
+
+import com.zinphraek.leprestigehall.domain.analytics.ReservationRollups;
+import com.zinphraek.leprestigehall.domain.invoice.InvoiceRepository;
+import com.zinphraek.leprestigehall.domain.reservation.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StatusLifecycleEngineTest {
+
+  @Mock
+  private ReservationRepository reservationRepository;
+  @Mock
+  private InvoiceRepository invoiceRepository;
+  @Mock
+  private ReservationRollups reservationRollups;
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private StatusLifecycleEngine engine;
+
+  @BeforeEach
+  void setUp() {
+    engine = new StatusLifecycleEngine(
+        reservationRepository, invoiceRepository, reservationRollups, jdbcTemplate, transactionManager);
+  }
+
+  private void lockAvailable(boolean available) {
+    when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any(), any())).thenReturn(available);
+  }
+
+  @Test
+  void runAppliesEveryTransitionWithOneUpdatePerChunk() {
+    lockAvailable(true);
+    when(reservationRepository.findIdsEndedBefore(anyLong(), any(), any(), any())).thenReturn(List.of(4L, 9L));
+    when(reservationRepository.findIdsByStatusAndInvoiceStatus(anyLong(), eq(STATUS_DONE), eq(STATUS_PAID), any()))
+        .thenReturn(List.of());
+    when(invoiceRepository.findIdsToEscalate(anyLong(), any(), any(), any(), any())).thenReturn(List.of(3L));
+    when(invoiceRepository.findIdsDueBefore(anyLong(), any(), any(), any())).thenReturn(List.of());
+
+    engine.run();
+
+    verify(reservationRollups, times(1)).moveStatus(List.of(4L, 9L), STATUS_DONE);
+    verify(reservationRepository, times(1))
+        .updateStatusOfEndedByIdIn(eq(List.of(4L, 9L)), any(), any(), eq(STATUS_DONE));
+    verify(reservationRollups, never()).moveStatus(any(), eq(STATUS_COMPLETED));
+    verify(reservationRepository, never()).updateStatusByIdInAndStatus(any(), any(), any());
+    verify(invoiceRepository, times(1)).escalateByIdIn(eq(List.of(3L)), any(), any(), eq(STATUS_DUE));
+    verify(invoiceRepository, never()).updateStatusOfDueBeforeByIdIn(any(), any(), any(), any());
+    verify(transactionManager, times(4)).commit(any());
+  }
+
+  @Test
+  void runInChunksAdvancesTheCursorUntilAChunkComesBackShort() {
+    lockAvailable(true);
+    List<Long> fullChunk = LongStream.rangeClosed(1, LIFECYCLE_CHUNK_SIZE).boxed().toList();
+    List<Long> lastChunk = List.of(LIFECYCLE_CHUNK_SIZE + 1L);
+
+    int changed = engine.runInChunks("test", 1,
+        cursor -> cursor == 0L ? fullChunk : cursor == LIFECYCLE_CHUNK_SIZE ? lastChunk : List.of(),
+        List::size);
+
+    assertEquals(LIFECYCLE_CHUNK_SIZE + 1, changed);
+    verify(transactionManager, times(2)).commit(any());
+  }
+
+  @Test
+  void runInChunksLeavesTheTransitionToTheReplicaHoldingTheLock() {
+    lockAvailable(false);
+
+    int changed = engine.runInChunks("test", 1,
+        cursor -> {
+          throw new AssertionError("No chunk should be selected without the lock.");
+        },
+        List::size);
+
+    assertEquals(0, changed);
+    verify(jdbcTemplate, times(1))
+        .queryForObject(anyString(), eq(Boolean.class), eq(LIFECYCLE_ADVISORY_LOCK_NAMESPACE), anyInt());
+  }
+}
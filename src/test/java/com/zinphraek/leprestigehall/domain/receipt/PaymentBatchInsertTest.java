@@ -0,0 +1,116 @@
+package com.zinphraek.leprestigehall.domain.receipt;
+
+import com.zinphraek.leprestigehall.utilities.helpers.FactoriesUtilities;
+import org.flywaydb.core.Flyway;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Saves receipts with a growing number of payments against a migrated PostgreSQL instance and
+ * counts the prepared statements. With sequence ids and JDBC batching, the count does not depend
+ * on the number of payments.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class PaymentBatchInsertTest {
+
+  @Container
+  private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+  FactoriesUtilities utilities = new FactoriesUtilities();
+
+  @BeforeAll
+  static void migrate() {
+    Flyway.configure()
+        .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+        .locations("classpath:db/migration")
+        .load()
+        .migrate();
+  }
+
+  @Test
+  void paymentInsertsAreBatched() {
+    long fewPayments = preparedStatementsToSaveReceiptWith(2);
+    long manyPayments = preparedStatementsToSaveReceiptWith(40);
+
+    assertEquals(fewPayments, manyPayments);
+  }
+
+  /**
+   * Save a receipt with the provided number of payments through a fresh session factory, so each
+   * measurement starts by fetching a new block of ids.
+   */
+  private long preparedStatementsToSaveReceiptWith(int paymentCount) {
+    try (SessionFactory sessionFactory = buildSessionFactory()) {
+      Receipt receipt = generateReceipt(paymentCount);
+
+      try (Session session = sessionFactory.openSession()) {
+        session.beginTransaction();
+        session.persist(receipt);
+        session.getTransaction().commit();
+      }
+
+      try (Session session = sessionFactory.openSession()) {
+        Long savedPayments = session
+            .createQuery("SELECT COUNT(p) FROM Payment p WHERE p.receipt.id = :id", Long.class)
+            .setParameter("id", receipt.getId())
+            .getSingleResult();
+        assertEquals(paymentCount, savedPayments);
+      }
+
+      // The verification query above is not part of the measured save.
+      return sessionFactory.getStatistics().getPrepareStatementCount() - 1;
+    }
+  }
+
+  private SessionFactory buildSessionFactory() {
+    return new Configuration()
+        .addAnnotatedClass(Receipt.class)
+        .addAnnotatedClass(Payment.class)
+        .setPhysicalNamingStrategy(new CamelCaseToUnderscoresNamingStrategy())
+        .setProperty(AvailableSettings.URL, postgres.getJdbcUrl())
+        .setProperty(AvailableSettings.USER, postgres.getUsername())
+        .setProperty(AvailableSettings.PASS, postgres.getPassword())
+        .setProperty(AvailableSettings.HBM2DDL_AUTO, "none")
+        .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50")
+        .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+        .setProperty(AvailableSettings.ORDER_UPDATES, "true")
+        .setProperty(AvailableSettings.GENERATE_STATISTICS, "true")
+        .buildSessionFactory();
+  }
+
+  private Receipt generateReceipt(int paymentCount) {
+    String now = utilities.formatLocalDateTime(LocalDateTime.now());
+    Receipt receipt = new Receipt();
+    receipt.setReceiptNumber("RCP-" + paymentCount);
+    receipt.setReceiptDate(now);
+    receipt.setPaymentDate(now);
+    receipt.setAmountPaid(10D * paymentCount);
+    receipt.setReservationId(1L);
+    receipt.setInvoiceId(1L);
+    receipt.setUserId("testUserId");
+    receipt.setPaidBy("Test Customer");
+    receipt.setBalanceDue(0D);
+    receipt.setCashierName("Test Cashier");
+
+    List<Payment> payments = new ArrayList<>();
+    for (int i = 0; i < paymentCount; i++) {
+      payments.add(new Payment(receipt, "Cash", 10D, null, null));
+    }
+    receipt.setPayments(payments);
+    return receipt;
+  }
+}
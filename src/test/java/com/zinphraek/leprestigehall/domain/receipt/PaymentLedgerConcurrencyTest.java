@@ -0,0 +1,256 @@
+package com.zinphraek.leprestigehall.domain.receipt;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.LEDGER_ENTRY_REPRICING;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.STATUS_BOOKED;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.STATUS_DUE;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.STATUS_PAID;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.STATUS_PARTIALLY_PAID;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.STATUS_WITHDRAWN;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Posts hundreds of concurrent payments to the same two invoices, each posting to the ledger and
+ * saving its receipt in one transaction, and rolls every fifth payment back. No payment may be lost
+ * or counted twice, and the committed receipts of each invoice must be numbered 1 to n, without
+ * duplicates or gaps.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class PaymentLedgerConcurrencyTest {
+
+  private static final int PAYMENTS_PER_INVOICE = 100;
+
+  private static final double PAYMENT = 10.0;
+
+  private static final double PRICE = PAYMENTS_PER_INVOICE * PAYMENT;
+
+  private static final int THREADS = 32;
+
+  private static final String INSERT_RECEIPT_QUERY =
+      "INSERT INTO receipts (receipt_number, receipt_date, amount_paid, reservation_id, user_id, invoice_id, "
+          + "paid_by, payment_date, balance_due, cashier_name) VALUES (?, ?, ?, ?, 'payer', ?, 'Payer', ?, ?, 'Cashier')";
+
+  @Container
+  private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+  private static HikariDataSource dataSource;
+
+  private static JdbcTemplate jdbcTemplate;
+
+  private static PaymentLedger paymentLedger;
+
+  private static long userId;
+
+  @BeforeAll
+  static void setUp() {
+    Flyway.configure()
+        .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+        .locations("classpath:db/migration")
+        .load()
+        .migrate();
+
+    HikariConfig config = new HikariConfig();
+    config.setJdbcUrl(postgres.getJdbcUrl());
+    config.setUsername(postgres.getUsername());
+    config.setPassword(postgres.getPassword());
+    config.setMaximumPoolSize(THREADS);
+    dataSource = new HikariDataSource(config);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    paymentLedger = new PaymentLedger(jdbcTemplate, new DataSourceTransactionManager(dataSource));
+    userId = jdbcTemplate.queryForObject(
+        "INSERT INTO users (user_id, enabled) VALUES ('payer', true) RETURNING id", Long.class);
+  }
+
+  @AfterAll
+  static void tearDown() {
+    dataSource.close();
+  }
+
+  @Test
+  void concurrentPaymentsAreAllCountedWithGaplessNumbers() throws Exception {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    long[] reservationIds = {reservation(), reservation()};
+    long[] invoiceIds = {invoice(reservationIds[0]), invoice(reservationIds[1])};
+
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch startingGate = new CountDownLatch(1);
+    List<Future<?>> payments = new ArrayList<>();
+    for (int attempt = 0; attempt < 2 * PAYMENTS_PER_INVOICE; attempt++) {
+      int invoice = attempt % 2;
+      boolean rolledBack = attempt % 5 == 0;
+      payments.add(executor.submit(() -> {
+        startingGate.await();
+        return transactionTemplate.execute(status -> {
+          PaymentLedger.LedgerEntry entry = paymentLedger.postPayment(invoiceIds[invoice], PAYMENT);
+          LocalDateTime now = LocalDateTime.now();
+          jdbcTemplate.update(INSERT_RECEIPT_QUERY, entry.receiptNumber(), now, PAYMENT, reservationIds[invoice],
+              invoiceIds[invoice], now, entry.balanceAfter());
+          if (rolledBack) {
+            status.setRollbackOnly();
+          }
+          return entry;
+        });
+      }));
+    }
+
+    startingGate.countDown();
+    for (Future<?> payment : payments) {
+      payment.get();
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+    long committed = PAYMENTS_PER_INVOICE - PAYMENTS_PER_INVOICE / 5;
+    for (int invoice = 0; invoice < 2; invoice++) {
+      long reservationId = reservationIds[invoice];
+      long invoiceId = invoiceIds[invoice];
+      List<String> numbers = jdbcTemplate.queryForList(
+          "SELECT receipt_number FROM receipts WHERE invoice_id = ?", String.class, invoiceId);
+      Set<String> expected = LongStream.rangeClosed(1, committed)
+          .mapToObj(sequence -> "RR" + reservationId + "IN000" + invoiceId + "-" + sequence)
+          .collect(Collectors.toSet());
+
+      assertEquals(committed, numbers.size());
+      assertEquals(expected, Set.copyOf(numbers));
+      assertEquals(committed * PAYMENT, totalPaid(invoiceId), 1e-9);
+      assertEquals(PRICE - committed * PAYMENT, jdbcTemplate.queryForObject(
+          "SELECT amount_due FROM invoices WHERE id = ?", Double.class, invoiceId), 1e-9);
+      assertEquals(committed * PAYMENT, jdbcTemplate.queryForObject(
+          "SELECT SUM(amount) FROM payment_ledger_entries WHERE invoice_id = ?", Double.class, invoiceId), 1e-9);
+    }
+  }
+
+  @Test
+  void paymentsBeyondTheBalanceAreRejectedAndTheLastOneSettlesTheInvoice() {
+    long invoiceId = invoice(reservation());
+
+    assertThrows(ResponseStatusException.class, () -> paymentLedger.postPayment(invoiceId, PRICE + 1));
+    PaymentLedger.LedgerEntry entry = paymentLedger.postPayment(invoiceId, PRICE);
+
+    assertEquals(PRICE, entry.balanceBefore(), 1e-9);
+    assertEquals(0.0, entry.balanceAfter(), 1e-9);
+    assertEquals(STATUS_PAID, jdbcTemplate.queryForObject(
+        "SELECT status FROM invoices WHERE id = ?", String.class, invoiceId));
+    assertThrows(ResponseStatusException.class, () -> paymentLedger.postPayment(Long.MAX_VALUE, PAYMENT));
+  }
+
+  @Test
+  void adjustmentsCorrectThePaymentWithoutRewritingIt() {
+    long invoiceId = invoice(reservation());
+    PaymentLedger.LedgerEntry payment = paymentLedger.postPayment(invoiceId, 3 * PAYMENT);
+
+    PaymentLedger.LedgerEntry adjustment = paymentLedger.postAdjustment(invoiceId, payment.receiptNumber(), -PAYMENT);
+
+    assertEquals(2 * PAYMENT, adjustment.totalPaidAfter(), 1e-9);
+    assertEquals(2, jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM payment_ledger_entries WHERE receipt_number = ?", Integer.class, payment.receiptNumber()));
+    assertThrows(DataAccessException.class, () -> jdbcTemplate.update(
+        "UPDATE payment_ledger_entries SET amount = 0 WHERE invoice_id = ?", invoiceId));
+  }
+
+  @Test
+  void verifyRebuildsTheTotalsOfDriftedInvoicesFromTheLedger() {
+    long invoiceId = invoice(reservation());
+    paymentLedger.postPayment(invoiceId, PAYMENT);
+    jdbcTemplate.update(
+        "UPDATE invoices SET total_amount_paid = 999, amount_due = 1, status = ? WHERE id = ?", STATUS_PAID, invoiceId);
+
+    assertTrue(paymentLedger.verify() >= 1);
+
+    assertEquals(PAYMENT, totalPaid(invoiceId), 1e-9);
+    assertEquals(PRICE - PAYMENT, jdbcTemplate.queryForObject(
+        "SELECT amount_due FROM invoices WHERE id = ?", Double.class, invoiceId), 1e-9);
+    assertEquals(STATUS_PARTIALLY_PAID, status(invoiceId));
+    assertEquals(0, paymentLedger.verify());
+  }
+
+  @Test
+  void repricingMovesTheBalanceOfOpenInvoicesThroughTheLedger() {
+    long reservationId = reservation();
+    long invoiceId = invoice(reservationId);
+    long withdrawnReservationId = reservation();
+    long withdrawnInvoiceId = invoice(withdrawnReservationId);
+    paymentLedger.postPayment(invoiceId, PAYMENT);
+    jdbcTemplate.update("UPDATE invoices SET status = ? WHERE id = ?", STATUS_WITHDRAWN, withdrawnInvoiceId);
+
+    jdbcTemplate.update("UPDATE reservations SET total_price = ? WHERE id = ?", PRICE + 200, reservationId);
+    int repriced = paymentLedger.postRepricings(List.of(
+        new PaymentLedger.PriceChange(reservationId, PRICE, PRICE + 200),
+        new PaymentLedger.PriceChange(withdrawnReservationId, PRICE, PRICE + 200)));
+
+    assertEquals(1, repriced);
+    assertEquals(PAYMENT, totalPaid(invoiceId), 1e-9);
+    assertEquals(PRICE + 200 - PAYMENT, jdbcTemplate.queryForObject(
+        "SELECT amount_due FROM invoices WHERE id = ?", Double.class, invoiceId), 1e-9);
+    assertEquals(STATUS_PARTIALLY_PAID, status(invoiceId));
+    assertEquals(200.0, jdbcTemplate.queryForObject(
+        "SELECT amount FROM payment_ledger_entries WHERE invoice_id = ? AND kind = ?", Double.class,
+        invoiceId, LEDGER_ENTRY_REPRICING), 1e-9);
+    assertEquals(STATUS_WITHDRAWN, status(withdrawnInvoiceId));
+    // The repricing entry is not a payment: the invoice still matches its ledger.
+    assertEquals(0, paymentLedger.verify());
+  }
+
+  @Test
+  void deletingAnInvoiceTakesItsLedgerWithIt() {
+    long invoiceId = invoice(reservation());
+    paymentLedger.postPayment(invoiceId, PAYMENT);
+
+    jdbcTemplate.update("DELETE FROM invoices WHERE id = ?", invoiceId);
+
+    assertEquals(0, jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM payment_ledger_entries WHERE invoice_id = ?", Integer.class, invoiceId));
+  }
+
+  private static String status(long invoiceId) {
+    return jdbcTemplate.queryForObject("SELECT status FROM invoices WHERE id = ?", String.class, invoiceId);
+  }
+
+  private static double totalPaid(long invoiceId) {
+    return jdbcTemplate.queryForObject("SELECT total_amount_paid FROM invoices WHERE id = ?", Double.class, invoiceId);
+  }
+
+  private static long reservation() {
+    LocalDateTime start = LocalDateTime.now().plusMonths(1);
+    return jdbcTemplate.queryForObject(
+        "INSERT INTO reservations (starting_date_time, ending_date_time, number_of_seats, is_full_package, status, "
+            + "is_security_deposit_refunded, tax_rate, total_price) VALUES (?, ?, 1, false, ?, false, 0, ?) RETURNING id",
+        Long.class, start, start.plusHours(4), STATUS_BOOKED, PRICE);
+  }
+
+  private static long invoice(long reservationId) {
+    LocalDateTime now = LocalDateTime.now();
+    return jdbcTemplate.queryForObject(
+        "INSERT INTO invoices (issued_date, due_date, status, total_amount_paid, amount_due, reservation_id, user_id) "
+            + "VALUES (?, ?, ?, 0, ?, ?, ?) RETURNING id",
+        Long.class, now, now.plusWeeks(2), STATUS_DUE, PRICE, reservationId, userId);
+  }
+}
@@ -0,0 +1,158 @@
+package com.zinphraek.leprestigehall.domain.repricing;
+
+import com.zinphraek.leprestigehall.domain.addon.RateCard;
+import com.zinphraek.leprestigehall.domain.addon.RateCardRegistry;
+import com.zinphraek.leprestigehall.domain.analytics.ReservationRollups;
+import com.zinphraek.leprestigehall.domain.receipt.PaymentLedger;
+import com.zinphraek.leprestigehall.domain.reservation.RateAndDiscountInterner;
+import com.zinphraek.leprestigehall.domain.reservation.Reservation;
+import com.zinphraek.leprestigehall.domain.reservation.ReservationRate;
+import com.zinphraek.leprestigehall.domain.reservation.ReservationRepository;
+import com.zinphraek.leprestigehall.utilities.helpers.ReservationServiceHelper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.List;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReservationRepricingTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2030, 6, 1, 18, 0);
+
+  private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(DATE_TIME_FORMAT);
+
+  @Mock
+  private ReservationRepository reservationRepository;
+  @Mock
+  private RateCardRegistry rateCardRegistry;
+  @Mock
+  private RateAndDiscountInterner rateAndDiscountInterner;
+  @Mock
+  private ReservationRollups reservationRollups;
+  @Mock
+  private PaymentLedger paymentLedger;
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private ReservationRepricing repricing;
+
+  @BeforeEach
+  void setUp() {
+    repricing = new ReservationRepricing(reservationRepository, rateCardRegistry, rateAndDiscountInterner,
+        reservationRollups, new ReservationServiceHelper(), paymentLedger, jdbcTemplate, transactionManager);
+    when(rateCardRegistry.current(DEFAULT_VENUE_ID)).thenReturn(RateCard.from(2L, List.of()));
+    when(reservationRepository.findVenueIdsStartingAfter(any())).thenReturn(List.of(DEFAULT_VENUE_ID));
+  }
+
+  private Reservation reservation(long id) {
+    Reservation reservation = new Reservation();
+    reservation.setId(id);
+    reservation.setStartingDateTime(START.plusDays(id).format(FORMATTER));
+    reservation.setEndingDateTime(START.plusDays(id).plusHours(5).format(FORMATTER));
+    reservation.setNumberOfSeats(50);
+    reservation.setTaxRate(0.1);
+    reservation.setTotalPrice(100.0);
+    reservation.setStatus(STATUS_BOOKED);
+    reservation.setRateCardVersion(1L);
+    return reservation;
+  }
+
+  private void candidates(List<Long> ids) {
+    when(reservationRepository.findIdsToReprice(
+        eq(0L), eq(DEFAULT_VENUE_ID), any(), eq(STATUS_CANCELLED), eq(COMPUTATION_METHOD_MANUAL_FLAG), anyLong(), any()))
+        .thenReturn(ids);
+    when(reservationRepository.findForRepricingByIdIn(any())).thenAnswer(invocation ->
+        invocation.<Collection<Long>>getArgument(0).stream().map(this::reservation).toList());
+  }
+
+  @Test
+  void runWritesEachChunkInOneBatchPerTableAndSkipsRowsChangedMeanwhile() {
+    candidates(List.of(1L, 2L));
+    doAnswer(invocation -> {
+      invocation.<ReservationRate>getArgument(0).setId(7L);
+      return null;
+    }).when(rateAndDiscountInterner).intern(any(ReservationRate.class));
+    when(jdbcTemplate.batchUpdate(startsWith("UPDATE reservations"), anyList())).thenReturn(new int[]{1, 0});
+    when(paymentLedger.postRepricings(anyList())).thenReturn(1);
+
+    RepricingProgress progress = repricing.run(false, 10);
+
+    assertFalse(progress.running());
+    assertEquals(2, progress.scanned());
+    assertEquals(1, progress.repriced());
+    assertEquals(1, progress.skipped());
+    assertEquals(1, progress.invoicesUpdated());
+    assertEquals(List.of(1L), progress.diffs().stream().map(RepricingDiff::reservationId).toList());
+    // Both reservations share the same rates, which are only resolved once.
+    verify(rateAndDiscountInterner, times(1)).intern(any(ReservationRate.class));
+    verify(paymentLedger, times(1)).postRepricings(
+        argThat(changes -> changes.size() == 1 && changes.get(0).reservationId() == 1L));
+    verify(reservationRollups, times(1)).shiftRevenue(argThat(shifts -> shifts.size() == 1));
+  }
+
+  @Test
+  void dryRunReportsThePriceChangesWithoutWritingThem() {
+    candidates(List.of(1L, 2L));
+
+    RepricingProgress progress = repricing.run(true, 10);
+
+    assertEquals(2, progress.repriced());
+    assertEquals(2, progress.diffs().size());
+    assertEquals(100.0, progress.diffs().get(0).previousTotalPrice());
+    verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    verify(reservationRollups, never()).shiftRevenue(any());
+    verify(rateAndDiscountInterner, never()).intern(any(ReservationRate.class));
+  }
+
+  @Test
+  void runAdvancesTheCursorUntilAChunkComesBackShort() {
+    candidates(List.of(1L, 2L));
+    when(reservationRepository.findIdsToReprice(
+        eq(2L), eq(DEFAULT_VENUE_ID), any(), eq(STATUS_CANCELLED), eq(COMPUTATION_METHOD_MANUAL_FLAG), anyLong(), any()))
+        .thenReturn(List.of(3L));
+
+    RepricingProgress progress = repricing.run(true, 2);
+
+    assertEquals(3, progress.scanned());
+    verify(reservationRepository, times(2)).findForRepricingByIdIn(any());
+  }
+
+  @Test
+  void aFailedChunkIsCountedAndTheRunStillFinishes() {
+    when(reservationRepository.findIdsToReprice(
+        eq(0L), eq(DEFAULT_VENUE_ID), any(), eq(STATUS_CANCELLED), eq(COMPUTATION_METHOD_MANUAL_FLAG), anyLong(), any()))
+        .thenReturn(List.of(1L));
+    when(reservationRepository.findForRepricingByIdIn(any()))
+        .thenThrow(new DataAccessResourceFailureException("Connection lost"));
+
+    RepricingProgress progress = repricing.run(false, 10);
+
+    assertFalse(progress.running());
+    assertEquals(1, progress.failedChunks());
+    assertEquals(0, progress.scanned());
+    verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+  }
+}
@@ -0,0 +1,101 @@
+package com.zinphraek.leprestigehall.domain.reservation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RateAndDiscountInternerTest {
+
+  @Mock
+  private ReservationRateRepo reservationRateRepo;
+
+  @Mock
+  private ReservationDiscountRepo reservationDiscountRepo;
+
+  private RateAndDiscountInterner rateAndDiscountInterner;
+
+  @BeforeEach
+  void setUp() {
+    rateAndDiscountInterner = new RateAndDiscountInterner(reservationRateRepo, reservationDiscountRepo);
+  }
+
+  @Test
+  void internRateUpsertsAndSetsId() {
+    ReservationRate rate = new ReservationRate(null, 5d, 10d, 15d, 20d);
+    when(reservationRateRepo.upsert(any(), any(), any(), any(), anyString())).thenReturn(Optional.of(7L));
+
+    rateAndDiscountInterner.intern(rate);
+
+    assertEquals(7L, rate.getId());
+    assertNotNull(rate.getContentHash());
+    verify(reservationRateRepo, never()).findIdByContentHash(any());
+  }
+
+  @Test
+  void internIdenticalRateIsServedFromMemory() {
+    ReservationRate first = new ReservationRate(null, 5d, 10d, 15d, 20d);
+    ReservationRate second = new ReservationRate(null, 5d, 10d, 15d, 20d);
+    when(reservationRateRepo.upsert(any(), any(), any(), any(), anyString())).thenReturn(Optional.of(7L));
+
+    rateAndDiscountInterner.intern(first);
+    rateAndDiscountInterner.intern(second);
+
+    assertEquals(7L, second.getId());
+    assertEquals(first.getContentHash(), second.getContentHash());
+    verify(reservationRateRepo, times(1)).upsert(any(), any(), any(), any(), anyString());
+  }
+
+  @Test
+  void internDifferentRatesUpsertsEach() {
+    when(reservationRateRepo.upsert(any(), any(), any(), any(), anyString()))
+        .thenReturn(Optional.of(7L), Optional.of(8L));
+
+    ReservationRate first = new ReservationRate(null, 5d, 10d, 15d, 20d);
+    ReservationRate second = new ReservationRate(null, 5d, 10d, 15d, 25d);
+    rateAndDiscountInterner.intern(first);
+    rateAndDiscountInterner.intern(second);
+
+    assertEquals(7L, first.getId());
+    assertEquals(8L, second.getId());
+  }
+
+  @Test
+  void internDiscountFallsBackToLookupWhenUpsertReturnsNothing() {
+    ReservationDiscount discount = new ReservationDiscount();
+    discount.setType("Percentage");
+    discount.setPercentage(10D);
+    discount.setName("Spring");
+    when(reservationDiscountRepo.upsert(any(), any(), any(), any(), any(), any(), any(), anyString()))
+        .thenReturn(Optional.empty());
+    when(reservationDiscountRepo.findIdByContentHash(anyString())).thenReturn(Optional.of(3L));
+
+    rateAndDiscountInterner.intern(discount);
+
+    assertEquals(3L, discount.getId());
+    verify(reservationDiscountRepo, times(1)).findIdByContentHash(discount.getContentHash());
+  }
+
+  @Test
+  void internDiscountThrowsWhenRowCannotBeResolved() {
+    ReservationDiscount discount = new ReservationDiscount();
+    discount.setType("Flat");
+    discount.setAmount(50D);
+    when(reservationDiscountRepo.upsert(any(), any(), any(), any(), any(), any(), any(), anyString()))
+        .thenReturn(Optional.empty());
+    when(reservationDiscountRepo.findIdByContentHash(anyString())).thenReturn(Optional.empty());
+
+    assertThrows(IllegalStateException.class, () -> rateAndDiscountInterner.intern(discount));
+  }
+}
@@ -0,0 +1,197 @@
+package com.zinphraek.leprestigehall.domain.reservation;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.DEFAULT_VENUE_ID;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.HOLD_DEFAULT_MINUTES;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.HOLD_MAX_PER_USER;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.RESERVATION_BUFFER_HOURS;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.STATUS_BOOKED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fires hundreds of concurrent bookings, many of them for the same evening, through two admission
+ * layers sharing one migrated PostgreSQL instance, as two application replicas would. Each booking
+ * runs the same check-then-insert sequence as the reservation service, which double books without
+ * admission control. Holds placed by one customer on many days at once are checked against the
+ * per-customer cap the same way.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class ReservationAdmissionConcurrencyTest {
+
+  private static final int DAYS = 20;
+
+  private static final int ATTEMPTS_PER_DAY = 20;
+
+  private static final int THREADS = 32;
+
+  private static final String OVERLAP_QUERY =
+      "SELECT COUNT(*) FROM reservations WHERE starting_date_time <= ? "
+          + "AND COALESCE(effective_ending_date_time, ending_date_time) >= ?";
+
+  private static final String INSERT_QUERY =
+      "INSERT INTO reservations (starting_date_time, ending_date_time, number_of_seats, is_full_package, "
+          + "status, is_security_deposit_refunded, tax_rate, total_price) VALUES (?, ?, 1, false, ?, false, 0, 0)";
+
+  private static final String DOUBLE_BOOKINGS_QUERY =
+      "SELECT COUNT(*) FROM reservations a JOIN reservations b ON a.id < b.id "
+          + "AND a.starting_date_time < b.ending_date_time + ? * INTERVAL '1 hour' "
+          + "AND b.starting_date_time < a.ending_date_time + ? * INTERVAL '1 hour'";
+
+  @Container
+  private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+  private static HikariDataSource dataSource;
+
+  private final Logger logger = LogManager.getLogger(ReservationAdmissionConcurrencyTest.class);
+
+  @BeforeAll
+  static void setUp() {
+    Flyway.configure()
+        .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+        .locations("classpath:db/migration")
+        .load()
+        .migrate();
+
+    HikariConfig config = new HikariConfig();
+    config.setJdbcUrl(postgres.getJdbcUrl());
+    config.setUsername(postgres.getUsername());
+    config.setPassword(postgres.getPassword());
+    config.setMaximumPoolSize(THREADS);
+    dataSource = new HikariDataSource(config);
+  }
+
+  @AfterAll
+  static void tearDown() {
+    dataSource.close();
+  }
+
+  @Test
+  void concurrentBookingsNeverDoubleBook() throws Exception {
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    List<ReservationAdmission> replicas = List.of(
+        new ReservationAdmission(jdbcTemplate, new DataSourceTransactionManager(dataSource)),
+        new ReservationAdmission(jdbcTemplate, new DataSourceTransactionManager(dataSource)));
+
+    LocalDate firstDay = LocalDate.now().plusMonths(1);
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch startingGate = new CountDownLatch(1);
+    List<Future<Boolean>> outcomes = new ArrayList<>();
+
+    for (int attempt = 0; attempt < DAYS * ATTEMPTS_PER_DAY; attempt++) {
+      ReservationAdmission admission = replicas.get(attempt % replicas.size());
+      LocalDateTime start = firstDay.plusDays(attempt % DAYS).atTime(18, 0);
+      LocalDateTime end = start.plusHours(4);
+
+      outcomes.add(executor.submit(() -> {
+        startingGate.await();
+        return admission.admit(DEFAULT_VENUE_ID, start, end, () -> book(jdbcTemplate, start, end));
+      }));
+    }
+
+    long startedAt = System.nanoTime();
+    startingGate.countDown();
+    int booked = 0;
+    for (Future<Boolean> outcome : outcomes) {
+      if (outcome.get()) {
+        booked++;
+      }
+    }
+    long elapsedNanos = System.nanoTime() - startedAt;
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+    logger.info(String.format("Admitted %d booking attempts in %d ms (%.0f attempts/s).",
+        outcomes.size(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+        outcomes.size() / (elapsedNanos / 1e9)));
+
+    assertEquals(DAYS, booked);
+    assertEquals(DAYS, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reservations", Integer.class));
+    assertEquals(0, jdbcTemplate.queryForObject(
+        DOUBLE_BOOKINGS_QUERY, Integer.class, RESERVATION_BUFFER_HOURS, RESERVATION_BUFFER_HOURS));
+  }
+
+  @Test
+  void concurrentHoldsOfACustomerNeverExceedTheCap() throws Exception {
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    List<ReservationAdmission> admissions = List.of(
+        new ReservationAdmission(jdbcTemplate, new DataSourceTransactionManager(dataSource)),
+        new ReservationAdmission(jdbcTemplate, new DataSourceTransactionManager(dataSource)));
+    List<ReservationHolds> holds = List.of(new ReservationHolds(jdbcTemplate), new ReservationHolds(jdbcTemplate));
+
+    // Every hold is on its own day, so the admission locks never serialize two of them.
+    LocalDate firstDay = LocalDate.now().plusMonths(3);
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch startingGate = new CountDownLatch(1);
+    List<Future<Boolean>> outcomes = new ArrayList<>();
+
+    for (int attempt = 0; attempt < THREADS * 2; attempt++) {
+      ReservationAdmission admission = admissions.get(attempt % admissions.size());
+      ReservationHolds replica = holds.get(attempt % holds.size());
+      LocalDateTime start = firstDay.plusDays(attempt * 3L).atTime(18, 0);
+      LocalDateTime end = start.plusHours(4);
+
+      outcomes.add(executor.submit(() -> {
+        startingGate.await();
+        return admission.admit(DEFAULT_VENUE_ID, start, end, () -> {
+          replica.lockHolder("customer");
+          if (replica.countActive("customer") >= HOLD_MAX_PER_USER) {
+            return false;
+          }
+          replica.place("customer", DEFAULT_VENUE_ID, start, end, HOLD_DEFAULT_MINUTES);
+          return true;
+        });
+      }));
+    }
+
+    startingGate.countDown();
+    int placed = 0;
+    for (Future<Boolean> outcome : outcomes) {
+      if (outcome.get()) {
+        placed++;
+      }
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+    assertEquals(HOLD_MAX_PER_USER, placed);
+    assertEquals(HOLD_MAX_PER_USER, holds.get(0).countActive("customer"));
+  }
+
+  /**
+   * Book the window if nothing overlaps it, including the buffer around it.
+   */
+  private boolean book(JdbcTemplate jdbcTemplate, LocalDateTime start, LocalDateTime end) {
+    Integer overlapping = jdbcTemplate.queryForObject(OVERLAP_QUERY, Integer.class,
+        end.plusHours(RESERVATION_BUFFER_HOURS), start.minusHours(RESERVATION_BUFFER_HOURS));
+    if (overlapping != null && overlapping > 0) {
+      return false;
+    }
+
+    jdbcTemplate.update(INSERT_QUERY, start, end, STATUS_BOOKED);
+    return true;
+  }
+}
@@ -0,0 +1,81 @@
+package com.zinphraek.leprestigehall.domain.reservation;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReservationRecurrenceTest {
+
+  // A Wednesday.
+  private static final LocalDateTime FIRST = LocalDateTime.of(2031, 1, 1, 10, 0);
+
+  @Test
+  void weeklyRecurrenceStopsAfterCount() {
+    ReservationRecurrence recurrence = new ReservationRecurrence(RECURRENCE_WEEKLY, null, 3, null, null);
+
+    assertEquals(
+        List.of(FIRST, FIRST.plusWeeks(1), FIRST.plusWeeks(2)),
+        recurrence.expand(FIRST, MAX_SERIES_OCCURRENCES));
+  }
+
+  @Test
+  void weeklyRecurrenceOnSeveralDaysStopsAfterUntil() {
+    ReservationRecurrence recurrence = new ReservationRecurrence(
+        RECURRENCE_WEEKLY, 2, null, LocalDate.of(2031, 1, 17), Set.of(DayOfWeek.FRIDAY, DayOfWeek.MONDAY));
+
+    assertEquals(
+        List.of(
+            LocalDateTime.of(2031, 1, 3, 10, 0),
+            LocalDateTime.of(2031, 1, 13, 10, 0),
+            LocalDateTime.of(2031, 1, 17, 10, 0)),
+        recurrence.expand(FIRST, MAX_SERIES_OCCURRENCES));
+  }
+
+  @Test
+  void dailyRecurrenceSkipsByInterval() {
+    ReservationRecurrence recurrence = new ReservationRecurrence(RECURRENCE_DAILY, 3, 3, null, null);
+
+    assertEquals(
+        List.of(FIRST, FIRST.plusDays(3), FIRST.plusDays(6)),
+        recurrence.expand(FIRST, MAX_SERIES_OCCURRENCES));
+  }
+
+  @Test
+  void monthlyRecurrenceKeepsTheDayOfMonthWhenItCan() {
+    LocalDateTime first = LocalDateTime.of(2031, 1, 31, 10, 0);
+    ReservationRecurrence recurrence = new ReservationRecurrence(RECURRENCE_MONTHLY, null, 3, null, null);
+
+    assertEquals(
+        List.of(first, LocalDateTime.of(2031, 2, 28, 10, 0), LocalDateTime.of(2031, 3, 31, 10, 0)),
+        recurrence.expand(first, MAX_SERIES_OCCURRENCES));
+  }
+
+  @Test
+  void expandReturnsOneOccurrencePastTheLimit() {
+    ReservationRecurrence recurrence = new ReservationRecurrence(RECURRENCE_DAILY, null, null, LocalDate.of(2040, 1, 1), null);
+
+    assertEquals(11, recurrence.expand(FIRST, 10).size());
+  }
+
+  @Test
+  void expandReturnsNothingWithoutAnEnd() {
+    ReservationRecurrence recurrence = new ReservationRecurrence(RECURRENCE_WEEKLY, null, null, null, null);
+
+    assertTrue(recurrence.expand(FIRST, MAX_SERIES_OCCURRENCES).isEmpty());
+  }
+
+  @Test
+  void expandReturnsNothingForAnUnknownFrequency() {
+    ReservationRecurrence recurrence = new ReservationRecurrence("Yearly", null, 2, null, null);
+
+    assertTrue(recurrence.expand(FIRST, MAX_SERIES_OCCURRENCES).isEmpty());
+  }
+}
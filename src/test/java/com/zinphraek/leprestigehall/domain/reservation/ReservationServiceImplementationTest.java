@@ -1,24 +1,39 @@
 package com.zinphraek.leprestigehall.domain.reservation;
 
+import com.zinphraek.leprestigehall.domain.addon.AddOn;
 import com.zinphraek.leprestigehall.domain.addon.AddOnRepository;
+import com.zinphraek.leprestigehall.domain.addon.RateCardRegistry;
 import com.zinphraek.leprestigehall.domain.addon.RequestedAddOn;
 import com.zinphraek.leprestigehall.domain.addon.RequestedAddOnRepository;
+import com.zinphraek.leprestigehall.domain.analytics.ReservationRollups;
 import com.zinphraek.leprestigehall.domain.data.factories.AddonFactory;
 import com.zinphraek.leprestigehall.domain.data.factories.InvoiceFactory;
 import com.zinphraek.leprestigehall.domain.data.factories.ReservationFactory;
 import com.zinphraek.leprestigehall.domain.data.factories.UserFactory;
 import com.zinphraek.leprestigehall.domain.email.EmailServiceImplementation;
+import com.zinphraek.leprestigehall.domain.email.Mail;
 import com.zinphraek.leprestigehall.domain.invoice.Invoice;
 import com.zinphraek.leprestigehall.domain.invoice.InvoiceRepository;
 import com.zinphraek.leprestigehall.domain.invoice.InvoiceService;
 import com.zinphraek.leprestigehall.domain.sms.SMSServiceImplementation;
 import com.zinphraek.leprestigehall.domain.user.User;
 import com.zinphraek.leprestigehall.domain.user.UserServiceImpl;
+import com.zinphraek.leprestigehall.domain.venue.Venue;
+import com.zinphraek.leprestigehall.domain.venue.VenueRepository;
+import com.zinphraek.leprestigehall.utilities.helpers.CursorPage;
+import com.zinphraek.leprestigehall.utilities.helpers.CustomPage;
+import com.zinphraek.leprestigehall.utilities.helpers.ExportRowReader;
+import com.zinphraek.leprestigehall.utilities.helpers.ExportWriter;
 import com.zinphraek.leprestigehall.utilities.helpers.FactoriesUtilities;
+import com.zinphraek.leprestigehall.utilities.helpers.KeysetPaginator;
+import com.zinphraek.leprestigehall.utilities.helpers.ReservationQuoteEngine;
 import com.zinphraek.leprestigehall.utilities.helpers.ReservationServiceHelper;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -26,19 +41,50 @@ import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.DEFAULT_VENUE_ID;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.DISCOUNT_TYPE_AMOUNT;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.DISCOUNT_TYPE_PERCENTAGE;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.HOLD_DEFAULT_MINUTES;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.HOLD_MAX_MINUTES;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.HOLD_MAX_PER_USER;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.MAX_QUOTES_PER_REQUEST;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.MAX_SERIES_OCCURRENCES;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.RECURRENCE_DAILY;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.RECURRENCE_WEEKLY;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.STATUS_BOOKED;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.STATUS_CANCELLED;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.STATUS_DUE;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.STATUS_WITHDRAWN;
 import static com.zinphraek.leprestigehall.domain.constants.GenericResponseMessages.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -70,19 +116,50 @@ public class ReservationServiceImplementationTest {
   @Mock
   private RequestedAddOnRepository requestedAddOnRepository;
   @Mock
-  private ReservationDiscountRepo reservationDiscountRepo;
+  private RateAndDiscountInterner rateAndDiscountInterner;
+  @Mock
+  private KeysetPaginator keysetPaginator;
+  @Mock
+  private ReservationRollups reservationRollups;
+  @Mock
+  private ExportWriter exportWriter;
+  @Mock
+  private ExportRowReader exportRowReader;
+  @Mock
+  private ReservationHolds reservationHolds;
   @Mock
-  private ReservationRateRepo reservationRateRepo;
+  private JdbcTemplate jdbcTemplate;
+  @Mock
+  private PlatformTransactionManager transactionManager;
+  @Mock
+  private VenueRepository venueRepository;
   @InjectMocks
   private ReservationServiceImplementation reservationServiceImplementation;
 
+  private ReservationIntervalIndex intervalIndex;
+
 
   @BeforeEach
   void setUp() {
-    reservationServiceImplementation = new ReservationServiceImplementation(
+    intervalIndex = new ReservationIntervalIndex(reservationRepository);
+    reservationServiceImplementation = newInstance(intervalIndex);
+    Venue hall = new Venue(DEFAULT_VENUE_ID, "Le Prestige Hall", null, 200, true);
+    lenient().when(venueRepository.findById(any())).thenReturn(Optional.of(hall));
+    lenient().when(venueRepository.findAllById(any())).thenReturn(List.of(hall));
+  }
+
+  /**
+   * Build a service instance with its own interval index over the shared mocks, as another
+   * application replica would be.
+   */
+  private ReservationServiceImplementation newInstance(ReservationIntervalIndex index) {
+    return new ReservationServiceImplementation(
         serviceHelper, reservationRepository, emailService, smsService, userService,
         addOnRepository, invoiceRepository, invoiceService, requestedAddOnRepository,
-        reservationDiscountRepo, reservationRateRepo);
+        rateAndDiscountInterner, index, new ReservationAdmission(jdbcTemplate, transactionManager),
+        reservationRollups, new RateCardRegistry(addOnRepository),
+        new ReservationQuoteEngine(new ReservationServiceHelper()), keysetPaginator, exportWriter,
+        exportRowReader, reservationHolds, venueRepository);
   }
 
   // --------------------- Tests for createReservation ---------------------
@@ -104,6 +181,40 @@ public class ReservationServiceImplementationTest {
     verify(emailService, times(1)).sendEmail(any());
   }
 
+  @Test
+  void createReservationLocksEveryDayOfItsWindowAndCommits() {
+    Reservation reservation = reservationFactory.generateRandomReservation(1L, false, false);
+    User user = userFactory.generateRandomUser(utilities.generateRandomStringWithDefinedLength(16));
+    reservation.setUserId(user.getUserId());
+
+    when(userService.getUserById(any())).thenReturn(user);
+    when(serviceHelper.computeDueDate(any())).thenCallRealMethod();
+    doCallRealMethod().when(serviceHelper).computeTotalPrice(any(), any());
+
+    reservationServiceImplementation.createReservation(reservation);
+
+    int days = ReservationAdmission.daysCovered(
+        reservation.getStartingDateTime(), reservation.getEndingDateTime()).size();
+    verify(jdbcTemplate, times(days)).queryForObject(anyString(), eq(Integer.class), any(), any());
+    verify(reservationRollups, times(1)).add(reservation);
+    verify(transactionManager, times(1)).commit(any());
+    verify(transactionManager, never()).rollback(any());
+  }
+
+  @Test
+  void createReservationRollsBackWhenTimeSlotIsUnavailable() {
+    Reservation reservation = reservationFactory.generateRandomReservation(1L, false, false);
+
+    when(reservationRepository.existsOverlappingInterval(any(), any(), any(), any(), any())).thenReturn(true);
+
+    assertThrows(ResponseStatusException.class,
+        () -> reservationServiceImplementation.createReservation(reservation));
+
+    verify(reservationRollups, never()).add(any());
+    verify(transactionManager, times(1)).rollback(any());
+    verify(transactionManager, never()).commit(any());
+  }
+
   @Test
   void createReservationTestReservationWithAddOnSuccessfulCase() {
     Reservation reservation = reservationFactory.generateRandomReservation(1L, false, false);
@@ -113,7 +224,7 @@ public class ReservationServiceImplementationTest {
     reservation.setUserId(user.getUserId());
 
     when(userService.getUserById(any())).thenReturn(user);
-    when(addOnRepository.existsById(any())).thenReturn(true);
+    when(addOnRepository.findAllById(any())).thenReturn(List.of(requestedAddOn.getAddOn()));
     when(serviceHelper.computeDueDate(any())).thenCallRealMethod();
     doCallRealMethod().when(serviceHelper).computeTotalPrice(any(), any());
 
@@ -136,16 +247,12 @@ public class ReservationServiceImplementationTest {
     when(userService.getUserById(any())).thenReturn(user);
     when(serviceHelper.computeDueDate(any())).thenCallRealMethod();
     doCallRealMethod().when(serviceHelper).computeTotalPrice(any(), any());
-    when(reservationRateRepo.existsBySeatRateAndCleaningRateAndFacilityRateAndOvertimeRate(
-        any(), any(), any(), any()
-    )).thenReturn(true);
-    when(reservationRateRepo.findBySeatRateAndCleaningRateAndFacilityRateAndOvertimeRate(
-        any(), any(), any(), any()
-    )).thenReturn(Optional.of(reservationRates));
 
     Reservation createdReservation = reservationServiceImplementation.createReservation(reservation);
 
     assertEquals(reservation, createdReservation);
+    verify(rateAndDiscountInterner, times(1)).intern(any(ReservationRate.class));
+    verify(rateAndDiscountInterner, never()).intern(any(ReservationDiscount.class));
     verify(reservationRepository, times(1)).save(any());
     verify(invoiceRepository, times(1)).save(any());
     verify(emailService, times(1)).sendEmail(any());
@@ -168,6 +275,7 @@ public class ReservationServiceImplementationTest {
     Reservation createdReservation = reservationServiceImplementation.createReservation(reservation);
 
     assertEquals(reservation, createdReservation);
+    verify(rateAndDiscountInterner, times(1)).intern(reservationDiscount);
     verify(reservationRepository, times(1)).save(any());
     verify(invoiceRepository, times(1)).save(any());
     verify(emailService, times(1)).sendEmail(any());
@@ -186,16 +294,15 @@ public class ReservationServiceImplementationTest {
     when(userService.getUserById(any())).thenReturn(user);
     when(serviceHelper.computeDueDate(any())).thenCallRealMethod();
     doCallRealMethod().when(serviceHelper).computeTotalPrice(any(), any());
-    when(reservationDiscountRepo.existsByPercentageAndAmountAndNameAndCodeAndTypeAndIsAvailableAndDescription(
-        any(), any(), any(), any(), any(), any(), any()
-    )).thenReturn(true);
-    when(reservationDiscountRepo.findByPercentageAndAmountAndNameAndCodeAndTypeAndIsAvailableAndDescription(
-        any(), any(), any(), any(), any(), any(), any()
-    )).thenReturn(Optional.of(reservationDiscount));
+    doAnswer(invocation -> {
+      invocation.<ReservationDiscount>getArgument(0).setId(3L);
+      return null;
+    }).when(rateAndDiscountInterner).intern(any(ReservationDiscount.class));
 
     Reservation createdReservation = reservationServiceImplementation.createReservation(reservation);
 
     assertEquals(reservation, createdReservation);
+    assertEquals(3L, createdReservation.getDiscount().getId());
     verify(reservationRepository, times(1)).save(any());
     verify(invoiceRepository, times(1)).save(any());
     verify(emailService, times(1)).sendEmail(any());
@@ -269,7 +376,7 @@ public class ReservationServiceImplementationTest {
   void createReservationTestConflictingTimeSlotCase1() {
     Reservation reservation = reservationFactory.generateRandomReservation(1L, false, false);
 
-    when(reservationRepository.existsByStartingDateTimeBetweenAndStatusNot(any(), any(), any())).thenReturn(true);
+    when(reservationRepository.existsOverlappingInterval(any(), any(), any(), any(), any())).thenReturn(true);
 
     ResponseStatusException exception = assertThrows(ResponseStatusException.class,
         () -> reservationServiceImplementation.createReservation(reservation));
@@ -285,20 +392,146 @@ public class ReservationServiceImplementationTest {
   @Test
   void createReservationTestConflictingTimeSlotCase2() {
     Reservation reservation = reservationFactory.generateRandomReservation(1L, false, false);
-
-    when(reservationRepository.existsByEndingDateTimeBetweenAndStatusNot(any(), any(), any())).thenReturn(true);
+    Reservation enclosingReservation = reservationFactory.generateRandomReservation(2L, false, false);
+    enclosingReservation.setStartingDateTime(
+        utilities.formatLocalDateTime(reservation.getStartingDateTime().minusHours(6)));
+    enclosingReservation.setEndingDateTime(
+        utilities.formatLocalDateTime(reservation.getEndingDateTime().plusHours(6)));
+    intervalIndex.record(enclosingReservation);
+    when(reservationRepository.existsOverlappingInterval(any(), any(), any(), any(), any())).thenReturn(true);
 
     ResponseStatusException exception = assertThrows(ResponseStatusException.class,
         () -> reservationServiceImplementation.createReservation(reservation));
 
     assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
     assertEquals(UNAVAILABLE_TIME_SLOT_ERROR_MESSAGE, exception.getReason());
+    assertEquals(1, intervalIndex.size());
 
+    verify(reservationRepository, times(1)).existsOverlappingInterval(any(), any(), any(), any(), any());
     verify(reservationRepository, times(0)).save(any());
     verify(invoiceRepository, times(0)).save(any());
     verify(emailService, times(0)).sendEmail(any());
   }
 
+  @Test
+  void createReservationEvictsIndexedIntervalTheDatabaseDoesNotConfirm() {
+    Reservation reservation = reservationFactory.generateRandomReservation(1L, false, false);
+    Reservation staleReservation = reservationFactory.generateRandomReservation(2L, false, false);
+    staleReservation.setStartingDateTime(utilities.formatLocalDateTime(reservation.getStartingDateTime()));
+    staleReservation.setEndingDateTime(utilities.formatLocalDateTime(reservation.getEndingDateTime()));
+    intervalIndex.record(staleReservation);
+    User user = userFactory.generateRandomUser(utilities.generateRandomStringWithDefinedLength(16));
+    reservation.setUserId(user.getUserId());
+
+    when(userService.getUserById(any())).thenReturn(user);
+    when(serviceHelper.computeDueDate(any())).thenCallRealMethod();
+    doCallRealMethod().when(serviceHelper).computeTotalPrice(any(), any());
+
+    reservationServiceImplementation.createReservation(reservation);
+
+    assertEquals(List.of(ReservationInterval.of(reservation)), intervalIndex.findOverlapping(DEFAULT_VENUE_ID,
+        reservation.getStartingDateTime(), reservation.getEndingDateTime(), 0L));
+    verify(reservationRepository, times(1)).existsOverlappingInterval(any(), any(), any(), any(), any());
+  }
+
+  @Test
+  void createReservationIndexesIntervalOnlyOnceCommitted() {
+    Reservation committed = reservationFactory.generateRandomReservation(1L, false, false);
+    Reservation rolledBack = reservationFactory.generateRandomReservation(2L, false, false);
+    LocalDateTime start = LocalDate.now().plusDays(10).atTime(12, 0);
+    committed.setStartingDateTime(utilities.formatLocalDateTime(start));
+    committed.setEndingDateTime(utilities.formatLocalDateTime(start.plusHours(4)));
+    rolledBack.setStartingDateTime(utilities.formatLocalDateTime(start.plusDays(3)));
+    rolledBack.setEndingDateTime(utilities.formatLocalDateTime(start.plusDays(3).plusHours(4)));
+    User user = userFactory.generateRandomUser(utilities.generateRandomStringWithDefinedLength(16));
+    committed.setUserId(user.getUserId());
+    rolledBack.setUserId(user.getUserId());
+
+    when(userService.getUserById(any())).thenReturn(user);
+    when(serviceHelper.computeDueDate(any())).thenCallRealMethod();
+    doCallRealMethod().when(serviceHelper).computeTotalPrice(any(), any());
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      reservationServiceImplementation.createReservation(committed);
+      assertEquals(0, intervalIndex.size());
+      TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+      TransactionSynchronizationManager.clearSynchronization();
+
+      TransactionSynchronizationManager.initSynchronization();
+      reservationServiceImplementation.createReservation(rolledBack);
+      TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+          synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    assertEquals(1, intervalIndex.size());
+    assertEquals(List.of(ReservationInterval.of(committed)), intervalIndex.findOverlapping(DEFAULT_VENUE_ID,
+        committed.getStartingDateTime(), committed.getEndingDateTime(), 0L));
+  }
+
+  @Test
+  void createReservationOnlyConflictsWithBookingsOfTheSameVenue() {
+    Reservation reservation = reservationFactory.generateRandomReservation(1L, false, false);
+    Reservation otherVenueReservation = reservationFactory.generateRandomReservation(2L, false, false);
+    otherVenueReservation.setVenueId(2L);
+    otherVenueReservation.setStartingDateTime(utilities.formatLocalDateTime(reservation.getStartingDateTime()));
+    otherVenueReservation.setEndingDateTime(utilities.formatLocalDateTime(reservation.getEndingDateTime()));
+    intervalIndex.record(otherVenueReservation);
+    User user = userFactory.generateRandomUser(utilities.generateRandomStringWithDefinedLength(16));
+    reservation.setUserId(user.getUserId());
+
+    when(userService.getUserById(any())).thenReturn(user);
+    when(serviceHelper.computeDueDate(any())).thenCallRealMethod();
+    doCallRealMethod().when(serviceHelper).computeTotalPrice(any(), any());
+
+    reservationServiceImplementation.createReservation(reservation);
+
+    assertEquals(2, intervalIndex.size());
+    verify(reservationRepository, times(1)).existsOverlappingInterval(eq(DEFAULT_VENUE_ID), any(), any(), any(), any());
+    verify(reservationHolds, times(1)).existsOverlapping(eq(DEFAULT_VENUE_ID), any(), any(), any());
+    verify(reservationRepository, times(1)).save(reservation);
+  }
+
+  @Test
+  void createReservationThrowsBadRequestWhenVenueCannotSeatTheGuests() {
+    Reservation reservation = reservationFactory.generateRandomReservation(1L, false, false);
+    reservation.setNumberOfSeats(120);
+
+    when(venueRepository.findById(DEFAULT_VENUE_ID))
+        .thenReturn(Optional.of(new Venue(DEFAULT_VENUE_ID, "Le Petit Salon", null, 80, true)));
+
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> reservationServiceImplementation.createReservation(reservation));
+
+    assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    assertEquals(String.format(VENUE_CAPACITY_EXCEEDED_ERROR_MESSAGE, 80), exception.getReason());
+    verify(reservationRepository, never()).existsOverlappingInterval(any(), any(), any(), any(), any());
+    verify(reservationRepository, never()).save(any());
+  }
+
+  @Test
+  void createReservationThrowsBadRequestWhenAddOnIsNotOfferedAtTheVenue() {
+    Reservation reservation = reservationFactory.generateRandomReservation(1L, false, false);
+    RequestedAddOn requestedAddOn = addonFactory.generateRandomRequestedAddOn(1L, 5d);
+    requestedAddOn.getAddOn().setVenueId(2L);
+    reservation.setAddOns(List.of(requestedAddOn));
+    User user = userFactory.generateRandomUser(utilities.generateRandomStringWithDefinedLength(16));
+    reservation.setUserId(user.getUserId());
+
+    when(userService.getUserById(any())).thenReturn(user);
+    when(addOnRepository.findAllById(any())).thenReturn(List.of(requestedAddOn.getAddOn()));
+
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> reservationServiceImplementation.createReservation(reservation));
+
+    assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    assertEquals(String.format(ADD_ON_NOT_OFFERED_AT_VENUE_ERROR_MESSAGE, requestedAddOn.getAddOn().getId()),
+        exception.getReason());
+    verify(reservationRepository, never()).save(any());
+  }
+
   @Test
   void createReservationTestMissingUserIdCase() {
     Reservation reservation = reservationFactory.generateRandomReservation(1L, false, false);
@@ -353,7 +586,7 @@ public class ReservationServiceImplementationTest {
     verify(reservationRepository, times(0)).save(any());
     verify(invoiceRepository, times(0)).save(any());
     verify(emailService, times(0)).sendEmail(any());
-    verify(requestedAddOnRepository, times(0)).save(any());
+    verify(requestedAddOnRepository, times(0)).saveAll(any());
   }
 
   @Test
@@ -416,7 +649,7 @@ public class ReservationServiceImplementationTest {
   void createReservationThrowsConflictWhenTimeSlotIsUnavailable() {
     Reservation reservation = reservationFactory.generateRandomReservation(1L, false, false);
 
-    when(reservationRepository.existsByStartingDateTimeBetweenAndStatusNot(any(), any(), any())).thenReturn(true);
+    when(reservationRepository.existsOverlappingInterval(any(), any(), any(), any(), any())).thenReturn(true);
 
     ResponseStatusException exception = assertThrows(ResponseStatusException.class,
         () -> reservationServiceImplementation.createReservation(reservation));
@@ -475,8 +708,7 @@ public class ReservationServiceImplementationTest {
 
     when(reservationRepository.findById(any())).thenReturn(java.util.Optional.of(prevReservation));
     when(invoiceRepository.findByReservationId(any())).thenReturn(Optional.of(invoice));
-    when(addOnRepository.existsById(any())).thenReturn(true);
-    when(addOnRepository.existsById(any())).thenReturn(true);
+    when(addOnRepository.findAllById(any())).thenReturn(List.of(requestedAddOn.getAddOn()));
     doCallRealMethod().when(serviceHelper).computeTotalPrice(any(), any());
 
     Reservation updatedReservation = reservationServiceImplementation.updateReservation(reservation.getId(), reservation);
@@ -517,6 +749,23 @@ public class ReservationServiceImplementationTest {
     verify(reservationRepository, times(0)).save(any());
   }
 
+  @Test
+  void updateReservationTestMismatchingVenueCase() {
+    Reservation reservation = reservationFactory.generateRandomReservation(1L, false, false);
+    Reservation prevReservation = reservationFactory.generateRandomReservation(1L, false, false);
+    reservation.setVenueId(2L);
+
+    when(reservationRepository.findById(any())).thenReturn(java.util.Optional.of(prevReservation));
+
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> reservationServiceImplementation.updateReservation(reservation.getId(), reservation));
+
+    assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    assertEquals(String.format(FIELD_MISMATCH_ERROR_MESSAGE, "venue"), exception.getReason());
+
+    verify(reservationRepository, times(0)).save(any());
+  }
+
   @Test
   void updateReservationTestDataAccessExceptionCase() {
     Reservation reservation = reservationFactory.generateRandomReservation(1L, false, false);
@@ -597,7 +846,7 @@ public class ReservationServiceImplementationTest {
     existingReservation.setUserId(reservation.getUserId());
 
     when(reservationRepository.findById(any())).thenReturn(Optional.of(existingReservation));
-    when(reservationRepository.existsByStartingDateTimeBetweenAndStatusNotAndIdNot(any(), any(), any(), any())).thenReturn(true);
+    when(reservationRepository.existsOverlappingInterval(any(), any(), any(), any(), any())).thenReturn(true);
 
     ResponseStatusException exception = assertThrows(ResponseStatusException.class,
         () -> reservationServiceImplementation.updateReservation(1L, reservation));
@@ -613,7 +862,7 @@ public class ReservationServiceImplementationTest {
     existingReservation.setUserId(reservation.getUserId());
 
     when(reservationRepository.findById(any())).thenReturn(Optional.of(existingReservation));
-    when(reservationRepository.existsByStartingDateTimeBetweenAndStatusNotAndIdNot(any(), any(), any(), any())).thenReturn(true);
+    when(reservationRepository.existsOverlappingInterval(any(), any(), any(), any(), any())).thenReturn(true);
 
     ResponseStatusException exception = assertThrows(ResponseStatusException.class,
         () -> reservationServiceImplementation.updateReservation(1L, reservation));
@@ -622,6 +871,463 @@ public class ReservationServiceImplementationTest {
     assertEquals(UNAVAILABLE_TIME_SLOT_ERROR_MESSAGE, exception.getReason());
   }
 
+  // --------------------- Tests for getAvailability ---------------------
+
+  @Test
+  void getAvailabilityReturnsBusyBlockIncludingBuffer() {
+    LocalDate from = LocalDate.now().plusDays(10);
+    LocalDate to = from.plusDays(2);
+    Reservation reservation = reservationFactory.generateRandomReservation(1L, false, false);
+    reservation.setStartingDateTime(utilities.formatLocalDateTime(from.plusDays(1).atTime(12, 0)));
+    reservation.setEndingDateTime(utilities.formatLocalDateTime(from.plusDays(1).atTime(16, 0)));
+
+    when(reservationRepository.findIntervalsOverlapping(eq(DEFAULT_VENUE_ID), any(), any(), eq(STATUS_CANCELLED)))
+        .thenReturn(List.of(ReservationInterval.of(reservation)));
+
+    List<ReservationAvailabilityBlock> blocks =
+        reservationServiceImplementation.getAvailability(DEFAULT_VENUE_ID, from, to);
+
+    assertEquals(List.of(
+        new ReservationAvailabilityBlock(from.atStartOfDay(), from.plusDays(1).atTime(10, 0), true),
+        new ReservationAvailabilityBlock(from.plusDays(1).atTime(10, 0), from.plusDays(1).atTime(18, 0), false),
+        new ReservationAvailabilityBlock(from.plusDays(1).atTime(18, 0), to.plusDays(1).atStartOfDay(), true)
+    ), blocks);
+  }
+
+  @Test
+  void getAvailabilityMergesAdjacentReservations() {
+    LocalDate day = LocalDate.now().plusDays(5);
+    Reservation first = reservationFactory.generateRandomReservation(1L, false, false);
+    first.setStartingDateTime(utilities.formatLocalDateTime(day.atTime(8, 0)));
+    first.setEndingDateTime(utilities.formatLocalDateTime(day.atTime(11, 0)));
+    Reservation second = reservationFactory.generateRandomReservation(2L, false, false);
+    second.setStartingDateTime(utilities.formatLocalDateTime(day.atTime(14, 0)));
+    second.setEndingDateTime(utilities.formatLocalDateTime(day.atTime(23, 0)));
+
+    when(reservationRepository.findIntervalsOverlapping(eq(DEFAULT_VENUE_ID), any(), any(), eq(STATUS_CANCELLED)))
+        .thenReturn(List.of(ReservationInterval.of(first), ReservationInterval.of(second)));
+
+    List<ReservationAvailabilityBlock> blocks =
+        reservationServiceImplementation.getAvailability(DEFAULT_VENUE_ID, day, day);
+
+    assertEquals(List.of(
+        new ReservationAvailabilityBlock(day.atStartOfDay(), day.atTime(6, 0), true),
+        new ReservationAvailabilityBlock(day.atTime(6, 0), day.plusDays(1).atStartOfDay(), false)
+    ), blocks);
+  }
+
+  @Test
+  void getAvailabilityShowsBookingsMadeThroughAnotherInstance() {
+    LocalDate day = LocalDate.now().plusDays(12);
+    Reservation reservation = reservationFactory.generateRandomReservation(1L, false, false);
+    reservation.setStartingDateTime(utilities.formatLocalDateTime(day.atTime(12, 0)));
+    reservation.setEndingDateTime(utilities.formatLocalDateTime(day.atTime(16, 0)));
+    User user = userFactory.generateRandomUser(utilities.generateRandomStringWithDefinedLength(16));
+    reservation.setUserId(user.getUserId());
+    ReservationServiceImplementation otherInstance = newInstance(new ReservationIntervalIndex(reservationRepository));
+    List<ReservationInterval> persisted = new ArrayList<>();
+
+    when(userService.getUserById(any())).thenReturn(user);
+    when(serviceHelper.computeDueDate(any())).thenCallRealMethod();
+    doCallRealMethod().when(serviceHelper).computeTotalPrice(any(), any());
+    when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
+      persisted.add(ReservationInterval.of(invocation.getArgument(0)));
+      return invocation.getArgument(0);
+    });
+    when(reservationRepository.findIntervalsOverlapping(eq(DEFAULT_VENUE_ID), any(), any(), eq(STATUS_CANCELLED)))
+        .thenAnswer(invocation -> List.copyOf(persisted));
+
+    otherInstance.createReservation(reservation);
+    List<ReservationAvailabilityBlock> blocks =
+        reservationServiceImplementation.getAvailability(DEFAULT_VENUE_ID, day, day);
+
+    assertEquals(0, intervalIndex.size());
+    assertEquals(List.of(
+        new ReservationAvailabilityBlock(day.atStartOfDay(), day.atTime(10, 0), true),
+        new ReservationAvailabilityBlock(day.atTime(10, 0), day.atTime(18, 0), false),
+        new ReservationAvailabilityBlock(day.atTime(18, 0), day.plusDays(1).atStartOfDay(), true)
+    ), blocks);
+  }
+
+  @Test
+  void getAvailabilityThrowsBadRequestWhenRangeIsInvalid() {
+    LocalDate from = LocalDate.now().plusDays(1);
+
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> reservationServiceImplementation.getAvailability(DEFAULT_VENUE_ID, from, from.minusDays(1)));
+
+    assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    assertThrows(ResponseStatusException.class,
+        () -> reservationServiceImplementation.getAvailability(DEFAULT_VENUE_ID, from, from.plusYears(1)));
+  }
+
+  // --------------------- Tests for quoteReservations ---------------------
+
+  @Test
+  void quoteReservationsMatchesComputedTotalPrice() {
+    AddOn addOn = addonFactory.generateRandomAddon(7L);
+    addOn.setPrice(12.5);
+    LocalDateTime start = LocalDate.now().plusDays(3).atTime(18, 0);
+    ReservationDiscount discount = new ReservationDiscount();
+    discount.setType(DISCOUNT_TYPE_PERCENTAGE);
+    discount.setPercentage(10d);
+    ReservationQuoteRequest request = new ReservationQuoteRequest(
+        start, start.plusHours(11), null, 120, Map.of(7L, 4d), discount, 0.06, null);
+
+    when(addOnRepository.findAllById(any())).thenReturn(List.of(addOn));
+
+    List<ReservationQuote> quotes = reservationServiceImplementation.quoteReservations(List.of(request));
+
+    Reservation reservation = new Reservation();
+    reservation.setStartingDateTime(utilities.formatLocalDateTime(start));
+    reservation.setEndingDateTime(utilities.formatLocalDateTime(start.plusHours(11)));
+    reservation.setNumberOfSeats(120);
+    RequestedAddOn requestedAddOn = new RequestedAddOn();
+    requestedAddOn.setAddOn(addOn);
+    requestedAddOn.setQuantity(4d);
+    reservation.setAddOns(new ArrayList<>(List.of(requestedAddOn)));
+    reservation.setDiscount(discount);
+    reservation.setTaxRate(0.06);
+    new ReservationServiceHelper().computeTotalPrice(reservation, new RateCardRegistry(addOnRepository).current(DEFAULT_VENUE_ID));
+
+    assertEquals(1, quotes.size());
+    assertEquals(ReservationQuoteEngine.toCents(reservation.getTotalPrice()), quotes.get(0).totalCents(), 1L);
+    assertEquals(reservation.getRateCardVersion(), quotes.get(0).rateCardVersion());
+    assertEquals(5, quotes.get(0).lineItems().size());
+    verify(addOnRepository, times(1)).findAllById(any());
+  }
+
+  @Test
+  void quotedLineItemsMatchTheInvoiceRows() {
+    AddOn addOn = addonFactory.generateRandomAddon(7L);
+    addOn.setPrice(12.35);
+    LocalDateTime start = LocalDate.now().plusDays(3).atTime(18, 0);
+    ReservationQuoteRequest request = new ReservationQuoteRequest(
+        start, start.plusHours(6), start.plusHours(7).plusMinutes(20), 75, Map.of(7L, 3d), null, 0.06, null);
+
+    when(addOnRepository.findAllById(any())).thenReturn(List.of(addOn));
+
+    ReservationQuote quote = reservationServiceImplementation.quoteReservations(List.of(request)).get(0);
+
+    Reservation reservation = new Reservation();
+    reservation.setStartingDateTime(utilities.formatLocalDateTime(start));
+    reservation.setEndingDateTime(utilities.formatLocalDateTime(start.plusHours(6)));
+    reservation.setEffectiveEndingDateTime(utilities.formatLocalDateTime(start.plusHours(7).plusMinutes(20)));
+    reservation.setNumberOfSeats(75);
+    RequestedAddOn requestedAddOn = new RequestedAddOn();
+    requestedAddOn.setAddOn(addOn);
+    requestedAddOn.setQuantity(3d);
+    reservation.setAddOns(new ArrayList<>(List.of(requestedAddOn)));
+    reservation.setTaxRate(0.06);
+    ReservationServiceHelper helper = new ReservationServiceHelper();
+    helper.computeTotalPrice(reservation, new RateCardRegistry(addOnRepository).current(DEFAULT_VENUE_ID));
+    Invoice invoice = new Invoice();
+    invoice.setIssuedDate(utilities.formatLocalDateTime(start.minusDays(1)));
+    invoice.setDueDate(utilities.formatLocalDateTime(start));
+    invoice.setReservation(reservation);
+    invoice.setUser(new User());
+
+    @SuppressWarnings("unchecked")
+    List<Map<String, Object>> rows =
+        (List<Map<String, Object>>) helper.generateInvoiceAttachment(invoice).getVariables().get("rows");
+
+    assertEquals(quote.lineItems().size(), rows.size());
+    for (int i = 0; i < rows.size(); i++) {
+      ReservationQuoteLineItem lineItem = quote.lineItems().get(i);
+      assertEquals(String.valueOf(lineItem.position()), rows.get(i).get("col1"));
+      assertEquals(lineItem.service(), rows.get(i).get("col2"));
+      assertEquals(lineItem.rateCents() / 100d, rows.get(i).get("col4"));
+      assertEquals(lineItem.totalCents() / 100d, rows.get(i).get("col6"));
+    }
+  }
+
+  @Test
+  void quoteRequestsWithNegativeAmountsAreInvalid() {
+    LocalDateTime start = LocalDate.now().plusDays(3).atTime(18, 0);
+    ReservationQuoteRequest request = new ReservationQuoteRequest(
+        start, null, null, -1, Map.of(7L, -2d), null, -0.06, null);
+
+    try (ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory()) {
+      Set<String> invalidFields = validatorFactory.getValidator().validate(request).stream()
+          .map(violation -> violation.getPropertyPath().toString())
+          .collect(Collectors.toSet());
+
+      assertEquals(Set.of("endingDateTime", "numberOfSeats", "addOns[7].<map value>", "taxRate"), invalidFields);
+    }
+  }
+
+  @Test
+  void quoteReservationsThrowsBadRequestWhenBatchIsTooLarge() {
+    LocalDateTime start = LocalDate.now().plusDays(3).atTime(18, 0);
+    ReservationQuoteRequest request = new ReservationQuoteRequest(
+        start, start.plusHours(6), null, 50, null, null, null, null);
+
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> reservationServiceImplementation.quoteReservations(
+            Collections.nCopies(MAX_QUOTES_PER_REQUEST + 1, request)));
+
+    assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    assertEquals(String.format(INVALID_QUOTE_BATCH_SIZE_ERROR_MESSAGE, MAX_QUOTES_PER_REQUEST), exception.getReason());
+    verify(addOnRepository, never()).findAllById(any());
+  }
+
+  @Test
+  void quoteReservationsThrowsBadRequestWhenAddOnDoesNotExist() {
+    LocalDateTime start = LocalDate.now().plusDays(3).atTime(18, 0);
+    ReservationQuoteRequest request = new ReservationQuoteRequest(
+        start, start.plusHours(6), null, 50, Map.of(42L, 1d), null, null, null);
+
+    when(addOnRepository.findAllById(any())).thenReturn(List.of());
+
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> reservationServiceImplementation.quoteReservations(List.of(request)));
+
+    assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    assertEquals(String.format(RESERVATION_WITH_NON_EXISTENT_ADD_ON_ERROR_MESSAGE, 42L), exception.getReason());
+  }
+
+  @Test
+  void quoteReservationsThrowsBadRequestWhenDiscountHasNoValue() {
+    LocalDateTime start = LocalDate.now().plusDays(3).atTime(18, 0);
+    ReservationDiscount percentage = new ReservationDiscount();
+    percentage.setType(DISCOUNT_TYPE_PERCENTAGE);
+    ReservationDiscount amount = new ReservationDiscount();
+    amount.setType(DISCOUNT_TYPE_AMOUNT);
+
+    Map.of(percentage, "discount percentage", amount, "discount amount").forEach((discount, missingField) -> {
+      ReservationQuoteRequest request = new ReservationQuoteRequest(
+          start, start.plusHours(6), null, 50, null, discount, null, null);
+
+      ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+          () -> reservationServiceImplementation.quoteReservations(List.of(request)));
+
+      assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+      assertEquals(String.format(MISSING_FIELD_ERROR_MESSAGE, missingField), exception.getReason());
+    });
+  }
+
+  @Test
+  void quoteRequestsWithoutDiscountTypeAreInvalid() {
+    LocalDateTime start = LocalDate.now().plusDays(3).atTime(18, 0);
+    ReservationQuoteRequest request = new ReservationQuoteRequest(
+        start, start.plusHours(6), null, 50, null, new ReservationDiscount(), null, null);
+
+    try (ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory()) {
+      Set<String> invalidFields = validatorFactory.getValidator().validate(request).stream()
+          .map(violation -> violation.getPropertyPath().toString())
+          .collect(Collectors.toSet());
+
+      assertEquals(Set.of("discount.type"), invalidFields);
+    }
+  }
+
+  // --------------------- Tests for createReservationSeries ---------------------
+
+  @Test
+  void createReservationSeriesBooksFreeOccurrencesAndReportsConflicts() {
+    AddOn addOn = addonFactory.generateRandomAddon(7L);
+    User user = userFactory.generateRandomUser(utilities.generateRandomStringWithDefinedLength(16));
+    LocalDateTime start = LocalDate.now().plusDays(10).atTime(10, 0);
+    Reservation template = reservationFactory.generateRandomReservation(null, false, false);
+    template.setStartingDateTime(utilities.formatLocalDateTime(start));
+    template.setEndingDateTime(utilities.formatLocalDateTime(start.plusHours(3)));
+    template.setUserId(user.getUserId());
+    template.setAddOns(List.of(new RequestedAddOn(null, addOn, null, 2d)));
+    ReservationSeriesRequest seriesRequest = new ReservationSeriesRequest(
+        template, new ReservationRecurrence(RECURRENCE_WEEKLY, null, 4, null, null));
+
+    when(userService.getUserById(any())).thenReturn(user);
+    when(addOnRepository.findAllById(any())).thenReturn(List.of(addOn));
+    when(reservationRepository.findIntervalsOverlapping(eq(DEFAULT_VENUE_ID), any(), any(), eq(STATUS_CANCELLED))).thenReturn(
+        List.of(new ReservationInterval(99L, DEFAULT_VENUE_ID, start.plusWeeks(1).minusHours(1), start.plusWeeks(1).plusHours(1))));
+    when(serviceHelper.computeDueDate(any())).thenCallRealMethod();
+    doCallRealMethod().when(serviceHelper).computeTotalPrice(any(), any());
+
+    ReservationSeries series = reservationServiceImplementation.createReservationSeries(seriesRequest);
+
+    assertEquals(3, series.booked());
+    assertEquals(4, series.occurrences().size());
+    assertEquals(UNAVAILABLE_TIME_SLOT_ERROR_MESSAGE, series.occurrences().get(1).conflict());
+    assertEquals(start.plusWeeks(3), series.occurrences().get(3).startingDateTime());
+    assertNull(series.occurrences().get(3).conflict());
+    verify(reservationRepository, times(1)).findIntervalsOverlapping(any(), any(), any(), any());
+    verify(reservationRepository, never()).existsOverlappingInterval(any(), any(), any(), any(), any());
+    verify(reservationRepository, times(1)).saveAll(argThat(reservations -> ((List<?>) reservations).size() == 3));
+    verify(requestedAddOnRepository, times(1)).saveAll(argThat(addOns -> ((List<?>) addOns).size() == 3));
+    verify(invoiceRepository, times(1)).saveAll(argThat(invoices -> ((List<?>) invoices).size() == 3));
+    verify(addOnRepository, times(1)).findAllById(any());
+    verify(emailService, times(1)).sendEmails(argThat(mails -> mails.size() == 3));
+    verify(reservationRollups, times(3)).add(any());
+    // Only the four days of the series are locked, in a single transaction.
+    verify(jdbcTemplate, times(4)).queryForObject(anyString(), eq(Integer.class), any(), any());
+    verify(transactionManager, times(1)).commit(any());
+  }
+
+  @Test
+  void createReservationSeriesThrowsBadRequestWhenRecurrenceHasNoEnd() {
+    Reservation template = reservationFactory.generateRandomReservation(null, false, false);
+    ReservationSeriesRequest seriesRequest = new ReservationSeriesRequest(
+        template, new ReservationRecurrence(RECURRENCE_WEEKLY, null, null, null, null));
+
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> reservationServiceImplementation.createReservationSeries(seriesRequest));
+
+    assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    assertEquals(String.format(INVALID_RECURRENCE_ERROR_MESSAGE, MAX_SERIES_OCCURRENCES), exception.getReason());
+    verify(transactionManager, never()).getTransaction(any());
+  }
+
+  @Test
+  void createReservationSeriesThrowsBadRequestWhenSeriesIsTooLong() {
+    Reservation template = reservationFactory.generateRandomReservation(null, false, false);
+    ReservationSeriesRequest seriesRequest = new ReservationSeriesRequest(
+        template, new ReservationRecurrence(RECURRENCE_DAILY, null, MAX_SERIES_OCCURRENCES + 1, null, null));
+
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> reservationServiceImplementation.createReservationSeries(seriesRequest));
+
+    assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    verify(reservationRepository, never()).findIntervalsOverlapping(any(), any(), any(), any());
+  }
+
+  // --------------------- Tests for reservation holds ---------------------
+
+  @Test
+  void createReservationThrowsConflictWhenWindowIsHeldForAnotherCustomer() {
+    Reservation reservation = reservationFactory.generateRandomReservation(1L, false, false);
+
+    when(reservationHolds.existsOverlapping(any(), any(), any(), eq(reservation.getUserId()))).thenReturn(true);
+
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> reservationServiceImplementation.createReservation(reservation));
+
+    assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+    assertEquals(HELD_TIME_SLOT_ERROR_MESSAGE, exception.getReason());
+    verify(reservationRepository, never()).save(any());
+  }
+
+  @Test
+  void createReservationReleasesTheHoldsOfTheCustomer() {
+    Reservation reservation = reservationFactory.generateRandomReservation(1L, false, false);
+    User user = userFactory.generateRandomUser(utilities.generateRandomStringWithDefinedLength(16));
+    reservation.setUserId(user.getUserId());
+
+    when(userService.getUserById(any())).thenReturn(user);
+    when(serviceHelper.computeDueDate(any())).thenCallRealMethod();
+    doCallRealMethod().when(serviceHelper).computeTotalPrice(any(), any());
+
+    reservationServiceImplementation.createReservation(reservation);
+
+    verify(reservationHolds, times(1)).releaseOverlapping(
+        user.getUserId(), DEFAULT_VENUE_ID, reservation.getStartingDateTime(), reservation.getEndingDateTime());
+  }
+
+  @Test
+  void placeHoldHoldsAFreeWindowForTheDefaultDuration() {
+    LocalDateTime start = LocalDate.now().plusDays(4).atTime(18, 0);
+    ReservationHold hold = new ReservationHold(
+        "hold", "user", DEFAULT_VENUE_ID, start, start.plusHours(6), LocalDateTime.now());
+
+    when(reservationHolds.place("user", DEFAULT_VENUE_ID, start, start.plusHours(6), HOLD_DEFAULT_MINUTES)).thenReturn(hold);
+
+    assertEquals(hold, reservationServiceImplementation.placeHold(
+        "user", new ReservationHoldRequest(start, start.plusHours(6), null, null, null)));
+    verify(transactionManager, times(1)).commit(any());
+  }
+
+  @Test
+  void placeHoldThrowsBadRequestWhenHoldIsTooLong() {
+    LocalDateTime start = LocalDate.now().plusDays(4).atTime(18, 0);
+
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> reservationServiceImplementation.placeHold(
+            "user", new ReservationHoldRequest(start, start.plusHours(6), null, HOLD_MAX_MINUTES + 1, null)));
+
+    assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    verify(reservationHolds, never()).place(any(), any(), any(), any(), anyInt());
+  }
+
+  @Test
+  void placeHoldThrowsConflictWhenCustomerHoldsTooManyDates() {
+    LocalDateTime start = LocalDate.now().plusDays(4).atTime(18, 0);
+
+    when(reservationHolds.countActive("user")).thenReturn(HOLD_MAX_PER_USER);
+
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> reservationServiceImplementation.placeHold(
+            "user", new ReservationHoldRequest(start, start.plusHours(6), null, null, null)));
+
+    assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+    assertEquals(String.format(TOO_MANY_HOLDS_ERROR_MESSAGE, HOLD_MAX_PER_USER), exception.getReason());
+    InOrder inOrder = inOrder(reservationHolds);
+    inOrder.verify(reservationHolds).lockHolder("user");
+    inOrder.verify(reservationHolds).countActive("user");
+    verify(reservationHolds, never()).place(any(), any(), any(), any(), anyInt());
+    verify(transactionManager, times(1)).rollback(any());
+  }
+
+  @Test
+  void releaseHoldThrowsNotFoundWhenCustomerDoesNotHoldIt() {
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> reservationServiceImplementation.releaseHold("user", "hold"));
+
+    assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+  }
+
+  @Test
+  void getAvailabilityReportsHeldWindowsAsBusy() {
+    LocalDate day = LocalDate.now().plusDays(5);
+    ReservationHold hold = new ReservationHold(
+        "hold", "user", DEFAULT_VENUE_ID, day.atTime(12, 0), day.atTime(15, 0), LocalDateTime.now().plusMinutes(10));
+
+    when(reservationHolds.findActiveOverlapping(eq(DEFAULT_VENUE_ID), any(), any(), eq(null))).thenReturn(List.of(hold));
+
+    List<ReservationAvailabilityBlock> blocks =
+        reservationServiceImplementation.getAvailability(DEFAULT_VENUE_ID, day, day);
+
+    assertEquals(List.of(
+        new ReservationAvailabilityBlock(day.atStartOfDay(), day.atTime(10, 0), true),
+        new ReservationAvailabilityBlock(day.atTime(10, 0), day.atTime(17, 0), false),
+        new ReservationAvailabilityBlock(day.atTime(17, 0), day.plusDays(1).atStartOfDay(), true)
+    ), blocks);
+  }
+
+  // --------------------- Tests for getReservationsByCursor ---------------------
+
+  @Test
+  void getReservationsByCursorSeeksWithoutCounting() {
+    Reservation reservation = reservationFactory.generateRandomReservation(1L, false, false);
+    CursorPage<Reservation> page = new CursorPage<>(List.of(reservation), 1, "next");
+    Map<String, String> params = new HashMap<>(utilities.getCustomPageTestParams("startingDateTime", "1"));
+    params.put("cursor", "current");
+
+    when(serviceHelper.generateCustomPageAndReservationFilterCriteria(any())).thenCallRealMethod();
+    when(keysetPaginator.findPage(eq(Reservation.class), any(), any(CustomPage.class), eq("current"),
+        eq(List.of("rates", "discount")))).thenReturn(page);
+
+    CursorPage<ReservationSummary> returnedPage = reservationServiceImplementation.getReservationsByCursor(params);
+
+    assertEquals(List.of(ReservationSummary.from(reservation, List.of())), returnedPage.content());
+    assertEquals("next", returnedPage.nextCursor());
+    verify(reservationRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+  }
+
+  @Test
+  void getReservationsByCursorPropagatesInvalidCursor() {
+    Map<String, String> params = new HashMap<>();
+    params.put("cursor", "garbage");
+
+    when(serviceHelper.generateCustomPageAndReservationFilterCriteria(any())).thenCallRealMethod();
+    when(keysetPaginator.findPage(eq(Reservation.class), any(), any(CustomPage.class), eq("garbage"), any()))
+        .thenThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, INVALID_CURSOR_ERROR_MESSAGE));
+
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> reservationServiceImplementation.getReservationsByCursor(params));
+
+    assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    assertEquals(INVALID_CURSOR_ERROR_MESSAGE, exception.getReason());
+  }
+
   // --------------------- Tests for getReservations ---------------------
 
   @Test
@@ -630,14 +1336,13 @@ public class ReservationServiceImplementationTest {
     Reservation reservation2 = reservationFactory.generateRandomReservation(2L, false, false);
     Page<Reservation> reservations = new PageImpl<>(List.of(reservation1, reservation2));
 
-    when(reservationRepository.findAllAndFilter(any(), any(), any(), any(), any(), any(), any(), any(), any(),
-        any(), any(Pageable.class))).thenReturn(reservations);
+    when(reservationRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(reservations);
 
-    Page<Reservation> returnedReservations = reservationServiceImplementation.getReservations(new HashMap<>());
+    Page<ReservationSummary> returnedReservations = reservationServiceImplementation.getReservations(new HashMap<>());
 
-    assertEquals(reservations, returnedReservations);
-    verify(reservationRepository, times(1)).findAllAndFilter(any(), any(), any(), any(),
-        any(), any(), any(), any(), any(), any(), any(Pageable.class));
+    assertEquals(List.of(ReservationSummary.from(reservation1, List.of()), ReservationSummary.from(reservation2, List.of())),
+        returnedReservations.getContent());
+    verify(reservationRepository, times(1)).findAll(any(Specification.class), any(Pageable.class));
   }
 
   @Test
@@ -648,20 +1353,49 @@ public class ReservationServiceImplementationTest {
     Map<String, String> pageParams = utilities.getCustomPageTestParams("id", "10");
 
     when(serviceHelper.generateCustomPageAndReservationFilterCriteria(any())).thenCallRealMethod();
-    when(reservationRepository.findAllAndFilter(any(), any(), any(), any(), any(), any(), any(), any(), any(),
-        any(), any(Pageable.class))).thenReturn(reservations);
+    when(reservationRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(reservations);
+
+    Page<ReservationSummary> returnedReservations = reservationServiceImplementation.getReservations(pageParams);
+
+    assertEquals(reservations.getTotalElements(), returnedReservations.getTotalElements());
+    assertEquals(List.of(ReservationSummary.from(reservation1, List.of()), ReservationSummary.from(reservation2, List.of())),
+        returnedReservations.getContent());
+    verify(reservationRepository, times(1)).findAll(any(Specification.class), any(Pageable.class));
+  }
+
+  @Test
+  void getReservationsLoadsAddOnsOfThePageInOneQuery() {
+    Reservation reservation1 = reservationFactory.generateRandomReservation(1L, false, false);
+    Reservation reservation2 = reservationFactory.generateRandomReservation(2L, false, false);
+    Page<Reservation> reservations = new PageImpl<>(List.of(reservation1, reservation2));
+    ReservationAddOnSummary chairs = new ReservationAddOnSummary(1L, 10L, 100L, "Chairs", "Furniture", 2.5, 50.0);
+    ReservationAddOnSummary tables = new ReservationAddOnSummary(1L, 11L, 101L, "Tables", "Furniture", 10.0, 5.0);
+    ReservationAddOnSummary dj = new ReservationAddOnSummary(2L, 12L, 102L, "DJ", "Entertainment", 300.0, 1.0);
 
-    Page<Reservation> returnedReservations = reservationServiceImplementation.getReservations(pageParams);
+    when(reservationRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(reservations);
+    when(requestedAddOnRepository.findSummariesByReservationIdIn(List.of(1L, 2L)))
+        .thenReturn(List.of(chairs, tables, dj));
 
-    assertEquals(reservations, returnedReservations);
-    verify(reservationRepository, times(1)).findAllAndFilter(any(), any(), any(), any(),
-        any(), any(), any(), any(), any(), any(), any(Pageable.class));
+    Page<ReservationSummary> returnedReservations = reservationServiceImplementation.getReservations(new HashMap<>());
+
+    assertEquals(List.of(chairs, tables), returnedReservations.getContent().get(0).addOns());
+    assertEquals(List.of(dj), returnedReservations.getContent().get(1).addOns());
+    verify(requestedAddOnRepository, times(1)).findSummariesByReservationIdIn(any());
+  }
+
+  @Test
+  void getReservationsSkipsAddOnQueryForEmptyPage() {
+    when(reservationRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(Page.empty());
+
+    Page<ReservationSummary> returnedReservations = reservationServiceImplementation.getReservations(new HashMap<>());
+
+    assertTrue(returnedReservations.isEmpty());
+    verify(requestedAddOnRepository, never()).findSummariesByReservationIdIn(any());
   }
 
   @Test
   void getReservationsThrowsDataAccessException() {
-    when(reservationRepository.findAllAndFilter(any(), any(), any(), any(), any(), any(), any(), any(), any(),
-        any(), any(Pageable.class))).thenThrow(new DataAccessException("Data access exception encountered.") {
+    when(reservationRepository.findAll(any(Specification.class), any(Pageable.class))).thenThrow(new DataAccessException("Data access exception encountered.") {
     });
 
     ResponseStatusException exception = assertThrows(ResponseStatusException.class,
@@ -673,8 +1407,7 @@ public class ReservationServiceImplementationTest {
 
   @Test
   void getReservationsThrowsInternalServerError() {
-    when(reservationRepository.findAllAndFilter(any(), any(), any(), any(), any(), any(), any(), any(), any(),
-        any(), any(Pageable.class))).thenThrow(new RuntimeException("Unexpected runtime error encountered.") {
+    when(reservationRepository.findAll(any(Specification.class), any(Pageable.class))).thenThrow(new RuntimeException("Unexpected runtime error encountered.") {
     });
 
     ResponseStatusException exception = assertThrows(ResponseStatusException.class,
@@ -696,9 +1429,10 @@ public class ReservationServiceImplementationTest {
 
     when(reservationRepository.findByUserId(any(), any())).thenReturn(reservations);
 
-    Page<Reservation> returnedReservations = reservationServiceImplementation.getReservationsByUserId(userId, new HashMap<>());
+    Page<ReservationSummary> returnedReservations = reservationServiceImplementation.getReservationsByUserId(userId, new HashMap<>());
 
-    assertEquals(reservations, returnedReservations);
+    assertEquals(List.of(ReservationSummary.from(reservation1, List.of()), ReservationSummary.from(reservation2, List.of())),
+        returnedReservations.getContent());
     verify(reservationRepository, times(1)).findByUserId(any(), any());
   }
 
@@ -713,14 +1447,13 @@ public class ReservationServiceImplementationTest {
     Map<String, String> pageParams = utilities.getCustomPageTestParams("id", "10");
 
     when(serviceHelper.generateCustomPageAndReservationFilterCriteria(any())).thenCallRealMethod();
-    when(reservationRepository.findAllAndFilter(any(), any(), any(), any(), any(), any(), any(), any(), any(),
-        any(), any(Pageable.class))).thenReturn(reservations);
+    when(reservationRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(reservations);
 
-    Page<Reservation> returnedReservations = reservationServiceImplementation.getReservationsByUserId(userId, pageParams);
+    Page<ReservationSummary> returnedReservations = reservationServiceImplementation.getReservationsByUserId(userId, pageParams);
 
-    assertEquals(reservations, returnedReservations);
-    verify(reservationRepository, times(1)).findAllAndFilter(any(), any(), any(), any(), any(), any(), any(), any(), any(),
-        any(), any(Pageable.class));
+    assertEquals(List.of(ReservationSummary.from(reservation1, List.of()), ReservationSummary.from(reservation2, List.of())),
+        returnedReservations.getContent());
+    verify(reservationRepository, times(1)).findAll(any(Specification.class), any(Pageable.class));
   }
 
   @Test
@@ -748,6 +1481,46 @@ public class ReservationServiceImplementationTest {
   }
 
 
+  // --------------------- Tests for getReservation ---------------------
+
+  @Test
+  void getReservationReturnsReservationWithItsGraph() {
+    String userId = "testUserId";
+    Reservation reservation = reservationFactory.generateRandomReservation(1L, false, false);
+    reservation.setUserId(userId);
+
+    when(reservationRepository.findDetailById(1L)).thenReturn(Optional.of(reservation));
+
+    assertEquals(reservation, reservationServiceImplementation.getReservation(userId, 1L));
+    verify(reservationRepository, never()).findById(any());
+  }
+
+  @Test
+  void getReservationThrowsNotFoundWhenReservationBelongsToAnotherUser() {
+    Reservation reservation = reservationFactory.generateRandomReservation(1L, false, false);
+    reservation.setUserId("owner");
+
+    when(reservationRepository.findDetailById(1L)).thenReturn(Optional.of(reservation));
+
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> reservationServiceImplementation.getReservation("someoneElse", 1L));
+
+    assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    assertEquals(String.format(GET_NOT_FOUND_MESSAGE, "reservation", 1L), exception.getReason());
+  }
+
+  @Test
+  void getReservationThrowsDataAccessException() {
+    when(reservationRepository.findDetailById(any())).thenThrow(new DataAccessException("Data access exception encountered.") {
+    });
+
+    ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+        () -> reservationServiceImplementation.getReservation("testUserId", 1L));
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+    assertEquals(GENERIC_UNEXPECTED_ERROR_MESSAGE, exception.getReason());
+  }
+
   // --------------------- Tests for cancelReservation ---------------------
 
   @Test
@@ -835,30 +1608,57 @@ public class ReservationServiceImplementationTest {
     Reservation reservation1 = reservationFactory.generateRandomReservation(1L, false, false);
     Reservation reservation2 = reservationFactory.generateRandomReservation(2L, false, false);
 
-    when(reservationRepository.existsById(any())).thenReturn(true);
-    when(reservationRepository.findById(any())).thenReturn(Optional.of(reservation1), Optional.of(reservation2));
+    when(reservationRepository.findIntervalsByIdIn(any())).thenReturn(
+        List.of(ReservationInterval.of(reservation1), ReservationInterval.of(reservation2)));
+    when(reservationRepository.updateStatusByIdIn(any(), any())).thenReturn(2);
 
     reservationServiceImplementation.cancelMultipleReservations(ids);
 
-    verify(reservationRepository, times(2)).save(any());
+    verify(reservationRepository, times(1)).findIntervalsByIdIn(Set.of(1L, 2L));
+    verify(reservationRepository, times(1)).updateStatusByIdIn(Set.of(1L, 2L), STATUS_CANCELLED);
+    verify(invoiceRepository, times(1)).updateStatusByReservationIdIn(Set.of(1L, 2L), STATUS_WITHDRAWN);
+    verify(reservationRepository, never()).save(any());
   }
 
   @Test
-  void cancelMultipleReservationsThrowsBadRequestWhenReservationDoesNotExist() {
+  void cancelMultipleReservationsSendsEmailsAsSingleBatch() throws IOException {
     List<Long> ids = List.of(1L, 2L);
-    when(reservationRepository.existsById(any())).thenReturn(false);
+    Reservation reservation1 = reservationFactory.generateRandomReservation(1L, false, false);
+    Reservation reservation2 = reservationFactory.generateRandomReservation(2L, false, false);
+    Invoice invoice1 = invoiceFactory.generateRandomInvoice(1L, "INV-0001", true);
+    Invoice invoice2 = invoiceFactory.generateRandomInvoice(2L, "INV-0002", true);
+
+    when(reservationRepository.findIntervalsByIdIn(any())).thenReturn(
+        List.of(ReservationInterval.of(reservation1), ReservationInterval.of(reservation2)));
+    when(invoiceRepository.findAllByReservationIdIn(any())).thenReturn(List.of(invoice1, invoice2));
+    when(serviceHelper.getMail(any(), any(), any(), any(), anyBoolean())).thenReturn(new Mail());
+
+    reservationServiceImplementation.cancelMultipleReservations(ids);
+
+    verify(emailService, times(1)).sendEmails(argThat(mails -> mails.size() == 2));
+    verify(emailService, never()).sendEmail(any());
+    verify(invoiceService, never()).updateInvoice(any(), any());
+  }
+
+  @Test
+  void cancelMultipleReservationsThrowsBadRequestWhenReservationDoesNotExist() {
+    List<Long> ids = List.of(1L, 2L, 3L);
+    Reservation reservation2 = reservationFactory.generateRandomReservation(2L, false, false);
+    when(reservationRepository.findIntervalsByIdIn(any())).thenReturn(List.of(ReservationInterval.of(reservation2)));
 
     ResponseStatusException exception = assertThrows(ResponseStatusException.class,
         () -> reservationServiceImplementation.cancelMultipleReservations(ids));
 
     assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
-    assertEquals(String.format(MASS_ACTION_NOT_FOUND_MESSAGE, "cancel", "reservations", "1, 2"), exception.getReason());
+    assertEquals(String.format(MASS_ACTION_NOT_FOUND_MESSAGE, "cancel", "reservations", "1, 3"), exception.getReason());
+    verify(reservationRepository, never()).updateStatusByIdIn(any(), any());
+    verify(invoiceRepository, never()).updateStatusByReservationIdIn(any(), any());
   }
 
   @Test
   void cancelMultipleReservationsThrowsDataAccessException() {
     List<Long> ids = List.of(1L, 2L);
-    when(reservationRepository.existsById(any())).thenThrow(new DataAccessException("Data access exception encountered.") {
+    when(reservationRepository.findIntervalsByIdIn(any())).thenThrow(new DataAccessException("Data access exception encountered.") {
     });
 
     ResponseStatusException exception = assertThrows(ResponseStatusException.class,
@@ -871,7 +1671,7 @@ public class ReservationServiceImplementationTest {
   @Test
   void cancelMultipleReservationsThrowsInternalServerErrorForRuntimeException() {
     List<Long> ids = List.of(1L, 2L);
-    when(reservationRepository.existsById(any())).thenThrow(new RuntimeException("Unexpected runtime error encountered.") {
+    when(reservationRepository.findIntervalsByIdIn(any())).thenThrow(new RuntimeException("Unexpected runtime error encountered.") {
     });
 
     ResponseStatusException exception = assertThrows(ResponseStatusException.class,
@@ -882,6 +1682,7 @@ public class ReservationServiceImplementationTest {
   }
 
 
+
   // --------------------- Tests for restoreReservation ---------------------
   @Test
   void restoreReservationSuccessCase() {
@@ -967,30 +1768,57 @@ public class ReservationServiceImplementationTest {
     Reservation reservation1 = reservationFactory.generateRandomReservation(1L, false, false);
     Reservation reservation2 = reservationFactory.generateRandomReservation(2L, false, false);
 
-    when(reservationRepository.existsById(any())).thenReturn(true);
-    when(reservationRepository.findById(any())).thenReturn(Optional.of(reservation1), Optional.of(reservation2));
+    when(reservationRepository.findIntervalsByIdIn(any())).thenReturn(
+        List.of(ReservationInterval.of(reservation1), ReservationInterval.of(reservation2)));
+    when(reservationRepository.updateStatusByIdIn(any(), any())).thenReturn(2);
 
     reservationServiceImplementation.restoreMultipleReservations(ids);
 
-    verify(reservationRepository, times(2)).save(any());
+    verify(reservationRepository, times(1)).findIntervalsByIdIn(Set.of(1L, 2L));
+    verify(reservationRepository, times(1)).updateStatusByIdIn(Set.of(1L, 2L), STATUS_BOOKED);
+    verify(invoiceRepository, times(1)).updateStatusByReservationIdIn(Set.of(1L, 2L), STATUS_DUE);
+    verify(reservationRepository, never()).save(any());
   }
 
   @Test
-  void restoreMultipleReservationsThrowsBadRequestWhenReservationDoesNotExist() {
+  void restoreMultipleReservationsSendsEmailsAsSingleBatch() throws IOException {
     List<Long> ids = List.of(1L, 2L);
-    when(reservationRepository.existsById(any())).thenReturn(false);
+    Reservation reservation1 = reservationFactory.generateRandomReservation(1L, false, false);
+    Reservation reservation2 = reservationFactory.generateRandomReservation(2L, false, false);
+    Invoice invoice1 = invoiceFactory.generateRandomInvoice(1L, "INV-0001", true);
+    Invoice invoice2 = invoiceFactory.generateRandomInvoice(2L, "INV-0002", true);
+
+    when(reservationRepository.findIntervalsByIdIn(any())).thenReturn(
+        List.of(ReservationInterval.of(reservation1), ReservationInterval.of(reservation2)));
+    when(invoiceRepository.findAllByReservationIdIn(any())).thenReturn(List.of(invoice1, invoice2));
+    when(serviceHelper.getMail(any(), any(), any(), any(), anyBoolean())).thenReturn(new Mail());
+
+    reservationServiceImplementation.restoreMultipleReservations(ids);
+
+    verify(emailService, times(1)).sendEmails(argThat(mails -> mails.size() == 2));
+    verify(emailService, never()).sendEmail(any());
+    verify(invoiceService, never()).updateInvoice(any(), any());
+  }
+
+  @Test
+  void restoreMultipleReservationsThrowsBadRequestWhenReservationDoesNotExist() {
+    List<Long> ids = List.of(1L, 2L, 3L);
+    Reservation reservation2 = reservationFactory.generateRandomReservation(2L, false, false);
+    when(reservationRepository.findIntervalsByIdIn(any())).thenReturn(List.of(ReservationInterval.of(reservation2)));
 
     ResponseStatusException exception = assertThrows(ResponseStatusException.class,
         () -> reservationServiceImplementation.restoreMultipleReservations(ids));
 
     assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
-    assertEquals(String.format(MASS_ACTION_NOT_FOUND_MESSAGE, "restore", "reservations", "1, 2"), exception.getReason());
+    assertEquals(String.format(MASS_ACTION_NOT_FOUND_MESSAGE, "restore", "reservations", "1, 3"), exception.getReason());
+    verify(reservationRepository, never()).updateStatusByIdIn(any(), any());
+    verify(invoiceRepository, never()).updateStatusByReservationIdIn(any(), any());
   }
 
   @Test
   void restoreMultipleReservationsThrowsDataAccessException() {
     List<Long> ids = List.of(1L, 2L);
-    when(reservationRepository.existsById(any())).thenThrow(new DataAccessException("Data access exception encountered.") {
+    when(reservationRepository.findIntervalsByIdIn(any())).thenThrow(new DataAccessException("Data access exception encountered.") {
     });
 
     ResponseStatusException exception = assertThrows(ResponseStatusException.class,
@@ -1003,7 +1831,7 @@ public class ReservationServiceImplementationTest {
   @Test
   void restoreMultipleReservationsThrowsInternalServerErrorForRuntimeException() {
     List<Long> ids = List.of(1L, 2L);
-    when(reservationRepository.existsById(any())).thenThrow(new RuntimeException("Unexpected runtime error encountered.") {
+    when(reservationRepository.findIntervalsByIdIn(any())).thenThrow(new RuntimeException("Unexpected runtime error encountered.") {
     });
 
     ResponseStatusException exception = assertThrows(ResponseStatusException.class,
@@ -1014,6 +1842,7 @@ public class ReservationServiceImplementationTest {
   }
 
 
+
   // --------------------- Tests for updateReservationStatus ---------------------
 
   @Test
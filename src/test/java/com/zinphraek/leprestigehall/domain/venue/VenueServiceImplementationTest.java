@@ -0,0 +1,52 @@
+package com.zinphraek.leprestigehall.domain.venue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static com.zinphraek.leprestigehall.domain.constants.GenericResponseMessages.FIELD_CONFLICT_MESSAGE1;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link VenueServiceImplementation}.
+ */
+@ExtendWith(MockitoExtension.class)
+public class VenueServiceImplementationTest {
+
+  @Mock
+  private VenueRepository venueRepository;
+
+  @InjectMocks
+  private VenueServiceImplementation venueService;
+
+  @Test
+  void updateVenueKeepsItsOwnName() {
+    Venue venue = new Venue(2L, "Garden Room", null, 80, true);
+    when(venueRepository.existsById(2L)).thenReturn(true);
+    when(venueRepository.existsByNameAndIdNot("Garden Room", 2L)).thenReturn(false);
+    when(venueRepository.save(venue)).thenReturn(venue);
+
+    assertEquals(venue, venueService.updateVenue(2L, venue));
+  }
+
+  @Test
+  void updateVenueThrowsConflictWhenAnotherVenueHasTheName() {
+    Venue venue = new Venue(2L, "Le Prestige Hall", null, 80, true);
+    when(venueRepository.existsById(2L)).thenReturn(true);
+    when(venueRepository.existsByNameAndIdNot("Le Prestige Hall", 2L)).thenReturn(true);
+
+    ResponseStatusException exception =
+        assertThrows(ResponseStatusException.class, () -> venueService.updateVenue(2L, venue));
+
+    assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+    assertEquals(String.format(FIELD_CONFLICT_MESSAGE1, "venue", "name", "Le Prestige Hall"), exception.getReason());
+    verify(venueRepository, never()).save(any());
+  }
+}
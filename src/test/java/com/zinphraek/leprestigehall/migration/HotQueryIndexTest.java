@@ -0,0 +1,105 @@
+package com.zinphraek.leprestigehall.migration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Applies the migrations to a real PostgreSQL instance and checks that the hot queries are served by
+ * an index. Sequential scans are disabled for the session, so a query only falls back to one when no
+ * usable index exists.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class HotQueryIndexTest {
+
+  @Container
+  private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+  @BeforeAll
+  static void migrate() {
+    Flyway.configure()
+        .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+        .locations("classpath:db/migration")
+        .load()
+        .migrate();
+  }
+
+  static Stream<Arguments> hotQueries() {
+    return Stream.of(
+        Arguments.of("existsOverlappingInterval",
+            "SELECT count(*) FROM reservations r WHERE r.venue_id = 1 AND r.status <> 'Cancelled' AND r.id <> 0 "
+                + "AND r.starting_date_time <= '2030-01-02 00:00' "
+                + "AND COALESCE(r.effective_ending_date_time, r.ending_date_time) >= '2030-01-01 00:00'"),
+        Arguments.of("reservation holds of a venue",
+            "SELECT 1 FROM reservation_holds h WHERE h.venue_id = 1 AND h.expires_at > '2030-01-01 00:00' "
+                + "AND h.starting_date_time <= '2030-01-02 00:00' AND h.ending_date_time >= '2030-01-01 00:00'"),
+        Arguments.of("findIntervalsEndingAfter",
+            "SELECT r.id, r.starting_date_time FROM reservations r WHERE r.status <> 'Cancelled' "
+                + "AND COALESCE(r.effective_ending_date_time, r.ending_date_time) >= '2030-01-01 00:00'"),
+        Arguments.of("reservation listing by start",
+            "SELECT * FROM reservations r WHERE r.starting_date_time >= '2030-01-01 00:00' "
+                + "AND r.starting_date_time <= '2030-02-01 00:00' ORDER BY r.starting_date_time LIMIT 10"),
+        Arguments.of("reservation listing by status",
+            "SELECT * FROM reservations r WHERE r.status = 'Booked' "
+                + "AND r.starting_date_time >= '2030-01-01 00:00' ORDER BY r.starting_date_time LIMIT 10"),
+        Arguments.of("reservations findByUserId",
+            "SELECT * FROM reservations r WHERE r.user_id = 'user' ORDER BY r.starting_date_time LIMIT 10"),
+        Arguments.of("requested add-ons by reservation",
+            "SELECT * FROM requested_add_ons ra WHERE ra.reservation_id = 1"),
+        Arguments.of("invoices findByReservationId",
+            "SELECT * FROM invoices i WHERE i.reservation_id = 1"),
+        Arguments.of("receipts by invoice",
+            "SELECT * FROM receipts r WHERE r.invoice_id = 1"),
+        Arguments.of("invoice listing by number",
+            "SELECT * FROM invoices i WHERE i.invoice_number = 'INV-1'"),
+        Arguments.of("receipt listing by number prefix",
+            "SELECT * FROM receipts r WHERE r.receipt_number LIKE 'RR12IN%' ESCAPE '\\'"),
+        Arguments.of("receipt listing by payer prefix",
+            "SELECT * FROM receipts r WHERE LOWER(r.paid_by) LIKE 'ada%' ESCAPE '\\'"),
+        Arguments.of("findFirstLevelCommentsByEventId",
+            "SELECT * FROM event_comment ec WHERE ec.event_id = '00000000-0000-0000-0000-000000000001' "
+                + "AND ec.based_comment_id IS NULL ORDER BY ec.posted_date DESC"),
+        Arguments.of("findByBasedCommentId",
+            "SELECT * FROM event_comment ec WHERE ec.based_comment_id = 1"),
+        Arguments.of("appointments isConflicting",
+            "SELECT count(*) FROM appointments a WHERE a.date_time >= '2030-01-01 10:00' "
+                + "AND a.date_time <= '2030-01-01 11:00' AND a.status = 'Booked' AND a.id <> 0"));
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("hotQueries")
+  void hotQueryDoesNotFallBackToSequentialScan(String name, String sql) throws SQLException {
+    String plan = explain(sql);
+
+    assertFalse(plan.contains("Seq Scan"), name + " falls back to a sequential scan:\n" + plan);
+  }
+
+  private String explain(String sql) throws SQLException {
+    try (Connection connection = DriverManager.getConnection(
+        postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+         Statement statement = connection.createStatement()) {
+      statement.execute("SET enable_seqscan = off");
+      StringBuilder plan = new StringBuilder();
+      try (ResultSet resultSet = statement.executeQuery("EXPLAIN " + sql)) {
+        while (resultSet.next()) {
+          plan.append(resultSet.getString(1)).append('\n');
+        }
+      }
+      return plan.toString();
+    }
+  }
+}
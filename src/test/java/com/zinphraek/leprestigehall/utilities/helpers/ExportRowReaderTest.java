@@ -0,0 +1,175 @@
+package com.zinphraek.leprestigehall.utilities.helpers;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zinphraek.leprestigehall.domain.addon.AddOn;
+import com.zinphraek.leprestigehall.domain.addon.RequestedAddOn;
+import com.zinphraek.leprestigehall.domain.invoice.Invoice;
+import com.zinphraek.leprestigehall.domain.invoice.InvoiceExportRow;
+import com.zinphraek.leprestigehall.domain.media.AddOnMedia;
+import com.zinphraek.leprestigehall.domain.media.UserMedia;
+import com.zinphraek.leprestigehall.domain.receipt.Payment;
+import com.zinphraek.leprestigehall.domain.receipt.Receipt;
+import com.zinphraek.leprestigehall.domain.receipt.ReceiptExportRow;
+import com.zinphraek.leprestigehall.domain.reservation.Reservation;
+import com.zinphraek.leprestigehall.domain.reservation.ReservationDiscount;
+import com.zinphraek.leprestigehall.domain.reservation.ReservationExportRow;
+import com.zinphraek.leprestigehall.domain.reservation.ReservationFilterCriteria;
+import com.zinphraek.leprestigehall.domain.reservation.ReservationRate;
+import com.zinphraek.leprestigehall.domain.user.User;
+import org.flywaydb.core.Flyway;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.STATUS_BOOKED;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.STATUS_PARTIALLY_PAID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reads the export rows of a migrated PostgreSQL instance through their {@code COLUMNS} lists, so a
+ * column list out of step with its record, or with the mapping of its entity, fails here rather
+ * than on the first export. Every component must carry the value of its own column.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class ExportRowReaderTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2030, 6, 1, 18, 0);
+
+  private static final LocalDateTime ISSUED = LocalDateTime.of(2030, 5, 1, 9, 30);
+
+  private static final LocalDateTime PAID = LocalDateTime.of(2030, 5, 3, 14, 15);
+
+  @Container
+  private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+  private static HikariDataSource dataSource;
+
+  private static SessionFactory sessionFactory;
+
+  private static long reservationId;
+
+  private static long invoiceId;
+
+  private static long receiptId;
+
+  @BeforeAll
+  static void setUp() {
+    Flyway.configure()
+        .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+        .locations("classpath:db/migration")
+        .load()
+        .migrate();
+
+    HikariConfig config = new HikariConfig();
+    config.setJdbcUrl(postgres.getJdbcUrl());
+    config.setUsername(postgres.getUsername());
+    config.setPassword(postgres.getPassword());
+    dataSource = new HikariDataSource(config);
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    long userId = jdbcTemplate.queryForObject(
+        "INSERT INTO users (user_id, enabled) VALUES ('exporter', true) RETURNING id", Long.class);
+    reservationId = jdbcTemplate.queryForObject(
+        "INSERT INTO reservations (user_id, event_type, status, starting_date_time, ending_date_time, "
+            + "effective_ending_date_time, number_of_seats, is_full_package, add_ons_total_cost, tax_rate, "
+            + "total_price, is_security_deposit_refunded, price_computation_method) "
+            + "VALUES ('exporter', 'Weddings', ?, ?, ?, ?, 120, true, 75.5, 0.0825, 1450.25, false, 'Manual') "
+            + "RETURNING id",
+        Long.class, STATUS_BOOKED, START, START.plusHours(6), START.plusHours(7));
+    invoiceId = jdbcTemplate.queryForObject(
+        "INSERT INTO invoices (invoice_number, issued_date, due_date, total_amount_paid, amount_due, status, "
+            + "reservation_id, user_id) VALUES ('INV-1', ?, ?, 400, 1050.25, ?, ?, ?) RETURNING id",
+        Long.class, ISSUED, ISSUED.plusWeeks(2), STATUS_PARTIALLY_PAID, reservationId, userId);
+    receiptId = jdbcTemplate.queryForObject(
+        "INSERT INTO receipts (receipt_number, receipt_date, payment_date, amount_paid, "
+            + "total_amount_paid_till_today, prev_balance, balance_due, paid_by, cashier_name, reservation_id, "
+            + "invoice_id, user_id) VALUES ('RR1IN1', ?, ?, 400, 400, 1450.25, 1050.25, 'Ada', 'Grace', ?, ?, "
+            + "'exporter') RETURNING id",
+        Long.class, PAID.plusMinutes(5), PAID, reservationId, invoiceId);
+
+    Configuration configuration = new Configuration();
+    Stream.of(Receipt.class, Payment.class, Invoice.class, Reservation.class, ReservationRate.class,
+            ReservationDiscount.class, RequestedAddOn.class, AddOn.class, AddOnMedia.class, User.class,
+            UserMedia.class)
+        .forEach(configuration::addAnnotatedClass);
+    sessionFactory = configuration
+        .setPhysicalNamingStrategy(new CamelCaseToUnderscoresNamingStrategy())
+        .setProperty(AvailableSettings.URL, postgres.getJdbcUrl())
+        .setProperty(AvailableSettings.USER, postgres.getUsername())
+        .setProperty(AvailableSettings.PASS, postgres.getPassword())
+        .setProperty(AvailableSettings.HBM2DDL_AUTO, "none")
+        .buildSessionFactory();
+  }
+
+  @AfterAll
+  static void tearDown() {
+    sessionFactory.close();
+    dataSource.close();
+  }
+
+  @Test
+  void receiptRowsCarryTheirColumns() {
+    assertEquals(
+        List.of(new ReceiptExportRow(receiptId, "RR1IN1", PAID.plusMinutes(5), PAID, 400.0, 400.0, 1450.25,
+            1050.25, "Ada", "Grace", reservationId, invoiceId, "exporter")),
+        read(Receipt.class, ReceiptExportRow.class, ReceiptExportRow.COLUMNS, null));
+  }
+
+  @Test
+  void invoiceRowsCarryTheirColumnsAndThoseOfTheirAssociations() {
+    assertEquals(
+        List.of(new InvoiceExportRow(invoiceId, "INV-1", ISSUED, ISSUED.plusWeeks(2), 400.0, 1050.25,
+            STATUS_PARTIALLY_PAID, reservationId, "exporter")),
+        read(Invoice.class, InvoiceExportRow.class, InvoiceExportRow.COLUMNS, null));
+  }
+
+  @Test
+  void reservationRowsCarryTheirColumns() {
+    assertEquals(
+        List.of(new ReservationExportRow(reservationId, "exporter", "Weddings", STATUS_BOOKED, START,
+            START.plusHours(6), START.plusHours(7), 120, true, 75.5, 0.0825, 1450.25, false, "Manual")),
+        read(Reservation.class, ReservationExportRow.class, ReservationExportRow.COLUMNS, null));
+  }
+
+  @Test
+  void statusFiltersMatchTheStoredSpellingOnly() {
+    ReservationFilterCriteria criteria = new ReservationFilterCriteria();
+    criteria.setStatus(STATUS_BOOKED);
+    assertEquals(1, read(Reservation.class, ReservationExportRow.class, ReservationExportRow.COLUMNS,
+        criteria.toSpecification()).size());
+
+    criteria.setStatus(STATUS_BOOKED.toLowerCase(Locale.ROOT));
+    assertTrue(read(Reservation.class, ReservationExportRow.class, ReservationExportRow.COLUMNS,
+        criteria.toSpecification()).isEmpty());
+  }
+
+  private static <T, R extends Record> List<R> read(
+      Class<T> entityType, Class<R> rowType, List<String> columns, Specification<T> filter) {
+    try (Session session = sessionFactory.openSession()) {
+      session.beginTransaction();
+      try (Stream<R> rows = new ExportRowReader(session).read(entityType, rowType, columns, filter, Sort.by("id"))) {
+        return rows.toList();
+      } finally {
+        session.getTransaction().rollback();
+      }
+    }
+  }
+}
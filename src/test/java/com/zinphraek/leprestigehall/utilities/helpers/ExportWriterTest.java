@@ -0,0 +1,93 @@
+package com.zinphraek.leprestigehall.utilities.helpers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ExportWriterTest {
+
+  private static final LocalDateTime ISSUED = LocalDateTime.of(2024, 3, 1, 18, 30);
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private ExportWriter exportWriter;
+
+  record Row(Long id, String name, LocalDateTime issued, Double amount) {
+  }
+
+  @BeforeEach
+  void setUp() {
+    exportWriter = new ExportWriter(Jackson2ObjectMapperBuilder.json().build(), transactionManager);
+  }
+
+  @Test
+  void writeStreamsCsvWithHeaderAndEscapedCells() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    exportWriter.write(ExportFormat.CSV, Row.class, () -> Stream.of(
+        new Row(1L, "Smith, \"Jr\"", ISSUED, 120.5),
+        new Row(2L, "=HYPERLINK(\"x\")", null, null))).writeTo(output);
+
+    assertEquals(
+        "id,name,issued,amount\n"
+            + "1,\"Smith, \"\"Jr\"\"\",2024-03-01T18:30,120.5\n"
+            + "2,\"'=HYPERLINK(\"\"x\"\")\",,\n",
+        output.toString(StandardCharsets.UTF_8));
+    verify(transactionManager, times(1)).commit(any());
+  }
+
+  @Test
+  void writeStreamsOneJsonObjectPerLine() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    exportWriter.write(ExportFormat.NDJSON, Row.class, () -> Stream.of(
+        new Row(1L, "Smith", ISSUED, 120.5),
+        new Row(2L, "Doe", ISSUED, 80.0))).writeTo(output);
+
+    assertEquals(
+        "{\"id\":1,\"name\":\"Smith\",\"issued\":\"2024-03-01T18:30:00\",\"amount\":120.5}\n"
+            + "{\"id\":2,\"name\":\"Doe\",\"issued\":\"2024-03-01T18:30:00\",\"amount\":80.0}\n",
+        output.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void writeClosesTheCursorAndRollsBackWhenReadingFails() {
+    AtomicBoolean closed = new AtomicBoolean();
+    Stream<Row> rows = Stream.<Row>generate(() -> {
+      throw new IllegalStateException("cursor lost");
+    }).onClose(() -> closed.set(true));
+
+    assertThrows(IllegalStateException.class,
+        () -> exportWriter.write(ExportFormat.CSV, Row.class, () -> rows).writeTo(new ByteArrayOutputStream()));
+
+    assertTrue(closed.get());
+    verify(transactionManager, times(1)).rollback(any());
+    verify(transactionManager, never()).commit(any());
+  }
+
+  @Test
+  void fromParamDefaultsToCsvAndRejectsUnknownFormats() {
+    assertEquals(ExportFormat.CSV, ExportFormat.fromParam(null));
+    assertEquals(ExportFormat.NDJSON, ExportFormat.fromParam("NDJSON"));
+    assertThrows(ResponseStatusException.class, () -> ExportFormat.fromParam("xlsx"));
+  }
+}
@@ -0,0 +1,261 @@
+package com.zinphraek.leprestigehall.utilities.helpers;
+
+import com.zinphraek.leprestigehall.domain.receipt.Payment;
+import com.zinphraek.leprestigehall.domain.receipt.Receipt;
+import org.flywaydb.core.Flyway;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pages through receipts stored in a migrated PostgreSQL instance and checks that following the
+ * cursors visits every row exactly once, in (sort value, id) order, whatever the page size, the
+ * direction and the number of rows sharing a sort value.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class KeysetPaginatorTest {
+
+  private static final int ROWS = 23;
+
+  private static final String INSERT_QUERY =
+      "INSERT INTO receipts (id, receipt_number, receipt_date, amount_paid, reservation_id, user_id, invoice_id, "
+          + "paid_by, payment_date, prev_balance, balance_due, cashier_name) "
+          + "VALUES (?, ?, ?, ?, 1, ?, 1, 'Ada', ?, ?, 0, 'Front desk')";
+
+  @Container
+  private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+  private static SessionFactory sessionFactory;
+
+  private Session session;
+
+  private KeysetPaginator keysetPaginator;
+
+  @BeforeAll
+  static void setUp() {
+    Flyway.configure()
+        .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+        .locations("classpath:db/migration")
+        .load()
+        .migrate();
+
+    sessionFactory = new Configuration()
+        .addAnnotatedClass(Receipt.class)
+        .addAnnotatedClass(Payment.class)
+        .setPhysicalNamingStrategy(new CamelCaseToUnderscoresNamingStrategy())
+        .setProperty(AvailableSettings.URL, postgres.getJdbcUrl())
+        .setProperty(AvailableSettings.USER, postgres.getUsername())
+        .setProperty(AvailableSettings.PASS, postgres.getPassword())
+        .setProperty(AvailableSettings.HBM2DDL_AUTO, "none")
+        .buildSessionFactory();
+
+    // Ids are inserted out of order and amounts repeat every five rows, so every page boundary
+    // falls inside a run of equal sort values; every fourth row has no previous balance.
+    try (Session session = sessionFactory.openSession()) {
+      session.beginTransaction();
+      session.doWork(connection -> {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_QUERY)) {
+          for (long id : ids()) {
+            LocalDateTime date = LocalDateTime.of(2030, 1, 1, 10, 0).plusDays(id % 7);
+            statement.setLong(1, id);
+            statement.setString(2, "RCT-" + id);
+            statement.setTimestamp(3, Timestamp.valueOf(date));
+            statement.setDouble(4, amountPaid(id));
+            statement.setString(5, id % 2 == 0 ? "even" : "odd");
+            statement.setTimestamp(6, Timestamp.valueOf(date));
+            if (prevBalance(id) == null) {
+              statement.setNull(7, Types.DOUBLE);
+            } else {
+              statement.setDouble(7, prevBalance(id));
+            }
+            statement.addBatch();
+          }
+          statement.executeBatch();
+        }
+      });
+      session.getTransaction().commit();
+    }
+  }
+
+  @AfterAll
+  static void tearDown() {
+    sessionFactory.close();
+  }
+
+  @BeforeEach
+  void openSession() {
+    session = sessionFactory.openSession();
+    keysetPaginator = new KeysetPaginator(session);
+  }
+
+  @AfterEach
+  void closeSession() {
+    session.close();
+  }
+
+  @ParameterizedTest(name = "{0} {1}, {2} per page")
+  @CsvSource({
+      "amountPaid, ASC, 4",
+      "amountPaid, DESC, 4",
+      "amountPaid, ASC, 5",
+      "amountPaid, DESC, 1",
+      "prevBalance, ASC, 3",
+      "prevBalance, DESC, 3",
+      "receiptDate, DESC, 6",
+      "id, ASC, 7"})
+  void followingTheCursorsVisitsEveryRowOnceInOrder(String sortBy, Sort.Direction direction, int pageSize) {
+    List<Long> visited = walk(null, new CustomPage(0, pageSize, direction, sortBy));
+
+    List<Long> expected = expectedOrder(sortBy, id -> true);
+    if (direction.isDescending()) {
+      expected = new ArrayList<>(expected);
+      Collections.reverse(expected);
+    }
+    assertEquals(expected, visited);
+  }
+
+  @Test
+  void filtersStillApplyOnLaterPages() {
+    Specification<Receipt> evenUsers =
+        (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("userId"), "even");
+
+    List<Long> visited = walk(evenUsers, new CustomPage(0, 2, Sort.Direction.ASC, "amountPaid"));
+
+    assertEquals(expectedOrder("amountPaid", id -> id % 2 == 0), visited);
+  }
+
+  @Test
+  void lastPageHasNoCursor() {
+    CursorPage<Receipt> page =
+        keysetPaginator.findPage(Receipt.class, null, new CustomPage(0, ROWS, Sort.Direction.ASC, "id"), null);
+
+    assertEquals(ROWS, page.content().size());
+    assertNull(page.nextCursor());
+  }
+
+  @Test
+  void cursorsRoundTrip() {
+    List<KeysetPaginator.Position> positions = List.of(
+        new KeysetPaginator.Position("amountPaid", Sort.Direction.ASC, "12.5", 3L),
+        new KeysetPaginator.Position("paidBy", Sort.Direction.DESC, "Ada | Grace|v:n", 42L),
+        new KeysetPaginator.Position("prevBalance", Sort.Direction.DESC, null, 7L),
+        new KeysetPaginator.Position("receiptNumber", Sort.Direction.ASC, "", 1L));
+
+    for (KeysetPaginator.Position position : positions) {
+      assertEquals(position, KeysetPaginator.decode(KeysetPaginator.encode(position)));
+    }
+  }
+
+  @Test
+  void tamperedCursorsAreRejected() {
+    CustomPage customPage = new CustomPage(0, 4, Sort.Direction.ASC, "amountPaid");
+    String cursor = keysetPaginator.findPage(Receipt.class, null, customPage, null).nextCursor();
+    String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+
+    List<String> tampered = List.of(
+        cursor + "!",
+        cursor.substring(0, cursor.length() / 2),
+        encodeRaw(raw.replace("|ASC|", "|SIDEWAYS|")),
+        encodeRaw(raw.replaceFirst("\\|\\d+\\|", "|four|")),
+        encodeRaw(raw.replace("|v:", "|x:")),
+        encodeRaw(raw.substring(0, raw.lastIndexOf('|'))),
+        encodeRaw(raw.substring(0, raw.indexOf("|v:") + 3) + "not-a-number"),
+        encodeRaw(raw.replace("amountPaid|", "payments|")),
+        encodeRaw(raw.replace("amountPaid|", "noSuchField|")));
+
+    for (String tamperedCursor : tampered) {
+      ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+          () -> keysetPaginator.findPage(Receipt.class, null, customPage, tamperedCursor), tamperedCursor);
+      assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+  }
+
+  /**
+   * Follow the cursors from the first page to the last and return the ids visited.
+   */
+  private List<Long> walk(Specification<Receipt> filter, CustomPage customPage) {
+    List<Long> visited = new ArrayList<>();
+    String cursor = null;
+    int pages = 0;
+    do {
+      CursorPage<Receipt> page = keysetPaginator.findPage(Receipt.class, filter, customPage, cursor);
+      assertTrue(page.content().size() <= customPage.getPageSize());
+      page.content().forEach(receipt -> visited.add(receipt.getId()));
+      cursor = page.nextCursor();
+      assertTrue(++pages <= ROWS + 1, "the cursors never reach the last page");
+    } while (cursor != null);
+
+    assertEquals(visited.size(), new HashSet<>(visited).size(), "rows visited twice: " + visited);
+    return visited;
+  }
+
+  /**
+   * The ids in ascending (sort value, id) order, null sort values last.
+   */
+  private static List<Long> expectedOrder(String sortBy, Predicate<Long> filter) {
+    Function<Long, Double> sortValue = switch (sortBy) {
+      case "amountPaid" -> KeysetPaginatorTest::amountPaid;
+      case "prevBalance" -> KeysetPaginatorTest::prevBalance;
+      case "receiptDate" -> id -> (double) (id % 7);
+      default -> Long::doubleValue;
+    };
+    Comparator<Long> bySortValue =
+        Comparator.comparing(sortValue, Comparator.nullsLast(Comparator.<Double>naturalOrder()));
+    return ids().stream()
+        .filter(filter)
+        .sorted(bySortValue.thenComparing(Comparator.naturalOrder()))
+        .toList();
+  }
+
+  private static List<Long> ids() {
+    return IntStream.range(0, ROWS).mapToObj(i -> (long) ((i * 7) % ROWS) + 1).toList();
+  }
+
+  private static double amountPaid(long id) {
+    return 10.0 * (id % 5);
+  }
+
+  private static Double prevBalance(long id) {
+    return id % 4 == 0 ? null : 100.0 + id % 3;
+  }
+
+  private static String encodeRaw(String raw) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,124 @@
+package com.zinphraek.leprestigehall.utilities.helpers;
+
+import com.zinphraek.leprestigehall.domain.addon.AddOn;
+import com.zinphraek.leprestigehall.domain.addon.RateCard;
+import com.zinphraek.leprestigehall.domain.addon.RequestedAddOn;
+import com.zinphraek.leprestigehall.domain.reservation.Reservation;
+import com.zinphraek.leprestigehall.domain.reservation.ReservationDiscount;
+import com.zinphraek.leprestigehall.domain.reservation.ReservationQuote;
+import com.zinphraek.leprestigehall.domain.reservation.ReservationQuoteRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.*;
+
+/**
+ * Throughput of pricing a batch of candidate bookings: {@code quote} runs the quote engine on
+ * {@link #BATCH_SIZE} requests, {@code computeTotalPrice} prices the same bookings the way
+ * reservations are priced when they are saved, on a {@link Reservation} entity per booking.
+ * <p>
+ * Not run by the test suite. Run it from the IDE, or after {@code mvn test-compile} with the test
+ * classpath: {@code java -cp <test classpath> com.zinphraek.leprestigehall.utilities.helpers.ReservationQuoteBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReservationQuoteBenchmark {
+
+  private static final int BATCH_SIZE = MAX_QUOTES_PER_REQUEST;
+
+  private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(DATE_TIME_FORMAT);
+
+  private final ReservationServiceHelper serviceHelper = new ReservationServiceHelper();
+
+  private final ReservationQuoteEngine quoteEngine = new ReservationQuoteEngine(serviceHelper);
+
+  private RateCard rateCard;
+
+  private Map<Long, AddOn> addOnsById;
+
+  private List<ReservationQuoteRequest> requests;
+
+  @Setup
+  public void setUp() {
+    rateCard = RateCard.from(1L, List.of());
+
+    AddOn chairs = new AddOn(1L, "Chair Covers", "Decoration", null, "Chair covers", 2.25, true);
+    AddOn lighting = new AddOn(2L, "Uplighting", "Decoration", null, "Uplighting", 180.0, true);
+    addOnsById = Map.of(chairs.getId(), chairs, lighting.getId(), lighting);
+
+    ReservationDiscount discount = new ReservationDiscount();
+    discount.setType(DISCOUNT_TYPE_PERCENTAGE);
+    discount.setPercentage(10d);
+
+    LocalDateTime start = LocalDateTime.of(2030, 6, 1, 18, 0);
+    requests = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      LocalDateTime startingDateTime = start.plusDays(i);
+      requests.add(new ReservationQuoteRequest(
+          startingDateTime,
+          startingDateTime.plusHours(6),
+          i % 2 == 0 ? startingDateTime.plusHours(7) : null,
+          80 + i * 5,
+          Map.of(chairs.getId(), 80d + i * 5, lighting.getId(), 1d),
+          i % 3 == 0 ? discount : null,
+          0.075,
+          DEFAULT_VENUE_ID));
+    }
+  }
+
+  @Benchmark
+  public void quote(Blackhole blackhole) {
+    for (ReservationQuoteRequest request : requests) {
+      ReservationQuote quote = quoteEngine.quote(request, rateCard, addOnsById);
+      blackhole.consume(quote);
+    }
+  }
+
+  @Benchmark
+  public void computeTotalPrice(Blackhole blackhole) {
+    for (ReservationQuoteRequest request : requests) {
+      Reservation reservation = new Reservation();
+      reservation.setStartingDateTime(request.startingDateTime().format(FORMATTER));
+      reservation.setEndingDateTime(request.endingDateTime().format(FORMATTER));
+      if (request.effectiveEndingDateTime() != null) {
+        reservation.setEffectiveEndingDateTime(request.effectiveEndingDateTime().format(FORMATTER));
+      }
+      reservation.setNumberOfSeats(request.numberOfSeats());
+      List<RequestedAddOn> addOns = new ArrayList<>();
+      request.addOns().forEach((addOnId, quantity) ->
+          addOns.add(new RequestedAddOn(null, addOnsById.get(addOnId), reservation, quantity)));
+      reservation.setAddOns(addOns);
+      reservation.setDiscount(request.discount());
+      reservation.setTaxRate(request.taxRate());
+      serviceHelper.computeTotalPrice(reservation, rateCard);
+      blackhole.consume(reservation.getTotalPrice());
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(ReservationQuoteBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -0,0 +1,265 @@
+package com.zinphraek.leprestigehall.utilities.helpers;
+
+import com.zinphraek.leprestigehall.domain.addon.AddOn;
+import com.zinphraek.leprestigehall.domain.addon.RequestedAddOn;
+import com.zinphraek.leprestigehall.domain.invoice.Invoice;
+import com.zinphraek.leprestigehall.domain.invoice.InvoiceFilterCriteria;
+import com.zinphraek.leprestigehall.domain.media.AddOnMedia;
+import com.zinphraek.leprestigehall.domain.media.UserMedia;
+import com.zinphraek.leprestigehall.domain.receipt.Payment;
+import com.zinphraek.leprestigehall.domain.receipt.Receipt;
+import com.zinphraek.leprestigehall.domain.receipt.ReceiptFilterCriteria;
+import com.zinphraek.leprestigehall.domain.reservation.Reservation;
+import com.zinphraek.leprestigehall.domain.reservation.ReservationDiscount;
+import com.zinphraek.leprestigehall.domain.reservation.ReservationFilterCriteria;
+import com.zinphraek.leprestigehall.domain.reservation.ReservationRate;
+import com.zinphraek.leprestigehall.domain.user.User;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.flywaydb.core.Flyway;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.data.jpa.domain.Specification;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static com.zinphraek.leprestigehall.domain.constants.Constants.STATUS_BOOKED;
+import static com.zinphraek.leprestigehall.domain.constants.Constants.STATUS_PAID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the listing filters against a migrated PostgreSQL instance and checks the SQL Hibernate
+ * generates for common combinations: one predicate per filter supplied, in order, and nothing for
+ * the others. Predicates are compared without their table alias.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class SpecificationFiltersTest {
+
+  @Container
+  private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+  private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+  private static SessionFactory sessionFactory;
+
+  @BeforeAll
+  static void setUp() {
+    Flyway.configure()
+        .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+        .locations("classpath:db/migration")
+        .load()
+        .migrate();
+
+    Configuration configuration = new Configuration();
+    Stream.of(Receipt.class, Payment.class, Invoice.class, Reservation.class, ReservationRate.class,
+            ReservationDiscount.class, RequestedAddOn.class, AddOn.class, AddOnMedia.class, User.class,
+            UserMedia.class)
+        .forEach(configuration::addAnnotatedClass);
+    sessionFactory = configuration
+        .setPhysicalNamingStrategy(new CamelCaseToUnderscoresNamingStrategy())
+        .setStatementInspector(sql -> {
+          statements.add(sql);
+          return sql;
+        })
+        .setProperty(AvailableSettings.URL, postgres.getJdbcUrl())
+        .setProperty(AvailableSettings.USER, postgres.getUsername())
+        .setProperty(AvailableSettings.PASS, postgres.getPassword())
+        .setProperty(AvailableSettings.HBM2DDL_AUTO, "none")
+        .buildSessionFactory();
+  }
+
+  @AfterAll
+  static void tearDown() {
+    sessionFactory.close();
+  }
+
+  static Stream<Arguments> filterCombinations() {
+    return Stream.of(
+        Arguments.of("receipts without filters", Receipt.class,
+            receipts(criteria -> {
+            }),
+            List.of()),
+        Arguments.of("receipts by number prefix", Receipt.class,
+            receipts(criteria -> criteria.setReceiptNumber("RR12IN")),
+            List.of("receipt_number like ?")),
+        Arguments.of("receipts of an invoice paid within a range", Receipt.class,
+            receipts(criteria -> {
+              criteria.setInvoiceId(3L);
+              criteria.setAfterPaymentDate("2030-01-01T00:00:00");
+              criteria.setBeforePaymentDate("2030-02-01T00:00:00");
+            }),
+            List.of("invoice_id=?", "payment_date<=?", "payment_date>=?")),
+        Arguments.of("receipts of a user by amount and payer", Receipt.class,
+            receipts(criteria -> {
+              criteria.setUserId("user");
+              criteria.setGreaterThanAmountPaid(10.0);
+              criteria.setLessThanAmountPaid(100.0);
+              criteria.setPaidBy("Ada");
+            }),
+            List.of("amount_paid>=?", "amount_paid<=?", "user_id=?", "lower(paid_by) like ?")),
+        Arguments.of("receipts by balance due", Receipt.class,
+            receipts(criteria -> {
+              criteria.setGreaterThanBalanceDue(0.0);
+              criteria.setLessThanBalanceDue(50.0);
+            }),
+            List.of("balance_due<=?", "balance_due>=?")),
+        Arguments.of("invoices without filters", Invoice.class,
+            invoices(criteria -> {
+            }),
+            List.of()),
+        Arguments.of("invoices by number", Invoice.class,
+            invoices(criteria -> criteria.setInvoiceNumber("INV-1")),
+            List.of("invoice_number=?")),
+        Arguments.of("invoices of a user by status", Invoice.class,
+            invoices(criteria -> {
+              criteria.setStatus(STATUS_PAID);
+              criteria.setUserId("user");
+            }),
+            List.of("status=?", "user_id=?")),
+        Arguments.of("invoices of a reservation due within a range", Invoice.class,
+            invoices(criteria -> {
+              criteria.setAfterDueDate("2030-01-01T00:00:00");
+              criteria.setBeforeDueDate("2030-02-01T00:00:00");
+              criteria.setReservationId(7L);
+            }),
+            List.of("due_date<=?", "due_date>=?", "reservation_id=?")),
+        Arguments.of("invoices by amount due", Invoice.class,
+            invoices(criteria -> criteria.setGreaterThanAmountDue(1.0)),
+            List.of("amount_due>=?")),
+        Arguments.of("reservations without filters", Reservation.class,
+            reservations(criteria -> {
+            }),
+            List.of()),
+        Arguments.of("reservations by status starting within a range", Reservation.class,
+            reservations(criteria -> {
+              criteria.setStatus(STATUS_BOOKED);
+              criteria.setStartedAfter("2030-01-01T00:00:00");
+              criteria.setStartedBefore("2030-02-01T00:00:00");
+            }),
+            List.of("starting_date_time<=?", "starting_date_time>=?", "status=?")),
+        Arguments.of("reservations of a venue by event type", Reservation.class,
+            reservations(criteria -> {
+              criteria.setVenueId(1L);
+              criteria.setEventType("Weddings");
+            }),
+            List.of("venue_id=?", "event_type=?")),
+        Arguments.of("reservations of a user by package and price", Reservation.class,
+            reservations(criteria -> {
+              criteria.setUserId("user");
+              criteria.setFullPackage(true);
+              criteria.setMinTotalPrice(100.0);
+              criteria.setMaxTotalPrice(1000.0);
+            }),
+            List.of("is_full_package=?", "total_price>=?", "total_price<=?", "user_id=?")),
+        Arguments.of("reservations by refund and price computation method", Reservation.class,
+            reservations(criteria -> {
+              criteria.setSecurityDepositRefunded(false);
+              criteria.setPriceComputationMethod("Manual");
+            }),
+            List.of("is_security_deposit_refunded=?", "price_computation_method=?")));
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("filterCombinations")
+  <T> void onlyTheSuppliedFiltersReachTheQuery(
+      String name, Class<T> entityType, Specification<T> filter, List<String> expectedPredicates) {
+    String sql = selectWith(entityType, filter);
+
+    int where = sql.indexOf(" where ");
+    if (expectedPredicates.isEmpty()) {
+      assertEquals(-1, where, name + " has a where clause:\n" + sql);
+      return;
+    }
+    assertTrue(where >= 0, name + " has no where clause:\n" + sql);
+
+    String clause = sql.substring(where + " where ".length());
+    if (clause.startsWith("(") && clause.endsWith(")")) {
+      clause = clause.substring(1, clause.length() - 1);
+    }
+    List<String> predicates = Arrays.asList(clause.split(" and "));
+    assertEquals(expectedPredicates.size(), predicates.size(), name + " predicates: " + predicates);
+    for (int i = 0; i < predicates.size(); i++) {
+      assertTrue(predicates.get(i).startsWith(expectedPredicates.get(i)),
+          name + " predicate " + i + " is " + predicates.get(i) + ", expected " + expectedPredicates.get(i));
+    }
+    assertFalse(clause.contains("is null"), name + " still tests absent parameters:\n" + sql);
+  }
+
+  @Test
+  void prefixesOnlyMatchThemselves() {
+    assertEquals("RR12IN%", SpecificationFilters.likePrefix("RR12IN"));
+    assertEquals("50\\%\\_off\\\\%", SpecificationFilters.likePrefix("50%_off\\"));
+  }
+
+  @Test
+  void blankTextFiltersAreIgnored() {
+    ReceiptFilterCriteria criteria = new ReceiptFilterCriteria();
+    criteria.setReceiptNumber(" ");
+    criteria.setPaidBy("");
+
+    assertFalse(selectWith(Receipt.class, criteria.toSpecification()).contains(" where "));
+  }
+
+  /**
+   * Run a select with the provided filter and return its SQL, lower case, without table aliases
+   * and without spaces around comparison operators.
+   */
+  private static <T> String selectWith(Class<T> entityType, Specification<T> filter) {
+    statements.clear();
+    try (Session session = sessionFactory.openSession()) {
+      CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
+      CriteriaQuery<T> query = criteriaBuilder.createQuery(entityType);
+      Root<T> root = query.from(entityType);
+      Predicate predicate = filter.toPredicate(root, query, criteriaBuilder);
+      if (predicate != null) {
+        query.where(predicate);
+      }
+      session.createQuery(query).getResultList();
+    }
+    return statements.get(0)
+        .toLowerCase(Locale.ROOT)
+        .replaceAll("\\b\\w+_\\d+\\.", "")
+        .replaceAll("\\s*(<=|>=|=)\\s*", "$1")
+        .replaceAll("\\s+", " ")
+        .trim();
+  }
+
+  private static Specification<Receipt> receipts(Consumer<ReceiptFilterCriteria> filters) {
+    ReceiptFilterCriteria criteria = new ReceiptFilterCriteria();
+    filters.accept(criteria);
+    return criteria.toSpecification();
+  }
+
+  private static Specification<Invoice> invoices(Consumer<InvoiceFilterCriteria> filters) {
+    InvoiceFilterCriteria criteria = new InvoiceFilterCriteria();
+    filters.accept(criteria);
+    return criteria.toSpecification();
+  }
+
+  private static Specification<Reservation> reservations(Consumer<ReservationFilterCriteria> filters) {
+    ReservationFilterCriteria criteria = new ReservationFilterCriteria();
+    filters.accept(criteria);
+    return criteria.toSpecification();
+  }
+}